@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Measures bulk import throughput: generates ROWS NDJSON items for an existing profile and category
+# and posts them to /api/items/import in one streamed request, e.g.:
+#   TOKEN=... OWNER_ID=... CATEGORY_ID=... ROWS=100000 performance/item-import.sh
+# The target is at least 10k items/s against a local PostgreSQL (prod profile).
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ROWS=${ROWS:-100000}
+: "${TOKEN:?TOKEN must hold a bearer token}"
+: "${OWNER_ID:?OWNER_ID must be an existing profile id}"
+: "${CATEGORY_ID:?CATEGORY_ID must be an existing category id}"
+
+payload=$(mktemp)
+trap 'rm -f "$payload"' EXIT
+awk -v rows="$ROWS" -v owner="$OWNER_ID" -v category="$CATEGORY_ID" 'BEGIN {
+  for (i = 1; i <= rows; i++) {
+    printf "{\"ownerId\":\"%s\",\"categoryId\":\"%s\",\"title\":\"Artículo importado %d\",", owner, category, i
+    printf "\"description\":\"Lote de prueba %d\",\"condition\":\"Usado\",\"available\":true,", i % 97
+    printf "\"images\":[\"https://cdn.example.com/%d.jpg\"],\"wishlist\":[\"bicicleta\",\"libros %d\"]}\n", i, i % 13
+  }
+}' > "$payload"
+
+start=$(date +%s.%N)
+curl -sS --fail -X POST "$BASE_URL/api/items/import" \
+  -H "Authorization: Bearer $TOKEN" \
+  -H 'Content-Type: application/x-ndjson' \
+  --data-binary @"$payload" \
+  -o /dev/stdout | head -c 300
+end=$(date +%s.%N)
+echo
+awk -v rows="$ROWS" -v start="$start" -v end="$end" \
+  'BEGIN { printf "%d rows in %.2f s -> %.0f items/s\n", rows, end - start, rows / (end - start) }'
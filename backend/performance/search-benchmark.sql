@@ -0,0 +1,60 @@
+-- Compares the legacy LIKE search against the full-text and fuzzy searches on the same dataset.
+-- Run after seed-search-catalog.sql:
+--   psql "$DATABASE_URL" -v query=bicicleta -f performance/search-benchmark.sql
+\if :{?query}
+\else
+\set query bicicleta
+\endif
+\timing on
+
+\echo '== LIKE (application.search.engine=like) =='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+JOIN categories c ON c.id = i.category_id
+WHERE (LOWER(i.title) LIKE LOWER('%' || :'query' || '%')
+    OR LOWER(i.description) LIKE LOWER('%' || :'query' || '%')
+    OR LOWER(c.name) LIKE LOWER('%' || :'query' || '%'))
+  AND (i.is_available = true OR i.is_available IS NULL)
+ORDER BY i.updated_at DESC, i.created_at DESC, i.id DESC
+LIMIT 10;
+
+\echo '== FULL TEXT (application.search.engine=full-text) =='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE (i.search_vector @@ websearch_to_tsquery('spanish', :'query')
+    OR i.category_id IN (
+        SELECT c.id FROM categories c
+        WHERE to_tsvector('spanish', c.name) @@ websearch_to_tsquery('spanish', :'query')))
+  AND (i.is_available = true OR i.is_available IS NULL)
+ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('spanish', :'query')) DESC,
+    i.updated_at DESC, i.created_at DESC, i.id DESC
+LIMIT 10;
+
+\echo '== FULL TEXT FACETS (replaces the page count query) =='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.id, c.name, COALESCE(i.is_service, false), i.condition, i.location, COUNT(*)
+FROM items i
+JOIN categories c ON c.id = i.category_id
+WHERE (i.search_vector @@ websearch_to_tsquery('spanish', :'query')
+    OR i.category_id IN (
+        SELECT fc.id FROM categories fc
+        WHERE to_tsvector('spanish', fc.name) @@ websearch_to_tsquery('spanish', :'query')))
+  AND (i.is_available = true OR i.is_available IS NULL)
+GROUP BY c.id, c.name, COALESCE(i.is_service, false), i.condition, i.location;
+
+\echo '== FUZZY (/api/search?fuzzy=true) =='
+-- Expect a BitmapOr of idx_items_title_trgm and idx_items_category_id, not a sequential scan.
+SELECT set_config('pg_trgm.word_similarity_threshold', '0.4', false);
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+JOIN categories c ON c.id = i.category_id
+WHERE (immutable_unaccent(lower(i.title)) %> immutable_unaccent(lower(:'query'))
+    OR i.category_id IN (
+        SELECT fc.id FROM categories fc
+        WHERE immutable_unaccent(lower(fc.name)) %> immutable_unaccent(lower(:'query'))))
+  AND (i.is_available = true OR i.is_available IS NULL)
+ORDER BY GREATEST(
+        word_similarity(immutable_unaccent(lower(:'query')), immutable_unaccent(lower(i.title))),
+        word_similarity(immutable_unaccent(lower(:'query')), immutable_unaccent(lower(c.name)))) DESC,
+    i.updated_at DESC, i.created_at DESC, i.id DESC
+LIMIT 10;
@@ -0,0 +1,44 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+// Run once per engine (APPLICATION_SEARCH_ENGINE=like / full-text) against the seeded catalogue
+// and compare the reported http_req_duration percentiles, e.g.:
+//   k6 run -e ENGINE=full-text performance/search-latency.js
+// FUZZY=true exercises the typo-tolerant mode with misspelled queries instead:
+//   k6 run -e FUZZY=true performance/search-latency.js
+// The p95 threshold mirrors the RNF1 alert in monitoring/prometheus/alert.rules.yml.
+export const options = {
+  scenarios: {
+    keystrokes: {
+      executor: 'constant-arrival-rate',
+      rate: 30,
+      timeUnit: '1s',
+      duration: '1m',
+      preAllocatedVUs: 30,
+      maxVUs: 100,
+    },
+  },
+  thresholds: {
+    http_req_duration: ['p(95)<500'],
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ENGINE = __ENV.ENGINE || 'unknown';
+const FUZZY = __ENV.FUZZY === 'true';
+const DEFAULT_QUERIES = FUZZY
+  ? 'bisicleta,camara,guitara electrica,lapto,chaketa de cuero,librro'
+  : 'bicicleta,camara,guitarra eléctrica,laptop,chaqueta de cuero,libro';
+const QUERIES = (__ENV.QUERIES || DEFAULT_QUERIES).split(',');
+
+export default function () {
+  const query = QUERIES[Math.floor(Math.random() * QUERIES.length)];
+  const fuzzy = FUZZY ? '&fuzzy=true' : '';
+  const response = http.get(`${BASE_URL}/api/search?q=${encodeURIComponent(query)}&size=10${fuzzy}`, {
+    tags: { engine: ENGINE, fuzzy: String(FUZZY) },
+  });
+  check(response, {
+    'status is 200': (r) => r.status === 200,
+  });
+}
@@ -0,0 +1,41 @@
+-- Seeds a large synthetic catalogue on top of the Flyway seed data so search strategies can be
+-- compared on realistic volumes. Usage:
+--   psql "$DATABASE_URL" -v rows=500000 -f performance/seed-search-catalog.sql
+\if :{?rows}
+\else
+\set rows 500000
+\endif
+
+WITH words AS (
+    SELECT
+        ARRAY['Bicicleta', 'Cámara', 'Guitarra', 'Laptop', 'Chaqueta', 'Libro', 'Consola', 'Tablet',
+              'Mochila', 'Reloj', 'Patineta', 'Teclado', 'Auriculares', 'Lámpara', 'Silla'] AS nouns,
+        ARRAY['vintage', 'eléctrica', 'profesional', 'urbana', 'de montaña', 'portátil', 'clásico',
+              'ergonómica', 'inalámbricos', 'de cuero', 'plegable', 'mecánico'] AS adjectives,
+        ARRAY['Madrid, España', 'Barcelona, España', 'Valencia, España', 'Ciudad de México, México',
+              'Puebla, México'] AS locations,
+        ARRAY['Nuevo', 'Como nuevo', 'Muy bueno', 'Bueno', 'Aceptable'] AS conditions
+)
+INSERT INTO items (id, user_id, category_id, title, description, condition, estimated_value,
+                   is_available, is_service, location, created_at, updated_at)
+SELECT
+    gen_random_uuid(),
+    p.ids[1 + (g % array_length(p.ids, 1))],
+    c.ids[1 + (g % array_length(c.ids, 1))],
+    w.nouns[1 + (g % array_length(w.nouns, 1))] || ' ' ||
+        w.adjectives[1 + ((g / 7) % array_length(w.adjectives, 1))] || ' #' || g,
+    'Artículo de prueba ' || g || ' en estado ' || w.conditions[1 + (g % 5)] ||
+        '. Ideal para intercambiar por ' || w.nouns[1 + ((g / 3) % array_length(w.nouns, 1))] || '.',
+    w.conditions[1 + (g % 5)],
+    (g % 900) + 10,
+    (g % 10) <> 0,
+    (g % 17) = 0,
+    w.locations[1 + (g % array_length(w.locations, 1))],
+    NOW() - make_interval(mins => g),
+    NOW() - make_interval(mins => g / 2)
+FROM generate_series(1, :rows) AS g
+CROSS JOIN words w
+CROSS JOIN (SELECT array_agg(id ORDER BY id) AS ids FROM profiles) p
+CROSS JOIN (SELECT array_agg(id ORDER BY id) AS ids FROM categories) c;
+
+ANALYZE items;
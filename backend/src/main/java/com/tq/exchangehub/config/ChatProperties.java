@@ -0,0 +1,62 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.chat")
+public class ChatProperties {
+
+    /**
+     * Messages waiting to be written; once full, new messages are refused with 503.
+     */
+    private int writeQueueCapacity = 10_000;
+
+    /**
+     * Most messages written by one batch and transaction.
+     */
+    private int writeBatchSize = 500;
+
+    /**
+     * How long the writer waits for more messages to join a batch before committing it.
+     */
+    private Duration writeMaxDelay = Duration.ofMillis(5);
+
+    /**
+     * How long a sender waits for its message to be committed before getting 503.
+     */
+    private Duration commitTimeout = Duration.ofSeconds(5);
+
+    public int getWriteQueueCapacity() {
+        return writeQueueCapacity;
+    }
+
+    public void setWriteQueueCapacity(int writeQueueCapacity) {
+        this.writeQueueCapacity = writeQueueCapacity;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public void setWriteBatchSize(int writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    public Duration getWriteMaxDelay() {
+        return writeMaxDelay;
+    }
+
+    public void setWriteMaxDelay(Duration writeMaxDelay) {
+        this.writeMaxDelay = writeMaxDelay;
+    }
+
+    public Duration getCommitTimeout() {
+        return commitTimeout;
+    }
+
+    public void setCommitTimeout(Duration commitTimeout) {
+        this.commitTimeout = commitTimeout;
+    }
+}
@@ -18,9 +18,17 @@ public class CorsProperties {
     private List<String> allowedMethods =
             new ArrayList<>(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
 
-    private List<String> allowedHeaders = new ArrayList<>(List.of("Authorization", "Content-Type"));
-
-    private List<String> exposedHeaders = new ArrayList<>();
+    private List<String> allowedHeaders =
+            new ArrayList<>(
+                    List.of(
+                            "Authorization",
+                            "Content-Type",
+                            "If-None-Match",
+                            "If-Modified-Since",
+                            "If-Match",
+                            "If-Unmodified-Since"));
+
+    private List<String> exposedHeaders = new ArrayList<>(List.of("ETag", "Last-Modified"));
 
     private Boolean allowCredentials = Boolean.TRUE;
 
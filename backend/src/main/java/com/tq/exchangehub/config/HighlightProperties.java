@@ -0,0 +1,76 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.highlights")
+public class HighlightProperties {
+
+    /**
+     * Delay between two popularity scoring runs; each run replaces the ranking of the highlighted feed.
+     */
+    private Duration refresh = Duration.ofMinutes(5);
+
+    /**
+     * Delay before the first scoring run. Until then the feed serves the snapshot persisted by the
+     * previous run, or recency order when there is none.
+     */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    /**
+     * Listing age at which the freshness factor of a score halves.
+     */
+    private Duration freshnessHalfLife = Duration.ofDays(3);
+
+    /**
+     * Time after which a recorded item view counts half as much.
+     */
+    private Duration viewHalfLife = Duration.ofDays(1);
+
+    /**
+     * Items kept in the ranked list; deeper pages of the feed are empty.
+     */
+    private int maxRanked = 10_000;
+
+    public Duration getRefresh() {
+        return refresh;
+    }
+
+    public void setRefresh(Duration refresh) {
+        this.refresh = refresh;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getFreshnessHalfLife() {
+        return freshnessHalfLife;
+    }
+
+    public void setFreshnessHalfLife(Duration freshnessHalfLife) {
+        this.freshnessHalfLife = freshnessHalfLife;
+    }
+
+    public Duration getViewHalfLife() {
+        return viewHalfLife;
+    }
+
+    public void setViewHalfLife(Duration viewHalfLife) {
+        this.viewHalfLife = viewHalfLife;
+    }
+
+    public int getMaxRanked() {
+        return maxRanked;
+    }
+
+    public void setMaxRanked(int maxRanked) {
+        this.maxRanked = maxRanked;
+    }
+}
@@ -0,0 +1,102 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.matching")
+public class MatchingProperties {
+
+    /**
+     * Longest trade chain proposed, in participants (2 to 5). Two is a direct swap.
+     */
+    private int maxCycleLength = 5;
+
+    /**
+     * Delay between two runs of the trade chain search; each run replaces the previous proposals.
+     */
+    private Duration cycleRefresh = Duration.ofMinutes(10);
+
+    /**
+     * Delay before the first trade chain search, leaving time for the startup index build.
+     */
+    private Duration cycleInitialDelay = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound on the chains kept per run, which also bounds the memory of the proposals.
+     */
+    private int maxCycles = 10_000;
+
+    /**
+     * Chains proposed at most per starting listing, so one very popular listing cannot use up the
+     * whole {@link #maxCycles} budget.
+     */
+    private int maxCyclesPerItem = 20;
+
+    /**
+     * Listings considered per wish-owner when building the want graph, best matches first.
+     */
+    private int maxOutDegree = 32;
+
+    /**
+     * Worker threads used by the chain search; {@code 0} means one per available processor.
+     */
+    private int parallelism = 0;
+
+    public int getMaxCycleLength() {
+        return maxCycleLength;
+    }
+
+    public void setMaxCycleLength(int maxCycleLength) {
+        this.maxCycleLength = maxCycleLength;
+    }
+
+    public Duration getCycleRefresh() {
+        return cycleRefresh;
+    }
+
+    public void setCycleRefresh(Duration cycleRefresh) {
+        this.cycleRefresh = cycleRefresh;
+    }
+
+    public Duration getCycleInitialDelay() {
+        return cycleInitialDelay;
+    }
+
+    public void setCycleInitialDelay(Duration cycleInitialDelay) {
+        this.cycleInitialDelay = cycleInitialDelay;
+    }
+
+    public int getMaxCycles() {
+        return maxCycles;
+    }
+
+    public void setMaxCycles(int maxCycles) {
+        this.maxCycles = maxCycles;
+    }
+
+    public int getMaxCyclesPerItem() {
+        return maxCyclesPerItem;
+    }
+
+    public void setMaxCyclesPerItem(int maxCyclesPerItem) {
+        this.maxCyclesPerItem = maxCyclesPerItem;
+    }
+
+    public int getMaxOutDegree() {
+        return maxOutDegree;
+    }
+
+    public void setMaxOutDegree(int maxOutDegree) {
+        this.maxOutDegree = maxOutDegree;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
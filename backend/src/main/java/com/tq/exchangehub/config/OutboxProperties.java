@@ -0,0 +1,75 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.outbox")
+public class OutboxProperties {
+
+    /**
+     * Delay between two runs of the outbox dispatcher; a run drains every event that is due.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Events read per query while draining.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Delivery attempts before an event is marked as failed and no longer holds back its trade.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Wait before the first retry of an event; it doubles with every further attempt.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Longest wait between two attempts of an event.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.presence")
+public class PresenceProperties {
+
+    /**
+     * Most typing updates broadcast per second for one trade conversation; signals in between are
+     * coalesced into the next update.
+     */
+    private int typingBroadcastsPerSecond = 4;
+
+    /**
+     * How long a typing signal lasts unless the client repeats it.
+     */
+    private Duration typingTimeout = Duration.ofSeconds(6);
+
+    /**
+     * Delay between two passes that send coalesced typing updates and expire stale typing signals.
+     */
+    private Duration typingFlushInterval = Duration.ofMillis(100);
+
+    /**
+     * Trade conversations remembered per WebSocket session; the least recently used one is forgotten
+     * beyond this and checked again on its next typing signal.
+     */
+    private int maxConversationsPerSession = 64;
+
+    public int getTypingBroadcastsPerSecond() {
+        return typingBroadcastsPerSecond;
+    }
+
+    public void setTypingBroadcastsPerSecond(int typingBroadcastsPerSecond) {
+        this.typingBroadcastsPerSecond = typingBroadcastsPerSecond;
+    }
+
+    public Duration getTypingTimeout() {
+        return typingTimeout;
+    }
+
+    public void setTypingTimeout(Duration typingTimeout) {
+        this.typingTimeout = typingTimeout;
+    }
+
+    public Duration getTypingFlushInterval() {
+        return typingFlushInterval;
+    }
+
+    public void setTypingFlushInterval(Duration typingFlushInterval) {
+        this.typingFlushInterval = typingFlushInterval;
+    }
+
+    public int getMaxConversationsPerSession() {
+        return maxConversationsPerSession;
+    }
+
+    public void setMaxConversationsPerSession(int maxConversationsPerSession) {
+        this.maxConversationsPerSession = maxConversationsPerSession;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tq.exchangehub.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers, so that a rebuild scanning the whole catalog never holds back outbox delivery or the
+ * typing flush. Jobs run on {@code taskScheduler} unless they name {@link #REBUILD_SCHEDULER}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String REBUILD_SCHEDULER = "rebuildScheduler";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(SchedulingProperties schedulingProperties) {
+        return scheduler(schedulingProperties.getPoolSize(), "scheduling-");
+    }
+
+    @Bean(REBUILD_SCHEDULER)
+    public ThreadPoolTaskScheduler rebuildScheduler(SchedulingProperties schedulingProperties) {
+        return scheduler(schedulingProperties.getRebuildPoolSize(), "rebuild-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(poolSize, 1));
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
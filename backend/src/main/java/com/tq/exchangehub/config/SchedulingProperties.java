@@ -0,0 +1,35 @@
+package com.tq.exchangehub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.scheduling")
+public class SchedulingProperties {
+
+    /**
+     * Threads for the short, frequent jobs: outbox delivery and the typing flush.
+     */
+    private int poolSize = 4;
+
+    /**
+     * Threads for the index and ranking rebuilds, which scan whole tables and may run for minutes.
+     */
+    private int rebuildPoolSize = 2;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getRebuildPoolSize() {
+        return rebuildPoolSize;
+    }
+
+    public void setRebuildPoolSize(int rebuildPoolSize) {
+        this.rebuildPoolSize = rebuildPoolSize;
+    }
+}
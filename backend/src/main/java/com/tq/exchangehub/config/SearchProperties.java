@@ -0,0 +1,78 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.search")
+public class SearchProperties {
+
+    /**
+     * Strategy used to match free-text queries against items. {@code LIKE} works on every database
+     * (including the H2 dev profile), {@code FULL_TEXT} relies on the PostgreSQL
+     * {@code items.search_vector} column and its GIN index, and {@code INDEX} answers from the
+     * in-memory inverted index built at startup.
+     */
+    private Engine engine = Engine.LIKE;
+
+    /**
+     * Minimum {@code word_similarity(query, text)} (0-1) for a fuzzy search hit: the whole query is
+     * compared, as a set of trigrams, against the best matching run of words of the item title or
+     * category name, after lower-casing and accent folding. Hits are ranked by that similarity.
+     * PostgreSQL evaluates it with {@code pg_trgm}; other databases with the in-memory
+     * {@code TrigramIndex}, which implements the same rule. The {@code pg_trgm} default of 0.6
+     * rejects common one-letter typos such as "bisicleta".
+     */
+    private double fuzzyThreshold = 0.4;
+
+    /**
+     * Maximum number of {@code /api/search} responses kept in memory; {@code 0} disables the cache.
+     * Least recently used entries are evicted first.
+     */
+    private int cacheMaxEntries = 1000;
+
+    /**
+     * How long a cached search response may be served. Item changes already evict the affected
+     * entries, so this only bounds staleness from writes the application does not see.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(60);
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public double getFuzzyThreshold() {
+        return fuzzyThreshold;
+    }
+
+    public void setFuzzyThreshold(double fuzzyThreshold) {
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public enum Engine {
+        LIKE,
+        FULL_TEXT,
+        INDEX
+    }
+}
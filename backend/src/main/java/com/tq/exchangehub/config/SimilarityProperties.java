@@ -0,0 +1,63 @@
+package com.tq.exchangehub.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "application.similarity")
+public class SimilarityProperties {
+
+    /**
+     * Delay between two full rebuilds of the "similar items" neighbours. New listings are added
+     * incrementally in between.
+     */
+    private Duration rebuild = Duration.ofHours(6);
+
+    /**
+     * Delay before the first rebuild, leaving time for the startup index build.
+     */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    /**
+     * Neighbours kept per listing, which is also the largest {@code limit} served.
+     */
+    private int neighbours = 20;
+
+    /**
+     * Worker threads used by a rebuild; {@code 0} means one per available processor.
+     */
+    private int parallelism = 0;
+
+    public Duration getRebuild() {
+        return rebuild;
+    }
+
+    public void setRebuild(Duration rebuild) {
+        this.rebuild = rebuild;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public int getNeighbours() {
+        return neighbours;
+    }
+
+    public void setNeighbours(int neighbours) {
+        this.neighbours = neighbours;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
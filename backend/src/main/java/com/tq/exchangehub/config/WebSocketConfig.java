@@ -1,7 +1,9 @@
 package com.tq.exchangehub.config;
 
+import com.tq.exchangehub.security.StompAuthenticationInterceptor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -13,13 +15,18 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final CorsProperties corsProperties;
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
 
-    public WebSocketConfig(CorsProperties corsProperties) {
+    public WebSocketConfig(
+            CorsProperties corsProperties, StompAuthenticationInterceptor stompAuthenticationInterceptor) {
         this.corsProperties = corsProperties;
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // frames of one session are handled in the order they were sent, so a client's messages keep their order
+        registry.setPreserveReceiveOrder(true);
         registry
                 .addEndpoint("/ws")
                 .setAllowedOrigins(corsProperties.getAllowedOrigins().toArray(new String[0]));
@@ -31,4 +38,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setUserDestinationPrefix("/user");
         registry.enableSimpleBroker("/topic", "/queue");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
 }
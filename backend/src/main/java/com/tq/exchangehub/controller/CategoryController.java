@@ -3,6 +3,7 @@ package com.tq.exchangehub.controller;
 import com.tq.exchangehub.dto.CategoryDto;
 import com.tq.exchangehub.entity.Category;
 import com.tq.exchangehub.service.CategoryService;
+import com.tq.exchangehub.util.ResourceVersion;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +11,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,19 +26,30 @@ import org.springframework.web.bind.annotation.RestController;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ConditionalRequests conditionalRequests;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ConditionalRequests conditionalRequests) {
         this.categoryService = categoryService;
+        this.conditionalRequests = conditionalRequests;
     }
 
-    @Operation(summary = "List categories", description = "Returns every available item category.")
+    @Operation(
+            summary = "List categories",
+            description =
+                    "Returns every available item category. Send the ETag of a previous response in"
+                            + " If-None-Match to get 304 while the listing is unchanged.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Categories retrieved successfully."),
+        @ApiResponse(responseCode = "304", description = "The cached listing is still current."),
         @ApiResponse(responseCode = "500", description = "Unexpected server error.")
     })
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> findAll() {
-        return ResponseEntity.ok(categoryService.findAll());
+    public ResponseEntity<List<CategoryDto>> findAll(@RequestHeader HttpHeaders headers) {
+        ResourceVersion version = categoryService.findVersion();
+        if (conditionalRequests.isNotModified(headers, "category", version)) {
+            return conditionalRequests.notModified(version);
+        }
+        return conditionalRequests.ok(categoryService.findAll(), version);
     }
 
     @Operation(
@@ -0,0 +1,175 @@
+package com.tq.exchangehub.controller;
+
+import com.tq.exchangehub.dto.MessageRequest;
+import com.tq.exchangehub.dto.NotificationReadRequest;
+import com.tq.exchangehub.dto.PresenceDto;
+import com.tq.exchangehub.dto.TypingRequest;
+import com.tq.exchangehub.security.UserPrincipal;
+import com.tq.exchangehub.service.MessageService;
+import com.tq.exchangehub.service.NotificationService;
+import com.tq.exchangehub.service.PresenceService;
+import com.tq.exchangehub.service.TypingService;
+import jakarta.validation.Valid;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * STOMP counterpart of the message and notification endpoints, for clients that keep a socket open.
+ * Frames are sent to {@code /app/...}; the session was authenticated at CONNECT, so no frame carries a
+ * token. Replies and errors go to the sender only, on {@code /user/queue/messages} and
+ * {@code /user/queue/errors}.
+ */
+@Controller
+public class ChatSocketController {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatSocketController.class);
+
+    private final MessageService messageService;
+    private final NotificationService notificationService;
+    private final TypingService typingService;
+    private final PresenceService presenceService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatSocketController(
+            MessageService messageService,
+            NotificationService notificationService,
+            TypingService typingService,
+            PresenceService presenceService,
+            SimpMessagingTemplate messagingTemplate) {
+        this.messageService = messageService;
+        this.notificationService = notificationService;
+        this.typingService = typingService;
+        this.presenceService = presenceService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Posts {@code {"content": ...}} to the trade. The stored message is confirmed to the sending session
+     * once its batch commits, without holding an inbound thread meanwhile; both participants receive it on
+     * {@code /topic/trades/{tradeId}/messages} as with the REST endpoint.
+     */
+    @MessageMapping("/trades/{tradeId}/messages")
+    public void sendMessage(
+            @DestinationVariable UUID tradeId,
+            @Validated(MessageRequest.Content.class) @Payload MessageRequest request,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+            Principal principal) {
+        request.setTradeId(tradeId);
+        messageService.submit(request, extractUser(principal)).whenComplete((message, ex) -> {
+            if (ex == null) {
+                replyToSession(principal, sessionId, "/queue/messages", message);
+            } else {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                Exception failure = cause instanceof Exception exception ? exception : new IllegalStateException(cause);
+                replyToSession(principal, sessionId, "/queue/errors", handleException(failure));
+            }
+        });
+    }
+
+    @MessageMapping("/notifications/read")
+    public void markAsRead(@Valid @Payload NotificationReadRequest request, Principal principal) {
+        notificationService.markAsRead(extractProfileId(principal), request.getIds());
+    }
+
+    @MessageMapping("/notifications/read-all")
+    public void markAllAsRead(Principal principal) {
+        notificationService.markAllAsRead(extractProfileId(principal));
+    }
+
+    /**
+     * Records {@code {"typing": true|false}}; {@code /topic/trades/{tradeId}/typing} receives the list of
+     * participants typing, at a throttled rate.
+     */
+    @MessageMapping("/trades/{tradeId}/typing")
+    public void typing(
+            @DestinationVariable UUID tradeId,
+            @Payload TypingRequest request,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+            Principal principal) {
+        typingService.signal(tradeId, sessionId, extractProfileId(principal), request.isTyping());
+    }
+
+    /**
+     * Subscribing to {@code /app/profiles/{profileId}/presence} answers once with the current state; later
+     * changes are published on {@code /topic/profiles/{profileId}/presence}.
+     */
+    @SubscribeMapping("/profiles/{profileId}/presence")
+    public PresenceDto presence(@DestinationVariable UUID profileId) {
+        return presenceService.presence(profileId);
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public Map<String, Object> handleException(Exception ex) {
+        HttpStatusCode status;
+        String message;
+        if (ex instanceof ResponseStatusException responseStatus) {
+            status = responseStatus.getStatusCode();
+            message = responseStatus.getReason();
+        } else if (ex instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = ex.getMessage();
+        } else if (ex instanceof MethodArgumentNotValidException invalid) {
+            status = HttpStatus.BAD_REQUEST;
+            message = invalid.getBindingResult() == null
+                    ? "Validation failed"
+                    : invalid.getBindingResult().getFieldErrors().stream()
+                            .findFirst()
+                            .map(error -> error.getDefaultMessage())
+                            .orElse("Validation failed");
+        } else {
+            log.error("STOMP message handling failed", ex);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "Unexpected error";
+        }
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        return Map.of(
+                "timestamp", Instant.now(),
+                "status", status.value(),
+                "error", resolved != null ? resolved.getReasonPhrase() : "Error",
+                "message", message != null ? message : "");
+    }
+
+    /** What {@code @SendToUser(broadcast = false)} does, for replies sent after the handler returned. */
+    private void replyToSession(Principal principal, String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(principal.getName(), destination, payload, headers.getMessageHeaders());
+    }
+
+    private static UserPrincipal extractUser(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserPrincipal user
+                && user.getUserAccount() != null) {
+            return user;
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+    }
+
+    private static UUID extractProfileId(Principal principal) {
+        return extractUser(principal).getUserAccount().getProfile().getId();
+    }
+}
@@ -0,0 +1,107 @@
+package com.tq.exchangehub.controller;
+
+import com.tq.exchangehub.exception.PreconditionFailedException;
+import com.tq.exchangehub.util.ResourceVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates HTTP conditional requests (RFC 9110, section 13) against a {@link ResourceVersion}, so a
+ * client holding the current representation gets a 304 before the resource is loaded and a write based
+ * on an outdated one is refused. Outcomes are counted per resource in {@code http.conditional.requests};
+ * the 304 ratio of reads is {@code not_modified} over {@code not_modified + modified + unconditional}.
+ */
+@Component
+public class ConditionalRequests {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalRequests(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Whether the copy named by {@code If-None-Match}, or else {@code If-Modified-Since}, is still current. */
+    public boolean isNotModified(HttpHeaders headers, String resource, ResourceVersion version) {
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        long ifModifiedSince = headers.getIfModifiedSince();
+        boolean notModified;
+        if (!ifNoneMatch.isEmpty()) {
+            notModified = matches(ifNoneMatch, version.eTag(), true);
+        } else if (ifModifiedSince >= 0 && version.lastModified() != null) {
+            notModified = version.lastModified().getEpochSecond() <= ifModifiedSince / 1000;
+        } else {
+            count(resource, "unconditional");
+            return false;
+        }
+        count(resource, notModified ? "not_modified" : "modified");
+        return notModified;
+    }
+
+    /**
+     * Throws {@link PreconditionFailedException} unless {@code If-Match}, or else
+     * {@code If-Unmodified-Since}, accepts the {@code current} version. Requests without either pass.
+     */
+    public void checkPrecondition(HttpHeaders headers, String resource, ResourceVersion current) {
+        List<String> ifMatch = headers.getIfMatch();
+        long ifUnmodifiedSince = headers.getIfUnmodifiedSince();
+        boolean holds;
+        if (!ifMatch.isEmpty()) {
+            holds = matches(ifMatch, current.eTag(), false);
+        } else if (ifUnmodifiedSince >= 0 && current.lastModified() != null) {
+            holds = current.lastModified().getEpochSecond() <= ifUnmodifiedSince / 1000;
+        } else {
+            return;
+        }
+        count(resource, holds ? "precondition_met" : "precondition_failed");
+        if (!holds) {
+            throw new PreconditionFailedException("The " + resource + " has been modified since it was read");
+        }
+    }
+
+    public <T> ResponseEntity<T> notModified(ResourceVersion version) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    public <T> ResponseEntity<T> ok(T body, ResourceVersion version) {
+        return withValidators(ResponseEntity.ok(), version).body(body);
+    }
+
+    /** {@code no-cache} lets clients keep the representation but makes them revalidate it on every use. */
+    private static ResponseEntity.BodyBuilder withValidators(
+            ResponseEntity.BodyBuilder builder, ResourceVersion version) {
+        builder.eTag(version.eTag()).cacheControl(CacheControl.noCache());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+
+    /** If-None-Match compares weakly, so {@code W/} prefixes added by proxies still match; If-Match does not. */
+    private static boolean matches(List<String> requested, String eTag, boolean weak) {
+        for (String candidate : requested) {
+            if (candidate.equals("*")) {
+                return true;
+            }
+            String tag = weak && candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String resource, String outcome) {
+        Counter.builder("http.conditional.requests")
+                .description("Conditional reads and writes by outcome")
+                .tag("resource", resource)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,82 @@
+package com.tq.exchangehub.controller;
+
+import com.tq.exchangehub.dto.ConversationDto;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.security.UserPrincipal;
+import com.tq.exchangehub.service.ConversationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@Tag(name = "Conversations")
+@RestController
+@RequestMapping("/api/conversations")
+public class ConversationController {
+
+    private final ConversationService conversationService;
+
+    public ConversationController(ConversationService conversationService) {
+        this.conversationService = conversationService;
+    }
+
+    @Operation(
+            summary = "List conversations",
+            description =
+                    "Returns the trades of the authenticated profile a page at a time, most recent activity"
+                            + " first, each with the counterpart, a preview of the latest message and the number"
+                            + " of unread messages. Send an empty cursor for the first page and then the returned"
+                            + " nextCursor.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Conversations retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor supplied."),
+        @ApiResponse(responseCode = "401", description = "Authentication required.")
+    })
+    @GetMapping
+    public ResponseEntity<CursorPageDto<ConversationDto>> listConversations(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UUID profileId = extractProfileId(principal);
+        return ResponseEntity.ok(conversationService.findConversations(profileId, cursor, size));
+    }
+
+    @Operation(
+            summary = "Mark a conversation as read",
+            description =
+                    "Marks every message of the trade, up to its latest one, as read by the authenticated"
+                            + " profile.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Conversation marked as read."),
+        @ApiResponse(responseCode = "400", description = "Trade not found."),
+        @ApiResponse(responseCode = "401", description = "Authentication required."),
+        @ApiResponse(responseCode = "403", description = "The authenticated user is not a participant in this trade.")
+    })
+    @PostMapping("/{tradeId}/read")
+    public ResponseEntity<Void> markRead(
+            @AuthenticationPrincipal UserPrincipal principal, @PathVariable UUID tradeId) {
+        conversationService.markRead(tradeId, extractProfileId(principal));
+        return ResponseEntity.noContent().build();
+    }
+
+    private UUID extractProfileId(UserPrincipal principal) {
+        if (principal == null || principal.getUserAccount() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        return principal.getUserAccount().getProfile().getId();
+    }
+}
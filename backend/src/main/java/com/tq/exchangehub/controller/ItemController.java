@@ -1,57 +1,153 @@
 package com.tq.exchangehub.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tq.exchangehub.dto.CursorPageDto;
 import com.tq.exchangehub.dto.ItemDto;
+import com.tq.exchangehub.dto.ItemImportResultDto;
 import com.tq.exchangehub.dto.ItemRequest;
 import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.dto.MatchDto;
+import com.tq.exchangehub.service.ItemImportService;
 import com.tq.exchangehub.service.ItemService;
+import com.tq.exchangehub.service.MatchService;
+import com.tq.exchangehub.service.SimilarItemService;
+import com.tq.exchangehub.util.ResourceVersion;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Items")
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final MatchService matchService;
+    private final SimilarItemService similarItemService;
+    private final ConditionalRequests conditionalRequests;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
 
-    public ItemController(ItemService itemService) {
+    public ItemController(
+            ItemService itemService,
+            ItemImportService itemImportService,
+            MatchService matchService,
+            SimilarItemService similarItemService,
+            ConditionalRequests conditionalRequests,
+            ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
+        this.matchService = matchService;
+        this.similarItemService = similarItemService;
+        this.conditionalRequests = conditionalRequests;
+        this.objectMapper = objectMapper;
+        // The servlet stream is flushed when the generator buffer fills, not after every item.
+        this.itemWriter =
+                objectMapper.writerFor(ItemDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
-    @Operation(summary = "List all items", description = "Returns every item available in the marketplace.")
+    @Operation(
+            summary = "List all items",
+            description =
+                    "Returns every item available in the marketplace, streamed from the database as it is"
+                            + " read. Send Accept: application/x-ndjson to receive one item per line instead"
+                            + " of a JSON array.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Items retrieved successfully."),
         @ApiResponse(responseCode = "500", description = "Unexpected server error.")
     })
-    @GetMapping
-    public ResponseEntity<List<ItemDto>> findAll() {
-        return ResponseEntity.ok(itemService.findAll());
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> findAll(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(output -> writeItems(output, ndjson));
     }
 
-    @Operation(summary = "Get item details", description = "Retrieves a single item by its identifier.")
+    @Operation(
+            summary = "Get item details",
+            description =
+                    "Retrieves a single item by its identifier. Send the ETag or Last-Modified of a previous"
+                            + " response in If-None-Match or If-Modified-Since to get 304 while it is unchanged.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Item retrieved successfully."),
+        @ApiResponse(responseCode = "304", description = "The cached item is still current."),
         @ApiResponse(responseCode = "404", description = "Item not found."),
         @ApiResponse(responseCode = "400", description = "Invalid item identifier supplied.")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ItemDto> findById(@PathVariable UUID id) {
-        return ResponseEntity.ok(itemService.findById(id));
+    public ResponseEntity<ItemDto> findById(@PathVariable UUID id, @RequestHeader HttpHeaders headers) {
+        ResourceVersion version = itemService.findVersion(id);
+        if (conditionalRequests.isNotModified(headers, "item", version)) {
+            itemService.recordView(id);
+            return conditionalRequests.notModified(version);
+        }
+        return conditionalRequests.ok(itemService.findById(id), version);
+    }
+
+    @Operation(
+            summary = "List wishlist matches",
+            description =
+                    "Returns listings of other owners that have something this item's owner wants and want"
+                            + " this item in return, strongest matches first.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matches retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid item identifier supplied."),
+        @ApiResponse(responseCode = "404", description = "Item not found.")
+    })
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<List<MatchDto>> findMatches(
+            @PathVariable UUID id, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(matchService.findMatches(id, limit));
+    }
+
+    @Operation(
+            summary = "List similar items",
+            description =
+                    "Returns available listings whose title, description, category and wishlist are closest"
+                            + " to this item's, most similar first. Neighbours are precomputed, so the"
+                            + " response only costs a lookup.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Similar items retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid item identifier supplied."),
+        @ApiResponse(responseCode = "404", description = "Item not found.")
+    })
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<ItemSummaryDto>> findSimilar(
+            @PathVariable UUID id, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(similarItemService.findSimilar(id, limit));
     }
 
     @Operation(summary = "List items by owner", description = "Returns all items published by the specified owner profile.")
@@ -78,6 +174,22 @@ public class ItemController {
         return ResponseEntity.ok(itemService.findHighlighted(page, size));
     }
 
+    @Operation(
+            summary = "Scroll highlighted items",
+            description =
+                    "Cursor-based alternative to the paginated listing for infinite scrolling. Send an empty"
+                            + " cursor for the first page and then the returned nextCursor; no totals are"
+                            + " computed.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Highlighted items retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor supplied.")
+    })
+    @GetMapping(value = "/highlighted", params = "cursor")
+    public ResponseEntity<CursorPageDto<ItemSummaryDto>> scrollHighlighted(
+            @RequestParam String cursor, @RequestParam(defaultValue = "6") int size) {
+        return ResponseEntity.ok(itemService.findHighlighted(cursor, size));
+    }
+
     @Operation(
             summary = "Create an item",
             description = "Publishes a new item on behalf of the authenticated user.",
@@ -92,4 +204,55 @@ public class ItemController {
     public ResponseEntity<ItemDto> create(@Valid @RequestBody ItemRequest request) {
         return ResponseEntity.ok(itemService.create(request));
     }
+
+    @Operation(
+            summary = "Import items in bulk",
+            description =
+                    "Creates many items from NDJSON (one item request per line) or CSV (a header row naming item"
+                            + " request fields, images and wishlist separated by |). Rows are validated as they"
+                            + " stream and stored in batches; rejected rows are reported with their line number"
+                            + " and do not stop the import.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import finished; see the per-row errors."),
+        @ApiResponse(responseCode = "400", description = "Invalid CSV header."),
+        @ApiResponse(responseCode = "401", description = "Authentication required.")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<ItemImportResultDto> importItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        ItemImportService.Format format =
+                MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                        ? ItemImportService.Format.NDJSON
+                        : ItemImportService.Format.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return ResponseEntity.ok(itemImportService.importItems(new InputStreamReader(body, charset), format));
+    }
+
+    private void writeItems(OutputStream output, boolean ndjson) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            try {
+                itemService.streamAll(
+                        item -> {
+                            try {
+                                itemWriter.writeValue(generator, item);
+                                if (ndjson) {
+                                    generator.writeRaw('\n');
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.tq.exchangehub.controller;
 
+import com.tq.exchangehub.dto.CursorPageDto;
 import com.tq.exchangehub.dto.MessageDto;
 import com.tq.exchangehub.dto.MessageRequest;
 import com.tq.exchangehub.security.UserPrincipal;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,7 +21,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @Tag(name = "Messages")
 @RestController
@@ -47,6 +51,29 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getMessagesForTrade(tradeId));
     }
 
+    @Operation(
+            summary = "Scroll the chat history of a trade",
+            description =
+                    "Returns the latest messages of the trade, oldest first within the page. Send an empty"
+                            + " cursor for the latest page and then the returned nextCursor for older messages.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Messages retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor supplied."),
+        @ApiResponse(responseCode = "401", description = "Authentication required."),
+        @ApiResponse(responseCode = "403", description = "The authenticated user cannot view this trade."),
+        @ApiResponse(responseCode = "404", description = "Trade not found.")
+    })
+    @GetMapping(value = "/trade/{tradeId}", params = "cursor")
+    public ResponseEntity<CursorPageDto<MessageDto>> scrollMessages(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable UUID tradeId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        UUID profileId = extractProfileId(principal);
+        return ResponseEntity.ok(messageService.findHistory(tradeId, profileId, cursor, size));
+    }
+
     @Operation(
             summary = "Post a trade message",
             description = "Adds a new message to the trade conversation.",
@@ -64,4 +91,11 @@ public class MessageController {
             @Valid @RequestBody MessageRequest request) {
         return ResponseEntity.ok(messageService.create(request, principal));
     }
+
+    private UUID extractProfileId(UserPrincipal principal) {
+        if (principal == null || principal.getUserAccount() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        return principal.getUserAccount().getProfile().getId();
+    }
 }
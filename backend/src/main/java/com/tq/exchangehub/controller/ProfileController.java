@@ -1,21 +1,30 @@
 package com.tq.exchangehub.controller;
 
+import com.tq.exchangehub.dto.MatchDto;
 import com.tq.exchangehub.dto.ProfileDto;
 import com.tq.exchangehub.dto.ProfileUpdateRequest;
+import com.tq.exchangehub.dto.TradeChainDto;
+import com.tq.exchangehub.service.MatchService;
 import com.tq.exchangehub.service.ProfileService;
+import com.tq.exchangehub.service.TradeChainService;
+import com.tq.exchangehub.util.ResourceVersion;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Profiles")
@@ -24,36 +33,94 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final MatchService matchService;
+    private final TradeChainService tradeChainService;
+    private final ConditionalRequests conditionalRequests;
 
-    public ProfileController(ProfileService profileService) {
+    public ProfileController(
+            ProfileService profileService,
+            MatchService matchService,
+            TradeChainService tradeChainService,
+            ConditionalRequests conditionalRequests) {
         this.profileService = profileService;
+        this.matchService = matchService;
+        this.tradeChainService = tradeChainService;
+        this.conditionalRequests = conditionalRequests;
     }
 
-    @Operation(summary = "Get profile details", description = "Fetches the public information for a user profile.")
+    @Operation(
+            summary = "Get profile details",
+            description =
+                    "Fetches the public information for a user profile. Send the ETag or Last-Modified of a"
+                            + " previous response in If-None-Match or If-Modified-Since to get 304 while it is"
+                            + " unchanged.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Profile retrieved successfully."),
+        @ApiResponse(responseCode = "304", description = "The cached profile is still current."),
         @ApiResponse(responseCode = "404", description = "Profile not found."),
         @ApiResponse(responseCode = "400", description = "Invalid profile identifier supplied.")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProfileDto> getProfile(@PathVariable UUID id) {
-        return ResponseEntity.ok(profileService.getProfile(id));
+    public ResponseEntity<ProfileDto> getProfile(@PathVariable UUID id, @RequestHeader HttpHeaders headers) {
+        ResourceVersion version = profileService.findVersion(id);
+        if (conditionalRequests.isNotModified(headers, "profile", version)) {
+            return conditionalRequests.notModified(version);
+        }
+        return conditionalRequests.ok(profileService.getProfile(id), version);
+    }
+
+    @Operation(
+            summary = "Get match feed",
+            description =
+                    "Returns mutual wishlist matches for all available listings of the profile, strongest"
+                            + " first.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matches retrieved successfully."),
+        @ApiResponse(responseCode = "404", description = "Profile not found."),
+        @ApiResponse(responseCode = "400", description = "Invalid profile identifier supplied.")
+    })
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<List<MatchDto>> getMatches(
+            @PathVariable UUID id, @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(matchService.findMatchesForProfile(id, limit));
+    }
+
+    @Operation(
+            summary = "Get proposed trade chains",
+            description =
+                    "Returns the multi-party trade chains (2 to 5 participants) the profile takes part in,"
+                            + " from the latest background search. Each leg maps to one trade request.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Trade chains retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid profile identifier supplied.")
+    })
+    @GetMapping("/{id}/trade-chains")
+    public ResponseEntity<List<TradeChainDto>> getTradeChains(@PathVariable UUID id) {
+        return ResponseEntity.ok(tradeChainService.findForProfile(id));
     }
 
     @Operation(
             summary = "Update profile",
-            description = "Updates profile details for the authenticated owner.",
+            description =
+                    "Updates profile details for the authenticated owner. Send the ETag of the profile that"
+                            + " was edited in If-Match to have the update refused if it changed meanwhile.",
             security = {@SecurityRequirement(name = "bearerAuth")})
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Profile updated successfully."),
         @ApiResponse(responseCode = "400", description = "Invalid profile payload."),
         @ApiResponse(responseCode = "401", description = "Authentication required."),
         @ApiResponse(responseCode = "403", description = "The authenticated user cannot modify this profile."),
-        @ApiResponse(responseCode = "404", description = "Profile not found.")
+        @ApiResponse(responseCode = "404", description = "Profile not found."),
+        @ApiResponse(responseCode = "412", description = "The profile changed since the version in If-Match.")
     })
     @PutMapping("/{id}")
     public ResponseEntity<ProfileDto> updateProfile(
-            @PathVariable UUID id, @Valid @RequestBody ProfileUpdateRequest request) {
-        return ResponseEntity.ok(profileService.updateProfile(id, request));
+            @PathVariable UUID id,
+            @Valid @RequestBody ProfileUpdateRequest request,
+            @RequestHeader HttpHeaders headers) {
+        ProfileDto updated =
+                profileService.updateProfile(
+                        id, request, current -> conditionalRequests.checkPrecondition(headers, "profile", current));
+        return conditionalRequests.ok(updated, ResourceVersion.of(updated.getUpdatedAt()));
     }
 }
@@ -1,10 +1,14 @@
 package com.tq.exchangehub.controller;
 
 import com.tq.exchangehub.dto.CategoryDto;
+import com.tq.exchangehub.dto.CursorPageDto;
 import com.tq.exchangehub.dto.ItemSummaryDto;
 import com.tq.exchangehub.dto.SearchResultDto;
+import com.tq.exchangehub.dto.SuggestionDto;
 import com.tq.exchangehub.service.CategoryService;
 import com.tq.exchangehub.service.ItemService;
+import com.tq.exchangehub.service.SearchResultCache;
+import com.tq.exchangehub.service.SuggestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -25,15 +29,30 @@ public class SearchController {
 
     private final ItemService itemService;
     private final CategoryService categoryService;
+    private final SuggestionService suggestionService;
+    private final SearchResultCache searchResultCache;
 
-    public SearchController(ItemService itemService, CategoryService categoryService) {
+    public SearchController(
+            ItemService itemService,
+            CategoryService categoryService,
+            SuggestionService suggestionService,
+            SearchResultCache searchResultCache) {
         this.itemService = itemService;
         this.categoryService = categoryService;
+        this.suggestionService = suggestionService;
+        this.searchResultCache = searchResultCache;
     }
 
     @Operation(
             summary = "Search categories and items",
-            description = "Performs a combined search across available categories and marketplace items.")
+            description =
+                    "Performs a combined search across available categories and marketplace items. Passing"
+                            + " a cursor (empty for the first page) switches to keyset paging: the response"
+                            + " carries nextCursor instead of page totals. fuzzy=true tolerates typos and"
+                            + " missing accents in titles and category names, ranking by similarity. Offset"
+                            + " searches also return facet counts per category, item vs service, condition"
+                            + " and location, which can be narrowed with the matching drill-down filters."
+                            + " Offset results are cached briefly and refreshed when items change.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Search completed successfully."),
         @ApiResponse(responseCode = "400", description = "Invalid search parameters supplied."),
@@ -42,26 +61,91 @@ public class SearchController {
     public ResponseEntity<SearchResultDto> search(
             @RequestParam(name = "q", defaultValue = "") String query,
             @RequestParam(name = "categoryId", required = false) UUID categoryId,
+            @RequestParam(name = "service", required = false) Boolean service,
+            @RequestParam(name = "condition", required = false) String condition,
+            @RequestParam(name = "location", required = false) String location,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy) {
+
+        if (fuzzy && cursor != null) {
+            throw new IllegalArgumentException("Cursor paging is not supported for fuzzy searches");
+        }
+        if ((fuzzy || cursor != null) && (service != null || condition != null || location != null)) {
+            throw new IllegalArgumentException("Drill-down filters are only supported for offset searches");
+        }
 
         String normalizedQuery = query == null ? "" : query.trim();
         int resolvedPage = Math.max(page, 0);
         int resolvedSize = Math.max(size, 1);
 
-        Page<ItemSummaryDto> itemsPage = itemService.search(normalizedQuery, categoryId, resolvedPage, resolvedSize);
+        if (cursor != null) {
+            SearchResultDto result = newResult(normalizedQuery);
+            CursorPageDto<ItemSummaryDto> slice = itemService.search(normalizedQuery, categoryId, cursor, resolvedSize);
+            result.setItems(slice.getItems());
+            result.setSize(slice.getSize());
+            result.setNextCursor(slice.getNextCursor());
+            return ResponseEntity.ok(result);
+        }
+
+        SearchResultCache.Key key =
+                SearchResultCache.Key.of(
+                        normalizedQuery, categoryId, service, condition, location, resolvedPage, resolvedSize, fuzzy);
+        return ResponseEntity.ok(
+                searchResultCache.get(
+                        key,
+                        () -> {
+                            SearchResultDto result = newResult(normalizedQuery);
+                            Page<ItemSummaryDto> itemsPage;
+                            if (fuzzy) {
+                                itemsPage =
+                                        itemService.searchFuzzy(
+                                                normalizedQuery, categoryId, resolvedPage, resolvedSize);
+                            } else {
+                                ItemService.FacetedPage faceted =
+                                        itemService.search(
+                                                normalizedQuery,
+                                                categoryId,
+                                                service,
+                                                condition,
+                                                location,
+                                                resolvedPage,
+                                                resolvedSize);
+                                itemsPage = faceted.page();
+                                result.setFacets(faceted.facets());
+                            }
+                            result.setItems(itemsPage.getContent());
+                            result.setPage(itemsPage.getNumber());
+                            result.setSize(itemsPage.getSize());
+                            result.setTotalItems(itemsPage.getTotalElements());
+                            result.setTotalPages(itemsPage.getTotalPages());
+                            return result;
+                        }));
+    }
+
+    private SearchResultDto newResult(String normalizedQuery) {
         List<CategoryDto> categories =
                 normalizedQuery.isEmpty() ? List.of() : categoryService.search(normalizedQuery, 5);
-
         SearchResultDto result = new SearchResultDto();
         result.setQuery(normalizedQuery);
         result.setCategories(categories);
-        result.setItems(itemsPage.getContent());
-        result.setPage(itemsPage.getNumber());
-        result.setSize(itemsPage.getSize());
-        result.setTotalItems(itemsPage.getTotalElements());
-        result.setTotalPages(itemsPage.getTotalPages());
+        return result;
+    }
 
-        return ResponseEntity.ok(result);
+    @Operation(
+            summary = "Autocomplete search terms",
+            description =
+                    "Completes the given prefix with item titles, category names and wishlist terms, most"
+                            + " popular first. Any word of a suggestion can match and accents are ignored."
+                            + " Answered from memory without querying the database.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully."),
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(query, limit));
     }
 }
@@ -1,7 +1,9 @@
 package com.tq.exchangehub.controller;
 
 import com.tq.exchangehub.dto.CreateTradeRequest;
+import com.tq.exchangehub.dto.CursorPageDto;
 import com.tq.exchangehub.dto.ReceiptEmailRequest;
+import com.tq.exchangehub.dto.TradeCountsDto;
 import com.tq.exchangehub.dto.TradeDto;
 import com.tq.exchangehub.dto.TradeStatusUpdateRequest;
 import com.tq.exchangehub.entity.TradeStatus;
@@ -77,18 +79,42 @@ public class TradeController {
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam(name = "status", required = false) List<String> status) {
         UUID profileId = extractProfileId(principal);
+        return ResponseEntity.ok(tradeService.listTrades(profileId, parseStatuses(status)));
+    }
 
-        List<TradeStatus> statuses =
-                status == null
-                        ? List.of()
-                        : status.stream()
-                                .filter(Objects::nonNull)
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .map(s -> parseStatus(s))
-                                .distinct()
-                                .toList();
-        return ResponseEntity.ok(tradeService.listTrades(profileId, statuses));
+    @Operation(
+            summary = "Scroll the trade inbox",
+            description =
+                    "Returns the trades involving the authenticated profile a page at a time, most recently"
+                            + " updated first, optionally filtered by status. Send an empty cursor for the first"
+                            + " page and then the returned nextCursor.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Trades retrieved successfully."),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or status filter supplied."),
+        @ApiResponse(responseCode = "401", description = "Authentication required.")
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDto<TradeDto>> scrollTrades(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(name = "status", required = false) List<String> status) {
+        UUID profileId = extractProfileId(principal);
+        return ResponseEntity.ok(tradeService.findInbox(profileId, parseStatuses(status), cursor, size));
+    }
+
+    @Operation(
+            summary = "Count trades by status",
+            description = "Returns how many trades involving the authenticated profile are in each status.",
+            security = {@SecurityRequirement(name = "bearerAuth")})
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Trade counts retrieved successfully."),
+        @ApiResponse(responseCode = "401", description = "Authentication required.")
+    })
+    @GetMapping("/counts")
+    public ResponseEntity<TradeCountsDto> countTrades(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(tradeService.countTrades(extractProfileId(principal)));
     }
 
     @Operation(
@@ -188,6 +214,18 @@ public class TradeController {
         return principal.getUserAccount().getProfile().getId();
     }
 
+    private List<TradeStatus> parseStatuses(List<String> status) {
+        return status == null
+                ? List.of()
+                : status.stream()
+                        .filter(Objects::nonNull)
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .map(s -> parseStatus(s))
+                        .distinct()
+                        .toList();
+    }
+
     private TradeStatus parseStatus(String status) {
         try {
             return TradeStatus.valueOf(status.toUpperCase(Locale.ROOT));
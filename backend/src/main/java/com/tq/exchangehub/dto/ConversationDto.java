@@ -0,0 +1,109 @@
+package com.tq.exchangehub.dto;
+
+import com.tq.exchangehub.entity.TradeStatus;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** One trade in the conversation list, seen by one of its participants. */
+public class ConversationDto {
+
+    private UUID tradeId;
+    private TradeStatus status;
+    private String itemTitle;
+    private UUID counterpartId;
+    private String counterpartName;
+    private UUID lastMessageId;
+    private UUID lastMessageSenderId;
+    private String lastMessagePreview;
+    private OffsetDateTime lastMessageAt;
+    private OffsetDateTime lastActivityAt;
+    private long unreadCount;
+
+    public UUID getTradeId() {
+        return tradeId;
+    }
+
+    public void setTradeId(UUID tradeId) {
+        this.tradeId = tradeId;
+    }
+
+    public TradeStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TradeStatus status) {
+        this.status = status;
+    }
+
+    public String getItemTitle() {
+        return itemTitle;
+    }
+
+    public void setItemTitle(String itemTitle) {
+        this.itemTitle = itemTitle;
+    }
+
+    public UUID getCounterpartId() {
+        return counterpartId;
+    }
+
+    public void setCounterpartId(UUID counterpartId) {
+        this.counterpartId = counterpartId;
+    }
+
+    public String getCounterpartName() {
+        return counterpartName;
+    }
+
+    public void setCounterpartName(String counterpartName) {
+        this.counterpartName = counterpartName;
+    }
+
+    public UUID getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(UUID lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public UUID getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public void setLastMessageSenderId(UUID lastMessageSenderId) {
+        this.lastMessageSenderId = lastMessageSenderId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public OffsetDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(OffsetDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public OffsetDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(OffsetDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPageDto<T> {
+
+    private List<T> items = new ArrayList<>();
+    private int size;
+    private String nextCursor;
+
+    public CursorPageDto() {
+    }
+
+    public CursorPageDto(List<T> items, int size, String nextCursor) {
+        setItems(items);
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items != null ? items : new ArrayList<>();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Opaque token for the following page, {@code null} once the last page has been reached.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
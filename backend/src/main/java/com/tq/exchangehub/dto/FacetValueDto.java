@@ -0,0 +1,43 @@
+package com.tq.exchangehub.dto;
+
+public class FacetValueDto {
+
+    private String value;
+    private String label;
+    private long count;
+
+    public FacetValueDto() {}
+
+    public FacetValueDto(String value, String label, long count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    /**
+     * Value to send back as the matching drill-down filter.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tq.exchangehub.dto;
+
+public class ItemImportErrorDto {
+
+    private long line;
+    private String message;
+
+    public ItemImportErrorDto() {}
+
+    public ItemImportErrorDto(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * 1-based line of the input where the rejected row starts.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemImportResultDto {
+
+    private long imported;
+    private long failed;
+    private List<ItemImportErrorDto> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Why rows were rejected, in input order. Only the first errors are listed; {@link #getFailed()}
+     * counts all of them.
+     */
+    public List<ItemImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemImportErrorDto> errors) {
+        this.errors = errors != null ? errors : new ArrayList<>();
+    }
+}
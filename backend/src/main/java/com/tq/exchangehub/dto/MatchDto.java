@@ -0,0 +1,66 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class MatchDto {
+
+    private UUID forItemId;
+    private ItemSummaryDto item;
+    private List<String> theyHave = new ArrayList<>();
+    private List<String> theyWant = new ArrayList<>();
+    private int score;
+
+    /**
+     * The caller's listing this match was found for.
+     */
+    public UUID getForItemId() {
+        return forItemId;
+    }
+
+    public void setForItemId(UUID forItemId) {
+        this.forItemId = forItemId;
+    }
+
+    /**
+     * The other owner's listing.
+     */
+    public ItemSummaryDto getItem() {
+        return item;
+    }
+
+    public void setItem(ItemSummaryDto item) {
+        this.item = item;
+    }
+
+    /**
+     * Wishes of {@code forItemId} that {@code item} satisfies.
+     */
+    public List<String> getTheyHave() {
+        return theyHave;
+    }
+
+    public void setTheyHave(List<String> theyHave) {
+        this.theyHave = theyHave != null ? theyHave : new ArrayList<>();
+    }
+
+    /**
+     * Wishes of {@code item} that {@code forItemId} satisfies.
+     */
+    public List<String> getTheyWant() {
+        return theyWant;
+    }
+
+    public void setTheyWant(List<String> theyWant) {
+        this.theyWant = theyWant != null ? theyWant : new ArrayList<>();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
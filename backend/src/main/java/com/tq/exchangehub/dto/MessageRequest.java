@@ -2,14 +2,19 @@ package com.tq.exchangehub.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.groups.Default;
 import java.util.UUID;
 
 public class MessageRequest {
 
+    /** Validation group of a STOMP frame, whose trade comes from the destination rather than the payload. */
+    public interface Content {
+    }
+
     @NotNull
     private UUID tradeId;
 
-    @NotBlank
+    @NotBlank(groups = {Default.class, Content.class})
     private String content;
 
     public UUID getTradeId() {
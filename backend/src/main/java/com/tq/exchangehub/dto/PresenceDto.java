@@ -0,0 +1,33 @@
+package com.tq.exchangehub.dto;
+
+import java.util.UUID;
+
+public class PresenceDto {
+
+    private UUID profileId;
+    private boolean online;
+
+    public PresenceDto() {
+    }
+
+    public PresenceDto(UUID profileId, boolean online) {
+        this.profileId = profileId;
+        this.online = online;
+    }
+
+    public UUID getProfileId() {
+        return profileId;
+    }
+
+    public void setProfileId(UUID profileId) {
+        this.profileId = profileId;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    public void setOnline(boolean online) {
+        this.online = online;
+    }
+}
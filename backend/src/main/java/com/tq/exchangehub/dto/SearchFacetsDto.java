@@ -0,0 +1,47 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchFacetsDto {
+
+    private List<FacetValueDto> categories = new ArrayList<>();
+    private List<FacetValueDto> types = new ArrayList<>();
+    private List<FacetValueDto> conditions = new ArrayList<>();
+    private List<FacetValueDto> locations = new ArrayList<>();
+
+    public List<FacetValueDto> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetValueDto> categories) {
+        this.categories = categories != null ? categories : new ArrayList<>();
+    }
+
+    /**
+     * {@code item} and {@code service} counts, matching the {@code service=false|true} filter.
+     */
+    public List<FacetValueDto> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<FacetValueDto> types) {
+        this.types = types != null ? types : new ArrayList<>();
+    }
+
+    public List<FacetValueDto> getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(List<FacetValueDto> conditions) {
+        this.conditions = conditions != null ? conditions : new ArrayList<>();
+    }
+
+    public List<FacetValueDto> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<FacetValueDto> locations) {
+        this.locations = locations != null ? locations : new ArrayList<>();
+    }
+}
@@ -12,6 +12,8 @@ public class SearchResultDto {
     private int size;
     private long totalItems;
     private int totalPages;
+    private String nextCursor;
+    private SearchFacetsDto facets;
 
     public String getQuery() {
         return query;
@@ -68,4 +70,28 @@ public class SearchResultDto {
     public void setTotalPages(int totalPages) {
         this.totalPages = totalPages;
     }
+
+    /**
+     * Token for the next page when the search was issued in cursor mode. Totals are not computed in
+     * that mode.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Match counts per facet for the current filters; {@code null} when the search mode does not
+     * compute them (cursor, fuzzy and in-memory index searches).
+     */
+    public SearchFacetsDto getFacets() {
+        return facets;
+    }
+
+    public void setFacets(SearchFacetsDto facets) {
+        this.facets = facets;
+    }
 }
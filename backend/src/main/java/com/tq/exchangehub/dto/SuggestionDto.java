@@ -0,0 +1,40 @@
+package com.tq.exchangehub.dto;
+
+import java.util.UUID;
+
+public class SuggestionDto {
+
+    private String text;
+    private String type;
+    private UUID id;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * {@code ITEM}, {@code CATEGORY} or {@code WISHLIST}.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Item or category id; {@code null} for wishlist terms.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+}
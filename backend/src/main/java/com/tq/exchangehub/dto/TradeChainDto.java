@@ -0,0 +1,34 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TradeChainDto {
+
+    private UUID id;
+    private List<TradeChainLegDto> legs = new ArrayList<>();
+
+    /**
+     * Derived from the listings involved, so the same chain keeps its id across searches.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    /**
+     * Trades in chain order: the owner of each leg is the requester of the next one, and the last
+     * owner is the first requester.
+     */
+    public List<TradeChainLegDto> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<TradeChainLegDto> legs) {
+        this.legs = legs != null ? legs : new ArrayList<>();
+    }
+}
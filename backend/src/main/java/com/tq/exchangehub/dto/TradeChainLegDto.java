@@ -0,0 +1,47 @@
+package com.tq.exchangehub.dto;
+
+import java.util.UUID;
+
+/**
+ * One trade of a proposed chain, shaped like a {@link CreateTradeRequest}: the requester offers
+ * {@code requesterItemId} to the chain and receives {@code ownerItemId}.
+ */
+public class TradeChainLegDto {
+
+    private UUID requesterId;
+    private UUID requesterItemId;
+    private UUID ownerId;
+    private UUID ownerItemId;
+
+    public UUID getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(UUID requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public UUID getRequesterItemId() {
+        return requesterItemId;
+    }
+
+    public void setRequesterItemId(UUID requesterItemId) {
+        this.requesterItemId = requesterItemId;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public UUID getOwnerItemId() {
+        return ownerItemId;
+    }
+
+    public void setOwnerItemId(UUID ownerItemId) {
+        this.ownerItemId = ownerItemId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tq.exchangehub.dto;
+
+public class TradeCountsDto {
+
+    private long pending;
+    private long accepted;
+    private long rejected;
+    private long completed;
+    private long cancelled;
+
+    public long getPending() {
+        return pending;
+    }
+
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long getTotal() {
+        return pending + accepted + rejected + completed + cancelled;
+    }
+}
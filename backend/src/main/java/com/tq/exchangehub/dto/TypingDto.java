@@ -0,0 +1,36 @@
+package com.tq.exchangehub.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Who is typing in a trade conversation; every update carries the whole list. */
+public class TypingDto {
+
+    private UUID tradeId;
+    private List<UUID> typing = new ArrayList<>();
+
+    public TypingDto() {
+    }
+
+    public TypingDto(UUID tradeId, List<UUID> typing) {
+        this.tradeId = tradeId;
+        setTyping(typing);
+    }
+
+    public UUID getTradeId() {
+        return tradeId;
+    }
+
+    public void setTradeId(UUID tradeId) {
+        this.tradeId = tradeId;
+    }
+
+    public List<UUID> getTyping() {
+        return typing;
+    }
+
+    public void setTyping(List<UUID> typing) {
+        this.typing = typing != null ? typing : new ArrayList<>();
+    }
+}
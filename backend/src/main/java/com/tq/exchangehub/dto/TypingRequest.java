@@ -0,0 +1,14 @@
+package com.tq.exchangehub.dto;
+
+public class TypingRequest {
+
+    private boolean typing = true;
+
+    public boolean isTyping() {
+        return typing;
+    }
+
+    public void setTyping(boolean typing) {
+        this.typing = typing;
+    }
+}
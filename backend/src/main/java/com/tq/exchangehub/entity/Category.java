@@ -27,6 +27,10 @@ public class Category {
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
+    /** Maintained with bulk updates only, so saving a category never overwrites the count. */
+    @Column(name = "available_items", nullable = false, insertable = false, updatable = false)
+    private long availableItems;
+
     public UUID getId() {
         return id;
     }
@@ -66,4 +70,12 @@ public class Category {
     public void setCreatedAt(OffsetDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public long getAvailableItems() {
+        return availableItems;
+    }
+
+    public void setAvailableItems(long availableItems) {
+        this.availableItems = availableItems;
+    }
 }
@@ -0,0 +1,7 @@
+package com.tq.exchangehub.entity;
+
+public enum OutboxEventType {
+    TRADE_STATUS_CHANGED,
+    COMPETING_TRADES_REJECTED,
+    MESSAGE_CREATED
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -53,6 +54,26 @@ public class Trade {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt = OffsetDateTime.now();
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /** Maintained by the message writer only, so saving a trade never overwrites its latest message. */
+    @Column(name = "last_message_id", insertable = false, updatable = false)
+    private UUID lastMessageId;
+
+    /** Time of the latest message, or of the creation of a trade without messages; see {@link #lastMessageId}. */
+    @Column(name = "last_activity_at", nullable = false, insertable = false, updatable = false)
+    private OffsetDateTime lastActivityAt;
+
+    /** Read cursor of the owner: every message up to this time has been read. Maintained with bulk updates. */
+    @Column(name = "owner_read_at", insertable = false, updatable = false)
+    private OffsetDateTime ownerReadAt;
+
+    /** Read cursor of the requester; see {@link #ownerReadAt}. */
+    @Column(name = "requester_read_at", insertable = false, updatable = false)
+    private OffsetDateTime requesterReadAt;
+
     @OneToMany(mappedBy = "trade", fetch = FetchType.LAZY)
     private Set<Message> messages = new HashSet<>();
 
@@ -131,6 +152,46 @@ public class Trade {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public UUID getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(UUID lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public OffsetDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(OffsetDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public OffsetDateTime getOwnerReadAt() {
+        return ownerReadAt;
+    }
+
+    public void setOwnerReadAt(OffsetDateTime ownerReadAt) {
+        this.ownerReadAt = ownerReadAt;
+    }
+
+    public OffsetDateTime getRequesterReadAt() {
+        return requesterReadAt;
+    }
+
+    public void setRequesterReadAt(OffsetDateTime requesterReadAt) {
+        this.requesterReadAt = requesterReadAt;
+    }
+
     public Set<Message> getMessages() {
         return messages;
     }
@@ -0,0 +1,8 @@
+package com.tq.exchangehub.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Outbox payload of the pending trades rejected at once because a trade for their items was accepted. */
+public record CompetingTradesRejectedEvent(UUID acceptedTradeId, List<TradeStatusChangedEvent> rejections) {
+}
@@ -0,0 +1,26 @@
+package com.tq.exchangehub.event;
+
+import com.tq.exchangehub.search.ItemDocument;
+import java.util.List;
+
+/**
+ * Published inside the writing transaction with detached snapshots of the changed items, so
+ * after-commit listeners never touch lazy JPA state. Bulk writes publish one event per batch, which
+ * lets listeners rebuild derived state once instead of once per item.
+ */
+public class ItemChangedEvent {
+
+    private final List<ItemDocument> documents;
+
+    public ItemChangedEvent(ItemDocument document) {
+        this(List.of(document));
+    }
+
+    public ItemChangedEvent(List<ItemDocument> documents) {
+        this.documents = List.copyOf(documents);
+    }
+
+    public List<ItemDocument> getDocuments() {
+        return documents;
+    }
+}
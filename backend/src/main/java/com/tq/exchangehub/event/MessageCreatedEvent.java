@@ -0,0 +1,8 @@
+package com.tq.exchangehub.event;
+
+import com.tq.exchangehub.dto.MessageDto;
+import java.util.UUID;
+
+/** Outbox payload of a new trade message and the participant to notify about it. */
+public record MessageCreatedEvent(MessageDto message, UUID recipientId) {
+}
@@ -0,0 +1,21 @@
+package com.tq.exchangehub.event;
+
+import com.tq.exchangehub.dto.TradeChainDto;
+import java.util.List;
+
+/**
+ * Published after each trade chain search with the complete set of current proposals, which
+ * replaces the previous one.
+ */
+public class TradeChainsProposedEvent {
+
+    private final List<TradeChainDto> chains;
+
+    public TradeChainsProposedEvent(List<TradeChainDto> chains) {
+        this.chains = chains;
+    }
+
+    public List<TradeChainDto> getChains() {
+        return chains;
+    }
+}
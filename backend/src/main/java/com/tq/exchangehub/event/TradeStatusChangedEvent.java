@@ -1,23 +1,11 @@
 package com.tq.exchangehub.event;
 
-import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.dto.TradeDto;
 import java.util.UUID;
 
-public class TradeStatusChangedEvent {
-
-    private final Trade trade;
-    private final UUID actorProfileId;
-
-    public TradeStatusChangedEvent(Trade trade, UUID actorProfileId) {
-        this.trade = trade;
-        this.actorProfileId = actorProfileId;
-    }
-
-    public Trade getTrade() {
-        return trade;
-    }
-
-    public UUID getActorProfileId() {
-        return actorProfileId;
-    }
+/**
+ * Outbox payload of a trade status transition: the trade as committed, the title of the requested
+ * listing for the notification text and the profile that made the change, who is not notified.
+ */
+public record TradeStatusChangedEvent(TradeDto trade, String itemTitle, UUID actorProfileId) {
 }
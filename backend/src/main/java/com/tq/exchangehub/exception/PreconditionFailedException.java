@@ -0,0 +1,9 @@
+package com.tq.exchangehub.exception;
+
+/** A write whose {@code If-Match} or {@code If-Unmodified-Since} no longer holds; answered with 412. */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.tq.exchangehub.exception;
 import java.time.Instant;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -53,4 +54,23 @@ public class RestExceptionHandler {
                 "error", "Forbidden",
                 "message", ex.getMessage()));
     }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of(
+                "timestamp", Instant.now(),
+                "status", HttpStatus.PRECONDITION_FAILED.value(),
+                "error", "Precondition Failed",
+                "message", ex.getMessage()));
+    }
+
+    /** A versioned entity was changed by another request between this request's read and write. */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "timestamp", Instant.now(),
+                "status", HttpStatus.CONFLICT.value(),
+                "error", "Conflict",
+                "message", "The resource was modified concurrently, reload it and try again"));
+    }
 }
@@ -1,12 +1,48 @@
 package com.tq.exchangehub.repository;
 
 import com.tq.exchangehub.entity.Category;
+import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
-    Page<Category> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            String name, String description, Pageable pageable);
+    @Query(
+            "SELECT c.id AS id, c.name AS name, COUNT(i.id) AS total FROM Category c"
+                    + " LEFT JOIN Item i ON i.category = c AND (i.available = true OR i.available IS NULL)"
+                    + " GROUP BY c.id, c.name")
+    List<CategoryItemCount> countAvailableItemsByCategory();
+
+    /**
+     * Adds {@code delta} to the available item count of a category in a single atomic update. Loaded
+     * categories are cleared so later reads in the transaction see the new count.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.availableItems = c.availableItems + :delta WHERE c.id = :id")
+    int adjustAvailableItems(@Param("id") UUID id, @Param("delta") long delta);
+
+    /** Recounts every category whose stored count drifted and returns how many were fixed. */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            """
+        UPDATE Category c SET c.availableItems = (
+            SELECT COUNT(i) FROM Item i
+            WHERE i.category = c AND (i.available = true OR i.available IS NULL))
+        WHERE c.availableItems <> (
+            SELECT COUNT(i) FROM Item i
+            WHERE i.category = c AND (i.available = true OR i.available IS NULL))
+        """)
+    int reconcileAvailableItems();
+
+    interface CategoryItemCount {
+        UUID getId();
+
+        String getName();
+
+        long getTotal();
+    }
 }
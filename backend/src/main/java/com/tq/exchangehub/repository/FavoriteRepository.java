@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
 
@@ -17,4 +18,13 @@ public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
     boolean existsByProfileAndItem(Profile profile, Item item);
 
     Optional<Favorite> findByProfileAndItem(Profile profile, Item item);
+
+    @Query("SELECT f.item.id AS itemId, COUNT(f) AS total FROM Favorite f GROUP BY f.item.id")
+    List<ItemFavoriteCount> countByItem();
+
+    interface ItemFavoriteCount {
+        UUID getItemId();
+
+        long getTotal();
+    }
 }
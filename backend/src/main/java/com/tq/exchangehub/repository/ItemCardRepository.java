@@ -0,0 +1,189 @@
+package com.tq.exchangehub.repository;
+
+import com.tq.exchangehub.entity.ItemCard;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Card-shaped reads for the highlighted feed and search. Every query returns complete cards, so a
+ * page is one query (plus a count where a total is needed).
+ */
+public interface ItemCardRepository extends JpaRepository<ItemCard, UUID> {
+
+    List<ItemCard> findByItemIdIn(Collection<UUID> itemIds);
+
+    Page<ItemCard> findByAvailableTrueOrAvailableIsNull(Pageable pageable);
+
+    @Query(
+            """
+        SELECT c FROM ItemCard c
+        WHERE (c.available = true OR c.available IS NULL)
+        ORDER BY c.updatedAt DESC, c.createdAt DESC, c.itemId DESC
+        """
+    )
+    List<ItemCard> findHighlightedFirst(Limit limit);
+
+    @Query(
+            """
+        SELECT c FROM ItemCard c
+        WHERE (c.available = true OR c.available IS NULL)
+          AND (c.updatedAt < :updatedAt
+            OR (c.updatedAt = :updatedAt AND c.createdAt < :createdAt)
+            OR (c.updatedAt = :updatedAt AND c.createdAt = :createdAt AND c.itemId < :id))
+        ORDER BY c.updatedAt DESC, c.createdAt DESC, c.itemId DESC
+        """
+    )
+    List<ItemCard> findHighlightedAfter(
+            @Param("updatedAt") OffsetDateTime updatedAt,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * One page of the substring search, without a count: {@link ItemRepository#facetAvailable}
+     * returns the total split by facet for the same filters.
+     */
+    @Query(
+            """
+        SELECT c FROM ItemCard c
+        WHERE (:query IS NULL OR :query = '' OR
+            LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR
+            LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) OR
+            LOWER(c.categoryName) LIKE LOWER(CONCAT('%', :query, '%')))
+          AND (:categoryId IS NULL OR c.categoryId = :categoryId)
+          AND (:service IS NULL OR COALESCE(c.service, false) = :service)
+          AND (:condition IS NULL OR c.condition = :condition)
+          AND (:location IS NULL OR c.location = :location)
+          AND (c.available = true OR c.available IS NULL)
+        ORDER BY c.updatedAt DESC, c.createdAt DESC, c.itemId DESC
+        """
+    )
+    List<ItemCard> searchAvailable(
+            @Param("query") String query,
+            @Param("categoryId") UUID categoryId,
+            @Param("service") Boolean service,
+            @Param("condition") String condition,
+            @Param("location") String location,
+            Pageable pageable);
+
+    @Query(
+            """
+        SELECT c FROM ItemCard c
+        WHERE (:query IS NULL OR :query = '' OR
+            LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR
+            LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) OR
+            LOWER(c.categoryName) LIKE LOWER(CONCAT('%', :query, '%')))
+          AND (:categoryId IS NULL OR c.categoryId = :categoryId)
+          AND (c.available = true OR c.available IS NULL)
+          AND (:updatedAt IS NULL
+            OR c.updatedAt < :updatedAt
+            OR (c.updatedAt = :updatedAt AND c.createdAt < :createdAt)
+            OR (c.updatedAt = :updatedAt AND c.createdAt = :createdAt AND c.itemId < :id))
+        ORDER BY c.updatedAt DESC, c.createdAt DESC, c.itemId DESC
+        """
+    )
+    List<ItemCard> searchAvailableAfter(
+            @Param("query") String query,
+            @Param("categoryId") UUID categoryId,
+            @Param("updatedAt") OffsetDateTime updatedAt,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * One ranked page of the full-text search. Matching and ranking use the search vector on
+     * {@code items}; the cards are joined in so the page needs no further loads. Drill-down
+     * parameters are strings so null values bind on PostgreSQL.
+     */
+    @Query(
+            value =
+                    """
+        SELECT ic.* FROM items i
+        JOIN item_cards ic ON ic.item_id = i.id
+        WHERE (i.search_vector @@ websearch_to_tsquery('spanish', :query)
+            OR i.category_id IN (
+                SELECT c.id FROM categories c
+                WHERE to_tsvector('spanish', c.name) @@ websearch_to_tsquery('spanish', :query)))
+          AND (:categoryId IS NULL OR i.category_id = CAST(:categoryId AS uuid))
+          AND (:service IS NULL OR COALESCE(i.is_service, false) = CAST(:service AS boolean))
+          AND (:condition IS NULL OR i.condition = :condition)
+          AND (:location IS NULL OR i.location = :location)
+          AND (i.is_available = true OR i.is_available IS NULL)
+        ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('spanish', :query)) DESC,
+            i.updated_at DESC, i.created_at DESC, i.id DESC
+        """,
+            nativeQuery = true)
+    List<ItemCard> searchAvailableFullText(
+            @Param("query") String query,
+            @Param("categoryId") String categoryId,
+            @Param("service") String service,
+            @Param("condition") String condition,
+            @Param("location") String location,
+            Pageable pageable);
+
+    /**
+     * Typo-tolerant search ranked by trigram word similarity; see
+     * {@link ItemRepository#setWordSimilarityThreshold} for the threshold behind {@code %>}.
+     */
+    @Query(
+            value =
+                    """
+        SELECT ic.* FROM items i
+        JOIN item_cards ic ON ic.item_id = i.id
+        JOIN categories c ON c.id = i.category_id
+        WHERE (immutable_unaccent(lower(i.title)) %> immutable_unaccent(lower(:query))
+            OR i.category_id IN (
+                SELECT fc.id FROM categories fc
+                WHERE immutable_unaccent(lower(fc.name)) %> immutable_unaccent(lower(:query))))
+          AND (:categoryId IS NULL OR i.category_id = CAST(:categoryId AS uuid))
+          AND (i.is_available = true OR i.is_available IS NULL)
+        ORDER BY GREATEST(
+                word_similarity(immutable_unaccent(lower(:query)), immutable_unaccent(lower(i.title))),
+                word_similarity(immutable_unaccent(lower(:query)), immutable_unaccent(lower(c.name)))) DESC,
+            i.updated_at DESC, i.created_at DESC, i.id DESC
+        """,
+            countQuery =
+                    """
+        SELECT COUNT(*) FROM items i
+        WHERE (immutable_unaccent(lower(i.title)) %> immutable_unaccent(lower(:query))
+            OR i.category_id IN (
+                SELECT fc.id FROM categories fc
+                WHERE immutable_unaccent(lower(fc.name)) %> immutable_unaccent(lower(:query))))
+          AND (:categoryId IS NULL OR i.category_id = CAST(:categoryId AS uuid))
+          AND (i.is_available = true OR i.is_available IS NULL)
+        """,
+            nativeQuery = true)
+    Page<ItemCard> searchAvailableFuzzy(
+            @Param("query") String query, @Param("categoryId") String categoryId, Pageable pageable);
+
+    /**
+     * Bulk updates bypass loaded cards, so the persistence context is flushed before and cleared
+     * after them; later reads in the same transaction see the new values.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            """
+        UPDATE ItemCard c
+        SET c.ownerDisplayName = :displayName, c.ownerAvatarUrl = :avatarUrl, c.ownerRating = :rating
+        WHERE c.ownerId = :ownerId
+        """
+    )
+    int updateOwner(
+            @Param("ownerId") UUID ownerId,
+            @Param("displayName") String displayName,
+            @Param("avatarUrl") String avatarUrl,
+            @Param("rating") Double rating);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ItemCard c SET c.categoryName = :name WHERE c.categoryId = :categoryId")
+    int updateCategoryName(@Param("categoryId") UUID categoryId, @Param("name") String name);
+}
@@ -1,35 +1,286 @@
 package com.tq.exchangehub.repository;
 
-import com.tq.exchangehub.entity.Category;
 import com.tq.exchangehub.entity.Item;
 import com.tq.exchangehub.entity.Profile;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface ItemRepository extends JpaRepository<Item, UUID> {
+    /** Rows fetched per round-trip by {@link #streamAll}. */
+    int STREAM_FETCH_SIZE = 500;
+
     List<Item> findByOwner(Profile owner);
 
-    Page<Item> findByAvailableTrueOrAvailableIsNull(Pageable pageable);
+    /** Modification time of an item, for answering conditional requests without loading it. */
+    @Query("SELECT i.updatedAt FROM Item i WHERE i.id = :id")
+    Optional<OffsetDateTime> findUpdatedAtById(@Param("id") UUID id);
 
-    long countByCategory(Category category);
+    @EntityGraph(attributePaths = {"owner", "category"})
+    List<Item> findByIdIn(Collection<UUID> ids);
 
+    /**
+     * Locks both listings of a trade, which serializes the acceptances of every trade sharing one of them.
+     * The rows are locked in id order, so two acceptances crossing the same pair of items cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query(
             """
         SELECT i FROM Item i
+        WHERE i.id IN (SELECT t.ownerItem.id FROM Trade t WHERE t.id = :tradeId)
+           OR i.id IN (SELECT t.requesterItem.id FROM Trade t WHERE t.id = :tradeId)
+        ORDER BY i.id
+        """)
+    List<Item> findItemsOfTradeForUpdate(@Param("tradeId") UUID tradeId);
+
+    @EntityGraph(attributePaths = {"category"})
+    List<Item> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Wishlist entries of a batch of items in one query. Fetching the collection through an entity
+     * graph instead would make Hibernate apply the batch {@link Limit} in memory.
+     */
+    @Query("SELECT i.id AS itemId, w AS wish FROM Item i JOIN i.wishlist w WHERE i.id IN :ids")
+    List<WishlistEntry> findWishlistEntries(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT i.id AS itemId, img AS image FROM Item i JOIN i.images img WHERE i.id IN :ids")
+    List<ImageEntry> findImageEntries(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Every item as a scalar row read through a forward-only cursor, {@value #STREAM_FETCH_SIZE}
+     * rows per round-trip. No entity enters the persistence context, so reading the whole catalog
+     * keeps memory flat; collections are loaded per batch with {@link #findImageEntries} and
+     * {@link #findWishlistEntries}. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(
+            """
+        SELECT i.id AS id, i.owner.id AS ownerId, i.category.id AS categoryId, i.title AS title,
+            i.description AS description, i.condition AS condition, i.estimatedValue AS estimatedValue,
+            i.available AS available, i.service AS service, i.location AS location,
+            i.createdAt AS createdAt, i.updatedAt AS updatedAt
+        FROM Item i
+        """)
+    Stream<ItemRow> streamAll();
+
+    /**
+     * Matches of {@link ItemCardRepository#searchAvailable} grouped by every facet at once, so a
+     * single query yields the total and the per-category, item/service, condition and location
+     * counts.
+     */
+    @Query(
+            """
+        SELECT c.id AS categoryId, c.name AS categoryName, COALESCE(i.service, false) AS service,
+            i.condition AS condition, i.location AS location, COUNT(i) AS total
+        FROM Item i JOIN i.category c
         WHERE (:query IS NULL OR :query = '' OR
             LOWER(i.title) LIKE LOWER(CONCAT('%', :query, '%')) OR
             LOWER(i.description) LIKE LOWER(CONCAT('%', :query, '%')) OR
-            LOWER(i.category.name) LIKE LOWER(CONCAT('%', :query, '%')))
-          AND (:categoryId IS NULL OR i.category.id = :categoryId)
+            LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')))
+          AND (:categoryId IS NULL OR c.id = :categoryId)
+          AND (:service IS NULL OR COALESCE(i.service, false) = :service)
+          AND (:condition IS NULL OR i.condition = :condition)
+          AND (:location IS NULL OR i.location = :location)
           AND (i.available = true OR i.available IS NULL)
-        ORDER BY i.updatedAt DESC, i.createdAt DESC
+        GROUP BY c.id, c.name, COALESCE(i.service, false), i.condition, i.location
         """
     )
-    Page<Item> searchAvailable(
-            @Param("query") String query, @Param("categoryId") UUID categoryId, Pageable pageable);
+    List<FacetCount> facetAvailable(
+            @Param("query") String query,
+            @Param("categoryId") UUID categoryId,
+            @Param("service") Boolean service,
+            @Param("condition") String condition,
+            @Param("location") String location);
+
+    /** Facet counts of {@link ItemCardRepository#searchAvailableFullText}; see {@link #facetAvailable}. */
+    @Query(
+            value =
+                    """
+        SELECT CAST(c.id AS varchar) AS categoryId, c.name AS categoryName,
+            COALESCE(i.is_service, false) AS service, i.condition AS condition, i.location AS location,
+            COUNT(*) AS total
+        FROM items i
+        JOIN categories c ON c.id = i.category_id
+        WHERE (i.search_vector @@ websearch_to_tsquery('spanish', :query)
+            OR i.category_id IN (
+                SELECT fc.id FROM categories fc
+                WHERE to_tsvector('spanish', fc.name) @@ websearch_to_tsquery('spanish', :query)))
+          AND (:categoryId IS NULL OR i.category_id = CAST(:categoryId AS uuid))
+          AND (:service IS NULL OR COALESCE(i.is_service, false) = CAST(:service AS boolean))
+          AND (:condition IS NULL OR i.condition = :condition)
+          AND (:location IS NULL OR i.location = :location)
+          AND (i.is_available = true OR i.is_available IS NULL)
+        GROUP BY c.id, c.name, COALESCE(i.is_service, false), i.condition, i.location
+        """,
+            nativeQuery = true)
+    List<NativeFacetCount> facetAvailableFullText(
+            @Param("query") String query,
+            @Param("categoryId") String categoryId,
+            @Param("service") String service,
+            @Param("condition") String condition,
+            @Param("location") String location);
+
+    /**
+     * Keyset variant of {@link ItemCardRepository#searchAvailableFullText}. Rows are compared with a
+     * row constructor over the full sort key; the rank is returned alongside each id so the caller
+     * can build the next cursor.
+     */
+    @Query(
+            value =
+                    """
+        SELECT CAST(ranked.id AS varchar) AS id, ranked.rank AS rank FROM (
+            SELECT i.id, i.updated_at, i.created_at,
+                ts_rank(i.search_vector, websearch_to_tsquery('spanish', :query)) AS rank
+            FROM items i
+            WHERE (i.search_vector @@ websearch_to_tsquery('spanish', :query)
+                OR i.category_id IN (
+                    SELECT c.id FROM categories c
+                    WHERE to_tsvector('spanish', c.name) @@ websearch_to_tsquery('spanish', :query)))
+              AND (:categoryId IS NULL OR i.category_id = CAST(:categoryId AS uuid))
+              AND (i.is_available = true OR i.is_available IS NULL)
+        ) ranked
+        WHERE CAST(:afterId AS uuid) IS NULL
+            OR (ranked.rank, ranked.updated_at, ranked.created_at, ranked.id)
+                < (CAST(:afterRank AS real), CAST(:afterUpdatedAt AS timestamptz),
+                    CAST(:afterCreatedAt AS timestamptz), CAST(:afterId AS uuid))
+        ORDER BY ranked.rank DESC, ranked.updated_at DESC, ranked.created_at DESC, ranked.id DESC
+        LIMIT :limit
+        """,
+            nativeQuery = true)
+    List<RankedItemId> searchAvailableFullTextAfter(
+            @Param("query") String query,
+            @Param("categoryId") String categoryId,
+            @Param("afterRank") Float afterRank,
+            @Param("afterUpdatedAt") OffsetDateTime afterUpdatedAt,
+            @Param("afterCreatedAt") OffsetDateTime afterCreatedAt,
+            @Param("afterId") String afterId,
+            @Param("limit") int limit);
+
+    /**
+     * Sets {@code pg_trgm.word_similarity_threshold} for the current transaction, which drives the
+     * {@code %>} operator used by {@link ItemCardRepository#searchAvailableFuzzy}.
+     */
+    @Query(
+            value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+            nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    @Query("SELECT i.id AS id, i.title AS title FROM Item i WHERE i.available = true OR i.available IS NULL")
+    List<ItemTitle> findAvailableTitles();
+
+    @Query(
+            "SELECT w AS term, COUNT(i) AS total FROM Item i JOIN i.wishlist w"
+                    + " WHERE i.available = true OR i.available IS NULL GROUP BY w")
+    List<TermCount> countAvailableWishlistTerms();
+
+    @Query("SELECT i.id AS id, i.createdAt AS createdAt FROM Item i WHERE i.available = true OR i.available IS NULL")
+    List<ItemAge> findAvailableAges();
+
+    interface ItemTitle {
+        UUID getId();
+
+        String getTitle();
+    }
+
+    interface ItemAge {
+        UUID getId();
+
+        OffsetDateTime getCreatedAt();
+    }
+
+    interface TermCount {
+        String getTerm();
+
+        long getTotal();
+    }
+
+    interface FacetCount {
+        UUID getCategoryId();
+
+        String getCategoryName();
+
+        Boolean getService();
+
+        String getCondition();
+
+        String getLocation();
+
+        long getTotal();
+    }
+
+    /** {@link FacetCount} as returned by native queries, with the category id as text. */
+    interface NativeFacetCount {
+        String getCategoryId();
+
+        String getCategoryName();
+
+        Boolean getService();
+
+        String getCondition();
+
+        String getLocation();
+
+        Number getTotal();
+    }
+
+    interface WishlistEntry {
+        UUID getItemId();
+
+        String getWish();
+    }
+
+    interface ImageEntry {
+        UUID getItemId();
+
+        String getImage();
+    }
+
+    interface ItemRow {
+        UUID getId();
+
+        UUID getOwnerId();
+
+        UUID getCategoryId();
+
+        String getTitle();
+
+        String getDescription();
+
+        String getCondition();
+
+        BigDecimal getEstimatedValue();
+
+        Boolean getAvailable();
+
+        Boolean getService();
+
+        String getLocation();
+
+        OffsetDateTime getCreatedAt();
+
+        OffsetDateTime getUpdatedAt();
+    }
+
+    interface RankedItemId {
+        String getId();
+
+        Float getRank();
+    }
 }
@@ -2,10 +2,64 @@ package com.tq.exchangehub.repository;
 
 import com.tq.exchangehub.entity.Message;
 import com.tq.exchangehub.entity.Trade;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
     List<Message> findByTradeOrderByCreatedAtAsc(Trade trade);
+
+    /**
+     * Latest messages of a trade, newest first, if {@code profileId} takes part in it. Trade and sender
+     * ids are read from the foreign key columns, so neither association is loaded; the participant check
+     * is a primary key lookup in the same statement.
+     */
+    @Query(
+            """
+        SELECT m.id AS id, m.trade.id AS tradeId, m.sender.id AS senderId, m.content AS content,
+            m.createdAt AS createdAt
+        FROM Message m
+        WHERE m.trade.id = :tradeId
+          AND EXISTS (SELECT 1 FROM Trade t WHERE t.id = :tradeId
+              AND (t.owner.id = :profileId OR t.requester.id = :profileId))
+        ORDER BY m.createdAt DESC, m.id DESC
+        LIMIT :limit
+        """)
+    List<MessageRow> findLatest(
+            @Param("tradeId") UUID tradeId, @Param("profileId") UUID profileId, @Param("limit") int limit);
+
+    /** Messages older than the one at {@code (createdAt, id)}; see {@link #findLatest}. */
+    @Query(
+            """
+        SELECT m.id AS id, m.trade.id AS tradeId, m.sender.id AS senderId, m.content AS content,
+            m.createdAt AS createdAt
+        FROM Message m
+        WHERE m.trade.id = :tradeId
+          AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))
+          AND EXISTS (SELECT 1 FROM Trade t WHERE t.id = :tradeId
+              AND (t.owner.id = :profileId OR t.requester.id = :profileId))
+        ORDER BY m.createdAt DESC, m.id DESC
+        LIMIT :limit
+        """)
+    List<MessageRow> findBefore(
+            @Param("tradeId") UUID tradeId,
+            @Param("profileId") UUID profileId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    interface MessageRow {
+        UUID getId();
+
+        UUID getTradeId();
+
+        UUID getSenderId();
+
+        String getContent();
+
+        OffsetDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,39 @@
+package com.tq.exchangehub.repository;
+
+import com.tq.exchangehub.entity.OutboxEvent;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Undelivered events due at {@code now}, in the order they became due. An event is left out while an
+     * earlier event of its aggregate is due later (or not yet), so events waiting for a retry neither fill
+     * the batch nor let the events behind them overtake them; within a batch, every earlier pending event
+     * of an aggregate comes first.
+     */
+    @Query(
+            """
+        SELECT e FROM OutboxEvent e
+        WHERE e.failedAt IS NULL AND e.nextAttemptAt <= :now
+          AND NOT EXISTS (
+              SELECT 1 FROM OutboxEvent b
+              WHERE b.aggregateId = e.aggregateId AND b.id < e.id AND b.failedAt IS NULL
+                AND b.nextAttemptAt > e.nextAttemptAt)
+        ORDER BY e.nextAttemptAt, e.id
+        LIMIT :limit
+        """)
+    List<OutboxEvent> findDue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(e) AS pending, MIN(e.createdAt) AS oldestCreatedAt FROM OutboxEvent e WHERE e.failedAt IS NULL")
+    Backlog findBacklog();
+
+    interface Backlog {
+        long getPending();
+
+        OffsetDateTime getOldestCreatedAt();
+    }
+}
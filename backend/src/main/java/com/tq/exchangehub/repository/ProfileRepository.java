@@ -1,10 +1,24 @@
 package com.tq.exchangehub.repository;
 
 import com.tq.exchangehub.entity.Profile;
+import jakarta.persistence.LockModeType;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByDisplayNameIgnoreCase(String displayName);
+
+    /** Modification time of a profile, for answering conditional requests without loading it. */
+    @Query("SELECT p.updatedAt FROM Profile p WHERE p.id = :id")
+    Optional<OffsetDateTime> findUpdatedAtById(@Param("id") UUID id);
+
+    /** Loads a profile and locks its row until the transaction ends, so a precondition checked on it holds. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Profile p WHERE p.id = :id")
+    Optional<Profile> findByIdForUpdate(@Param("id") UUID id);
 }
@@ -2,12 +2,16 @@ package com.tq.exchangehub.repository;
 
 import com.tq.exchangehub.entity.Trade;
 import com.tq.exchangehub.entity.TradeStatus;
+import jakarta.persistence.LockModeType;
+import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -37,6 +41,191 @@ public interface TradeRepository extends JpaRepository<Trade, UUID> {
             @Param("requesterId") UUID requesterId,
             @Param("statuses") Collection<TradeStatus> statuses);
 
+    /**
+     * First page of a profile's trade inbox, most recently updated first. The trades the profile owns
+     * and the ones it requested are read by two lookups on their own index and joined with UNION ALL;
+     * a profile never trades with itself, so no trade appears in both. PostgreSQL merges the two
+     * ordered index scans and stops after one page.
+     */
+    @Query(
+            """
+        SELECT u.id AS id, u.ownerId AS ownerId, u.requesterId AS requesterId, u.ownerItemId AS ownerItemId,
+            u.requesterItemId AS requesterItemId, u.message AS message, u.status AS status,
+            u.createdAt AS createdAt, u.updatedAt AS updatedAt
+        FROM (
+            SELECT t.id AS id, t.owner.id AS ownerId, t.requester.id AS requesterId,
+                t.ownerItem.id AS ownerItemId, t.requesterItem.id AS requesterItemId, t.message AS message,
+                t.status AS status, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Trade t
+            WHERE t.owner.id = :profileId AND t.status IN :statuses
+            UNION ALL
+            SELECT t.id AS id, t.owner.id AS ownerId, t.requester.id AS requesterId,
+                t.ownerItem.id AS ownerItemId, t.requesterItem.id AS requesterItemId, t.message AS message,
+                t.status AS status, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Trade t
+            WHERE t.requester.id = :profileId AND t.status IN :statuses
+        ) u
+        ORDER BY u.updatedAt DESC, u.id DESC
+        LIMIT :limit
+        """)
+    List<TradeRow> findInboxFirst(
+            @Param("profileId") UUID profileId,
+            @Param("statuses") Collection<TradeStatus> statuses,
+            @Param("limit") int limit);
+
+    /** Page of the trade inbox after the trade at {@code (updatedAt, id)}; see {@link #findInboxFirst}. */
+    @Query(
+            """
+        SELECT u.id AS id, u.ownerId AS ownerId, u.requesterId AS requesterId, u.ownerItemId AS ownerItemId,
+            u.requesterItemId AS requesterItemId, u.message AS message, u.status AS status,
+            u.createdAt AS createdAt, u.updatedAt AS updatedAt
+        FROM (
+            SELECT t.id AS id, t.owner.id AS ownerId, t.requester.id AS requesterId,
+                t.ownerItem.id AS ownerItemId, t.requesterItem.id AS requesterItemId, t.message AS message,
+                t.status AS status, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Trade t
+            WHERE t.owner.id = :profileId AND t.status IN :statuses
+              AND (t.updatedAt < :updatedAt OR (t.updatedAt = :updatedAt AND t.id < :id))
+            UNION ALL
+            SELECT t.id AS id, t.owner.id AS ownerId, t.requester.id AS requesterId,
+                t.ownerItem.id AS ownerItemId, t.requesterItem.id AS requesterItemId, t.message AS message,
+                t.status AS status, t.createdAt AS createdAt, t.updatedAt AS updatedAt
+            FROM Trade t
+            WHERE t.requester.id = :profileId AND t.status IN :statuses
+              AND (t.updatedAt < :updatedAt OR (t.updatedAt = :updatedAt AND t.id < :id))
+        ) u
+        ORDER BY u.updatedAt DESC, u.id DESC
+        LIMIT :limit
+        """)
+    List<TradeRow> findInboxAfter(
+            @Param("profileId") UUID profileId,
+            @Param("statuses") Collection<TradeStatus> statuses,
+            @Param("updatedAt") OffsetDateTime updatedAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /**
+     * First page of a profile's conversations, most recent activity first: per trade, the counterpart, a
+     * preview of the latest message and the number of messages from the counterpart after the profile's
+     * read cursor. As in {@link #findInboxFirst}, owned and requested trades are read off their own index
+     * and joined with UNION ALL. The page is cut first; only then is the latest message joined by primary
+     * key and are the unread messages joined and counted on {@code idx_messages_trade_recency}, so both
+     * only run for the trades on the page.
+     */
+    @Query(
+            """
+        SELECT p.id AS tradeId, p.status AS status, p.itemTitle AS itemTitle, p.counterpartId AS counterpartId,
+            c.displayName AS counterpartName, p.lastActivityAt AS lastActivityAt, m.id AS lastMessageId,
+            m.sender.id AS lastMessageSenderId, SUBSTRING(m.content, 1, 140) AS lastMessagePreview,
+            m.createdAt AS lastMessageAt, COUNT(r.id) AS unreadCount
+        FROM (
+            SELECT u.id AS id, u.status AS status, u.itemTitle AS itemTitle, u.lastActivityAt AS lastActivityAt,
+                u.lastMessageId AS lastMessageId, u.counterpartId AS counterpartId, u.readAt AS readAt
+            FROM (
+                SELECT t.id AS id, t.status AS status, t.ownerItem.title AS itemTitle,
+                    t.lastActivityAt AS lastActivityAt, t.lastMessageId AS lastMessageId,
+                    t.requester.id AS counterpartId, t.ownerReadAt AS readAt
+                FROM Trade t
+                WHERE t.owner.id = :profileId
+                UNION ALL
+                SELECT t.id AS id, t.status AS status, t.ownerItem.title AS itemTitle,
+                    t.lastActivityAt AS lastActivityAt, t.lastMessageId AS lastMessageId,
+                    t.owner.id AS counterpartId, t.requesterReadAt AS readAt
+                FROM Trade t
+                WHERE t.requester.id = :profileId
+            ) u
+            ORDER BY u.lastActivityAt DESC, u.id DESC
+            LIMIT :limit
+        ) p
+        JOIN Profile c ON c.id = p.counterpartId
+        LEFT JOIN Message m ON m.id = p.lastMessageId
+        LEFT JOIN Message r ON r.trade.id = p.id AND r.sender.id <> :profileId
+            AND (p.readAt IS NULL OR r.createdAt > p.readAt)
+        GROUP BY p.id, p.status, p.itemTitle, p.counterpartId, c.displayName, p.lastActivityAt, m.id, m.sender.id,
+            m.content, m.createdAt
+        ORDER BY p.lastActivityAt DESC, p.id DESC
+        """)
+    List<ConversationRow> findConversationsFirst(@Param("profileId") UUID profileId, @Param("limit") int limit);
+
+    /** Conversations after the one at {@code (lastActivityAt, id)}; see {@link #findConversationsFirst}. */
+    @Query(
+            """
+        SELECT p.id AS tradeId, p.status AS status, p.itemTitle AS itemTitle, p.counterpartId AS counterpartId,
+            c.displayName AS counterpartName, p.lastActivityAt AS lastActivityAt, m.id AS lastMessageId,
+            m.sender.id AS lastMessageSenderId, SUBSTRING(m.content, 1, 140) AS lastMessagePreview,
+            m.createdAt AS lastMessageAt, COUNT(r.id) AS unreadCount
+        FROM (
+            SELECT u.id AS id, u.status AS status, u.itemTitle AS itemTitle, u.lastActivityAt AS lastActivityAt,
+                u.lastMessageId AS lastMessageId, u.counterpartId AS counterpartId, u.readAt AS readAt
+            FROM (
+                SELECT t.id AS id, t.status AS status, t.ownerItem.title AS itemTitle,
+                    t.lastActivityAt AS lastActivityAt, t.lastMessageId AS lastMessageId,
+                    t.requester.id AS counterpartId, t.ownerReadAt AS readAt
+                FROM Trade t
+                WHERE t.owner.id = :profileId
+                  AND (t.lastActivityAt < :lastActivityAt
+                      OR (t.lastActivityAt = :lastActivityAt AND t.id < :id))
+                UNION ALL
+                SELECT t.id AS id, t.status AS status, t.ownerItem.title AS itemTitle,
+                    t.lastActivityAt AS lastActivityAt, t.lastMessageId AS lastMessageId,
+                    t.owner.id AS counterpartId, t.requesterReadAt AS readAt
+                FROM Trade t
+                WHERE t.requester.id = :profileId
+                  AND (t.lastActivityAt < :lastActivityAt
+                      OR (t.lastActivityAt = :lastActivityAt AND t.id < :id))
+            ) u
+            ORDER BY u.lastActivityAt DESC, u.id DESC
+            LIMIT :limit
+        ) p
+        JOIN Profile c ON c.id = p.counterpartId
+        LEFT JOIN Message m ON m.id = p.lastMessageId
+        LEFT JOIN Message r ON r.trade.id = p.id AND r.sender.id <> :profileId
+            AND (p.readAt IS NULL OR r.createdAt > p.readAt)
+        GROUP BY p.id, p.status, p.itemTitle, p.counterpartId, c.displayName, p.lastActivityAt, m.id, m.sender.id,
+            m.content, m.createdAt
+        ORDER BY p.lastActivityAt DESC, p.id DESC
+        """)
+    List<ConversationRow> findConversationsAfter(
+            @Param("profileId") UUID profileId,
+            @Param("lastActivityAt") OffsetDateTime lastActivityAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    /**
+     * Records {@code messageId} as the latest message of a trade unless a later one is already recorded.
+     * The message writer does the same with a JDBC batch; this is for messages stored through JPA.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+            "UPDATE Trade t SET t.lastMessageId = :messageId, t.lastActivityAt = :createdAt"
+                    + " WHERE t.id = :id AND (t.lastMessageId IS NULL OR t.lastActivityAt <= :createdAt)")
+    int recordLastMessage(
+            @Param("id") UUID id, @Param("messageId") UUID messageId, @Param("createdAt") OffsetDateTime createdAt);
+
+    /**
+     * Moves the owner's read cursor of a trade to its latest message. Loaded trades are cleared so later
+     * reads in the transaction see the new cursor.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Trade t SET t.ownerReadAt = t.lastActivityAt WHERE t.id = :id AND t.owner.id = :profileId")
+    int markReadAsOwner(@Param("id") UUID id, @Param("profileId") UUID profileId);
+
+    /** Requester-side counterpart of {@link #markReadAsOwner}. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            "UPDATE Trade t SET t.requesterReadAt = t.lastActivityAt"
+                    + " WHERE t.id = :id AND t.requester.id = :profileId")
+    int markReadAsRequester(@Param("id") UUID id, @Param("profileId") UUID profileId);
+
+    /**
+     * Trades of a profile, as owner or requester, per status. Both columns lead an index, so the OR
+     * is answered by combining the two index scans rather than by a table scan.
+     */
+    @Query(
+            "SELECT t.status AS status, COUNT(t) AS total FROM Trade t"
+                    + " WHERE t.owner.id = :profileId OR t.requester.id = :profileId GROUP BY t.status")
+    List<StatusCount> countByStatusForParticipant(@Param("profileId") UUID profileId);
+
     @EntityGraph(
             attributePaths = {
                 "owner",
@@ -52,4 +241,150 @@ public interface TradeRepository extends JpaRepository<Trade, UUID> {
                     + " AND (t.owner.id = :profileId OR t.requester.id = :profileId)")
     Optional<Trade> findByIdForParticipant(
             @Param("tradeId") UUID tradeId, @Param("profileId") UUID profileId);
+
+    /** Owner and requester ids of a trade, read from its foreign key columns. */
+    @Query("SELECT t.owner.id AS ownerId, t.requester.id AS requesterId FROM Trade t WHERE t.id = :tradeId")
+    Optional<Participants> findParticipants(@Param("tradeId") UUID tradeId);
+
+    @Query(
+            "SELECT COUNT(t) > 0 FROM Trade t"
+                    + " WHERE t.id = :tradeId"
+                    + " AND (t.owner.id = :profileId OR t.requester.id = :profileId)")
+    boolean existsByIdForParticipant(
+            @Param("tradeId") UUID tradeId, @Param("profileId") UUID profileId);
+
+    /**
+     * Moves a trade from {@code from} to {@code to} if it is still in {@code from} and owned by
+     * {@code ownerId}, bumping its version. The check and the write are one statement, so of several
+     * concurrent transitions exactly one sees the row in {@code from}; the others update nothing.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            "UPDATE Trade t SET t.status = :to, t.updatedAt = :now, t.version = t.version + 1"
+                    + " WHERE t.id = :id AND t.status = :from AND t.owner.id = :ownerId")
+    int transitionAsOwner(
+            @Param("id") UUID id,
+            @Param("from") TradeStatus from,
+            @Param("to") TradeStatus to,
+            @Param("ownerId") UUID ownerId,
+            @Param("now") OffsetDateTime now);
+
+    /** Requester-side counterpart of {@link #transitionAsOwner}. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            "UPDATE Trade t SET t.status = :to, t.updatedAt = :now, t.version = t.version + 1"
+                    + " WHERE t.id = :id AND t.status = :from AND t.requester.id = :requesterId")
+    int transitionAsRequester(
+            @Param("id") UUID id,
+            @Param("from") TradeStatus from,
+            @Param("to") TradeStatus to,
+            @Param("requesterId") UUID requesterId,
+            @Param("now") OffsetDateTime now);
+
+    /**
+     * Locks every pending trade but {@code acceptedId} that requests or offers one of {@code itemIds}, in id
+     * order, so none of them can change status before {@link #rejectByIds} rejects them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+            "SELECT t FROM Trade t WHERE t.status = :pending AND t.id <> :acceptedId"
+                    + " AND (t.ownerItem.id IN :itemIds OR t.requesterItem.id IN :itemIds) ORDER BY t.id")
+    List<Trade> findCompetingForUpdate(
+            @Param("acceptedId") UUID acceptedId,
+            @Param("itemIds") Collection<UUID> itemIds,
+            @Param("pending") TradeStatus pending);
+
+    /**
+     * Rejects the given trades, stamping them with {@code now}. The persistence context is not cleared, so
+     * trades loaded before keep their old status; read the rejected ones back with {@link #findTitledByIds}.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+            "UPDATE Trade t SET t.status = :rejected, t.updatedAt = :now, t.version = t.version + 1"
+                    + " WHERE t.id IN :ids")
+    int rejectByIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("rejected") TradeStatus rejected,
+            @Param("now") OffsetDateTime now);
+
+    @Query(
+            """
+        SELECT t.id AS id, t.owner.id AS ownerId, t.requester.id AS requesterId, t.ownerItem.id AS ownerItemId,
+            t.requesterItem.id AS requesterItemId, t.message AS message, t.status AS status,
+            t.createdAt AS createdAt, t.updatedAt AS updatedAt, t.ownerItem.title AS ownerItemTitle
+        FROM Trade t
+        WHERE t.id IN :ids
+        ORDER BY t.id
+        """)
+    List<TitledTradeRow> findTitledByIds(@Param("ids") Collection<UUID> ids);
+
+    /** Trade requests received per listing, whatever their status. */
+    @Query("SELECT t.ownerItem.id AS itemId, COUNT(t) AS total FROM Trade t GROUP BY t.ownerItem.id")
+    List<ItemTradeCount> countByOwnerItem();
+
+    interface TradeRow {
+        UUID getId();
+
+        UUID getOwnerId();
+
+        UUID getRequesterId();
+
+        UUID getOwnerItemId();
+
+        UUID getRequesterItemId();
+
+        String getMessage();
+
+        TradeStatus getStatus();
+
+        OffsetDateTime getCreatedAt();
+
+        OffsetDateTime getUpdatedAt();
+    }
+
+    interface ConversationRow {
+        UUID getTradeId();
+
+        TradeStatus getStatus();
+
+        String getItemTitle();
+
+        UUID getCounterpartId();
+
+        String getCounterpartName();
+
+        OffsetDateTime getLastActivityAt();
+
+        UUID getLastMessageId();
+
+        UUID getLastMessageSenderId();
+
+        String getLastMessagePreview();
+
+        OffsetDateTime getLastMessageAt();
+
+        long getUnreadCount();
+    }
+
+    interface TitledTradeRow extends TradeRow {
+        String getOwnerItemTitle();
+    }
+
+    interface Participants {
+        UUID getOwnerId();
+
+        UUID getRequesterId();
+    }
+
+    interface StatusCount {
+        TradeStatus getStatus();
+
+        long getTotal();
+    }
+
+    interface ItemTradeCount {
+        UUID getItemId();
+
+        long getTotal();
+    }
 }
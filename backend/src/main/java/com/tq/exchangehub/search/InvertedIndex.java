@@ -0,0 +1,391 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BM25-ranked inverted index over item title, description, category name and wishlist.
+ *
+ * <p>Documents get consecutive ordinals and per-document data lives in parallel primitive arrays.
+ * Updating or hiding an item tombstones its previous ordinal (and re-adds it under a new one when
+ * it is still available); tombstoned postings are dropped by an in-place compaction once they
+ * make up a quarter of the index.
+ */
+public final class InvertedIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final int WISHLIST_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final UuidOrdinalMap ordinals = new UuidOrdinalMap(1024);
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+
+    private long[] idMost = new long[1024];
+    private long[] idLeast = new long[1024];
+    private int[] docLength = new int[1024];
+    private int[] category = new int[1024];
+    private long[] createdAt = new long[1024];
+    private long[] updatedAt = new long[1024];
+    private final BitSet live = new BitSet();
+    private int maxDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    public void upsert(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(document.id());
+            if (document.available()) {
+                addInternal(document);
+            }
+            if (maxDoc - liveDocs >= Math.max(MIN_COMPACTION_GARBAGE, maxDoc / 4)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ranked page of items matching every analysed term of {@code query}. An empty query
+     * lists the category by recency, mirroring the database search.
+     */
+    public SearchHits search(String query, UUID categoryId, int offset, int limit) {
+        return search(query, categoryId, null, offset, limit);
+    }
+
+    /**
+     * Keyset variant of {@link #search(String, UUID, int, int)}: returns the {@code limit} hits ranked
+     * strictly after {@code after}. The total is still reported since it comes for free.
+     */
+    public SearchHits searchAfter(String query, UUID categoryId, Position after, int limit) {
+        return search(query, categoryId, after, 0, limit);
+    }
+
+    private SearchHits search(String query, UUID categoryId, Position after, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SpanishAnalyzer.tokenize(query)));
+        lock.readLock().lock();
+        try {
+            int categoryOrdinal = -1;
+            if (categoryId != null) {
+                Integer ordinal = categoryOrdinals.get(categoryId);
+                if (ordinal == null) {
+                    return SearchHits.EMPTY;
+                }
+                categoryOrdinal = ordinal;
+            }
+            Candidates candidates =
+                    terms.isEmpty()
+                            ? (categoryId == null ? new Candidates(0) : scanCategory(categoryOrdinal))
+                            : intersect(terms, categoryOrdinal);
+            return top(candidates, after, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = ordinals.sizeInBytes() + (long) idMost.length * (8 + 8 + 4 + 4 + 8 + 8);
+            bytes += live.size() / 8;
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                bytes += 48L + entry.getKey().length() * 2L + entry.getValue().sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(ItemDocument document) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        collect(frequencies, document.title(), TITLE_WEIGHT);
+        collect(frequencies, document.categoryName(), CATEGORY_WEIGHT);
+        collect(frequencies, document.description(), DESCRIPTION_WEIGHT);
+        if (document.wishlist() != null) {
+            for (String wish : document.wishlist()) {
+                collect(frequencies, wish, WISHLIST_WEIGHT);
+            }
+        }
+
+        int doc = maxDoc++;
+        ensureDocCapacity(maxDoc);
+        idMost[doc] = document.id().getMostSignificantBits();
+        idLeast[doc] = document.id().getLeastSignificantBits();
+        category[doc] = categoryOrdinals.computeIfAbsent(document.categoryId(), key -> categoryOrdinals.size());
+        createdAt[doc] = document.createdAt();
+        updatedAt[doc] = document.updatedAt();
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new PostingList()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        docLength[doc] = length;
+        live.set(doc);
+        liveDocs++;
+        liveLength += length;
+        ordinals.put(document.id(), doc);
+    }
+
+    private void deleteInternal(UUID id) {
+        int doc = ordinals.get(id);
+        if (doc < 0) {
+            return;
+        }
+        ordinals.remove(id);
+        if (live.get(doc)) {
+            live.clear(doc);
+            liveDocs--;
+            liveLength -= docLength[doc];
+        }
+    }
+
+    private static void collect(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : SpanishAnalyzer.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private Candidates scanCategory(int categoryOrdinal) {
+        Candidates candidates = new Candidates(Math.min(liveDocs, 1024));
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            if (category[doc] == categoryOrdinal) {
+                candidates.add(doc, 0f);
+            }
+        }
+        return candidates;
+    }
+
+    private Candidates intersect(List<String> terms, int categoryOrdinal) {
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return new Candidates(0);
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::docFreq));
+
+        float averageLength = liveDocs == 0 ? 1f : Math.max(1f, (float) liveLength / liveDocs);
+        PostingList rarest = lists.get(0);
+        float idf = idf(rarest.docFreq());
+        Candidates candidates = new Candidates(rarest.docFreq());
+        PostingList.Cursor cursor = rarest.cursor();
+        for (int doc = cursor.next(); doc >= 0; doc = cursor.next()) {
+            if (live.get(doc) && (categoryOrdinal < 0 || category[doc] == categoryOrdinal)) {
+                candidates.add(doc, bm25(idf, cursor.freq(), docLength[doc], averageLength));
+            }
+        }
+
+        for (int i = 1; i < lists.size() && candidates.size > 0; i++) {
+            PostingList list = lists.get(i);
+            float termIdf = idf(list.docFreq());
+            PostingList.Cursor termCursor = list.cursor();
+            int doc = termCursor.next();
+            int kept = 0;
+            for (int c = 0; c < candidates.size && doc >= 0; c++) {
+                int candidate = candidates.docs[c];
+                while (doc >= 0 && doc < candidate) {
+                    doc = termCursor.next();
+                }
+                if (doc == candidate) {
+                    candidates.docs[kept] = candidate;
+                    candidates.scores[kept] =
+                            candidates.scores[c]
+                                    + bm25(termIdf, termCursor.freq(), docLength[candidate], averageLength);
+                    kept++;
+                }
+            }
+            candidates.size = kept;
+        }
+        return candidates;
+    }
+
+    private SearchHits top(Candidates candidates, Position after, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, candidates.size);
+        if (offset >= wanted) {
+            return new SearchHits(candidates.size, List.of(), List.of());
+        }
+        Comparator<Integer> ranking =
+                Comparator.<Integer>comparingDouble(index -> candidates.scores[index])
+                        .thenComparingLong(index -> updatedAt[candidates.docs[index]])
+                        .thenComparingLong(index -> createdAt[candidates.docs[index]])
+                        .thenComparingLong(index -> idMost[candidates.docs[index]])
+                        .thenComparingLong(index -> idLeast[candidates.docs[index]]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(wanted, ranking);
+        for (int index = 0; index < candidates.size; index++) {
+            if (after != null && !after.ranksAbove(candidates.scores[index], candidates.docs[index], this)) {
+                continue;
+            }
+            if (heap.size() < wanted) {
+                heap.add(index);
+            } else if (ranking.compare(index, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(index);
+            }
+        }
+        UUID[] ids = new UUID[heap.size()];
+        Float[] scores = new Float[heap.size()];
+        for (int position = ids.length - 1; position >= 0; position--) {
+            int index = heap.poll();
+            int doc = candidates.docs[index];
+            ids[position] = new UUID(idMost[doc], idLeast[doc]);
+            scores[position] = candidates.scores[index];
+        }
+        int from = Math.min(offset, ids.length);
+        return new SearchHits(
+                candidates.size,
+                List.of(Arrays.copyOfRange(ids, from, ids.length)),
+                List.of(Arrays.copyOfRange(scores, from, scores.length)));
+    }
+
+    private float idf(int docFreq) {
+        // Posting lists still count tombstoned ordinals until compaction, so clamp to stay positive.
+        int liveFreq = Math.min(docFreq, liveDocs);
+        return (float) Math.log(1 + (liveDocs - liveFreq + 0.5) / (liveFreq + 0.5));
+    }
+
+    private static float bm25(float idf, int freq, int length, float averageLength) {
+        return idf * (freq * (K1 + 1)) / (freq + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            remap[doc] = live.get(doc) ? next++ : -1;
+        }
+
+        var iterator = postings.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PostingList> entry = iterator.next();
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = entry.getValue().cursor();
+            for (int doc = cursor.next(); doc >= 0; doc = cursor.next()) {
+                if (remap[doc] >= 0) {
+                    compacted.add(remap[doc], cursor.freq());
+                }
+            }
+            if (compacted.docFreq() == 0) {
+                iterator.remove();
+            } else {
+                compacted.trim();
+                entry.setValue(compacted);
+            }
+        }
+
+        for (int doc = 0; doc < maxDoc; doc++) {
+            int target = remap[doc];
+            if (target < 0) {
+                continue;
+            }
+            idMost[target] = idMost[doc];
+            idLeast[target] = idLeast[doc];
+            docLength[target] = docLength[doc];
+            category[target] = category[doc];
+            createdAt[target] = createdAt[doc];
+            updatedAt[target] = updatedAt[doc];
+            ordinals.put(new UUID(idMost[target], idLeast[target]), target);
+        }
+        live.clear();
+        live.set(0, next);
+        maxDoc = next;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= idMost.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, idMost.length + (idMost.length >> 1));
+        idMost = Arrays.copyOf(idMost, newCapacity);
+        idLeast = Arrays.copyOf(idLeast, newCapacity);
+        docLength = Arrays.copyOf(docLength, newCapacity);
+        category = Arrays.copyOf(category, newCapacity);
+        createdAt = Arrays.copyOf(createdAt, newCapacity);
+        updatedAt = Arrays.copyOf(updatedAt, newCapacity);
+    }
+
+    /**
+     * Rank of the last hit of a page: relevance score, then recency, then id, all descending.
+     * Timestamps are epoch milliseconds, like {@link ItemDocument}.
+     */
+    public record Position(float score, long updatedAt, long createdAt, UUID id) {
+
+        private boolean ranksAbove(float docScore, int doc, InvertedIndex index) {
+            int order = Float.compare(score, docScore);
+            if (order == 0) {
+                order = Long.compare(updatedAt, index.updatedAt[doc]);
+            }
+            if (order == 0) {
+                order = Long.compare(createdAt, index.createdAt[doc]);
+            }
+            if (order == 0) {
+                order = Long.compare(id.getMostSignificantBits(), index.idMost[doc]);
+            }
+            if (order == 0) {
+                order = Long.compare(id.getLeastSignificantBits(), index.idLeast[doc]);
+            }
+            return order > 0;
+        }
+    }
+
+    private static final class Candidates {
+
+        private int[] docs;
+        private float[] scores;
+        private int size;
+
+        Candidates(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            scores = new float[docs.length];
+        }
+
+        void add(int doc, float score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tq.exchangehub.search;
+
+import com.tq.exchangehub.entity.Item;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshot of the item fields the in-memory indexes care about, detached from the JPA entity so it
+ * can be handed to background threads.
+ */
+public record ItemDocument(
+        UUID id,
+        UUID ownerId,
+        UUID categoryId,
+        String title,
+        String description,
+        String categoryName,
+        List<String> wishlist,
+        boolean available,
+        long createdAt,
+        long updatedAt) {
+
+    public static ItemDocument from(Item item) {
+        return from(item, item.getWishlist());
+    }
+
+    /**
+     * Builds the snapshot with a wishlist loaded separately, so {@code item.getWishlist()} is not
+     * initialized one item at a time.
+     */
+    public static ItemDocument from(Item item, List<String> wishlist) {
+        return new ItemDocument(
+                item.getId(),
+                item.getOwner().getId(),
+                item.getCategory().getId(),
+                item.getTitle(),
+                item.getDescription(),
+                item.getCategory().getName(),
+                wishlist == null ? List.of() : List.copyOf(wishlist),
+                !Boolean.FALSE.equals(item.getAvailable()),
+                toEpochMillis(item.getCreatedAt()),
+                toEpochMillis(item.getUpdatedAt()));
+    }
+
+    private static long toEpochMillis(OffsetDateTime value) {
+        return value == null ? 0L : value.toInstant().toEpochMilli();
+    }
+}
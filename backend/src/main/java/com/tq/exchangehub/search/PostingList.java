@@ -0,0 +1,93 @@
+package com.tq.exchangehub.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only posting list encoded as variable-length (doc delta, term frequency) pairs. Documents
+ * must be appended in increasing ordinal order, which keeps deltas small: a typical posting costs
+ * two or three bytes instead of the eight an {@code int[]} pair would take.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int docFreq;
+    private int lastDoc = -1;
+
+    void add(int doc, int freq) {
+        if (doc <= lastDoc) {
+            throw new IllegalStateException("Postings must be appended in increasing document order");
+        }
+        ensureCapacity(10);
+        writeVInt(doc - lastDoc);
+        writeVInt(freq);
+        lastDoc = doc;
+        docFreq++;
+    }
+
+    int docFreq() {
+        return docFreq;
+    }
+
+    long sizeInBytes() {
+        return data.length + 32L;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    void trim() {
+        if (data.length > length) {
+            data = Arrays.copyOf(data, Math.max(length, 1));
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length + (data.length >> 1), length + extra));
+        }
+    }
+
+    private void writeVInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    final class Cursor {
+
+        private int position;
+        private int doc = -1;
+        private int freq;
+
+        /** Advances to the next posting and returns its document, or {@code -1} when exhausted. */
+        int next() {
+            if (position >= length) {
+                doc = -1;
+                return -1;
+            }
+            doc += readVInt();
+            freq = readVInt();
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+
+        private int readVInt() {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = data[position++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tq.exchangehub.search;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of matches from an in-memory index: the total number of matches and the ids of the
+ * requested page in rank order, with their scores aligned by position.
+ */
+public record SearchHits(long total, List<UUID> ids, List<Float> scores) {
+
+    static final SearchHits EMPTY = new SearchHits(0, List.of(), List.of());
+}
@@ -0,0 +1,514 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * "Similar items" neighbours of every available listing, by cosine similarity of TF-IDF vectors
+ * over the title (counted twice), description, category name and wishlist.
+ *
+ * <p>Vectors are sparse and keep only the {@value #MAX_TERMS} heaviest terms of a listing. Each term
+ * keeps a posting list of at most {@value #MAX_POSTINGS} listings, the ones where it weighs most, so
+ * the dot products of one listing with all others cost at most {@code MAX_TERMS * MAX_POSTINGS}
+ * additions however large the catalog is. Very common terms therefore only connect the listings
+ * where they matter most, which is what their low IDF would do anyway. {@link #build} computes the
+ * top {@code neighbours} of every listing on a fork-join pool; every worker reuses one accumulator
+ * of one float per listing, like {@link TradeCycleFinder}.
+ *
+ * <p>{@link #upsert} adds a listing incrementally: its vector is weighted with the current document
+ * frequencies, its own neighbours are computed, and it is offered to the neighbour lists of every
+ * listing it was compared with. Removed listings are masked by a live bit set and skipped on read.
+ * Document frequencies and dropped listings are only cleaned up by the next {@link #build}.
+ */
+public final class SimilarityIndex {
+
+    static final int MAX_TERMS = 24;
+    static final int MAX_POSTINGS = 256;
+    private static final int TITLE_BOOST = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int neighbours;
+    private final Map<String, Integer> termIds;
+    private int[] documentFrequency;
+    private int documents;
+
+    private final UuidOrdinalMap ordinals;
+    private UUID[] ids;
+    private int[][] terms;
+    private float[][] weights;
+    private int[][] similar;
+    private float[][] similarity;
+    private final BitSet live;
+    private int count;
+
+    private int[][] postingIds;
+    private float[][] postingWeights;
+    private int[] postingSizes;
+
+    private Accumulator scratch;
+
+    public record Neighbour(UUID itemId, float score) {}
+
+    public SimilarityIndex(int neighbours) {
+        this(neighbours, new HashMap<>(), new int[1024], 0, 1024);
+    }
+
+    private SimilarityIndex(
+            int neighbours, Map<String, Integer> termIds, int[] documentFrequency, int documents, int capacity) {
+        if (neighbours < 1) {
+            throw new IllegalArgumentException("At least one neighbour must be kept");
+        }
+        this.neighbours = neighbours;
+        this.termIds = termIds;
+        this.documentFrequency = documentFrequency;
+        this.documents = documents;
+        this.ordinals = new UuidOrdinalMap(capacity);
+        this.ids = new UUID[capacity];
+        this.terms = new int[capacity][];
+        this.weights = new float[capacity][];
+        this.similar = new int[capacity][];
+        this.similarity = new float[capacity][];
+        this.live = new BitSet(capacity);
+        int termCapacity = Math.max(documentFrequency.length, 1);
+        this.postingIds = new int[termCapacity][];
+        this.postingWeights = new float[termCapacity][];
+        this.postingSizes = new int[termCapacity];
+    }
+
+    /**
+     * Computes vectors and neighbour lists of the available {@code documents} with
+     * {@code parallelism} worker threads.
+     */
+    public static SimilarityIndex build(List<ItemDocument> documents, int neighbours, int parallelism) {
+        List<ItemDocument> available = documents.stream().filter(ItemDocument::available).toList();
+        int size = available.size();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            TermCounts[] counts = new TermCounts[size];
+            pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> counts[i] = analyse(available.get(i))))
+                    .join();
+
+            Map<String, Integer> termIds = new HashMap<>();
+            int[] frequency = new int[1024];
+            int[][] termsOf = new int[size][];
+            for (int i = 0; i < size; i++) {
+                TermCounts analysed = counts[i];
+                int[] ids = new int[analysed.terms().length];
+                for (int t = 0; t < ids.length; t++) {
+                    Integer id = termIds.putIfAbsent(analysed.terms()[t], termIds.size());
+                    ids[t] = id != null ? id : termIds.size() - 1;
+                    if (ids[t] == frequency.length) {
+                        frequency = Arrays.copyOf(frequency, frequency.length * 2);
+                    }
+                    frequency[ids[t]]++;
+                }
+                termsOf[i] = ids;
+            }
+
+            SimilarityIndex index =
+                    new SimilarityIndex(neighbours, termIds, frequency, size, Math.max(size, 1024));
+            int[] df = frequency;
+            pool.submit(
+                            () ->
+                                    IntStream.range(0, size)
+                                            .parallel()
+                                            .forEach(
+                                                    i -> {
+                                                        Vector vector = index.vector(termsOf[i], counts[i].counts(), df);
+                                                        index.terms[i] = vector.terms();
+                                                        index.weights[i] = vector.weights();
+                                                    }))
+                    .join();
+            for (int i = 0; i < size; i++) {
+                UUID id = available.get(i).id();
+                index.ids[i] = id;
+                index.ordinals.put(id, i);
+            }
+            index.live.set(0, size);
+            index.count = size;
+            index.fillPostings(pool);
+
+            int chunks = Math.max(1, Math.min(size, pool.getParallelism() * 8));
+            pool.submit(
+                            () ->
+                                    IntStream.range(0, chunks)
+                                            .parallel()
+                                            .forEach(
+                                                    chunk -> {
+                                                        Accumulator accumulator = new Accumulator(size);
+                                                        for (int i = chunk; i < size; i += chunks) {
+                                                            index.accumulate(i, index.terms[i], index.weights[i], accumulator);
+                                                            index.keepBest(i, accumulator);
+                                                            accumulator.clear();
+                                                        }
+                                                    }))
+                    .join();
+            return index;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Up to {@code limit} neighbours of {@code itemId}, most similar first. */
+    public List<Neighbour> similar(UUID itemId, int limit) {
+        lock.readLock().lock();
+        try {
+            int ordinal = ordinals.get(itemId);
+            if (ordinal < 0 || similar[ordinal] == null) {
+                return List.of();
+            }
+            int[] found = similar[ordinal];
+            float[] scores = similarity[ordinal];
+            List<Neighbour> result = new ArrayList<>(Math.min(limit, found.length));
+            for (int i = 0; i < found.length && result.size() < limit; i++) {
+                if (live.get(found[i])) {
+                    result.add(new Neighbour(ids[found[i]], scores[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds, replaces or, when the document is no longer available, removes a listing. A replaced
+     * listing gets a new vector and new neighbours.
+     */
+    public void upsert(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            int existing = ordinals.get(document.id());
+            if (existing >= 0) {
+                live.clear(existing);
+                ordinals.remove(document.id());
+            }
+            if (document.available()) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Listings currently held. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ItemDocument document) {
+        TermCounts analysed = analyse(document);
+        int[] termIdsOf = new int[analysed.terms().length];
+        for (int t = 0; t < termIdsOf.length; t++) {
+            termIdsOf[t] = termId(analysed.terms()[t]);
+            documentFrequency[termIdsOf[t]]++;
+        }
+        documents++;
+        Vector vector = vector(termIdsOf, analysed.counts(), documentFrequency);
+
+        int ordinal = count++;
+        ensureCapacity(count);
+        ids[ordinal] = document.id();
+        terms[ordinal] = vector.terms();
+        weights[ordinal] = vector.weights();
+        ordinals.put(document.id(), ordinal);
+        live.set(ordinal);
+
+        if (scratch == null || scratch.sums.length < count) {
+            scratch = new Accumulator(Math.max(count * 2, 1024));
+        }
+        accumulate(ordinal, vector.terms(), vector.weights(), scratch);
+        keepBest(ordinal, scratch);
+        for (int i = 0; i < scratch.size; i++) {
+            int other = scratch.touched[i];
+            offer(other, ordinal, scratch.sums[other]);
+        }
+        scratch.clear();
+
+        for (int t = 0; t < vector.terms().length; t++) {
+            addPosting(vector.terms()[t], ordinal, vector.weights()[t]);
+        }
+    }
+
+    /** Adds the dot products of {@code ordinal} with every listing sharing a posting to {@code into}. */
+    private void accumulate(int ordinal, int[] termsOf, float[] weightsOf, Accumulator into) {
+        for (int t = 0; t < termsOf.length; t++) {
+            int term = termsOf[t];
+            if (term >= postingSizes.length) {
+                continue;
+            }
+            int[] postings = postingIds[term];
+            float[] postingWeight = postingWeights[term];
+            float weight = weightsOf[t];
+            for (int p = 0, size = postingSizes[term]; p < size; p++) {
+                int other = postings[p];
+                float product = weight * postingWeight[p];
+                if (other == ordinal || product == 0f || !live.get(other)) {
+                    continue;
+                }
+                if (into.sums[other] == 0f) {
+                    into.touched[into.size++] = other;
+                }
+                into.sums[other] += product;
+            }
+        }
+    }
+
+    /** Stores the best {@link #neighbours} accumulated scores as the neighbour list of {@code ordinal}. */
+    private void keepBest(int ordinal, Accumulator accumulator) {
+        int[] best = new int[Math.min(neighbours, accumulator.size)];
+        float[] bestScores = new float[best.length];
+        int kept = 0;
+        for (int i = 0; i < accumulator.size; i++) {
+            int other = accumulator.touched[i];
+            float score = accumulator.sums[other];
+            if (kept == best.length && score <= bestScores[kept - 1]) {
+                continue;
+            }
+            int at = kept == best.length ? kept - 1 : kept++;
+            while (at > 0 && bestScores[at - 1] < score) {
+                best[at] = best[at - 1];
+                bestScores[at] = bestScores[at - 1];
+                at--;
+            }
+            best[at] = other;
+            bestScores[at] = score;
+        }
+        similar[ordinal] = best;
+        similarity[ordinal] = bestScores;
+    }
+
+    /** Inserts {@code candidate} into the neighbour list of {@code ordinal} if it ranks high enough. */
+    private void offer(int ordinal, int candidate, float score) {
+        int[] current = similar[ordinal];
+        float[] scores = similarity[ordinal];
+        if (current == null) {
+            return;
+        }
+        int kept = current.length;
+        if (kept == neighbours && score <= scores[kept - 1]) {
+            return;
+        }
+        int[] next = kept == neighbours ? current.clone() : Arrays.copyOf(current, kept + 1);
+        float[] nextScores = kept == neighbours ? scores.clone() : Arrays.copyOf(scores, kept + 1);
+        int at = next.length - 1;
+        while (at > 0 && nextScores[at - 1] < score) {
+            next[at] = next[at - 1];
+            nextScores[at] = nextScores[at - 1];
+            at--;
+        }
+        next[at] = candidate;
+        nextScores[at] = score;
+        similar[ordinal] = next;
+        similarity[ordinal] = nextScores;
+    }
+
+    /** Splits every listing's vector into posting lists and trims the long ones to the heaviest entries. */
+    private void fillPostings(ForkJoinPool pool) {
+        int termCount = termIds.size();
+        int[] sizes = new int[postingSizes.length];
+        for (int i = 0; i < count; i++) {
+            for (int term : terms[i]) {
+                sizes[term]++;
+            }
+        }
+        for (int term = 0; term < termCount; term++) {
+            postingIds[term] = new int[sizes[term]];
+            postingWeights[term] = new float[sizes[term]];
+        }
+        for (int i = 0; i < count; i++) {
+            for (int t = 0; t < terms[i].length; t++) {
+                int term = terms[i][t];
+                int at = postingSizes[term]++;
+                postingIds[term][at] = i;
+                postingWeights[term][at] = weights[i][t];
+            }
+        }
+        pool.submit(
+                        () ->
+                                IntStream.range(0, termCount)
+                                        .parallel()
+                                        .filter(term -> postingSizes[term] > MAX_POSTINGS)
+                                        .forEach(this::trimPostings))
+                .join();
+    }
+
+    private void trimPostings(int term) {
+        int size = postingSizes[term];
+        float[] sorted = Arrays.copyOf(postingWeights[term], size);
+        Arrays.sort(sorted);
+        float threshold = sorted[size - MAX_POSTINGS];
+        int above = 0;
+        for (int p = 0; p < size; p++) {
+            if (postingWeights[term][p] > threshold) {
+                above++;
+            }
+        }
+        int ties = MAX_POSTINGS - above;
+        int[] keptIds = new int[MAX_POSTINGS];
+        float[] keptWeights = new float[MAX_POSTINGS];
+        int kept = 0;
+        for (int p = 0; p < size; p++) {
+            float weight = postingWeights[term][p];
+            if (weight > threshold || (weight == threshold && ties-- > 0)) {
+                keptIds[kept] = postingIds[term][p];
+                keptWeights[kept++] = weight;
+            }
+        }
+        postingIds[term] = keptIds;
+        postingWeights[term] = keptWeights;
+        postingSizes[term] = kept;
+    }
+
+    /** Appends to a posting list, or replaces its lightest entry once it is full. */
+    private void addPosting(int term, int ordinal, float weight) {
+        int size = postingSizes[term];
+        if (size < MAX_POSTINGS) {
+            if (postingIds[term] == null || size == postingIds[term].length) {
+                int capacity = Math.min(MAX_POSTINGS, Math.max(4, size * 2));
+                postingIds[term] = postingIds[term] == null ? new int[capacity] : Arrays.copyOf(postingIds[term], capacity);
+                postingWeights[term] =
+                        postingWeights[term] == null ? new float[capacity] : Arrays.copyOf(postingWeights[term], capacity);
+            }
+            postingIds[term][size] = ordinal;
+            postingWeights[term][size] = weight;
+            postingSizes[term]++;
+            return;
+        }
+        int lightest = 0;
+        for (int p = 1; p < size; p++) {
+            if (postingWeights[term][p] < postingWeights[term][lightest]) {
+                lightest = p;
+            }
+        }
+        if (weight > postingWeights[term][lightest] || !live.get(postingIds[term][lightest])) {
+            postingIds[term][lightest] = ordinal;
+            postingWeights[term][lightest] = weight;
+        }
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) {
+            return id;
+        }
+        int next = termIds.size();
+        termIds.put(term, next);
+        if (next >= documentFrequency.length) {
+            documentFrequency = Arrays.copyOf(documentFrequency, documentFrequency.length * 2);
+        }
+        if (next >= postingSizes.length) {
+            int capacity = Math.max(next + 1, postingSizes.length * 2);
+            postingIds = Arrays.copyOf(postingIds, capacity);
+            postingWeights = Arrays.copyOf(postingWeights, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+        return next;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        terms = Arrays.copyOf(terms, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        similar = Arrays.copyOf(similar, capacity);
+        similarity = Arrays.copyOf(similarity, capacity);
+    }
+
+    /**
+     * Weighs each term by {@code (1 + ln tf) * ln((N + 1) / df)}, keeps the {@value #MAX_TERMS}
+     * heaviest and scales them to unit length, so dot products are cosine similarities.
+     */
+    private Vector vector(int[] termIdsOf, int[] counts, int[] df) {
+        int size = termIdsOf.length;
+        float[] raw = new float[size];
+        Integer[] order = new Integer[size];
+        for (int t = 0; t < size; t++) {
+            raw[t] = (float) ((1 + Math.log(counts[t])) * Math.log((documents + 1.0) / df[termIdsOf[t]]));
+            order[t] = t;
+        }
+        if (size > MAX_TERMS) {
+            Arrays.sort(order, (left, right) -> Float.compare(raw[right], raw[left]));
+            size = MAX_TERMS;
+        }
+        double norm = 0;
+        for (int t = 0; t < size; t++) {
+            norm += raw[order[t]] * raw[order[t]];
+        }
+        norm = Math.sqrt(norm);
+        int[] keptTerms = new int[size];
+        float[] keptWeights = new float[size];
+        for (int t = 0; t < size; t++) {
+            keptTerms[t] = termIdsOf[order[t]];
+            keptWeights[t] = norm > 0 ? (float) (raw[order[t]] / norm) : 0f;
+        }
+        return new Vector(keptTerms, keptWeights);
+    }
+
+    private static TermCounts analyse(ItemDocument document) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : SpanishAnalyzer.tokenize(document.title())) {
+            counts.merge(token, TITLE_BOOST, Integer::sum);
+        }
+        for (String token : SpanishAnalyzer.tokenize(document.description())) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        for (String token : SpanishAnalyzer.tokenize(document.categoryName())) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        for (String wish : document.wishlist()) {
+            for (String token : SpanishAnalyzer.tokenize(wish)) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+        String[] keys = new String[counts.size()];
+        int[] values = new int[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return new TermCounts(keys, values);
+    }
+
+    private record TermCounts(String[] terms, int[] counts) {}
+
+    private record Vector(int[] terms, float[] weights) {}
+
+    /** Dense score per listing plus the list of listings touched, so clearing is proportional to use. */
+    private static final class Accumulator {
+
+        private final float[] sums;
+        private final int[] touched;
+        private int size;
+
+        private Accumulator(int listings) {
+            this.sums = new float[listings];
+            this.touched = new int[Math.min(listings, MAX_TERMS * MAX_POSTINGS)];
+        }
+
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                sums[touched[i]] = 0f;
+            }
+            size = 0;
+        }
+    }
+}
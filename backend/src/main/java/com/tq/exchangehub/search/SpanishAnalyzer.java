@@ -0,0 +1,61 @@
+package com.tq.exchangehub.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight Spanish text analysis: lower-casing, accent folding, stop-word removal and plural
+ * stripping. Both indexed text and queries go through the same pipeline, so "Cámaras" and "camara"
+ * produce the same term.
+ */
+public final class SpanishAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOPWORDS =
+            Set.of(
+                    "a", "al", "con", "de", "del", "e", "el", "en", "es", "esta", "este", "la", "las", "le",
+                    "lo", "los", "mas", "mi", "muy", "o", "para", "pero", "por", "que", "se", "sin", "sobre",
+                    "son", "su", "sus", "te", "tu", "u", "un", "una", "uno", "y", "ya");
+
+    private SpanishAnalyzer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = fold(text);
+        if (folded.isEmpty()) {
+            return tokens;
+        }
+        for (String raw : SEPARATORS.split(folded)) {
+            if (raw.isEmpty() || STOPWORDS.contains(raw)) {
+                continue;
+            }
+            tokens.add(stem(raw));
+        }
+        return tokens;
+    }
+
+    static String stem(String token) {
+        int length = token.length();
+        if (length > 4 && token.endsWith("es") && "lrndj".indexOf(token.charAt(length - 3)) >= 0) {
+            return token.substring(0, length - 2);
+        }
+        if (length > 3 && token.endsWith("s") && !Character.isDigit(token.charAt(length - 2))) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
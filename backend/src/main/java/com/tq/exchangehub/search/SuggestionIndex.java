@@ -0,0 +1,255 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix-completion structure: a sorted array of accent-folded keys (a flattened trie)
+ * with a segment tree of the best weight per key range.
+ *
+ * <p>Every suggestion is indexed from the start of each of its words, so "mont" completes
+ * "Bicicleta de montaña". A prefix maps to one contiguous key range found by binary search, and the
+ * top {@code k} suggestions in that range come out of the segment tree in {@code O(k log n)}
+ * without scanning the range.
+ */
+public final class SuggestionIndex {
+
+    public static final SuggestionIndex EMPTY = build(List.of());
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final String[] keys;
+    private final int[] suggestionOf;
+    private final Suggestion[] suggestions;
+    private final int[] tree;
+    private final int leaves;
+
+    private SuggestionIndex(String[] keys, int[] suggestionOf, Suggestion[] suggestions) {
+        this.keys = keys;
+        this.suggestionOf = suggestionOf;
+        this.suggestions = suggestions;
+        int size = 1;
+        while (size < Math.max(keys.length, 1)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[size * 2];
+        Arrays.fill(tree, -1);
+        for (int position = 0; position < keys.length; position++) {
+            tree[size + position] = position;
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            tree[node] = better(tree[node * 2], tree[node * 2 + 1]);
+        }
+    }
+
+    public static SuggestionIndex build(Collection<Suggestion> entries) {
+        Suggestion[] suggestions = entries.toArray(new Suggestion[0]);
+        List<String> keyList = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int index = 0; index < suggestions.length; index++) {
+            for (String key : keysOf(suggestions[index].text())) {
+                keyList.add(key);
+                owners.add(index);
+            }
+        }
+        Integer[] order = new Integer[keyList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(keyList::get));
+        String[] keys = new String[order.length];
+        int[] suggestionOf = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = keyList.get(order[i]);
+            suggestionOf[i] = owners.get(order[i]);
+        }
+        return new SuggestionIndex(keys, suggestionOf, suggestions);
+    }
+
+    /**
+     * Same result as building from the suggestions of {@code base} accepted by {@code keep} plus
+     * those of {@code delta}, in linear time: both key arrays are already sorted, so they are merged
+     * without analysing or sorting the base again.
+     */
+    public static SuggestionIndex merge(SuggestionIndex base, Predicate<Suggestion> keep, SuggestionIndex delta) {
+        int[] remap = new int[base.suggestions.length];
+        List<Suggestion> merged = new ArrayList<>(base.suggestions.length + delta.suggestions.length);
+        for (int index = 0; index < base.suggestions.length; index++) {
+            remap[index] = keep.test(base.suggestions[index]) ? merged.size() : -1;
+            if (remap[index] >= 0) {
+                merged.add(base.suggestions[index]);
+            }
+        }
+        int offset = merged.size();
+        merged.addAll(Arrays.asList(delta.suggestions));
+
+        int kept = 0;
+        for (int position = 0; position < base.keys.length; position++) {
+            if (remap[base.suggestionOf[position]] >= 0) {
+                kept++;
+            }
+        }
+        String[] keys = new String[kept + delta.keys.length];
+        int[] suggestionOf = new int[keys.length];
+        int from = 0;
+        int other = 0;
+        for (int position = 0; position < keys.length; position++) {
+            while (from < base.keys.length && remap[base.suggestionOf[from]] < 0) {
+                from++;
+            }
+            if (other == delta.keys.length
+                    || (from < base.keys.length && base.keys[from].compareTo(delta.keys[other]) <= 0)) {
+                keys[position] = base.keys[from];
+                suggestionOf[position] = remap[base.suggestionOf[from++]];
+            } else {
+                keys[position] = delta.keys[other];
+                suggestionOf[position] = offset + delta.suggestionOf[other++];
+            }
+        }
+        return new SuggestionIndex(keys, suggestionOf, merged.toArray(new Suggestion[0]));
+    }
+
+    /**
+     * Folded keys a suggestion is reachable from: the whole text and every suffix starting at a
+     * word boundary.
+     */
+    static List<String> keysOf(String text) {
+        String[] words = SEPARATORS.split(SpanishAnalyzer.fold(text).trim());
+        List<String> keys = new ArrayList<>(words.length);
+        for (int start = 0; start < words.length; start++) {
+            if (words[start].isEmpty()) {
+                continue;
+            }
+            keys.add(String.join(" ", Arrays.copyOfRange(words, start, words.length)));
+        }
+        return keys;
+    }
+
+    public static String normalizePrefix(String prefix) {
+        return String.join(" ", SEPARATORS.split(SpanishAnalyzer.fold(prefix).trim()));
+    }
+
+    /**
+     * Returns up to {@code limit} distinct suggestions whose text has a word starting with the
+     * normalized {@code prefix}, heaviest first.
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        String normalized = normalizePrefix(prefix);
+        if (normalized.isEmpty() || keys.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int from = lowerBound(normalized);
+        int to = lowerBound(normalized + Character.MAX_VALUE);
+        if (from >= to) {
+            return List.of();
+        }
+
+        List<Suggestion> results = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<int[]> ranges =
+                new PriorityQueue<>(
+                        (left, right) -> Long.compare(weightAt(right[2]), weightAt(left[2])));
+        ranges.add(new int[] {from, to, argMax(from, to)});
+        while (!ranges.isEmpty() && results.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            if (seen.add(suggestionOf[best])) {
+                results.add(suggestions[suggestionOf[best]]);
+            }
+            if (range[0] < best) {
+                ranges.add(new int[] {range[0], best, argMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[] {best + 1, range[1], argMax(best + 1, range[1])});
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    public Collection<Suggestion> suggestions() {
+        return List.of(suggestions);
+    }
+
+    public long estimatedSizeInBytes() {
+        long bytes = 16L * keys.length + 4L * suggestionOf.length + 4L * tree.length;
+        for (String key : keys) {
+            bytes += 40L + key.length();
+        }
+        for (Suggestion suggestion : suggestions) {
+            bytes += 72L + suggestion.text().length();
+        }
+        return bytes;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int argMax(int from, int to) {
+        int best = -1;
+        for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = better(best, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = better(best, tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int left, int right) {
+        if (left < 0) {
+            return right;
+        }
+        if (right < 0) {
+            return left;
+        }
+        return weightAt(right) > weightAt(left) ? right : left;
+    }
+
+    private long weightAt(int position) {
+        return suggestions[suggestionOf[position]].weight();
+    }
+
+    public enum Type {
+        ITEM,
+        CATEGORY,
+        WISHLIST
+    }
+
+    /**
+     * A completion: the text shown to users, what it refers to and its popularity weight.
+     * {@code refId} is the item or category id, and {@code null} for wishlist terms.
+     */
+    public record Suggestion(String text, Type type, UUID refId, long weight) {
+
+        public Suggestion withWeight(long newWeight) {
+            return new Suggestion(text, type, refId, newWeight);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Enumerates short trade cycles in a {@link TradeGraph}: sequences of listings
+ * {@code n1 -> n2 -> ... -> nk -> n1} where every owner wants the next listing and all owners are
+ * distinct, so each owner gives one listing and receives another.
+ *
+ * <p>Each cycle is reported once, from its smallest node: the search from {@code start} only
+ * visits larger nodes. Before searching forward, the nodes that reach {@code start} in one or two
+ * steps are marked through the reversed graph, which lets the forward search drop any path that
+ * can no longer close within {@code maxLength}. Starts are split across a fork-join pool; every
+ * worker reuses two arrays of one entry per node, so memory is bounded by the graph size times the
+ * parallelism.
+ */
+public final class TradeCycleFinder {
+
+    public static final int MIN_LENGTH = 2;
+    public static final int MAX_LENGTH = 5;
+
+    private final int maxLength;
+    private final int maxPerStart;
+    private final int maxTotal;
+    private final int parallelism;
+
+    public TradeCycleFinder(int maxLength, int maxPerStart, int maxTotal, int parallelism) {
+        if (maxLength < MIN_LENGTH || maxLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("Cycle length must be between 2 and 5");
+        }
+        this.maxLength = maxLength;
+        this.maxPerStart = maxPerStart;
+        this.maxTotal = maxTotal;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Cycles as arrays of node numbers in trade order, at most {@code maxTotal} of them. */
+    public List<int[]> find(TradeGraph graph) {
+        TradeGraph reversed = graph.reversed();
+        ConcurrentLinkedQueue<int[]> found = new ConcurrentLinkedQueue<>();
+        AtomicInteger total = new AtomicInteger();
+        int nodes = graph.nodes();
+        int chunks = Math.max(1, Math.min(nodes, parallelism * 8));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(
+                            () ->
+                                    IntStream.range(0, chunks)
+                                            .parallel()
+                                            .forEach(
+                                                    chunk -> {
+                                                        Search search = new Search(graph, reversed, found, total);
+                                                        for (int start = chunk; start < nodes; start += chunks) {
+                                                            if (total.get() >= maxTotal) {
+                                                                return;
+                                                            }
+                                                            search.from(start);
+                                                        }
+                                                    }))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+        List<int[]> cycles = new ArrayList<>(found);
+        return cycles.size() > maxTotal ? cycles.subList(0, maxTotal) : cycles;
+    }
+
+    private final class Search {
+
+        private final TradeGraph graph;
+        private final TradeGraph reversed;
+        private final ConcurrentLinkedQueue<int[]> found;
+        private final AtomicInteger total;
+        /** {@code start + 1} when {@link #distance} is valid for the current start. */
+        private final int[] stamp;
+        private final byte[] distance;
+        private final int[] path = new int[MAX_LENGTH];
+        private int start;
+        private int foundFromStart;
+
+        Search(TradeGraph graph, TradeGraph reversed, ConcurrentLinkedQueue<int[]> found, AtomicInteger total) {
+            this.graph = graph;
+            this.reversed = reversed;
+            this.found = found;
+            this.total = total;
+            this.stamp = new int[graph.nodes()];
+            this.distance = new byte[graph.nodes()];
+        }
+
+        void from(int start) {
+            this.start = start;
+            this.foundFromStart = 0;
+            int mark = start + 1;
+            int[] offsets = reversed.offsets();
+            int[] sources = reversed.targets();
+            for (int edge = offsets[start]; edge < offsets[start + 1]; edge++) {
+                int one = sources[edge];
+                if (one > start) {
+                    stamp[one] = mark;
+                    distance[one] = 1;
+                }
+            }
+            for (int edge = offsets[start]; edge < offsets[start + 1]; edge++) {
+                int one = sources[edge];
+                if (one <= start) {
+                    continue;
+                }
+                for (int second = offsets[one]; second < offsets[one + 1]; second++) {
+                    int two = sources[second];
+                    if (two > start && stamp[two] != mark) {
+                        stamp[two] = mark;
+                        distance[two] = 2;
+                    }
+                }
+            }
+            path[0] = start;
+            extend(start, 1);
+        }
+
+        /** {@code depth} is the number of listings on the path, which ends at {@code node}. */
+        private void extend(int node, int depth) {
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                if (foundFromStart >= maxPerStart || total.get() >= maxTotal) {
+                    return;
+                }
+                int next = targets[edge];
+                if (next == start) {
+                    if (depth >= MIN_LENGTH) {
+                        found.add(Arrays.copyOf(path, depth));
+                        foundFromStart++;
+                        total.incrementAndGet();
+                    }
+                    continue;
+                }
+                if (next < start || depth == maxLength || onPath(next, depth)) {
+                    continue;
+                }
+                int stepsBack = stamp[next] == start + 1 ? distance[next] : 3;
+                if (depth + stepsBack > maxLength) {
+                    continue;
+                }
+                path[depth] = next;
+                extend(next, depth + 1);
+            }
+        }
+
+        private boolean onPath(int node, int depth) {
+            int owner = graph.owners()[node];
+            for (int i = 0; i < depth; i++) {
+                if (path[i] == node || graph.owners()[path[i]] == owner) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
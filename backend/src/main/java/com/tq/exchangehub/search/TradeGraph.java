@@ -0,0 +1,52 @@
+package com.tq.exchangehub.search;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Immutable want graph in compressed sparse row form: the successors of node {@code n} are
+ * {@code targets[offsets[n]]} to {@code targets[offsets[n + 1] - 1]}, sorted. Nodes are listings,
+ * identified by the two halves of their id; {@code owners} holds an ordinal into {@code ownerIds}.
+ */
+public record TradeGraph(
+        int[] offsets, int[] targets, int[] owners, long[] idMost, long[] idLeast, UUID[] ownerIds) {
+
+    public int nodes() {
+        return owners.length;
+    }
+
+    public int edges() {
+        return targets.length;
+    }
+
+    public UUID itemId(int node) {
+        return new UUID(idMost[node], idLeast[node]);
+    }
+
+    public UUID ownerId(int node) {
+        return ownerIds[owners[node]];
+    }
+
+    /** Same graph with every edge reversed, used to find which nodes can reach a given node. */
+    public TradeGraph reversed() {
+        int[] reverseOffsets = new int[offsets.length];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int node = 0; node < nodes(); node++) {
+            reverseOffsets[node + 1] += reverseOffsets[node];
+        }
+        int[] fill = Arrays.copyOf(reverseOffsets, nodes());
+        int[] reverseTargets = new int[targets.length];
+        for (int node = 0; node < nodes(); node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                reverseTargets[fill[targets[edge]]++] = node;
+            }
+        }
+        return new TradeGraph(reverseOffsets, reverseTargets, owners, idMost, idLeast, ownerIds);
+    }
+
+    public long sizeInBytes() {
+        return 4L * offsets.length + 4L * targets.length + 20L * owners.length + 16L * ownerIds.length;
+    }
+}
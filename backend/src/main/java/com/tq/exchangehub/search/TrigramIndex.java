@@ -0,0 +1,335 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant matcher over item titles and category names, used when PostgreSQL's
+ * {@code pg_trgm} is not available. It reproduces {@code word_similarity(query, text)}: the best
+ * trigram similarity between the whole query and any contiguous run of words of the title or the
+ * category name, on accent-folded lower-case text padded per word like {@code pg_trgm} does.
+ *
+ * <p>Candidates come from a trigram to word posting list followed by a word to document posting
+ * list; since a match needs at least {@code threshold * |query trigrams|} shared trigrams, only
+ * documents reaching that count are scored exactly. Vocabulary entries are never removed since the
+ * set of distinct words grows slowly; document postings are compacted like {@link InvertedIndex}.
+ */
+public final class TrigramIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final Map<String, PostingList> trigramWords = new HashMap<>();
+    private final List<PostingList> wordDocs = new ArrayList<>();
+
+    private final UuidOrdinalMap ordinals = new UuidOrdinalMap(1024);
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+    private long[] idMost = new long[1024];
+    private long[] idLeast = new long[1024];
+    private int[] category = new int[1024];
+    private long[] createdAt = new long[1024];
+    private long[] updatedAt = new long[1024];
+    private String[] titles = new String[1024];
+    private String[] categoryNames = new String[1024];
+    private final BitSet live = new BitSet();
+    private int maxDoc;
+    private int liveDocs;
+
+    public void upsert(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(document.id());
+            if (document.available()) {
+                addInternal(document);
+            }
+            if (maxDoc - liveDocs >= Math.max(MIN_COMPACTION_GARBAGE, maxDoc / 4)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the page of items whose title or category name has a word similarity of at least
+     * {@code threshold} with {@code query}, best matches first.
+     */
+    public SearchHits search(String query, UUID categoryId, double threshold, int offset, int limit) {
+        Set<String> queryTrigrams = new HashSet<>(trigrams(query));
+        if (queryTrigrams.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            int categoryOrdinal = -1;
+            if (categoryId != null) {
+                Integer ordinal = categoryOrdinals.get(categoryId);
+                if (ordinal == null) {
+                    return SearchHits.EMPTY;
+                }
+                categoryOrdinal = ordinal;
+            }
+
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                PostingList words = trigramWords.get(trigram);
+                if (words == null) {
+                    continue;
+                }
+                Set<Integer> docs = new HashSet<>();
+                PostingList.Cursor wordCursor = words.cursor();
+                for (int word = wordCursor.next(); word >= 0; word = wordCursor.next()) {
+                    PostingList.Cursor docCursor = wordDocs.get(word).cursor();
+                    for (int doc = docCursor.next(); doc >= 0; doc = docCursor.next()) {
+                        if (live.get(doc) && (categoryOrdinal < 0 || category[doc] == categoryOrdinal)) {
+                            docs.add(doc);
+                        }
+                    }
+                }
+                for (int doc : docs) {
+                    shared.merge(doc, 1, Integer::sum);
+                }
+            }
+
+            int minShared = Math.max(1, (int) Math.ceil(threshold * queryTrigrams.size()));
+            Map<Integer, Float> scores = new HashMap<>();
+            for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+                if (entry.getValue() < minShared) {
+                    continue;
+                }
+                int doc = entry.getKey();
+                float score =
+                        Math.max(
+                                wordSimilarity(queryTrigrams, titles[doc]),
+                                wordSimilarity(queryTrigrams, categoryNames[doc]));
+                if (score >= threshold) {
+                    scores.put(doc, score);
+                }
+            }
+            return page(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ordered trigrams of {@code text}, word by word, each word padded with two leading blanks and
+     * one trailing blank.
+     */
+    static List<String> trigrams(String text) {
+        List<String> trigrams = new ArrayList<>();
+        for (String word : words(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Greatest Jaccard similarity between {@code queryTrigrams} and the trigram set of any
+     * contiguous run of trigrams of {@code text}.
+     */
+    static float wordSimilarity(Set<String> queryTrigrams, String text) {
+        List<String> textTrigrams = trigrams(text);
+        float best = 0f;
+        for (int start = 0; start < textTrigrams.size(); start++) {
+            if (!queryTrigrams.contains(textTrigrams.get(start))) {
+                continue;
+            }
+            Set<String> extent = new HashSet<>();
+            int common = 0;
+            for (int end = start; end < textTrigrams.size(); end++) {
+                String trigram = textTrigrams.get(end);
+                if (extent.add(trigram) && queryTrigrams.contains(trigram)) {
+                    common++;
+                }
+                if (queryTrigrams.contains(trigram)) {
+                    best = Math.max(best, (float) common / (queryTrigrams.size() + extent.size() - common));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(SpanishAnalyzer.fold(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private SearchHits page(Map<Integer, Float> scores, int offset, int limit) {
+        Integer[] docs = scores.keySet().toArray(new Integer[0]);
+        Arrays.sort(
+                docs,
+                (left, right) -> {
+                    int order = Float.compare(scores.get(right), scores.get(left));
+                    if (order == 0) {
+                        order = Long.compare(updatedAt[right], updatedAt[left]);
+                    }
+                    if (order == 0) {
+                        order = Long.compare(createdAt[right], createdAt[left]);
+                    }
+                    if (order == 0) {
+                        order = Long.compare(idMost[right], idMost[left]);
+                    }
+                    if (order == 0) {
+                        order = Long.compare(idLeast[right], idLeast[left]);
+                    }
+                    return order;
+                });
+        int from = Math.min(offset, docs.length);
+        int to = (int) Math.min((long) from + limit, docs.length);
+        List<UUID> ids = new ArrayList<>(to - from);
+        List<Float> pageScores = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(new UUID(idMost[docs[i]], idLeast[docs[i]]));
+            pageScores.add(scores.get(docs[i]));
+        }
+        return new SearchHits(docs.length, ids, pageScores);
+    }
+
+    private void addInternal(ItemDocument document) {
+        Set<Integer> words = new LinkedHashSet<>();
+        for (String word : words(document.title())) {
+            words.add(wordId(word));
+        }
+        for (String word : words(document.categoryName())) {
+            words.add(wordId(word));
+        }
+
+        int doc = maxDoc++;
+        ensureDocCapacity(maxDoc);
+        idMost[doc] = document.id().getMostSignificantBits();
+        idLeast[doc] = document.id().getLeastSignificantBits();
+        category[doc] = categoryOrdinals.computeIfAbsent(document.categoryId(), key -> categoryOrdinals.size());
+        createdAt[doc] = document.createdAt();
+        updatedAt[doc] = document.updatedAt();
+        titles[doc] = document.title();
+        categoryNames[doc] = document.categoryName();
+        for (int word : words) {
+            wordDocs.get(word).add(doc, 1);
+        }
+        live.set(doc);
+        liveDocs++;
+        ordinals.put(document.id(), doc);
+    }
+
+    private int wordId(String word) {
+        Integer existing = wordIds.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        int id = wordDocs.size();
+        wordIds.put(word, id);
+        wordDocs.add(new PostingList());
+        for (String trigram : new LinkedHashSet<>(trigrams(word))) {
+            trigramWords.computeIfAbsent(trigram, key -> new PostingList()).add(id, 1);
+        }
+        return id;
+    }
+
+    private void deleteInternal(UUID id) {
+        int doc = ordinals.get(id);
+        if (doc < 0) {
+            return;
+        }
+        ordinals.remove(id);
+        if (live.get(doc)) {
+            live.clear(doc);
+            liveDocs--;
+            titles[doc] = null;
+            categoryNames[doc] = null;
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            remap[doc] = live.get(doc) ? next++ : -1;
+        }
+
+        for (int word = 0; word < wordDocs.size(); word++) {
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = wordDocs.get(word).cursor();
+            for (int doc = cursor.next(); doc >= 0; doc = cursor.next()) {
+                if (remap[doc] >= 0) {
+                    compacted.add(remap[doc], 1);
+                }
+            }
+            compacted.trim();
+            wordDocs.set(word, compacted);
+        }
+
+        for (int doc = 0; doc < maxDoc; doc++) {
+            int target = remap[doc];
+            if (target < 0) {
+                continue;
+            }
+            idMost[target] = idMost[doc];
+            idLeast[target] = idLeast[doc];
+            category[target] = category[doc];
+            createdAt[target] = createdAt[doc];
+            updatedAt[target] = updatedAt[doc];
+            titles[target] = titles[doc];
+            categoryNames[target] = categoryNames[doc];
+            ordinals.put(new UUID(idMost[target], idLeast[target]), target);
+        }
+        Arrays.fill(titles, next, maxDoc, null);
+        Arrays.fill(categoryNames, next, maxDoc, null);
+        live.clear();
+        live.set(0, next);
+        maxDoc = next;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= idMost.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, idMost.length + (idMost.length >> 1));
+        idMost = Arrays.copyOf(idMost, newCapacity);
+        idLeast = Arrays.copyOf(idLeast, newCapacity);
+        category = Arrays.copyOf(category, newCapacity);
+        createdAt = Arrays.copyOf(createdAt, newCapacity);
+        updatedAt = Arrays.copyOf(updatedAt, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        categoryNames = Arrays.copyOf(categoryNames, newCapacity);
+    }
+}
@@ -0,0 +1,121 @@
+package com.tq.exchangehub.search;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Open-addressing map from {@link UUID} to a non-negative {@code int}, storing keys as two primitive
+ * longs. It avoids the boxed entries of a {@code HashMap<UUID, Integer>}, which would dominate the
+ * heap of a million-document index.
+ */
+public final class UuidOrdinalMap {
+
+    private static final int EMPTY = -1;
+    private static final int REMOVED = -2;
+
+    private long[] most;
+    private long[] least;
+    private int[] values;
+    private int used;
+    private int size;
+
+    public UuidOrdinalMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int get(UUID key) {
+        int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        return slot < 0 ? EMPTY : Math.max(values[slot], EMPTY);
+    }
+
+    public void put(UUID key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Ordinals must be non-negative");
+        }
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            if (values[slot] == REMOVED) {
+                size++;
+            }
+            values[slot] = value;
+            return;
+        }
+        if ((used + 1) * 2 > values.length) {
+            rehash(size + 1 > values.length / 4 ? values.length * 2 : values.length);
+        }
+        insert(msb, lsb, value);
+        used++;
+        size++;
+    }
+
+    public void remove(UUID key) {
+        int slot = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        if (slot >= 0 && values[slot] >= 0) {
+            values[slot] = REMOVED;
+            size--;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long sizeInBytes() {
+        return values.length * 20L;
+    }
+
+    private int find(long msb, long lsb) {
+        int mask = values.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (values[slot] != EMPTY) {
+            if (most[slot] == msb && least[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long msb, long lsb, int value) {
+        int mask = values.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (values[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        most[slot] = msb;
+        least[slot] = lsb;
+        values[slot] = value;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldMost = most;
+        long[] oldLeast = least;
+        int[] oldValues = values;
+        allocate(capacity);
+        used = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] >= 0) {
+                insert(oldMost[i], oldLeast[i], oldValues[i]);
+                used++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        most = new long[capacity];
+        least = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,438 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matches wishlist entries against other owners' listings. A wish is satisfied by a listing when
+ * every analysed term of the wish appears in the listing's title or category name, so "guitarra
+ * eléctrica" is satisfied by "Guitarra eléctrica Fender" in "Música".
+ *
+ * <p>Two posting lists per term answer both directions without scanning: term to listings that
+ * have it (what a wish can be matched with) and term to wishes that mention it (who wants a given
+ * listing). Deleted documents are masked by a live bit set and dropped when a quarter of the
+ * documents are garbage, like {@link InvertedIndex}.
+ */
+public final class WishlistMatchIndex {
+
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<PostingList> listingsByTerm = new ArrayList<>();
+    private final List<PostingList> wishesByTerm = new ArrayList<>();
+    private final Map<UUID, Integer> ownerOrdinals = new HashMap<>();
+    private final List<UUID> ownerIds = new ArrayList<>();
+
+    private UuidOrdinalMap ordinals = new UuidOrdinalMap(1024);
+    private long[] idMost = new long[1024];
+    private long[] idLeast = new long[1024];
+    private int[] owner = new int[1024];
+    private int[][] terms = new int[1024][];
+    private int[] firstWish = new int[1024];
+    private int[] wishCount = new int[1024];
+    private BitSet live = new BitSet();
+    private int maxDoc;
+    private int liveDocs;
+
+    private int[] wishDoc = new int[1024];
+    private int[][] wishTerms = new int[1024][];
+    private String[] wishText = new String[1024];
+    private int maxWish;
+    private int liveWishes;
+
+    public void upsert(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            deleteInternal(document.id());
+            if (document.available()) {
+                addInternal(document);
+            }
+            if (maxDoc - liveDocs >= Math.max(MIN_COMPACTION_GARBAGE, maxDoc / 4)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int wishes() {
+        lock.readLock().lock();
+        try {
+            return liveWishes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Listings of other owners that both satisfy a wish of {@code itemId} and have a wish that
+     * {@code itemId} satisfies, strongest first (most wishes matched in either direction).
+     */
+    public List<Match> matches(UUID itemId, int limit) {
+        lock.readLock().lock();
+        try {
+            int doc = ordinals.get(itemId);
+            if (doc < 0 || !live.get(doc)) {
+                return List.of();
+            }
+
+            Map<Integer, List<String>> theyHave = new HashMap<>();
+            for (int wish = firstWish[doc]; wish < firstWish[doc] + wishCount[doc]; wish++) {
+                for (int other : listingsWithAll(wishTerms[wish])) {
+                    if (owner[other] != owner[doc]) {
+                        theyHave.computeIfAbsent(other, key -> new ArrayList<>()).add(wishText[wish]);
+                    }
+                }
+            }
+            if (theyHave.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Integer, List<String>> theyWant = new HashMap<>();
+            for (int wish : wishesSatisfiedBy(doc)) {
+                int other = wishDoc[wish];
+                if (theyHave.containsKey(other)) {
+                    theyWant.computeIfAbsent(other, key -> new ArrayList<>()).add(wishText[wish]);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(theyWant.size());
+            for (Map.Entry<Integer, List<String>> entry : theyWant.entrySet()) {
+                int other = entry.getKey();
+                matches.add(
+                        new Match(
+                                new UUID(idMost[other], idLeast[other]),
+                                List.copyOf(theyHave.get(other)),
+                                List.copyOf(entry.getValue())));
+            }
+            matches.sort(
+                    (left, right) -> {
+                        int order = Integer.compare(right.score(), left.score());
+                        return order != 0 ? order : right.itemId().compareTo(left.itemId());
+                    });
+            return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the want graph over live listings: an edge {@code a -> b} means the owner of
+     * {@code a} wishes for {@code b}. Each listing keeps at most {@code maxOutDegree} edges, the
+     * listings matching most of its wishes first, so the snapshot stays bounded for broad wishes.
+     */
+    public TradeGraph graph(int maxOutDegree) {
+        lock.readLock().lock();
+        try {
+            int[] node = new int[maxDoc];
+            Arrays.fill(node, -1);
+            int nodes = 0;
+            for (int doc = live.nextSetBit(0); doc >= 0 && doc < maxDoc; doc = live.nextSetBit(doc + 1)) {
+                node[doc] = nodes++;
+            }
+
+            long[] most = new long[nodes];
+            long[] least = new long[nodes];
+            int[] owners = new int[nodes];
+            int[] offsets = new int[nodes + 1];
+            int[] targets = new int[Math.max(16, nodes)];
+            int edges = 0;
+            for (int doc = live.nextSetBit(0); doc >= 0 && doc < maxDoc; doc = live.nextSetBit(doc + 1)) {
+                int from = node[doc];
+                most[from] = idMost[doc];
+                least[from] = idLeast[doc];
+                owners[from] = owner[doc];
+                offsets[from] = edges;
+
+                Map<Integer, Integer> satisfied = new HashMap<>();
+                for (int wish = firstWish[doc]; wish < firstWish[doc] + wishCount[doc]; wish++) {
+                    for (int other : listingsWithAll(wishTerms[wish])) {
+                        if (owner[other] != owner[doc]) {
+                            satisfied.merge(node[other], 1, Integer::sum);
+                        }
+                    }
+                }
+                int[] chosen =
+                        satisfied.entrySet().stream()
+                                .sorted(
+                                        Map.Entry.<Integer, Integer>comparingByValue()
+                                                .reversed()
+                                                .thenComparing(Map.Entry.comparingByKey()))
+                                .limit(maxOutDegree)
+                                .mapToInt(Map.Entry::getKey)
+                                .sorted()
+                                .toArray();
+                if (edges + chosen.length > targets.length) {
+                    targets = Arrays.copyOf(targets, Math.max(edges + chosen.length, targets.length * 2));
+                }
+                System.arraycopy(chosen, 0, targets, edges, chosen.length);
+                edges += chosen.length;
+            }
+            offsets[nodes] = edges;
+            return new TradeGraph(
+                    offsets, Arrays.copyOf(targets, edges), owners, most, least, ownerIds.toArray(new UUID[0]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = ordinals.sizeInBytes() + (long) idMost.length * (8 + 8 + 4 + 8 + 4 + 4);
+            bytes += (long) wishDoc.length * (4 + 8 + 8);
+            for (int doc = 0; doc < maxDoc; doc++) {
+                bytes += terms[doc] == null ? 0 : 16L + 4L * terms[doc].length;
+            }
+            for (int wish = 0; wish < maxWish; wish++) {
+                bytes += 16L + 4L * wishTerms[wish].length + 40L + 2L * wishText[wish].length();
+            }
+            for (int term = 0; term < listingsByTerm.size(); term++) {
+                bytes += listingsByTerm.get(term).sizeInBytes() + wishesByTerm.get(term).sizeInBytes();
+            }
+            return bytes + termIds.size() * 64L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Live listings whose terms include all of {@code required}, in document order. */
+    private int[] listingsWithAll(int[] required) {
+        PostingList rarest = listingsByTerm.get(required[0]);
+        for (int term : required) {
+            if (listingsByTerm.get(term).docFreq() < rarest.docFreq()) {
+                rarest = listingsByTerm.get(term);
+            }
+        }
+        int[] found = new int[rarest.docFreq()];
+        int size = 0;
+        PostingList.Cursor cursor = rarest.cursor();
+        for (int doc = cursor.next(); doc >= 0; doc = cursor.next()) {
+            if (live.get(doc) && containsAll(terms[doc], required)) {
+                found[size++] = doc;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /** Live wishes of other documents whose terms all appear in {@code doc}. */
+    private List<Integer> wishesSatisfiedBy(int doc) {
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (int term : terms[doc]) {
+            PostingList.Cursor cursor = wishesByTerm.get(term).cursor();
+            for (int wish = cursor.next(); wish >= 0; wish = cursor.next()) {
+                shared.merge(wish, 1, Integer::sum);
+            }
+        }
+        List<Integer> satisfied = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            int wish = entry.getKey();
+            if (entry.getValue() == wishTerms[wish].length && live.get(wishDoc[wish]) && wishDoc[wish] != doc) {
+                satisfied.add(wish);
+            }
+        }
+        return satisfied;
+    }
+
+    private static boolean containsAll(int[] sortedTerms, int[] required) {
+        for (int term : required) {
+            if (Arrays.binarySearch(sortedTerms, term) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addInternal(ItemDocument document) {
+        Set<Integer> listingTerms = new LinkedHashSet<>();
+        for (String token : SpanishAnalyzer.tokenize(document.title())) {
+            listingTerms.add(termId(token));
+        }
+        for (String token : SpanishAnalyzer.tokenize(document.categoryName())) {
+            listingTerms.add(termId(token));
+        }
+
+        int doc = maxDoc++;
+        ensureDocCapacity(maxDoc);
+        idMost[doc] = document.id().getMostSignificantBits();
+        idLeast[doc] = document.id().getLeastSignificantBits();
+        owner[doc] = ownerOrdinals.computeIfAbsent(document.ownerId(), this::newOwner);
+        terms[doc] = listingTerms.stream().mapToInt(Integer::intValue).sorted().toArray();
+        for (int term : terms[doc]) {
+            listingsByTerm.get(term).add(doc, 1);
+        }
+
+        firstWish[doc] = maxWish;
+        Set<List<Integer>> seen = new LinkedHashSet<>();
+        for (String wish : document.wishlist()) {
+            List<String> tokens = SpanishAnalyzer.tokenize(wish);
+            int[] wishTermIds = tokens.stream().mapToInt(this::termId).distinct().sorted().toArray();
+            if (wishTermIds.length == 0 || !seen.add(Arrays.stream(wishTermIds).boxed().toList())) {
+                continue;
+            }
+            int index = maxWish++;
+            ensureWishCapacity(maxWish);
+            wishDoc[index] = doc;
+            wishTerms[index] = wishTermIds;
+            wishText[index] = wish.trim();
+            for (int term : wishTermIds) {
+                wishesByTerm.get(term).add(index, 1);
+            }
+        }
+        wishCount[doc] = maxWish - firstWish[doc];
+        live.set(doc);
+        liveDocs++;
+        liveWishes += wishCount[doc];
+        ordinals.put(document.id(), doc);
+    }
+
+    private int newOwner(UUID ownerId) {
+        ownerIds.add(ownerId);
+        return ownerIds.size() - 1;
+    }
+
+    private int termId(String token) {
+        Integer existing = termIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int id = listingsByTerm.size();
+        termIds.put(token, id);
+        listingsByTerm.add(new PostingList());
+        wishesByTerm.add(new PostingList());
+        return id;
+    }
+
+    private void deleteInternal(UUID id) {
+        int doc = ordinals.get(id);
+        if (doc < 0) {
+            return;
+        }
+        ordinals.remove(id);
+        if (live.get(doc)) {
+            live.clear(doc);
+            liveDocs--;
+            liveWishes -= wishCount[doc];
+        }
+    }
+
+    /**
+     * Re-adds the live documents into fresh posting lists, which drops deleted listings and wishes
+     * from both directions at once.
+     */
+    private void compact() {
+        long[] oldMost = idMost;
+        long[] oldLeast = idLeast;
+        int[] oldOwner = owner;
+        int[][] oldTerms = terms;
+        int[] oldFirstWish = firstWish;
+        int[] oldWishCount = wishCount;
+        int[][] oldWishTerms = wishTerms;
+        String[] oldWishText = wishText;
+        BitSet oldLive = live;
+        int oldMaxDoc = maxDoc;
+
+        for (int term = 0; term < listingsByTerm.size(); term++) {
+            listingsByTerm.set(term, new PostingList());
+            wishesByTerm.set(term, new PostingList());
+        }
+        int capacity = Math.max(1024, liveDocs);
+        ordinals = new UuidOrdinalMap(capacity);
+        idMost = new long[capacity];
+        idLeast = new long[capacity];
+        owner = new int[capacity];
+        terms = new int[capacity][];
+        firstWish = new int[capacity];
+        wishCount = new int[capacity];
+        wishDoc = new int[Math.max(1024, liveWishes)];
+        wishTerms = new int[wishDoc.length][];
+        wishText = new String[wishDoc.length];
+        live = new BitSet(capacity);
+        maxDoc = 0;
+        liveDocs = 0;
+        maxWish = 0;
+        liveWishes = 0;
+
+        for (int old = oldLive.nextSetBit(0); old >= 0 && old < oldMaxDoc; old = oldLive.nextSetBit(old + 1)) {
+            int doc = maxDoc++;
+            idMost[doc] = oldMost[old];
+            idLeast[doc] = oldLeast[old];
+            owner[doc] = oldOwner[old];
+            terms[doc] = oldTerms[old];
+            for (int term : terms[doc]) {
+                listingsByTerm.get(term).add(doc, 1);
+            }
+            firstWish[doc] = maxWish;
+            for (int wish = oldFirstWish[old]; wish < oldFirstWish[old] + oldWishCount[old]; wish++) {
+                int index = maxWish++;
+                wishDoc[index] = doc;
+                wishTerms[index] = oldWishTerms[wish];
+                wishText[index] = oldWishText[wish];
+                for (int term : wishTerms[index]) {
+                    wishesByTerm.get(term).add(index, 1);
+                }
+            }
+            wishCount[doc] = oldWishCount[old];
+            live.set(doc);
+            liveDocs++;
+            liveWishes += wishCount[doc];
+            ordinals.put(new UUID(idMost[doc], idLeast[doc]), doc);
+        }
+        listingsByTerm.forEach(PostingList::trim);
+        wishesByTerm.forEach(PostingList::trim);
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= idMost.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, idMost.length + (idMost.length >> 1));
+        idMost = Arrays.copyOf(idMost, newCapacity);
+        idLeast = Arrays.copyOf(idLeast, newCapacity);
+        owner = Arrays.copyOf(owner, newCapacity);
+        terms = Arrays.copyOf(terms, newCapacity);
+        firstWish = Arrays.copyOf(firstWish, newCapacity);
+        wishCount = Arrays.copyOf(wishCount, newCapacity);
+    }
+
+    private void ensureWishCapacity(int capacity) {
+        if (capacity <= wishDoc.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, wishDoc.length + (wishDoc.length >> 1));
+        wishDoc = Arrays.copyOf(wishDoc, newCapacity);
+        wishTerms = Arrays.copyOf(wishTerms, newCapacity);
+        wishText = Arrays.copyOf(wishText, newCapacity);
+    }
+
+    /**
+     * A mutual match: {@code itemId} has what the queried item's owner asked for ({@code theyHave},
+     * the queried item's wishes it satisfies) and wants the queried item ({@code theyWant}, its own
+     * wishes the queried item satisfies).
+     */
+    public record Match(UUID itemId, List<String> theyHave, List<String> theyWant) {
+
+        public int score() {
+            return theyHave.size() + theyWant.size();
+        }
+    }
+}
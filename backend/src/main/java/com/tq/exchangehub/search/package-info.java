@@ -0,0 +1,4 @@
+/**
+ * In-memory search structures (text analysis, inverted indexes) kept in sync with the item catalogue.
+ */
+package com.tq.exchangehub.search;
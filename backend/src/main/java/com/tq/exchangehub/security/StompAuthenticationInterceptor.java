@@ -0,0 +1,82 @@
+package com.tq.exchangehub.security;
+
+import com.tq.exchangehub.util.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Authenticates a STOMP session once, from the {@code Authorization: Bearer} header of its CONNECT frame;
+ * the principal then travels with every frame of the session, so messages sent over the socket skip the
+ * per-request JWT parsing and user lookup. Sessions may still connect anonymously to subscribe, but only
+ * authenticated sessions may SEND. A rejected frame is dropped and answered with an ERROR frame, which
+ * closes the session; throwing instead would be swallowed by the ordered inbound channel.
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final MessageChannel clientOutboundChannel;
+
+    public StompAuthenticationInterceptor(
+            JwtTokenProvider tokenProvider,
+            UserDetailsService userDetailsService,
+            @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String bearerToken = accessor.getFirstNativeHeader("Authorization");
+            if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+                UsernamePasswordAuthenticationToken authentication = authenticate(bearerToken.substring(7));
+                if (authentication == null) {
+                    return reject(accessor, "Invalid access token");
+                }
+                accessor.setUser(authentication);
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand()) && accessor.getUser() == null) {
+            return reject(accessor, "Authentication required");
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String token) {
+        try {
+            if (tokenProvider.validateAccessToken(token)) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(tokenProvider.extractEmail(token));
+                return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            }
+        } catch (IllegalArgumentException ex) {
+            // treated like any other invalid token
+        }
+        return null;
+    }
+
+    private Message<?> reject(StompHeaderAccessor accessor, String reason) {
+        StompHeaderAccessor error = StompHeaderAccessor.create(StompCommand.ERROR);
+        error.setSessionId(accessor.getSessionId());
+        error.setMessage(reason);
+        clientOutboundChannel.send(MessageBuilder.createMessage(new byte[0], error.getMessageHeaders()));
+        return null;
+    }
+}
@@ -1,53 +1,173 @@
 package com.tq.exchangehub.service;
 
+import com.tq.exchangehub.config.SchedulingConfig;
 import com.tq.exchangehub.dto.CategoryDto;
 import com.tq.exchangehub.entity.Category;
 import com.tq.exchangehub.repository.CategoryRepository;
-import com.tq.exchangehub.repository.ItemRepository;
 import com.tq.exchangehub.util.DtoMapper;
+import com.tq.exchangehub.util.ResourceVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import java.util.Locale;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Categories with their number of available items. Counts live in {@code categories.available_items},
+ * adjusted in the transaction of every item write and recounted periodically to repair drift. The
+ * listing is kept in memory and reloaded, in one query, after any change, together with a hash of its
+ * content that serves as its entity tag.
+ */
 @Service
 public class CategoryService {
 
+    private static final Logger log = LoggerFactory.getLogger(CategoryService.class);
+
     private final CategoryRepository categoryRepository;
-    private final ItemRepository itemRepository;
+    private final ItemCardService itemCardService;
+    private final Counter repairs;
+
+    /** Guarded by {@code this}; {@code generation} stops a listing loaded before a change from being kept. */
+    private Listing listing;
+    private long generation;
 
-    public CategoryService(CategoryRepository categoryRepository, ItemRepository itemRepository) {
+    public CategoryService(
+            CategoryRepository categoryRepository, ItemCardService itemCardService, MeterRegistry meterRegistry) {
         this.categoryRepository = categoryRepository;
-        this.itemRepository = itemRepository;
+        this.itemCardService = itemCardService;
+        this.repairs =
+                Counter.builder("categories.item_counts.repaired")
+                        .description("Category item counts corrected by the reconciliation job")
+                        .register(meterRegistry);
     }
 
     public List<CategoryDto> findAll() {
-        return categoryRepository.findAll().stream()
-                .map(category -> DtoMapper.toCategoryDto(category, itemRepository.countByCategory(category)))
-                .collect(Collectors.toList());
+        return listing().categories();
+    }
+
+    /** Version of the listing returned by {@link #findAll()}, for conditional requests. */
+    public ResourceVersion findVersion() {
+        return listing().version();
     }
 
+    /** Saves {@code category}; when it carries the id of an existing category, its cards follow a rename. */
+    @Transactional
     public CategoryDto create(Category category) {
         Category saved = categoryRepository.save(category);
-        return DtoMapper.toCategoryDto(saved);
+        itemCardService.refreshCategory(saved);
+        invalidate();
+        return DtoMapper.toCategoryDto(saved, saved.getAvailableItems());
     }
 
     public List<CategoryDto> search(String query, int limit) {
-        String normalizedQuery = query == null ? "" : query.trim();
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
 
         if (normalizedQuery.isEmpty()) {
             return List.of();
         }
 
-        int resolvedLimit = Math.max(limit, 1);
-        Pageable pageable = PageRequest.of(0, resolvedLimit);
+        return listing().categories().stream()
+                .filter(category -> contains(category.getName(), normalizedQuery)
+                        || contains(category.getDescription(), normalizedQuery))
+                .limit(Math.max(limit, 1))
+                .toList();
+    }
+
+    /**
+     * Adds {@code delta} to the available item count of {@code categoryId}. Call from the item write
+     * that makes an item available (+1) or unavailable, or deletes an available one (-1).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustAvailableItems(UUID categoryId, long delta) {
+        if (delta != 0) {
+            categoryRepository.adjustAvailableItems(categoryId, delta);
+            invalidate();
+        }
+    }
+
+    @Scheduled(
+            scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            initialDelayString = "${application.categories.count-reconcile-initial-delay:PT5M}",
+            fixedDelayString = "${application.categories.count-reconcile:PT1H}")
+    public void reconcileItemCounts() {
+        int fixed = categoryRepository.reconcileAvailableItems();
+        if (fixed > 0) {
+            log.warn("Repaired available item counts of {} categories", fixed);
+            repairs.increment(fixed);
+            invalidate();
+        }
+    }
+
+    private Listing listing() {
+        long observedGeneration;
+        synchronized (this) {
+            if (listing != null) {
+                return listing;
+            }
+            observedGeneration = generation;
+        }
+        List<CategoryDto> categories =
+                categoryRepository.findAll().stream()
+                        .map(category -> DtoMapper.toCategoryDto(category, category.getAvailableItems()))
+                        .toList();
+        Listing loaded = new Listing(categories, ResourceVersion.ofContentHash(contentHash(categories)));
+        synchronized (this) {
+            if (observedGeneration == generation) {
+                listing = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the listing now, so the current transaction reads its own changes, and again once the
+     * transaction completes, so nothing loaded before the commit or from a rolled back change survives.
+     */
+    private void invalidate() {
+        clearListing();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            clearListing();
+                        }
+                    });
+        }
+    }
+
+    private synchronized void clearListing() {
+        generation++;
+        listing = null;
+    }
+
+    /** 64-bit FNV-1a over every field clients see, in listing order. */
+    private static long contentHash(List<CategoryDto> categories) {
+        long hash = 0xcbf29ce484222325L;
+        for (CategoryDto category : categories) {
+            Instant createdAt = category.getCreatedAt() != null ? category.getCreatedAt().toInstant() : null;
+            String fields =
+                    category.getId() + "\u0000" + category.getName() + "\u0000" + category.getDescription() + "\u0000"
+                            + category.getIcon() + "\u0000" + createdAt + "\u0000" + category.getItemsCount() + "\u0001";
+            for (int i = 0; i < fields.length(); i++) {
+                hash = (hash ^ fields.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
 
-        return categoryRepository
-                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                        normalizedQuery, normalizedQuery, pageable)
-                .stream()
-                .map(category -> DtoMapper.toCategoryDto(category, itemRepository.countByCategory(category)))
-                .collect(Collectors.toList());
+    private static boolean contains(String value, String query) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(query);
     }
+
+    private record Listing(List<CategoryDto> categories, ResourceVersion version) {}
 }
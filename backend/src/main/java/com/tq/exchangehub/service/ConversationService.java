@@ -0,0 +1,79 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.dto.ConversationDto;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.repository.TradeRepository;
+import com.tq.exchangehub.util.ConversationCursor;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+public class ConversationService {
+
+    private final TradeRepository tradeRepository;
+
+    public ConversationService(TradeRepository tradeRepository) {
+        this.tradeRepository = tradeRepository;
+    }
+
+    /**
+     * One page of the conversations of {@code profileId}, most recent activity first, for an empty
+     * {@code cursor} or the {@code nextCursor} of the previous page. Each page is a single query returning
+     * the latest message preview and the unread count of every trade on it.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ConversationDto> findConversations(UUID profileId, String cursor, int size) {
+        ConversationCursor after = ConversationCursor.decode(cursor);
+        int resolvedSize = Math.max(size, 1);
+        List<TradeRepository.ConversationRow> rows =
+                after == null
+                        ? tradeRepository.findConversationsFirst(profileId, resolvedSize + 1)
+                        : tradeRepository.findConversationsAfter(
+                                profileId, after.lastActivityAt(), after.id(), resolvedSize + 1);
+        String nextCursor = null;
+        if (rows.size() > resolvedSize) {
+            rows = rows.subList(0, resolvedSize);
+            TradeRepository.ConversationRow last = rows.get(resolvedSize - 1);
+            nextCursor = new ConversationCursor(last.getLastActivityAt(), last.getTradeId()).encode();
+        }
+        return new CursorPageDto<>(
+                rows.stream().map(ConversationService::toConversationDto).toList(), resolvedSize, nextCursor);
+    }
+
+    /**
+     * Marks every message of the trade up to its latest one as read by {@code profileId}. The read cursor is
+     * a column per participant on the trade, so this is a single update; the trade is only looked up again
+     * when nothing was updated, to tell a missing trade or an outsider apart.
+     */
+    @Transactional
+    public void markRead(UUID tradeId, UUID profileId) {
+        if (tradeRepository.markReadAsOwner(tradeId, profileId) > 0
+                || tradeRepository.markReadAsRequester(tradeId, profileId) > 0) {
+            return;
+        }
+        if (!tradeRepository.existsById(tradeId)) {
+            throw new IllegalArgumentException("Trade not found");
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a participant in this trade");
+    }
+
+    private static ConversationDto toConversationDto(TradeRepository.ConversationRow row) {
+        ConversationDto dto = new ConversationDto();
+        dto.setTradeId(row.getTradeId());
+        dto.setStatus(row.getStatus());
+        dto.setItemTitle(row.getItemTitle());
+        dto.setCounterpartId(row.getCounterpartId());
+        dto.setCounterpartName(row.getCounterpartName());
+        dto.setLastMessageId(row.getLastMessageId());
+        dto.setLastMessageSenderId(row.getLastMessageSenderId());
+        dto.setLastMessagePreview(row.getLastMessagePreview());
+        dto.setLastMessageAt(row.getLastMessageAt());
+        dto.setLastActivityAt(row.getLastActivityAt());
+        dto.setUnreadCount(row.getUnreadCount());
+        return dto;
+    }
+}
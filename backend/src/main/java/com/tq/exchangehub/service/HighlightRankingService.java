@@ -0,0 +1,308 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.HighlightProperties;
+import com.tq.exchangehub.config.SchedulingConfig;
+import com.tq.exchangehub.repository.FavoriteRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Popularity ranking of the highlighted feed. A scheduled run scores every available item from its
+ * favorites, trade requests received and recent views, scaled by a freshness factor that halves
+ * with listing age, and keeps the best ids in an array so a feed page is an array slice. Each run
+ * persists the ranking and the decayed view counts to {@code item_popularity}, which is read back
+ * at startup.
+ */
+@Service
+public class HighlightRankingService {
+
+    static final double FAVORITE_WEIGHT = 2.0;
+    static final double TRADE_REQUEST_WEIGHT = 3.0;
+    static final double VIEW_WEIGHT = 1.0;
+    /** Decayed view counts below this are dropped. */
+    private static final double FORGOTTEN_VIEWS = 0.01;
+
+    private static final Logger log = LoggerFactory.getLogger(HighlightRankingService.class);
+
+    private final ItemRepository itemRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final TradeRepository tradeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final HighlightProperties highlightProperties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Timer scoringTimer;
+
+    /** Views recorded since the last run, folded into {@link #recentViews} by the next one. */
+    private final ConcurrentHashMap<UUID, LongAdder> newViews = new ConcurrentHashMap<>();
+    /** Decayed view counts as of {@link #viewsDecayedAt}; guarded by {@code this}. */
+    private final Map<UUID, Double> recentViews = new HashMap<>();
+    private Instant viewsDecayedAt = Instant.now();
+    private volatile Ranking ranking = Ranking.EMPTY;
+
+    public HighlightRankingService(
+            ItemRepository itemRepository,
+            FavoriteRepository favoriteRepository,
+            TradeRepository tradeRepository,
+            JdbcTemplate jdbcTemplate,
+            HighlightProperties highlightProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.tradeRepository = tradeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.highlightProperties = highlightProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.scoringTimer =
+                Timer.builder("highlights.scoring")
+                        .description("Time spent scoring available items for the highlighted feed")
+                        .register(meterRegistry);
+        Gauge.builder("highlights.ranked", this, service -> service.ranking.size())
+                .description("Items in the current highlighted feed ranking")
+                .register(meterRegistry);
+    }
+
+    /** The ranking currently served; empty until the first run or a restored snapshot. */
+    public Ranking ranking() {
+        return ranking;
+    }
+
+    public void recordView(UUID itemId) {
+        newViews.computeIfAbsent(itemId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * {@code (1 + weighted log of each interest signal)} times a freshness factor that halves every
+     * {@code halfLifeHours} of listing age. Logarithms keep one viral item from drowning the rest.
+     */
+    static double score(long favorites, long tradeRequests, double recentViews, double ageHours, double halfLifeHours) {
+        double interest =
+                1
+                        + FAVORITE_WEIGHT * Math.log1p(favorites)
+                        + TRADE_REQUEST_WEIGHT * Math.log1p(tradeRequests)
+                        + VIEW_WEIGHT * Math.log1p(recentViews);
+        return interest * Math.pow(0.5, Math.max(ageHours, 0) / halfLifeHours);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        List<SnapshotRow> rows =
+                readTransaction.execute(
+                        status ->
+                                jdbcTemplate.query(
+                                        "SELECT item_id, list_position, recent_views, computed_at FROM item_popularity",
+                                        (resultSet, rowNumber) -> {
+                                            int position = resultSet.getInt("list_position");
+                                            return new SnapshotRow(
+                                                    resultSet.getObject("item_id", UUID.class),
+                                                    resultSet.wasNull() ? -1 : position,
+                                                    resultSet.getDouble("recent_views"),
+                                                    resultSet.getObject("computed_at", OffsetDateTime.class));
+                                        }));
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        List<SnapshotRow> ranked =
+                rows.stream()
+                        .filter(row -> row.position() >= 0)
+                        .sorted(Comparator.comparingInt(SnapshotRow::position))
+                        .toList();
+        recentViews.clear();
+        rows.stream()
+                .filter(row -> row.recentViews() > 0)
+                .forEach(row -> recentViews.put(row.itemId(), row.recentViews()));
+        Instant computedAt = rows.get(0).computedAt().toInstant();
+        viewsDecayedAt = computedAt;
+        ranking = new Ranking(ranked.stream().map(SnapshotRow::itemId).toArray(UUID[]::new), computedAt);
+        log.info("Restored highlighted feed ranking of {} items computed at {}", ranking.size(), computedAt);
+    }
+
+    @Scheduled(
+            scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            initialDelayString = "${application.highlights.initial-delay:PT1M}",
+            fixedDelayString = "${application.highlights.refresh:PT5M}")
+    public synchronized void refresh() {
+        long started = System.nanoTime();
+        Instant now = Instant.now();
+        decayViews(now);
+
+        Map<UUID, Long> favorites = new HashMap<>();
+        Map<UUID, Long> tradeRequests = new HashMap<>();
+        List<ItemRepository.ItemAge> items =
+                readTransaction.execute(
+                        status -> {
+                            favoriteRepository
+                                    .countByItem()
+                                    .forEach(row -> favorites.put(row.getItemId(), row.getTotal()));
+                            tradeRepository
+                                    .countByOwnerItem()
+                                    .forEach(row -> tradeRequests.put(row.getItemId(), row.getTotal()));
+                            return itemRepository.findAvailableAges();
+                        });
+
+        double halfLifeHours = hours(highlightProperties.getFreshnessHalfLife());
+        int maxRanked = Math.max(highlightProperties.getMaxRanked(), 1);
+        // Min-heap of the best items so far: scoring is O(n log maxRanked) with bounded memory.
+        PriorityQueue<Scored> best = new PriorityQueue<>(Scored.ORDER);
+        for (ItemRepository.ItemAge item : items) {
+            UUID id = item.getId();
+            double ageHours = hours(Duration.between(item.getCreatedAt().toInstant(), now));
+            Scored scored =
+                    new Scored(
+                            id,
+                            score(
+                                    favorites.getOrDefault(id, 0L),
+                                    tradeRequests.getOrDefault(id, 0L),
+                                    recentViews.getOrDefault(id, 0.0),
+                                    ageHours,
+                                    halfLifeHours));
+            if (best.size() < maxRanked) {
+                best.add(scored);
+            } else if (Scored.ORDER.compare(scored, best.peek()) > 0) {
+                best.poll();
+                best.add(scored);
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(Scored.ORDER.reversed());
+
+        ranking = new Ranking(ranked.stream().map(Scored::itemId).toArray(UUID[]::new), now);
+        persist(ranked, now);
+        long elapsed = System.nanoTime() - started;
+        scoringTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info(
+                "Ranked {} of {} available items for the highlighted feed in {} ms",
+                ranking.size(),
+                items.size(),
+                elapsed / 1_000_000);
+    }
+
+    /** Ages {@link #recentViews} to {@code now} and adds the views recorded since the last run. */
+    private void decayViews(Instant now) {
+        double factor =
+                Math.pow(0.5, hours(Duration.between(viewsDecayedAt, now)) / hours(highlightProperties.getViewHalfLife()));
+        recentViews.replaceAll((id, views) -> views * factor);
+        for (UUID id : List.copyOf(newViews.keySet())) {
+            LongAdder views = newViews.remove(id);
+            if (views != null) {
+                recentViews.merge(id, (double) views.sum(), Double::sum);
+            }
+        }
+        recentViews.values().removeIf(views -> views < FORGOTTEN_VIEWS);
+        viewsDecayedAt = now;
+    }
+
+    private void persist(List<Scored> ranked, Instant computedAt) {
+        OffsetDateTime timestamp = computedAt.atOffset(ZoneOffset.UTC);
+        List<Object[]> rows = new ArrayList<>(ranked.size() + recentViews.size());
+        Map<UUID, Double> unranked = new HashMap<>(recentViews);
+        for (int position = 0; position < ranked.size(); position++) {
+            Scored scored = ranked.get(position);
+            Double views = unranked.remove(scored.itemId());
+            rows.add(new Object[] {scored.itemId(), position, scored.score(), views != null ? views : 0.0, timestamp});
+        }
+        unranked.forEach((id, views) -> rows.add(new Object[] {id, null, 0.0, views, timestamp}));
+        try {
+            writeTransaction.executeWithoutResult(
+                    status -> {
+                        jdbcTemplate.update("DELETE FROM item_popularity");
+                        jdbcTemplate.batchUpdate(
+                                "INSERT INTO item_popularity (item_id, list_position, score, recent_views, computed_at)"
+                                        + " VALUES (?, ?, ?, ?, ?)",
+                                rows);
+                    });
+        } catch (DataAccessException ex) {
+            // The in-memory ranking is already live; only a restart before the next run loses it.
+            log.warn("Could not persist the highlighted feed ranking", ex);
+        }
+    }
+
+    private static double hours(Duration duration) {
+        return duration.toMillis() / 3_600_000.0;
+    }
+
+    /** Item ids in feed order, best first, with the time they were scored. */
+    public static final class Ranking {
+
+        static final Ranking EMPTY = new Ranking(new UUID[0], Instant.EPOCH);
+
+        private final UUID[] ids;
+        private final Map<UUID, Integer> positions;
+        private final Instant computedAt;
+
+        Ranking(UUID[] ids, Instant computedAt) {
+            this.ids = ids;
+            this.computedAt = computedAt;
+            this.positions = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                positions.put(ids[i], i);
+            }
+        }
+
+        public boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public Instant computedAt() {
+            return computedAt;
+        }
+
+        /** Up to {@code limit} ids starting at position {@code from}. */
+        public List<UUID> slice(long from, int limit) {
+            if (from >= ids.length) {
+                return List.of();
+            }
+            int start = (int) Math.max(from, 0);
+            return Arrays.asList(ids).subList(start, Math.min(start + Math.max(limit, 0), ids.length));
+        }
+
+        /** Position of {@code id} in the ranking, or {@code -1} when it is not ranked. */
+        public int positionOf(UUID id) {
+            return positions.getOrDefault(id, -1);
+        }
+    }
+
+    private record Scored(UUID itemId, double score) {
+
+        /** Ascending by score; ties broken by id so runs are deterministic. */
+        static final Comparator<Scored> ORDER =
+                Comparator.comparingDouble(Scored::score).thenComparing(Scored::itemId);
+    }
+
+    private record SnapshotRow(UUID itemId, int position, double recentViews, OffsetDateTime computedAt) {}
+}
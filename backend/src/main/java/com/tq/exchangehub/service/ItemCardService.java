@@ -0,0 +1,60 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.ItemCard;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.repository.ItemCardRepository;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the {@code item_cards} read model in step with items, profiles and categories. Every method
+ * must run inside the transaction of the write it mirrors, so a card never outlives a rolled back
+ * change.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ItemCardService {
+
+    private final ItemCardRepository itemCardRepository;
+
+    public ItemCardService(ItemCardRepository itemCardRepository) {
+        this.itemCardRepository = itemCardRepository;
+    }
+
+    /** Writes the card of a saved item; {@code item} must have its owner and category set. */
+    public void refresh(Item item) {
+        ItemCard card = new ItemCard();
+        card.setItemId(item.getId());
+        card.setOwnerId(item.getOwner().getId());
+        card.setOwnerDisplayName(item.getOwner().getDisplayName());
+        card.setOwnerAvatarUrl(item.getOwner().getAvatarUrl());
+        card.setOwnerRating(item.getOwner().getRating());
+        card.setCategoryId(item.getCategory().getId());
+        card.setCategoryName(item.getCategory().getName());
+        card.setTitle(item.getTitle());
+        card.setDescription(item.getDescription());
+        card.setCondition(item.getCondition());
+        card.setLocation(item.getLocation());
+        card.setAvailable(item.getAvailable());
+        card.setService(item.getService());
+        card.setMainImageUrl(item.getImages().isEmpty() ? null : item.getImages().get(0));
+        card.setWishlist(List.copyOf(item.getWishlist()));
+        card.setCreatedAt(item.getCreatedAt());
+        card.setUpdatedAt(item.getUpdatedAt());
+        itemCardRepository.save(card);
+    }
+
+    /** Copies the owner fields shown on cards to every card of {@code profile}. */
+    public void refreshOwner(Profile profile) {
+        itemCardRepository.updateOwner(
+                profile.getId(), profile.getDisplayName(), profile.getAvatarUrl(), profile.getRating());
+    }
+
+    public void refreshCategory(Category category) {
+        itemCardRepository.updateCategoryName(category.getId(), category.getName());
+    }
+}
@@ -0,0 +1,560 @@
+package com.tq.exchangehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tq.exchangehub.dto.ItemImportErrorDto;
+import com.tq.exchangehub.dto.ItemImportResultDto;
+import com.tq.exchangehub.dto.ItemRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.search.ItemDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk creation of items for partner onboarding, from NDJSON (one {@link ItemRequest} per line) or
+ * CSV (a header row naming {@link ItemRequest} properties; {@code images} and {@code wishlist}
+ * cells are {@code |}-separated).
+ *
+ * <p>Rows are parsed and validated as they stream in, and valid ones are written in chunks of
+ * {@value #CHUNK_SIZE}, one transaction each. A chunk resolves the owners and categories it has
+ * not seen before with one query each, then fills {@code items}, {@code item_images},
+ * {@code item_wishlist} and {@code item_cards} with JDBC batch inserts, adjusts the category
+ * counters and publishes the same {@link ItemChangedEvent} as {@link ItemService#create}. A rejected
+ * row is reported with its line number and does not stop the import.
+ */
+@Service
+public class ItemImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final Set<String> CSV_COLUMNS =
+            Set.of(
+                    "ownerId", "categoryId", "title", "description", "condition", "estimatedValue", "available",
+                    "service", "location", "images", "wishlist");
+
+    private static final Logger log = LoggerFactory.getLogger(ItemImportService.class);
+
+    private static final String INSERT_ITEM =
+            """
+            INSERT INTO items (id, user_id, category_id, title, description, condition, estimated_value,
+                is_available, is_service, location, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_IMAGE = "INSERT INTO item_images (item_id, image_url) VALUES (?, ?)";
+    private static final String INSERT_WISH = "INSERT INTO item_wishlist (item_id, wishlist_item) VALUES (?, ?)";
+    private static final String INSERT_CARD =
+            """
+            INSERT INTO item_cards (item_id, owner_id, owner_display_name, owner_avatar_url, owner_rating,
+                category_id, category_name, title, description, condition, location, is_available, is_service,
+                main_image_url, wishlist, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileRepository profileRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ItemImportService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ProfileRepository profileRepository,
+            CategoryRepository categoryRepository,
+            CategoryService categoryService,
+            ApplicationEventPublisher eventPublisher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.profileRepository = profileRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importedRows =
+                Counter.builder("items.import.rows")
+                        .tag("outcome", "imported")
+                        .description("Rows of bulk item imports")
+                        .register(meterRegistry);
+        this.rejectedRows =
+                Counter.builder("items.import.rows")
+                        .tag("outcome", "rejected")
+                        .description("Rows of bulk item imports")
+                        .register(meterRegistry);
+    }
+
+    public ItemImportResultDto importItems(Reader input, Format format) {
+        BufferedReader reader = new BufferedReader(input, 64 * 1024);
+        RowReader rows = format == Format.CSV ? new CsvRows(reader) : new NdjsonRows(reader);
+        Import state = new Import();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        try {
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                String error = row.error() != null ? row.error() : validate(row.request());
+                if (error != null) {
+                    state.reject(row.line(), error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(chunk, state);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, state);
+        }
+        // Owner and category errors are only known once a chunk is written, after later parse errors.
+        state.result.getErrors().sort(Comparator.comparingLong(ItemImportErrorDto::getLine));
+        importedRows.increment(state.result.getImported());
+        rejectedRows.increment(state.result.getFailed());
+        return state.result;
+    }
+
+    private String validate(ItemRequest request) {
+        List<String> problems =
+                validator.validate(request).stream()
+                        .sorted(Comparator.comparing(
+                                (ConstraintViolation<ItemRequest> violation) -> violation.getPropertyPath().toString()))
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .collect(Collectors.toCollection(ArrayList::new));
+        checkLength(problems, "title", request.getTitle());
+        checkLength(problems, "condition", request.getCondition());
+        checkLength(problems, "location", request.getLocation());
+        return problems.isEmpty() ? null : String.join("; ", problems);
+    }
+
+    private static void checkLength(List<String> problems, String property, String value) {
+        if (value != null && value.length() > MAX_COLUMN_LENGTH) {
+            problems.add(property + ": size must be at most " + MAX_COLUMN_LENGTH);
+        }
+    }
+
+    /** Stores one chunk in its own transaction; if the database rejects it, all its rows are reported. */
+    private void write(List<Row> chunk, Import state) {
+        List<Row> rejected = new ArrayList<>();
+        try {
+            List<Prepared> stored = transactionTemplate.execute(status -> insert(chunk, state, rejected));
+            rejected.forEach(row -> state.reject(row.line(), row.error()));
+            state.result.setImported(state.result.getImported() + stored.size());
+        } catch (DataAccessException ex) {
+            log.warn("Rejected an import chunk of {} rows starting at line {}", chunk.size(), chunk.get(0).line(), ex);
+            String message = "Could not be stored: " + ex.getMostSpecificCause().getMessage();
+            chunk.forEach(row -> state.reject(row.line(), message));
+        }
+    }
+
+    private List<Prepared> insert(List<Row> chunk, Import state, List<Row> rejected) {
+        state.resolve(chunk);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Prepared> items = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            ItemRequest request = row.request();
+            Optional<OwnerRef> owner = state.owners.get(request.getOwnerId());
+            Optional<CategoryRef> category = state.categories.get(request.getCategoryId());
+            if (owner.isEmpty()) {
+                rejected.add(new Row(row.line(), null, "Profile not found"));
+            } else if (category.isEmpty()) {
+                rejected.add(new Row(row.line(), null, "Category not found"));
+            } else {
+                items.add(new Prepared(UUID.randomUUID(), request, owner.get(), category.get(), now));
+            }
+        }
+        if (items.isEmpty()) {
+            return items;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, items.size(), ItemImportService::bindItem);
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> wishes = new ArrayList<>();
+        Map<UUID, Long> availableByCategory = new HashMap<>();
+        for (Prepared item : items) {
+            item.images().forEach(image -> images.add(new Object[] {item.id(), image}));
+            item.wishlist().forEach(wish -> wishes.add(new Object[] {item.id(), wish}));
+            if (item.available()) {
+                availableByCategory.merge(item.category().id(), 1L, Long::sum);
+            }
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+        }
+        if (!wishes.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_WISH, wishes);
+        }
+        jdbcTemplate.batchUpdate(INSERT_CARD, items, items.size(), ItemImportService::bindCard);
+        availableByCategory.forEach(categoryService::adjustAvailableItems);
+        eventPublisher.publishEvent(new ItemChangedEvent(items.stream().map(Prepared::toDocument).toList()));
+        return items;
+    }
+
+    private static void bindItem(PreparedStatement statement, Prepared item) throws SQLException {
+        ItemRequest request = item.request();
+        statement.setObject(1, item.id());
+        statement.setObject(2, item.owner().id());
+        statement.setObject(3, item.category().id());
+        statement.setString(4, request.getTitle());
+        statement.setString(5, request.getDescription());
+        statement.setString(6, request.getCondition());
+        statement.setBigDecimal(7, request.getEstimatedValue());
+        statement.setObject(8, request.getAvailable(), Types.BOOLEAN);
+        statement.setObject(9, request.getService(), Types.BOOLEAN);
+        statement.setString(10, request.getLocation());
+        statement.setObject(11, item.createdAt());
+        statement.setObject(12, item.createdAt());
+    }
+
+    private static void bindCard(PreparedStatement statement, Prepared item) throws SQLException {
+        ItemRequest request = item.request();
+        statement.setObject(1, item.id());
+        statement.setObject(2, item.owner().id());
+        statement.setString(3, item.owner().displayName());
+        statement.setString(4, item.owner().avatarUrl());
+        statement.setObject(5, item.owner().rating(), Types.DOUBLE);
+        statement.setObject(6, item.category().id());
+        statement.setString(7, item.category().name());
+        statement.setString(8, request.getTitle());
+        statement.setString(9, request.getDescription());
+        statement.setString(10, request.getCondition());
+        statement.setString(11, request.getLocation());
+        statement.setObject(12, request.getAvailable(), Types.BOOLEAN);
+        statement.setObject(13, request.getService(), Types.BOOLEAN);
+        statement.setString(14, item.images().isEmpty() ? null : item.images().get(0));
+        statement.setArray(15, statement.getConnection().createArrayOf("VARCHAR", item.wishlist().toArray()));
+        statement.setObject(16, item.createdAt());
+        statement.setObject(17, item.createdAt());
+    }
+
+    /** Progress of one import: the report plus owners and categories resolved so far. */
+    private final class Import {
+
+        private final ItemImportResultDto result = new ItemImportResultDto();
+        private final Map<UUID, Optional<OwnerRef>> owners = new HashMap<>();
+        private final Map<UUID, Optional<CategoryRef>> categories = new HashMap<>();
+
+        private void reject(long line, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new ItemImportErrorDto(line, message));
+            }
+        }
+
+        private void resolve(List<Row> chunk) {
+            Set<UUID> ownerIds = new HashSet<>();
+            Set<UUID> categoryIds = new HashSet<>();
+            for (Row row : chunk) {
+                if (!owners.containsKey(row.request().getOwnerId())) {
+                    ownerIds.add(row.request().getOwnerId());
+                }
+                if (!categories.containsKey(row.request().getCategoryId())) {
+                    categoryIds.add(row.request().getCategoryId());
+                }
+            }
+            if (!ownerIds.isEmpty()) {
+                ownerIds.forEach(id -> owners.put(id, Optional.empty()));
+                for (Profile profile : profileRepository.findAllById(ownerIds)) {
+                    owners.put(profile.getId(), Optional.of(OwnerRef.of(profile)));
+                }
+            }
+            if (!categoryIds.isEmpty()) {
+                categoryIds.forEach(id -> categories.put(id, Optional.empty()));
+                for (Category category : categoryRepository.findAllById(categoryIds)) {
+                    categories.put(category.getId(), Optional.of(new CategoryRef(category.getId(), category.getName())));
+                }
+            }
+        }
+    }
+
+    private record OwnerRef(UUID id, String displayName, String avatarUrl, Double rating) {
+        private static OwnerRef of(Profile profile) {
+            return new OwnerRef(profile.getId(), profile.getDisplayName(), profile.getAvatarUrl(), profile.getRating());
+        }
+    }
+
+    private record CategoryRef(UUID id, String name) {}
+
+    /** A valid row with its new id; duplicate images and wishes are dropped as their tables require. */
+    private record Prepared(
+            UUID id,
+            ItemRequest request,
+            OwnerRef owner,
+            CategoryRef category,
+            OffsetDateTime createdAt,
+            List<String> images,
+            List<String> wishlist) {
+
+        private Prepared(UUID id, ItemRequest request, OwnerRef owner, CategoryRef category, OffsetDateTime now) {
+            this(id, request, owner, category, now, distinct(request.getImages()), distinct(request.getWishlist()));
+        }
+
+        private boolean available() {
+            return !Boolean.FALSE.equals(request.getAvailable());
+        }
+
+        private ItemDocument toDocument() {
+            long millis = createdAt.toInstant().toEpochMilli();
+            return new ItemDocument(
+                    id, owner.id(), category.id(), request.getTitle(), request.getDescription(), category.name(),
+                    wishlist, available(), millis, millis);
+        }
+
+        private static List<String> distinct(List<String> values) {
+            return values == null ? List.of() : values.stream().filter(value -> value != null).distinct().toList();
+        }
+    }
+
+    /** A parsed row, or the reason it could not be parsed. */
+    private record Row(long line, ItemRequest request, String error) {}
+
+    private interface RowReader {
+        /** The next row, or {@code null} at the end of the input. */
+        Row next() throws IOException;
+    }
+
+    private final class NdjsonRows implements RowReader {
+
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                ItemRequest request = objectMapper.readValue(text, ItemRequest.class);
+                return request == null
+                        ? new Row(line, null, "Expected a JSON object")
+                        : new Row(line, request, null);
+            } catch (JsonProcessingException ex) {
+                return new Row(line, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    /** RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks. */
+    private static final class CsvRows implements RowReader {
+
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line = 1;
+        private boolean eof;
+
+        private CsvRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns.isEmpty()) {
+                readHeader();
+            }
+            while (true) {
+                long start = line;
+                List<String> fields = new ArrayList<>();
+                String error = readRecord(fields);
+                if (fields.isEmpty()) {
+                    return null;
+                }
+                if (error != null) {
+                    return new Row(start, null, error);
+                }
+                if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                    continue;
+                }
+                if (fields.size() != columns.size()) {
+                    return new Row(
+                            start, null, "Expected " + columns.size() + " columns but found " + fields.size());
+                }
+                try {
+                    return new Row(start, toRequest(fields), null);
+                } catch (IllegalArgumentException ex) {
+                    return new Row(start, null, ex.getMessage());
+                }
+            }
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = new ArrayList<>();
+            if (readRecord(header) != null || header.isEmpty()) {
+                throw new IllegalArgumentException("CSV header row is missing");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim();
+                if (!CSV_COLUMNS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + name);
+                }
+                if (columns.put(name, i) != null) {
+                    throw new IllegalArgumentException("Duplicate CSV column: " + name);
+                }
+            }
+        }
+
+        /** Reads one record into {@code fields}, which stays empty at the end of the input. */
+        private String readRecord(List<String> fields) throws IOException {
+            if (eof) {
+                return null;
+            }
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    eof = true;
+                    if (read) {
+                        fields.add(field.toString());
+                    }
+                    return quoted ? "Unterminated quoted field" : null;
+                }
+                read = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return null;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private ItemRequest toRequest(List<String> fields) {
+            ItemRequest request = new ItemRequest();
+            request.setOwnerId(uuid(fields, "ownerId"));
+            request.setCategoryId(uuid(fields, "categoryId"));
+            request.setTitle(text(fields, "title"));
+            request.setDescription(text(fields, "description"));
+            request.setCondition(text(fields, "condition"));
+            String value = text(fields, "estimatedValue");
+            try {
+                request.setEstimatedValue(value == null ? null : new BigDecimal(value));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("estimatedValue: not a number");
+            }
+            request.setAvailable(bool(fields, "available"));
+            request.setService(bool(fields, "service"));
+            request.setLocation(text(fields, "location"));
+            request.setImages(list(fields, "images"));
+            request.setWishlist(list(fields, "wishlist"));
+            return request;
+        }
+
+        private String text(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private UUID uuid(List<String> fields, String column) {
+            String value = text(fields, column);
+            try {
+                return value == null ? null : UUID.fromString(value);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(column + ": not a UUID");
+            }
+        }
+
+        private Boolean bool(List<String> fields, String column) {
+            String value = text(fields, column);
+            if (value == null) {
+                return null;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "true" -> Boolean.TRUE;
+                case "false" -> Boolean.FALSE;
+                default -> throw new IllegalArgumentException(column + ": expected true or false");
+            };
+        }
+
+        private List<String> list(List<String> fields, String column) {
+            String value = text(fields, column);
+            if (value == null) {
+                return null;
+            }
+            return Arrays.stream(value.split("\\|")).map(String::trim).filter(entry -> !entry.isEmpty()).toList();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.SearchProperties;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.search.InvertedIndex;
+import com.tq.exchangehub.search.ItemDocument;
+import com.tq.exchangehub.search.SearchHits;
+import com.tq.exchangehub.search.TradeGraph;
+import com.tq.exchangehub.search.TrigramIndex;
+import com.tq.exchangehub.search.WishlistMatchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ItemIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemIndexService.class);
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final SearchProperties searchProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final InvertedIndex index = new InvertedIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final WishlistMatchIndex matchIndex = new WishlistMatchIndex();
+    private volatile boolean ready;
+    private volatile boolean trigramReady;
+    private volatile boolean matchReady;
+    private final boolean trigramEnabled;
+    private final Queue<ItemDocument> pending = new ArrayDeque<>();
+    private boolean built;
+
+    public ItemIndexService(
+            ItemRepository itemRepository,
+            SearchProperties searchProperties,
+            PlatformTransactionManager transactionManager,
+            DataSource dataSource,
+            MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.searchProperties = searchProperties;
+        this.trigramEnabled = !isPostgreSql(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("search.index.documents", index, InvertedIndex::size)
+                .description("Available items held by the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.size", index, InvertedIndex::estimatedSizeInBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("search.fuzzy.index.documents", trigramIndex, TrigramIndex::size)
+                .description("Available items held by the in-memory fuzzy (trigram) index")
+                .register(meterRegistry);
+        Gauge.builder("match.index.wishes", matchIndex, WishlistMatchIndex::wishes)
+                .description("Wishlist entries of available items held by the matchmaking index")
+                .register(meterRegistry);
+        Gauge.builder("match.index.size", matchIndex, WishlistMatchIndex::estimatedSizeInBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the matchmaking index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return searchProperties.getEngine() == SearchProperties.Engine.INDEX;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchHits search(String query, UUID categoryId, int offset, int limit) {
+        return index.search(query, categoryId, offset, limit);
+    }
+
+    public SearchHits searchAfter(
+            String query, UUID categoryId, InvertedIndex.Position after, int limit) {
+        return index.searchAfter(query, categoryId, after, limit);
+    }
+
+    /**
+     * Whether fuzzy searches are answered from the in-memory trigram index, which is the case on
+     * databases without {@code pg_trgm} (H2 in the dev and test profiles). Decided once from the
+     * database vendor; see {@link #isFuzzyReady()} for whether the index has been built yet.
+     */
+    public boolean isFuzzyInMemory() {
+        return trigramEnabled;
+    }
+
+    public boolean isFuzzyReady() {
+        return trigramReady;
+    }
+
+    public SearchHits searchFuzzy(String query, UUID categoryId, int offset, int limit) {
+        return trigramIndex.search(query, categoryId, searchProperties.getFuzzyThreshold(), offset, limit);
+    }
+
+    public boolean isMatchReady() {
+        return matchReady;
+    }
+
+    public List<WishlistMatchIndex.Match> matches(UUID itemId, int limit) {
+        return matchIndex.matches(itemId, limit);
+    }
+
+    public TradeGraph tradeGraph(int maxOutDegree) {
+        return matchIndex.graph(maxOutDegree);
+    }
+
+    /**
+     * Loads every item in keyset batches; the matchmaking index is always built, the search indexes
+     * only when their engine is in use. Changes committed meanwhile are queued by
+     * {@link #onItemChanged} and replayed afterwards, so a batch snapshot read before a concurrent
+     * update can never overwrite it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        forEachDocument(this::upsert);
+        log.info(
+                "Item indexes built with {} items ({} fuzzy, {} wishes) in {} ms",
+                index.size(),
+                trigramIndex.size(),
+                matchIndex.wishes(),
+                (System.nanoTime() - started) / 1_000_000);
+        synchronized (pending) {
+            pending.forEach(this::upsert);
+            pending.clear();
+            built = true;
+        }
+        ready = isEnabled();
+        trigramReady = trigramEnabled;
+        matchReady = true;
+    }
+
+    /**
+     * Hands a snapshot of every item to {@code sink}, read in keyset batches of
+     * {@value #BUILD_BATCH_SIZE} with one short read-only transaction each.
+     */
+    public void forEachDocument(Consumer<ItemDocument> sink) {
+        UUID lastId = new UUID(0L, 0L);
+        List<ItemDocument> batch;
+        do {
+            UUID after = lastId;
+            batch = transactionTemplate.execute(status -> loadBatch(after));
+            batch.forEach(sink);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        synchronized (pending) {
+            if (!built) {
+                pending.addAll(event.getDocuments());
+                return;
+            }
+            event.getDocuments().forEach(this::upsert);
+        }
+    }
+
+    private List<ItemDocument> loadBatch(UUID after) {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(BUILD_BATCH_SIZE));
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<String>> wishlists =
+                itemRepository.findWishlistEntries(items.stream().map(Item::getId).toList()).stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        ItemRepository.WishlistEntry::getItemId,
+                                        Collectors.mapping(ItemRepository.WishlistEntry::getWish, Collectors.toList())));
+        return items.stream()
+                .map(item -> ItemDocument.from(item, wishlists.getOrDefault(item.getId(), List.of())))
+                .toList();
+    }
+
+    private void upsert(ItemDocument document) {
+        if (isEnabled()) {
+            index.upsert(document);
+        }
+        if (trigramEnabled) {
+            trigramIndex.upsert(document);
+        }
+        matchIndex.upsert(document);
+    }
+
+    private static boolean isPostgreSql(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException ex) {
+            log.warn("Could not determine database vendor, using the in-memory fuzzy index", ex);
+            return false;
+        }
+    }
+}
@@ -1,43 +1,141 @@
 package com.tq.exchangehub.service;
 
+import com.tq.exchangehub.config.SearchProperties;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.FacetValueDto;
 import com.tq.exchangehub.dto.ItemDto;
 import com.tq.exchangehub.dto.ItemRequest;
 import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.dto.SearchFacetsDto;
 import com.tq.exchangehub.entity.Category;
 import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.ItemCard;
 import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.event.ItemChangedEvent;
 import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemCardRepository;
 import com.tq.exchangehub.repository.ItemRepository;
 import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.search.InvertedIndex;
+import com.tq.exchangehub.search.ItemDocument;
+import com.tq.exchangehub.search.SearchHits;
 import com.tq.exchangehub.util.DtoMapper;
+import com.tq.exchangehub.util.HighlightCursor;
+import com.tq.exchangehub.util.ItemCursor;
+import com.tq.exchangehub.util.ResourceVersion;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ItemService {
 
+    /** Card order of the highlighted feed and unranked searches, newest first. */
+    private static final Sort RECENCY = Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "itemId");
+
     private final ItemRepository itemRepository;
+    private final ItemCardRepository itemCardRepository;
+    private final ItemCardService itemCardService;
     private final ProfileRepository profileRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final SearchProperties searchProperties;
+    private final ItemIndexService itemIndexService;
+    private final HighlightRankingService highlightRankingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ItemService(
             ItemRepository itemRepository,
+            ItemCardRepository itemCardRepository,
+            ItemCardService itemCardService,
             ProfileRepository profileRepository,
-            CategoryRepository categoryRepository) {
+            CategoryRepository categoryRepository,
+            CategoryService categoryService,
+            SearchProperties searchProperties,
+            ItemIndexService itemIndexService,
+            HighlightRankingService highlightRankingService,
+            ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
+        this.itemCardRepository = itemCardRepository;
+        this.itemCardService = itemCardService;
         this.profileRepository = profileRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.searchProperties = searchProperties;
+        this.itemIndexService = itemIndexService;
+        this.highlightRankingService = highlightRankingService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Hands every item to {@code sink} while reading them from a database cursor. Images and
+     * wishlists are loaded with two queries per batch of {@link ItemRepository#STREAM_FETCH_SIZE}
+     * items, and only one batch is held at a time.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ItemDto> sink) {
+        List<ItemRepository.ItemRow> batch = new ArrayList<>(ItemRepository.STREAM_FETCH_SIZE);
+        try (Stream<ItemRepository.ItemRow> rows = itemRepository.streamAll()) {
+            Iterator<ItemRepository.ItemRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == ItemRepository.STREAM_FETCH_SIZE || !iterator.hasNext()) {
+                    emit(batch, sink);
+                    batch.clear();
+                }
+            }
+        }
     }
 
-    public List<ItemDto> findAll() {
-        return itemRepository.findAll().stream().map(DtoMapper::toItemDto).collect(Collectors.toList());
+    private void emit(List<ItemRepository.ItemRow> batch, Consumer<ItemDto> sink) {
+        List<UUID> ids = batch.stream().map(ItemRepository.ItemRow::getId).toList();
+        Map<UUID, List<String>> images = new HashMap<>();
+        for (ItemRepository.ImageEntry entry : itemRepository.findImageEntries(ids)) {
+            images.computeIfAbsent(entry.getItemId(), key -> new ArrayList<>()).add(entry.getImage());
+        }
+        Map<UUID, List<String>> wishlists = new HashMap<>();
+        for (ItemRepository.WishlistEntry entry : itemRepository.findWishlistEntries(ids)) {
+            wishlists.computeIfAbsent(entry.getItemId(), key -> new ArrayList<>()).add(entry.getWish());
+        }
+        for (ItemRepository.ItemRow row : batch) {
+            ItemDto dto = new ItemDto();
+            dto.setId(row.getId());
+            dto.setOwnerId(row.getOwnerId());
+            dto.setCategoryId(row.getCategoryId());
+            dto.setTitle(row.getTitle());
+            dto.setDescription(row.getDescription());
+            dto.setCondition(row.getCondition());
+            dto.setEstimatedValue(row.getEstimatedValue());
+            dto.setAvailable(row.getAvailable());
+            dto.setService(row.getService());
+            dto.setLocation(row.getLocation());
+            dto.setImages(images.getOrDefault(row.getId(), List.of()));
+            dto.setWishlist(wishlists.getOrDefault(row.getId(), List.of()));
+            dto.setCreatedAt(row.getCreatedAt());
+            dto.setUpdatedAt(row.getUpdatedAt());
+            sink.accept(dto);
+        }
     }
 
     public List<ItemDto> findByOwner(UUID ownerId) {
@@ -50,14 +148,29 @@ public class ItemService {
                 .collect(Collectors.toList());
     }
 
+    /** Version of an item for conditional requests, read without loading the item. */
+    public ResourceVersion findVersion(UUID id) {
+        return itemRepository
+                .findUpdatedAtById(id)
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found"));
+    }
+
+    /** Counts a view of an item the client already holds, as when a read is answered with 304. */
+    public void recordView(UUID id) {
+        highlightRankingService.recordView(id);
+    }
+
     public ItemDto findById(UUID id) {
         Item item =
                 itemRepository
                         .findById(id)
                         .orElseThrow(() -> new IllegalArgumentException("Item not found"));
+        highlightRankingService.recordView(id);
         return DtoMapper.toItemDto(item);
     }
 
+    @Transactional
     public ItemDto create(ItemRequest request) {
         Profile owner =
                 profileRepository
@@ -88,29 +201,411 @@ public class ItemService {
         item.setUpdatedAt(OffsetDateTime.now());
 
         Item saved = itemRepository.save(item);
+        itemCardService.refresh(saved);
+        if (!Boolean.FALSE.equals(saved.getAvailable())) {
+            categoryService.adjustAvailableItems(category.getId(), 1);
+        }
+        eventPublisher.publishEvent(new ItemChangedEvent(ItemDocument.from(saved)));
         return DtoMapper.toItemDto(saved);
     }
 
+    /**
+     * Takes items off the market within the caller's transaction, e.g. once a trade for them is
+     * accepted, keeping their cards, the category counts and the search indexes in step. Items that
+     * are already unavailable are left alone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markUnavailable(Collection<Item> items, OffsetDateTime now) {
+        List<Item> changed = items.stream().filter(item -> !Boolean.FALSE.equals(item.getAvailable())).toList();
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<ItemDocument> documents = new ArrayList<>(changed.size());
+        List<UUID> categoryIds = new ArrayList<>(changed.size());
+        for (Item item : changed) {
+            item.setAvailable(false);
+            item.setUpdatedAt(now);
+            itemCardService.refresh(item);
+            documents.add(ItemDocument.from(item));
+            categoryIds.add(item.getCategory().getId());
+        }
+        // Counts last: their bulk update clears the persistence context, detaching the items.
+        categoryIds.forEach(categoryId -> categoryService.adjustAvailableItems(categoryId, -1));
+        eventPublisher.publishEvent(new ItemChangedEvent(documents));
+    }
+
+    /**
+     * Highlighted feed in popularity order, sliced from the ranking of {@link HighlightRankingService};
+     * items that became unavailable since it was computed are skipped. Falls back to recency order
+     * until a ranking exists.
+     */
     public Page<ItemSummaryDto> findHighlighted(int page, int size) {
-        Pageable pageable =
-                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt"));
-        return itemRepository.findByAvailableTrueOrAvailableIsNull(pageable).map(DtoMapper::toItemSummaryDto);
+        HighlightRankingService.Ranking ranking = highlightRankingService.ranking();
+        if (!ranking.isEmpty()) {
+            Pageable pageable = PageRequest.of(page, size);
+            return new PageImpl<>(
+                    availableSummaries(ranking.slice(pageable.getOffset(), size)), pageable, ranking.size());
+        }
+        Pageable pageable = PageRequest.of(page, size, RECENCY);
+        return itemCardRepository.findByAvailableTrueOrAvailableIsNull(pageable).map(DtoMapper::toItemSummaryDto);
+    }
+
+    /**
+     * Cursor variant of {@link #findHighlighted(int, int)}. Over the popularity ranking the cursor is a
+     * {@link HighlightCursor}: the walk resumes after its position while the ranking is the one it was
+     * issued for, and after the last item's new position once the ranking was recomputed. Recency cursors
+     * seek on the {@code (updatedAt, createdAt, id)} index instead of using OFFSET. No count query is issued.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ItemSummaryDto> findHighlighted(String cursor, int size) {
+        int resolvedSize = Math.max(size, 1);
+        HighlightRankingService.Ranking ranking = highlightRankingService.ranking();
+        boolean firstPage = cursor == null || cursor.isBlank();
+        if (firstPage ? !ranking.isEmpty() : HighlightCursor.isHighlightCursor(cursor)) {
+            HighlightCursor after = HighlightCursor.decode(cursor);
+            if (ranking.isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int from = 0;
+            if (after != null) {
+                int position = after.rankedAt().equals(ranking.computedAt())
+                        ? after.position()
+                        : ranking.positionOf(after.id());
+                from = (position >= 0 ? position : after.position()) + 1;
+            }
+            List<UUID> ids = ranking.slice(from, resolvedSize);
+            String nextCursor = null;
+            if (!ids.isEmpty() && from + ids.size() < ranking.size()) {
+                nextCursor =
+                        new HighlightCursor(ranking.computedAt(), from + ids.size() - 1, ids.get(ids.size() - 1))
+                                .encode();
+            }
+            return new CursorPageDto<>(availableSummaries(ids), resolvedSize, nextCursor);
+        }
+        ItemCursor after = ItemCursor.decode(cursor);
+        Limit limit = Limit.of(resolvedSize + 1);
+        List<ItemCard> items =
+                after == null
+                        ? itemCardRepository.findHighlightedFirst(limit)
+                        : itemCardRepository.findHighlightedAfter(
+                                after.updatedAt(), after.createdAt(), after.id(), limit);
+        return toCursorPage(items, null, resolvedSize);
     }
 
     public Page<ItemSummaryDto> search(String query, UUID categoryId, int page, int size) {
+        return search(query, categoryId, null, null, null, page, size).page();
+    }
+
+    /**
+     * Offset-paged search with drill-down filters on item vs service, condition and location. On the
+     * database engines the facet counts come from one grouped query that also provides the total, so
+     * a page still costs two queries. The in-memory index only filters by category: it answers
+     * searches without further drill-downs and reports no facets.
+     */
+    @Transactional(readOnly = true)
+    public FacetedPage search(
+            String query,
+            UUID categoryId,
+            Boolean service,
+            String condition,
+            String location,
+            int page,
+            int size) {
         String normalizedQuery = query == null ? "" : query.trim();
+        String normalizedCondition = blankToNull(condition);
+        String normalizedLocation = blankToNull(location);
         int resolvedPage = Math.max(page, 0);
         int resolvedSize = Math.max(size, 1);
         Pageable pageable =
                 PageRequest.of(
-                        resolvedPage, resolvedSize, Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt"));
+                        resolvedPage, resolvedSize, RECENCY);
+
+        if (normalizedQuery.isEmpty()
+                && categoryId == null
+                && service == null
+                && normalizedCondition == null
+                && normalizedLocation == null) {
+            return new FacetedPage(Page.empty(pageable), null);
+        }
+
+        boolean drillDown = service != null || normalizedCondition != null || normalizedLocation != null;
+        if (!drillDown
+                && searchProperties.getEngine() == SearchProperties.Engine.INDEX
+                && itemIndexService.isReady()) {
+            SearchHits hits =
+                    itemIndexService.search(
+                            normalizedQuery, categoryId, resolvedPage * resolvedSize, resolvedSize);
+            return new FacetedPage(new PageImpl<>(loadSummaries(hits.ids()), pageable, hits.total()), null);
+        }
+
+        if (!normalizedQuery.isEmpty() && searchProperties.getEngine() == SearchProperties.Engine.FULL_TEXT) {
+            String category = categoryId != null ? categoryId.toString() : null;
+            String serviceFlag = service != null ? service.toString() : null;
+            // Ranking happens in SQL (ts_rank), so the native query must not receive a Sort.
+            List<ItemCard> items =
+                    itemCardRepository.searchAvailableFullText(
+                            normalizedQuery,
+                            category,
+                            serviceFlag,
+                            normalizedCondition,
+                            normalizedLocation,
+                            PageRequest.of(resolvedPage, resolvedSize));
+            List<FacetRow> rows =
+                    itemRepository
+                            .facetAvailableFullText(
+                                    normalizedQuery, category, serviceFlag, normalizedCondition, normalizedLocation)
+                            .stream()
+                            .map(FacetRow::of)
+                            .toList();
+            return toFacetedPage(items, rows, pageable);
+        }
+
+        List<ItemCard> items =
+                itemCardRepository.searchAvailable(
+                        normalizedQuery, categoryId, service, normalizedCondition, normalizedLocation, pageable);
+        List<FacetRow> rows =
+                itemRepository
+                        .facetAvailable(normalizedQuery, categoryId, service, normalizedCondition, normalizedLocation)
+                        .stream()
+                        .map(FacetRow::of)
+                        .toList();
+        return toFacetedPage(items, rows, pageable);
+    }
+
+    /**
+     * Keyset variant of {@link #search(String, UUID, int, int)}. Results keep the ordering of the
+     * configured engine; ranked engines carry the relevance score in the cursor. No count is issued.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ItemSummaryDto> search(String query, UUID categoryId, String cursor, int size) {
+        String normalizedQuery = query == null ? "" : query.trim();
+        int resolvedSize = Math.max(size, 1);
+        ItemCursor after = ItemCursor.decode(cursor);
 
         if (normalizedQuery.isEmpty() && categoryId == null) {
-            return Page.empty(pageable);
+            return new CursorPageDto<>(List.of(), resolvedSize, null);
         }
 
-        return itemRepository
-                .searchAvailable(normalizedQuery, categoryId, pageable)
+        if (searchProperties.getEngine() == SearchProperties.Engine.INDEX && itemIndexService.isReady()) {
+            SearchHits hits =
+                    itemIndexService.searchAfter(
+                            normalizedQuery, categoryId, toIndexPosition(after), resolvedSize + 1);
+            return toCursorPage(loadCards(hits.ids()), zip(hits.ids(), hits.scores()), resolvedSize);
+        }
+
+        if (!normalizedQuery.isEmpty() && searchProperties.getEngine() == SearchProperties.Engine.FULL_TEXT) {
+            if (after != null && after.score() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            List<ItemRepository.RankedItemId> ranked =
+                    itemRepository.searchAvailableFullTextAfter(
+                            normalizedQuery,
+                            categoryId != null ? categoryId.toString() : null,
+                            after != null ? after.score() : null,
+                            after != null ? after.updatedAt() : null,
+                            after != null ? after.createdAt() : null,
+                            after != null ? after.id().toString() : null,
+                            resolvedSize + 1);
+            List<UUID> ids = ranked.stream().map(row -> UUID.fromString(row.getId())).toList();
+            List<Float> scores = ranked.stream().map(ItemRepository.RankedItemId::getRank).toList();
+            return toCursorPage(loadCards(ids), zip(ids, scores), resolvedSize);
+        }
+
+        List<ItemCard> items =
+                itemCardRepository.searchAvailableAfter(
+                        normalizedQuery,
+                        categoryId,
+                        after != null ? after.updatedAt() : null,
+                        after != null ? after.createdAt() : null,
+                        after != null ? after.id() : null,
+                        Limit.of(resolvedSize + 1));
+        return toCursorPage(items, null, resolvedSize);
+    }
+
+    /**
+     * Typo-tolerant search over item titles and category names, ranked by trigram word similarity.
+     * Uses the {@code pg_trgm} indexes on PostgreSQL and the in-memory trigram index elsewhere; see
+     * {@link SearchProperties#getFuzzyThreshold()} for the matching rule both follow.
+     */
+    @Transactional(readOnly = true)
+    public Page<ItemSummaryDto> searchFuzzy(String query, UUID categoryId, int page, int size) {
+        String normalizedQuery = query == null ? "" : query.trim();
+        if (normalizedQuery.isEmpty()) {
+            return search(normalizedQuery, categoryId, page, size);
+        }
+        int resolvedPage = Math.max(page, 0);
+        int resolvedSize = Math.max(size, 1);
+        Pageable pageable = PageRequest.of(resolvedPage, resolvedSize);
+
+        if (itemIndexService.isFuzzyInMemory()) {
+            if (!itemIndexService.isFuzzyReady()) {
+                // The trigram index is still being built; plain substring matching is the best we have.
+                Pageable recency =
+                        PageRequest.of(
+                                resolvedPage,
+                                resolvedSize,
+                                RECENCY);
+                List<ItemCard> items =
+                        itemCardRepository.searchAvailable(normalizedQuery, categoryId, null, null, null, recency);
+                long total =
+                        itemRepository.facetAvailable(normalizedQuery, categoryId, null, null, null).stream()
+                                .mapToLong(ItemRepository.FacetCount::getTotal)
+                                .sum();
+                return new PageImpl<>(
+                        items.stream().map(DtoMapper::toItemSummaryDto).collect(Collectors.toList()), recency, total);
+            }
+            SearchHits hits =
+                    itemIndexService.searchFuzzy(
+                            normalizedQuery, categoryId, resolvedPage * resolvedSize, resolvedSize);
+            return new PageImpl<>(loadSummaries(hits.ids()), pageable, hits.total());
+        }
+
+        itemRepository.setWordSimilarityThreshold(Double.toString(searchProperties.getFuzzyThreshold()));
+        return itemCardRepository
+                .searchAvailableFuzzy(
+                        normalizedQuery, categoryId != null ? categoryId.toString() : null, pageable)
                 .map(DtoMapper::toItemSummaryDto);
     }
+
+    /**
+     * Builds a page from {@code size + 1} fetched rows: the extra row only signals that another page
+     * exists. {@code scores}, when present, holds the relevance score of each item by id.
+     */
+    private static CursorPageDto<ItemSummaryDto> toCursorPage(
+            List<ItemCard> items, Map<UUID, Float> scores, int size) {
+        boolean hasNext = items.size() > size;
+        List<ItemCard> page = hasNext ? items.subList(0, size) : items;
+        String nextCursor = null;
+        if (hasNext) {
+            ItemCard last = page.get(page.size() - 1);
+            nextCursor = ItemCursor.of(last, scores != null ? scores.get(last.getItemId()) : null).encode();
+        }
+        List<ItemSummaryDto> summaries = page.stream().map(DtoMapper::toItemSummaryDto).collect(Collectors.toList());
+        return new CursorPageDto<>(summaries, size, nextCursor);
+    }
+
+    private static FacetedPage toFacetedPage(List<ItemCard> items, List<FacetRow> rows, Pageable pageable) {
+        Map<String, FacetValueDto> categories = new LinkedHashMap<>();
+        Map<String, FacetValueDto> types = new LinkedHashMap<>();
+        Map<String, FacetValueDto> conditions = new LinkedHashMap<>();
+        Map<String, FacetValueDto> locations = new LinkedHashMap<>();
+        long total = 0;
+        for (FacetRow row : rows) {
+            total += row.total();
+            count(categories, row.categoryId().toString(), row.categoryName(), row.total());
+            boolean isService = Boolean.TRUE.equals(row.service());
+            count(types, Boolean.toString(isService), isService ? "service" : "item", row.total());
+            count(conditions, row.condition(), row.condition(), row.total());
+            count(locations, row.location(), row.location(), row.total());
+        }
+        SearchFacetsDto facets = new SearchFacetsDto();
+        facets.setCategories(sortFacet(categories));
+        facets.setTypes(sortFacet(types));
+        facets.setConditions(sortFacet(conditions));
+        facets.setLocations(sortFacet(locations));
+
+        List<ItemSummaryDto> summaries = items.stream().map(DtoMapper::toItemSummaryDto).collect(Collectors.toList());
+        return new FacetedPage(new PageImpl<>(summaries, pageable, total), facets);
+    }
+
+    private static void count(Map<String, FacetValueDto> facet, String value, String label, long total) {
+        if (value == null) {
+            return;
+        }
+        FacetValueDto entry = facet.computeIfAbsent(value, key -> new FacetValueDto(key, label, 0));
+        entry.setCount(entry.getCount() + total);
+    }
+
+    private static List<FacetValueDto> sortFacet(Map<String, FacetValueDto> facet) {
+        return facet.values().stream()
+                .sorted(Comparator.comparingLong(FacetValueDto::getCount).reversed()
+                        .thenComparing(FacetValueDto::getLabel))
+                .collect(Collectors.toList());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Map<UUID, Float> zip(List<UUID> ids, List<Float> scores) {
+        Map<UUID, Float> scoresById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            scoresById.put(ids.get(i), scores.get(i));
+        }
+        return scoresById;
+    }
+
+    private static InvertedIndex.Position toIndexPosition(ItemCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        if (cursor.score() == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new InvertedIndex.Position(
+                cursor.score(),
+                cursor.updatedAt().toInstant().toEpochMilli(),
+                cursor.createdAt().toInstant().toEpochMilli(),
+                cursor.id());
+    }
+
+    private List<ItemSummaryDto> availableSummaries(List<UUID> ids) {
+        return loadCards(ids).stream()
+                .filter(card -> !Boolean.FALSE.equals(card.getAvailable()))
+                .map(DtoMapper::toItemSummaryDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemSummaryDto> loadSummaries(List<UUID> ids) {
+        return loadCards(ids).stream().map(DtoMapper::toItemSummaryDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Loads item cards by id in one query and returns them in the order of {@code ids}. Ids that no
+     * longer resolve are dropped.
+     */
+    private List<ItemCard> loadCards(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, ItemCard> cardsById =
+                itemCardRepository.findByItemIdIn(ids).stream()
+                        .collect(Collectors.toMap(ItemCard::getItemId, Function.identity()));
+        List<ItemCard> cards = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ItemCard card = cardsById.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    /** A page of search results with the facet counts of all matches, when computed. */
+    public record FacetedPage(Page<ItemSummaryDto> page, SearchFacetsDto facets) {}
+
+    /** Common shape of the JPQL and native facet rows. */
+    private record FacetRow(
+            UUID categoryId, String categoryName, Boolean service, String condition, String location, long total) {
+
+        static FacetRow of(ItemRepository.FacetCount row) {
+            return new FacetRow(
+                    row.getCategoryId(),
+                    row.getCategoryName(),
+                    row.getService(),
+                    row.getCondition(),
+                    row.getLocation(),
+                    row.getTotal());
+        }
+
+        static FacetRow of(ItemRepository.NativeFacetCount row) {
+            return new FacetRow(
+                    UUID.fromString(row.getCategoryId()),
+                    row.getCategoryName(),
+                    row.getService(),
+                    row.getCondition(),
+                    row.getLocation(),
+                    row.getTotal().longValue());
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.dto.MatchDto;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.search.WishlistMatchIndex;
+import com.tq.exchangehub.util.DtoMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * "They have what you want and want what you have" matches between listings of different owners,
+ * answered from the in-memory {@link WishlistMatchIndex}. The database is only used to resolve the
+ * matched items for display.
+ */
+@Service
+public class MatchService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final ItemRepository itemRepository;
+    private final ProfileRepository profileRepository;
+    private final ItemIndexService itemIndexService;
+
+    public MatchService(
+            ItemRepository itemRepository, ProfileRepository profileRepository, ItemIndexService itemIndexService) {
+        this.itemRepository = itemRepository;
+        this.profileRepository = profileRepository;
+        this.itemIndexService = itemIndexService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<MatchDto> findMatches(UUID itemId, int limit) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new IllegalArgumentException("Item not found");
+        }
+        int resolvedLimit = resolveLimit(limit);
+        List<Found> found =
+                itemIndexService.matches(itemId, resolvedLimit).stream()
+                        .map(match -> new Found(itemId, match))
+                        .toList();
+        return toDtos(found);
+    }
+
+    /**
+     * Mutual matches for every available listing of {@code profileId}, strongest first.
+     */
+    @Transactional(readOnly = true)
+    public List<MatchDto> findMatchesForProfile(UUID profileId, int limit) {
+        Profile owner =
+                profileRepository
+                        .findById(profileId)
+                        .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
+        int resolvedLimit = resolveLimit(limit);
+        List<Found> found = new ArrayList<>();
+        for (Item item : itemRepository.findByOwner(owner)) {
+            if (Boolean.FALSE.equals(item.getAvailable())) {
+                continue;
+            }
+            for (WishlistMatchIndex.Match match : itemIndexService.matches(item.getId(), resolvedLimit)) {
+                found.add(new Found(item.getId(), match));
+            }
+        }
+        found.sort(
+                Comparator.comparingInt((Found entry) -> entry.match().score())
+                        .reversed()
+                        .thenComparing(entry -> entry.match().itemId(), Comparator.reverseOrder()));
+        return toDtos(found.size() > resolvedLimit ? found.subList(0, resolvedLimit) : found);
+    }
+
+    private List<MatchDto> toDtos(List<Found> found) {
+        if (found.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Item> items =
+                itemRepository.findByIdIn(found.stream().map(entry -> entry.match().itemId()).distinct().toList())
+                        .stream()
+                        .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<MatchDto> dtos = new ArrayList<>(found.size());
+        for (Found entry : found) {
+            Item item = items.get(entry.match().itemId());
+            if (item == null) {
+                continue;
+            }
+            MatchDto dto = new MatchDto();
+            dto.setForItemId(entry.forItemId());
+            dto.setItem(DtoMapper.toItemSummaryDto(item));
+            dto.setTheyHave(entry.match().theyHave());
+            dto.setTheyWant(entry.match().theyWant());
+            dto.setScore(entry.match().score());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static int resolveLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    private record Found(UUID forItemId, WishlistMatchIndex.Match match) {}
+}
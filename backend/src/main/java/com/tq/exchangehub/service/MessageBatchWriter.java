@@ -0,0 +1,279 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.ChatProperties;
+import com.tq.exchangehub.dto.MessageDto;
+import com.tq.exchangehub.entity.OutboxEventType;
+import com.tq.exchangehub.event.MessageCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Group commit for chat messages. Senders hand their message to a bounded queue; a single writer thread
+ * collects whatever is queued, for at most {@code write-max-delay}, and stores it with one JDBC batch
+ * insert of the messages and one of their outbox events, in one transaction, which also moves the latest
+ * message of each trade in the batch onto the trade for the conversation list. A sender, blocking in
+ * {@link #persist} or holding the future of {@link #submit}, is answered only after that commit, so every
+ * acknowledged message is durable; a message whose sender got an error or a timeout may still have been
+ * stored, and a retry can store it twice.
+ */
+@Service
+public class MessageBatchWriter {
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO messages (id, trade_id, sender_id, content, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_LAST_MESSAGE =
+            "UPDATE trades SET last_message_id = ?, last_activity_at = ?"
+                    + " WHERE id = ? AND (last_message_id IS NULL OR last_activity_at <= ?)";
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(MessageBatchWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxService outboxService;
+    private final ChatProperties chatProperties;
+    private final TransactionTemplate writeTransaction;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private final Timer commitLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter persisted;
+    private final Counter refused;
+    private final Counter failed;
+
+    private volatile boolean running = true;
+    private OffsetDateTime lastStamp;
+
+    public MessageBatchWriter(
+            JdbcTemplate jdbcTemplate,
+            OutboxService outboxService,
+            ChatProperties chatProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxService = outboxService;
+        this.chatProperties = chatProperties;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(Math.max(chatProperties.getWriteQueueCapacity(), 1));
+        this.writer = new Thread(this::run, "message-batch-writer");
+        this.writer.setDaemon(true);
+        Gauge.builder("chat.messages.queued", queue, BlockingQueue::size)
+                .description("Chat messages waiting to be written")
+                .register(meterRegistry);
+        this.commitLatency =
+                Timer.builder("chat.messages.commit.latency")
+                        .description("Time from accepting a chat message to committing it")
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry);
+        this.batchSizes =
+                DistributionSummary.builder("chat.messages.batch.size")
+                        .description("Chat messages committed per batch")
+                        .register(meterRegistry);
+        this.persisted = outcome(meterRegistry, "persisted");
+        this.refused = outcome(meterRegistry, "refused");
+        this.failed = outcome(meterRegistry, "failed");
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /** Stops taking messages and commits the ones already queued before the datasource closes. */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(chatProperties.getCommitTimeout().toMillis());
+    }
+
+    /**
+     * Queues the message and waits until it is committed together with its {@code MESSAGE_CREATED}
+     * outbox event. Answers 503 when the queue is full or the commit takes longer than
+     * {@code commit-timeout}.
+     */
+    public MessageDto persist(MessageDto message, MessageCreatedEvent event) {
+        try {
+            return submit(message, event).join();
+        } catch (CompletionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+
+    /**
+     * Queues the message without waiting: the returned future completes on the writer thread once the
+     * message is committed, or fails with the exception {@link #persist} would throw. A full queue is
+     * refused right away.
+     */
+    public CompletableFuture<MessageDto> submit(MessageDto message, MessageCreatedEvent event) {
+        Pending pending = new Pending(message, event, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            refused.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many messages, try again shortly");
+        }
+        return pending.committed()
+                .thenApply(ignored -> message)
+                .orTimeout(chatProperties.getCommitTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    throw failure(ex);
+                });
+    }
+
+    private static RuntimeException failure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Message not confirmed, try again");
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        int batchSize = Math.max(chatProperties.getWriteBatchSize(), 1);
+        long maxDelayNanos = chatProperties.getWriteMaxDelay().toNanos();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                log.warn("Message writer interrupted with {} messages queued", queue.size());
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits the batch, or when it fails, each of its messages on its own so that one bad message (a
+     * trade deleted meanwhile) does not fail the others.
+     */
+    private void flush(List<Pending> batch) {
+        try {
+            writeTransaction.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException ex) {
+            if (batch.size() > 1) {
+                log.warn("Batch of {} messages failed, writing them one by one: {}", batch.size(), ex.toString());
+                batch.forEach(pending -> flush(List.of(pending)));
+                return;
+            }
+            log.warn("Could not store message {}", batch.get(0).message().getId(), ex);
+            failed.increment();
+            batch.get(0).committed().completeExceptionally(ex);
+            return;
+        }
+        batchSizes.record(batch.size());
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            commitLatency.record(now - pending.acceptedAt(), TimeUnit.NANOSECONDS);
+            pending.committed().complete(null);
+        }
+        persisted.increment(batch.size());
+    }
+
+    private void write(List<Pending> batch) {
+        stamp(batch);
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, batch, batch.size(), MessageBatchWriter::bindMessage);
+        Map<UUID, MessageDto> latest = new TreeMap<>();
+        for (Pending pending : batch) {
+            latest.merge(
+                    pending.message().getTradeId(),
+                    pending.message(),
+                    (current, next) -> next.getCreatedAt().isBefore(current.getCreatedAt()) ? current : next);
+        }
+        jdbcTemplate.batchUpdate(
+                UPDATE_LAST_MESSAGE, latest.values(), latest.size(), MessageBatchWriter::bindLastMessage);
+        outboxService.appendAll(
+                OutboxEventType.MESSAGE_CREATED,
+                batch.stream().map(Pending::event).toList(),
+                event -> event.message().getTradeId());
+    }
+
+    /**
+     * Dates the messages on the writer thread, just before they are stored. Batches commit one after the
+     * other, so message times follow commit order: a reader whose cursor is at the latest message time
+     * cannot later see an older message appear behind it.
+     */
+    private void stamp(List<Pending> batch) {
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (lastStamp != null && !now.isAfter(lastStamp)) {
+            now = lastStamp.plus(1, ChronoUnit.MICROS);
+        }
+        for (Pending pending : batch) {
+            pending.message().setCreatedAt(now);
+        }
+        lastStamp = now;
+    }
+
+    private static void bindMessage(PreparedStatement statement, Pending pending) throws SQLException {
+        MessageDto message = pending.message();
+        statement.setObject(1, message.getId());
+        statement.setObject(2, message.getTradeId());
+        statement.setObject(3, message.getSenderId());
+        statement.setString(4, message.getContent());
+        statement.setObject(5, message.getCreatedAt());
+    }
+
+    /** Never moves a trade back to an older message, should batches commit out of order. */
+    private static void bindLastMessage(PreparedStatement statement, MessageDto message) throws SQLException {
+        statement.setObject(1, message.getId());
+        statement.setObject(2, message.getCreatedAt());
+        statement.setObject(3, message.getTradeId());
+        statement.setObject(4, message.getCreatedAt());
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("chat.messages")
+                .description("Chat messages by write outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Pending(
+            MessageDto message, MessageCreatedEvent event, long acceptedAt, CompletableFuture<Void> committed) {
+    }
+}
@@ -1,22 +1,25 @@
 package com.tq.exchangehub.service;
 
+import com.tq.exchangehub.dto.CursorPageDto;
 import com.tq.exchangehub.dto.MessageDto;
 import com.tq.exchangehub.dto.MessageRequest;
-import com.tq.exchangehub.entity.Message;
-import com.tq.exchangehub.entity.Profile;
 import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.event.MessageCreatedEvent;
 import com.tq.exchangehub.repository.MessageRepository;
-import com.tq.exchangehub.repository.ProfileRepository;
 import com.tq.exchangehub.repository.TradeRepository;
 import com.tq.exchangehub.security.UserPrincipal;
 import com.tq.exchangehub.util.DtoMapper;
-import java.time.OffsetDateTime;
+import com.tq.exchangehub.util.MessageCursor;
+import com.tq.exchangehub.util.TimeOrderedIds;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -24,21 +27,15 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final TradeRepository tradeRepository;
-    private final ProfileRepository profileRepository;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final NotificationService notificationService;
+    private final MessageBatchWriter messageBatchWriter;
 
     public MessageService(
             MessageRepository messageRepository,
             TradeRepository tradeRepository,
-            ProfileRepository profileRepository,
-            SimpMessagingTemplate messagingTemplate,
-            NotificationService notificationService) {
+            MessageBatchWriter messageBatchWriter) {
         this.messageRepository = messageRepository;
         this.tradeRepository = tradeRepository;
-        this.profileRepository = profileRepository;
-        this.messagingTemplate = messagingTemplate;
-        this.notificationService = notificationService;
+        this.messageBatchWriter = messageBatchWriter;
     }
 
     public List<MessageDto> getMessagesForTrade(UUID tradeId) {
@@ -51,49 +48,96 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of a trade's chat history for a participant: the latest {@code size} messages for an empty
+     * {@code cursor}, then the ones before the {@code nextCursor} of the previous page. Each page is one
+     * query over the {@code (trade_id, created_at, id)} index and is returned oldest first; the trade is
+     * only looked up again when the page comes back empty, to tell a missing trade or an outsider apart.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<MessageDto> findHistory(UUID tradeId, UUID profileId, String cursor, int size) {
+        MessageCursor before = MessageCursor.decode(cursor);
+        int resolvedSize = Math.max(size, 1);
+        List<MessageRepository.MessageRow> rows =
+                before == null
+                        ? messageRepository.findLatest(tradeId, profileId, resolvedSize + 1)
+                        : messageRepository.findBefore(
+                                tradeId, profileId, before.createdAt(), before.id(), resolvedSize + 1);
+        if (rows.isEmpty() && !tradeRepository.existsByIdForParticipant(tradeId, profileId)) {
+            if (!tradeRepository.existsById(tradeId)) {
+                throw new IllegalArgumentException("Trade not found");
+            }
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a participant in this trade");
+        }
+        String nextCursor = null;
+        if (rows.size() > resolvedSize) {
+            rows = rows.subList(0, resolvedSize);
+            MessageRepository.MessageRow oldest = rows.get(resolvedSize - 1);
+            nextCursor = new MessageCursor(oldest.getCreatedAt(), oldest.getId()).encode();
+        }
+        List<MessageDto> messages = new ArrayList<>(rows.stream().map(MessageService::toMessageDto).toList());
+        Collections.reverse(messages);
+        return new CursorPageDto<>(messages, resolvedSize, nextCursor);
+    }
+
+    /**
+     * Validates the message with a single lookup of the trade's participants and hands it to the
+     * {@link MessageBatchWriter}, which commits it in a batch with other senders' messages and returns once
+     * it is stored. The message id is time-ordered and assigned here; its time is set by the writer when it
+     * is stored. The broadcast and the recipient's notification follow the commit through the outbox.
+     */
     public MessageDto create(MessageRequest request, UserPrincipal principal) {
+        MessageCreatedEvent event = prepare(request, principal);
+        return messageBatchWriter.persist(event.message(), event);
+    }
+
+    /**
+     * Same as {@link #create}, but does not wait for the commit: the checks run on the caller's thread and
+     * the returned future completes on the writer thread once the message is stored.
+     */
+    public CompletableFuture<MessageDto> submit(MessageRequest request, UserPrincipal principal) {
+        MessageCreatedEvent event = prepare(request, principal);
+        return messageBatchWriter.submit(event.message(), event);
+    }
+
+    private MessageCreatedEvent prepare(MessageRequest request, UserPrincipal principal) {
         if (principal == null || principal.getUserAccount() == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
         }
 
         UUID senderProfileId = principal.getUserAccount().getProfile().getId();
 
-        Trade trade =
+        TradeRepository.Participants participants =
                 tradeRepository
-                        .findById(request.getTradeId())
+                        .findParticipants(request.getTradeId())
                         .orElseThrow(() -> new IllegalArgumentException("Trade not found"));
 
-        Profile sender =
-                profileRepository
-                        .findById(senderProfileId)
-                        .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
-
-        if (!trade.getOwner().getId().equals(senderProfileId)
-                && !trade.getRequester().getId().equals(senderProfileId)) {
+        if (!participants.getOwnerId().equals(senderProfileId)
+                && !participants.getRequesterId().equals(senderProfileId)) {
             throw new ResponseStatusException(
                     HttpStatus.FORBIDDEN, "You are not a participant in this trade");
         }
 
-        Message message = new Message();
-        message.setTrade(trade);
-        message.setSender(sender);
+        MessageDto message = new MessageDto();
+        message.setId(TimeOrderedIds.next());
+        message.setTradeId(request.getTradeId());
+        message.setSenderId(senderProfileId);
         message.setContent(request.getContent());
-        message.setCreatedAt(OffsetDateTime.now());
-        Message saved = messageRepository.save(message);
-        MessageDto dto = DtoMapper.toMessageDto(saved);
 
-        messagingTemplate.convertAndSend(
-                "/topic/trades/" + trade.getId() + "/messages",
-                dto);
-
-        Profile recipient =
-                trade.getOwner().getId().equals(senderProfileId)
-                        ? trade.getRequester()
-                        : trade.getOwner();
-        if (recipient != null && recipient.getId() != null && !recipient.getId().equals(senderProfileId)) {
-            notificationService.notifyMessage(recipient, saved);
-        }
+        UUID recipientId =
+                participants.getOwnerId().equals(senderProfileId)
+                        ? participants.getRequesterId()
+                        : participants.getOwnerId();
+        return new MessageCreatedEvent(message, recipientId);
+    }
 
+    private static MessageDto toMessageDto(MessageRepository.MessageRow row) {
+        MessageDto dto = new MessageDto();
+        dto.setId(row.getId());
+        dto.setTradeId(row.getTradeId());
+        dto.setSenderId(row.getSenderId());
+        dto.setContent(row.getContent());
+        dto.setCreatedAt(row.getCreatedAt());
         return dto;
     }
 }
@@ -1,20 +1,26 @@
 package com.tq.exchangehub.service;
 
+import com.tq.exchangehub.dto.MessageDto;
 import com.tq.exchangehub.dto.NotificationDto;
-import com.tq.exchangehub.entity.Message;
+import com.tq.exchangehub.dto.TradeDto;
 import com.tq.exchangehub.entity.Notification;
 import com.tq.exchangehub.entity.NotificationType;
-import com.tq.exchangehub.entity.Profile;
-import com.tq.exchangehub.entity.Trade;
 import com.tq.exchangehub.entity.TradeStatus;
+import com.tq.exchangehub.event.MessageCreatedEvent;
+import com.tq.exchangehub.event.TradeStatusChangedEvent;
 import com.tq.exchangehub.repository.NotificationRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
 import com.tq.exchangehub.util.DtoMapper;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,14 +30,24 @@ import org.springframework.util.StringUtils;
 public class NotificationService {
 
     private static final int MESSAGE_PREVIEW_LIMIT = 160;
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (id, recipient_id, type, title, message, read, created_at, trade_id, message_id)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     private final NotificationRepository notificationRepository;
+    private final ProfileRepository profileRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final JdbcTemplate jdbcTemplate;
 
     public NotificationService(
-            NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+            NotificationRepository notificationRepository,
+            ProfileRepository profileRepository,
+            SimpMessagingTemplate messagingTemplate,
+            JdbcTemplate jdbcTemplate) {
         this.notificationRepository = notificationRepository;
+        this.profileRepository = profileRepository;
         this.messagingTemplate = messagingTemplate;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Transactional(readOnly = true)
@@ -63,58 +79,83 @@ public class NotificationService {
         notificationRepository.saveAll(notifications);
     }
 
+    /** Stores the notification of a new message; {@link #push} it once the transaction has committed. */
     @Transactional
-    public void notifyMessage(Profile recipient, Message message) {
+    public Notification notifyMessage(MessageCreatedEvent event) {
+        MessageDto message = event.message();
         Notification notification = new Notification();
-        notification.setRecipient(recipient);
+        notification.setRecipient(profileRepository.getReferenceById(event.recipientId()));
         notification.setType(NotificationType.MESSAGE);
         notification.setTitle("Nuevo mensaje en tu trueque");
         notification.setMessage(truncateMessage(message.getContent()));
-        notification.setTradeId(message.getTrade().getId());
+        notification.setTradeId(message.getTradeId());
         notification.setMessageId(message.getId());
         notification.setCreatedAt(OffsetDateTime.now());
         notification.setRead(Boolean.FALSE);
-
-        Notification saved = notificationRepository.save(notification);
-        dispatch(saved);
+        return notificationRepository.save(notification);
     }
 
+    /**
+     * Stores a notification of a status change for each participant but the actor; {@link #push}
+     * them once the transaction has committed.
+     */
     @Transactional
-    public void notifyTradeStatusChange(Trade trade, UUID actorProfileId) {
-        Notification ownerNotification = buildTradeNotification(trade, trade.getOwner(), actorProfileId);
-        Notification requesterNotification = buildTradeNotification(trade, trade.getRequester(), actorProfileId);
-
-        if (ownerNotification != null) {
-            dispatch(notificationRepository.save(ownerNotification));
-        }
-
-        if (requesterNotification != null) {
-            dispatch(notificationRepository.save(requesterNotification));
+    public List<Notification> notifyTradeStatusChange(TradeStatusChangedEvent event) {
+        TradeDto trade = event.trade();
+        List<Notification> notifications = new ArrayList<>(2);
+        for (UUID recipientId : List.of(trade.getOwnerId(), trade.getRequesterId())) {
+            if (!recipientId.equals(event.actorProfileId())) {
+                notifications.add(notificationRepository.save(buildTradeNotification(event, recipientId)));
+            }
         }
+        return notifications;
     }
 
-    private Notification buildTradeNotification(Trade trade, Profile recipient, UUID actorProfileId) {
-        if (recipient == null || recipient.getId() == null) {
-            return null;
+    /**
+     * Stores the notifications of many status changes, e.g. the offers rejected by an acceptance, with
+     * one JDBC batch insert; {@link #push} them once the transaction has committed.
+     */
+    @Transactional
+    public List<Notification> notifyTradeStatusChanges(List<TradeStatusChangedEvent> events) {
+        List<Notification> notifications = new ArrayList<>();
+        for (TradeStatusChangedEvent event : events) {
+            TradeDto trade = event.trade();
+            for (UUID recipientId : List.of(trade.getOwnerId(), trade.getRequesterId())) {
+                if (!recipientId.equals(event.actorProfileId())) {
+                    Notification notification = buildTradeNotification(event, recipientId);
+                    notification.setId(UUID.randomUUID());
+                    notifications.add(notification);
+                }
+            }
         }
-
-        if (recipient.getId().equals(actorProfileId)) {
-            return null;
+        if (notifications.isEmpty()) {
+            return notifications;
         }
+        jdbcTemplate.batchUpdate(
+                INSERT_NOTIFICATION, notifications, notifications.size(), NotificationService::bindNotification);
+        return notifications;
+    }
 
+    /** Sends a stored notification to its recipient's WebSocket topic. */
+    public void push(Notification notification) {
+        NotificationDto dto = DtoMapper.toNotificationDto(notification);
+        String destination = "/topic/profiles/" + notification.getRecipient().getId() + "/notifications";
+        messagingTemplate.convertAndSend(destination, dto);
+    }
+
+    private Notification buildTradeNotification(TradeStatusChangedEvent event, UUID recipientId) {
         Notification notification = new Notification();
-        notification.setRecipient(recipient);
+        notification.setRecipient(profileRepository.getReferenceById(recipientId));
         notification.setType(NotificationType.TRADE);
         notification.setTitle("Actualización del trueque");
-        notification.setMessage(buildTradeStatusMessage(trade));
-        notification.setTradeId(trade.getId());
+        notification.setMessage(buildTradeStatusMessage(event.trade().getStatus(), event.itemTitle()));
+        notification.setTradeId(event.trade().getId());
         notification.setCreatedAt(OffsetDateTime.now());
         notification.setRead(Boolean.FALSE);
         return notification;
     }
 
-    private String buildTradeStatusMessage(Trade trade) {
-        TradeStatus status = trade.getStatus();
+    private String buildTradeStatusMessage(TradeStatus status, String itemTitle) {
         String statusLabel = switch (status) {
             case ACCEPTED -> "aceptado";
             case REJECTED -> "rechazado";
@@ -123,22 +164,24 @@ public class NotificationService {
             default -> status.name().toLowerCase(Locale.ROOT);
         };
 
-        String reference = null;
-        if (trade.getOwnerItem() != null && StringUtils.hasText(trade.getOwnerItem().getTitle())) {
-            reference = trade.getOwnerItem().getTitle();
-        }
-
-        if (reference != null) {
-            return "El trueque por \"" + reference + "\" fue " + statusLabel + ".";
+        if (StringUtils.hasText(itemTitle)) {
+            return "El trueque por \"" + itemTitle + "\" fue " + statusLabel + ".";
         }
 
         return "El estado del trueque cambió a " + statusLabel + ".";
     }
 
-    private void dispatch(Notification notification) {
-        NotificationDto dto = DtoMapper.toNotificationDto(notification);
-        String destination = "/topic/profiles/" + notification.getRecipient().getId() + "/notifications";
-        messagingTemplate.convertAndSend(destination, dto);
+    private static void bindNotification(PreparedStatement statement, Notification notification)
+            throws SQLException {
+        statement.setObject(1, notification.getId());
+        statement.setObject(2, notification.getRecipient().getId());
+        statement.setString(3, notification.getType().name());
+        statement.setString(4, notification.getTitle());
+        statement.setString(5, notification.getMessage());
+        statement.setBoolean(6, notification.getRead());
+        statement.setObject(7, notification.getCreatedAt());
+        statement.setObject(8, notification.getTradeId());
+        statement.setObject(9, notification.getMessageId());
     }
 
     private String truncateMessage(String content) {
@@ -0,0 +1,231 @@
+package com.tq.exchangehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tq.exchangehub.config.OutboxProperties;
+import com.tq.exchangehub.entity.Notification;
+import com.tq.exchangehub.entity.OutboxEvent;
+import com.tq.exchangehub.event.CompetingTradesRejectedEvent;
+import com.tq.exchangehub.event.MessageCreatedEvent;
+import com.tq.exchangehub.event.TradeStatusChangedEvent;
+import com.tq.exchangehub.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers committed {@code outbox_events}: stores the notifications in one transaction with the removal
+ * of the event, then pushes the WebSocket messages, so clients never hear about a rolled-back write. A
+ * failed event is retried with exponential backoff and holds back the later events of its trade, which
+ * keeps the delivery order of every trade. Assumes a single dispatching instance.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private volatile long pending;
+    private volatile double oldestAgeSeconds;
+
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            NotificationService notificationService,
+            SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper,
+            OutboxProperties outboxProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxProperties = outboxProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("outbox.pending", this, dispatcher -> dispatcher.pending)
+                .description("Outbox events not delivered yet, as of the last dispatcher run")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", this, dispatcher -> dispatcher.oldestAgeSeconds)
+                .description("Age of the oldest undelivered outbox event, as of the last dispatcher run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /** Delivers every event that is due, batch by batch, and returns how many were delivered. */
+    @Scheduled(
+            initialDelayString = "${application.outbox.poll-interval:PT0.5S}",
+            fixedDelayString = "${application.outbox.poll-interval:PT0.5S}")
+    public synchronized int drain() {
+        int batchSize = Math.max(outboxProperties.getBatchSize(), 1);
+        int delivered = 0;
+        while (true) {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<OutboxEvent> batch = readTransaction.execute(status -> outboxEventRepository.findDue(now, batchSize));
+            Set<UUID> heldBack = new HashSet<>();
+            int deliveredInBatch = 0;
+            for (OutboxEvent event : batch) {
+                if (heldBack.contains(event.getAggregateId())) {
+                    continue;
+                }
+                if (!deliver(event)) {
+                    heldBack.add(event.getAggregateId());
+                    continue;
+                }
+                deliveredInBatch++;
+            }
+            delivered += deliveredInBatch;
+            if (batch.size() < batchSize || deliveredInBatch == 0) {
+                break;
+            }
+        }
+        updateBacklog();
+        return delivered;
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        Delivery delivery;
+        try {
+            delivery = writeTransaction.execute(status -> {
+                Delivery applied = apply(event);
+                outboxEventRepository.deleteById(event.getId());
+                return applied;
+            });
+        } catch (RuntimeException ex) {
+            recordFailure(event, ex);
+            return false;
+        }
+        for (Broadcast broadcast : delivery.broadcasts()) {
+            messagingTemplate.convertAndSend(broadcast.destination(), broadcast.payload());
+        }
+        delivery.notifications().forEach(notificationService::push);
+        Timer.builder("outbox.delivery.delay")
+                .description("Time from recording an outbox event to delivering it")
+                .tag("type", event.getType().name())
+                .register(meterRegistry)
+                .record(Duration.between(event.getCreatedAt(), OffsetDateTime.now()));
+        count(event, "delivered");
+        return true;
+    }
+
+    private Delivery apply(OutboxEvent event) {
+        return switch (event.getType()) {
+            case TRADE_STATUS_CHANGED -> {
+                TradeStatusChangedEvent changed = read(event, TradeStatusChangedEvent.class);
+                yield new Delivery(
+                        List.of(statusBroadcast(changed)), notificationService.notifyTradeStatusChange(changed));
+            }
+            case COMPETING_TRADES_REJECTED -> {
+                CompetingTradesRejectedEvent rejected = read(event, CompetingTradesRejectedEvent.class);
+                yield new Delivery(
+                        rejected.rejections().stream().map(OutboxDispatcher::statusBroadcast).toList(),
+                        notificationService.notifyTradeStatusChanges(rejected.rejections()));
+            }
+            case MESSAGE_CREATED -> {
+                MessageCreatedEvent created = read(event, MessageCreatedEvent.class);
+                yield new Delivery(
+                        List.of(new Broadcast(
+                                "/topic/trades/" + created.message().getTradeId() + "/messages", created.message())),
+                        List.of(notificationService.notifyMessage(created)));
+            }
+        };
+    }
+
+    private static Broadcast statusBroadcast(TradeStatusChangedEvent changed) {
+        return new Broadcast("/topic/trades/" + changed.trade().getId() + "/status", changed.trade());
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable " + event.getType() + " payload", ex);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException ex) {
+        int attempts = event.getAttempts() + 1;
+        OffsetDateTime now = OffsetDateTime.now();
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(String.valueOf(ex)));
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            event.setFailedAt(now);
+            log.error("Giving up on outbox event {} ({}) after {} attempts", event.getId(), event.getType(), attempts, ex);
+            count(event, "failed");
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+            log.warn("Outbox event {} ({}) failed, attempt {}: {}", event.getId(), event.getType(), attempts, ex.toString());
+            count(event, "retried");
+        }
+        try {
+            writeTransaction.executeWithoutResult(status -> outboxEventRepository.save(event));
+        } catch (RuntimeException saveFailure) {
+            log.warn("Could not record the failure of outbox event {}", event.getId(), saveFailure);
+        }
+    }
+
+    /** {@code initialBackoff * 2^(attempts - 1)}, capped at {@code maxBackoff}. */
+    Duration backoff(int attempts) {
+        Duration max = outboxProperties.getMaxBackoff();
+        Duration backoff = outboxProperties.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(max) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(max) < 0 ? backoff : max;
+    }
+
+    private void updateBacklog() {
+        OutboxEventRepository.Backlog backlog = readTransaction.execute(status -> outboxEventRepository.findBacklog());
+        pending = backlog.getPending();
+        oldestAgeSeconds =
+                backlog.getOldestCreatedAt() == null
+                        ? 0
+                        : Math.max(Duration.between(backlog.getOldestCreatedAt(), OffsetDateTime.now()).toMillis(), 0)
+                                / 1000.0;
+    }
+
+    private void count(OutboxEvent event, String outcome) {
+        Counter.builder("outbox.events")
+                .description("Outbox delivery attempts by outcome")
+                .tag("type", event.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH - 3) + "...";
+    }
+
+    private record Delivery(List<Broadcast> broadcasts, List<Notification> notifications) {
+    }
+
+    private record Broadcast(String destination, Object payload) {
+    }
+}
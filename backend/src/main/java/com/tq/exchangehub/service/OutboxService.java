@@ -0,0 +1,71 @@
+package com.tq.exchangehub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tq.exchangehub.entity.OutboxEvent;
+import com.tq.exchangehub.entity.OutboxEventType;
+import com.tq.exchangehub.repository.OutboxEventRepository;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records side effects in {@code outbox_events} as part of the write that causes them, so they are
+ * delivered by {@link OutboxDispatcher} if and only if that write commits.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO outbox_events (aggregate_id, type, payload, created_at, attempts, next_attempt_at)"
+                    + " VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxService(
+            OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, JdbcTemplate jdbcTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Events sharing an {@code aggregateId}, a trade id, are delivered in the order they were appended. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, UUID aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setPayload(serialize(type, payload));
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Appends one event per payload with a single JDBC batch insert. Identities are assigned in list
+     * order, so events of the same aggregate are delivered in that order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void appendAll(OutboxEventType type, List<T> payloads, Function<T, UUID> aggregateId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        for (T payload : payloads) {
+            rows.add(new Object[] {aggregateId.apply(payload), type.name(), serialize(type, payload), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+
+    private String serialize(OutboxEventType type, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", ex);
+        }
+    }
+}
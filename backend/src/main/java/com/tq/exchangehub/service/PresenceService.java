@@ -0,0 +1,99 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.dto.PresenceDto;
+import com.tq.exchangehub.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.Principal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Tracks which profiles have an authenticated STOMP session open. The registry lives in memory only and
+ * is fed by the broker's connect and disconnect events; a profile is online while it has at least one
+ * session, and {@code /topic/profiles/{profileId}/presence} only hears about the transitions.
+ */
+@Service
+public class PresenceService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Map<String, UUID> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> sessionCounts = new ConcurrentHashMap<>();
+    private final Counter broadcasts;
+
+    public PresenceService(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.broadcasts = Counter.builder("presence.broadcasts")
+                .description("Presence and typing updates sent to subscribers")
+                .tag("type", "presence")
+                .register(meterRegistry);
+        Gauge.builder("presence.sessions", sessions, Map::size)
+                .description("Authenticated STOMP sessions currently open")
+                .register(meterRegistry);
+        Gauge.builder("presence.profiles.online", sessionCounts, Map::size)
+                .description("Profiles with at least one open STOMP session")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        UUID profileId = profileId(event.getUser());
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (profileId == null || sessionId == null || sessions.putIfAbsent(sessionId, profileId) != null) {
+            return;
+        }
+        sessionCounts.compute(profileId, (id, count) -> {
+            if (count == null) {
+                broadcast(id, true);
+                return 1;
+            }
+            return count + 1;
+        });
+    }
+
+    /** Disconnect events may arrive twice for the same session; only the first one counts. */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        UUID profileId = sessions.remove(event.getSessionId());
+        if (profileId == null) {
+            return;
+        }
+        sessionCounts.computeIfPresent(profileId, (id, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            broadcast(id, false);
+            return null;
+        });
+    }
+
+    public PresenceDto presence(UUID profileId) {
+        return new PresenceDto(profileId, sessionCounts.containsKey(profileId));
+    }
+
+    /** Sent while the profile's entry is locked, so an online update can never overtake an offline one. */
+    private void broadcast(UUID profileId, boolean online) {
+        messagingTemplate.convertAndSend(
+                "/topic/profiles/" + profileId + "/presence", new PresenceDto(profileId, online));
+        broadcasts.increment();
+    }
+
+    private static UUID profileId(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserPrincipal user
+                && user.getUserAccount() != null
+                && user.getUserAccount().getProfile() != null) {
+            return user.getUserAccount().getProfile().getId();
+        }
+        return null;
+    }
+}
@@ -5,17 +5,23 @@ import com.tq.exchangehub.dto.ProfileUpdateRequest;
 import com.tq.exchangehub.entity.Profile;
 import com.tq.exchangehub.repository.ProfileRepository;
 import com.tq.exchangehub.util.DtoMapper;
+import com.tq.exchangehub.util.ResourceVersion;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ProfileService {
 
     private final ProfileRepository profileRepository;
+    private final ItemCardService itemCardService;
 
-    public ProfileService(ProfileRepository profileRepository) {
+    public ProfileService(ProfileRepository profileRepository, ItemCardService itemCardService) {
         this.profileRepository = profileRepository;
+        this.itemCardService = itemCardService;
     }
 
     public ProfileDto getProfile(UUID id) {
@@ -26,11 +32,30 @@ public class ProfileService {
         return DtoMapper.toProfileDto(profile);
     }
 
+    /** Version of a profile for conditional requests, read without loading the profile. */
+    public ResourceVersion findVersion(UUID id) {
+        return profileRepository
+                .findUpdatedAtById(id)
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
+    }
+
+    @Transactional
     public ProfileDto updateProfile(UUID id, ProfileUpdateRequest request) {
+        return updateProfile(id, request, current -> {});
+    }
+
+    /**
+     * Updates the profile after {@code precondition} accepts its current version, which it rejects by
+     * throwing. The row stays locked from the check to the commit, so no other write slips in between.
+     */
+    @Transactional
+    public ProfileDto updateProfile(UUID id, ProfileUpdateRequest request, Consumer<ResourceVersion> precondition) {
         Profile profile =
                 profileRepository
-                        .findById(id)
+                        .findByIdForUpdate(id)
                         .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
+        precondition.accept(ResourceVersion.of(profile.getUpdatedAt()));
 
         if (request.getDisplayName() != null) {
             profile.setDisplayName(request.getDisplayName());
@@ -39,9 +64,11 @@ public class ProfileService {
         profile.setAvatarUrl(request.getAvatarUrl());
         profile.setLocation(request.getLocation());
         profile.setPhone(request.getPhone());
-        profile.setUpdatedAt(OffsetDateTime.now());
+        // Stored exactly, so the version returned with the response matches the one read back later.
+        profile.setUpdatedAt(OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS));
 
         Profile updated = profileRepository.save(profile);
+        itemCardService.refreshOwner(updated);
         return DtoMapper.toProfileDto(updated);
     }
 }
@@ -0,0 +1,174 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.SearchProperties;
+import com.tq.exchangehub.dto.SearchResultDto;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.search.ItemDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded LRU cache of {@code /api/search} responses with a time-to-live. Committed item changes
+ * evict every entry that could list the item: searches scoped to its category and unscoped
+ * searches. A generation counter keeps a response computed before an eviction from being stored
+ * after it.
+ */
+@Service
+public class SearchResultCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /** Access-ordered, so iteration starts at the least recently used entry; guarded by {@code this}. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    @Autowired
+    public SearchResultCache(SearchProperties searchProperties, MeterRegistry meterRegistry) {
+        this(searchProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    SearchResultCache(SearchProperties searchProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.maxEntries = Math.max(searchProperties.getCacheMaxEntries(), 0);
+        this.ttlMillis = searchProperties.getCacheTtl().toMillis();
+        this.clock = clock;
+        this.hits =
+                Counter.builder("search.cache.hits")
+                        .description("Search responses served from the result cache")
+                        .register(meterRegistry);
+        this.misses =
+                Counter.builder("search.cache.misses")
+                        .description("Search responses computed because they were not cached")
+                        .register(meterRegistry);
+        this.evictions =
+                Counter.builder("search.cache.evictions")
+                        .description("Cached search responses dropped by size, expiry or item changes")
+                        .register(meterRegistry);
+        Gauge.builder("search.cache.entries", this, SearchResultCache::size)
+                .description("Search responses currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response for {@code key}, computing and storing it with {@code loader} on a
+     * miss. The loader runs outside the cache lock.
+     */
+    public SearchResultDto get(Key key, Supplier<SearchResultDto> loader) {
+        if (maxEntries == 0) {
+            return loader.get();
+        }
+        long observedGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > clock.millis()) {
+                hits.increment();
+                return entry.result;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+            observedGeneration = generation;
+        }
+        misses.increment();
+        SearchResultDto result = loader.get();
+        synchronized (this) {
+            if (observedGeneration == generation) {
+                entries.put(key, new Entry(result, clock.millis() + ttlMillis));
+                while (entries.size() > maxEntries) {
+                    Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        event.getDocuments().stream().map(ItemDocument::categoryId).distinct().forEach(this::invalidateCategory);
+    }
+
+    /**
+     * Drops searches scoped to {@code categoryId} and searches across all categories; a
+     * {@code null} category drops everything.
+     */
+    public synchronized void invalidateCategory(UUID categoryId) {
+        generation++;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            UUID scope = keys.next().categoryId();
+            if (categoryId == null || scope == null || scope.equals(categoryId)) {
+                keys.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Normalized search request: the query is lower-cased and its whitespace collapsed, as the analyzer
+     * sees it, and blank filters are treated as absent.
+     */
+    public record Key(
+            String query,
+            UUID categoryId,
+            Boolean service,
+            String condition,
+            String location,
+            int page,
+            int size,
+            boolean fuzzy) {
+
+        public static Key of(
+                String query,
+                UUID categoryId,
+                Boolean service,
+                String condition,
+                String location,
+                int page,
+                int size,
+                boolean fuzzy) {
+            return new Key(
+                    WHITESPACE.matcher(Objects.requireNonNullElse(query, "").trim().toLowerCase(Locale.ROOT))
+                            .replaceAll(" "),
+                    categoryId,
+                    service,
+                    blankToNull(condition),
+                    blankToNull(location),
+                    page,
+                    size,
+                    fuzzy);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private record Entry(SearchResultDto result, long expiresAt) {}
+}
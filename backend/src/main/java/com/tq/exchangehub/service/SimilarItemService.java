@@ -0,0 +1,145 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.SchedulingConfig;
+import com.tq.exchangehub.config.SimilarityProperties;
+import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.entity.ItemCard;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.repository.ItemCardRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.search.ItemDocument;
+import com.tq.exchangehub.search.SimilarityIndex;
+import com.tq.exchangehub.util.DtoMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * "Similar items" recommendations answered from a precomputed {@link SimilarityIndex}. A scheduled
+ * job rebuilds the whole index from the catalog on all cores; listings created or changed in between
+ * are applied incrementally, including while a rebuild runs, so no change is lost when the new index
+ * replaces the old one.
+ */
+@Service
+public class SimilarItemService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarItemService.class);
+
+    private final ItemIndexService itemIndexService;
+    private final ItemRepository itemRepository;
+    private final ItemCardRepository itemCardRepository;
+    private final SimilarityProperties similarityProperties;
+    private final Timer buildTimer;
+    private final List<ItemDocument> pending = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile SimilarityIndex index;
+
+    public SimilarItemService(
+            ItemIndexService itemIndexService,
+            ItemRepository itemRepository,
+            ItemCardRepository itemCardRepository,
+            SimilarityProperties similarityProperties,
+            MeterRegistry meterRegistry) {
+        this.itemIndexService = itemIndexService;
+        this.itemRepository = itemRepository;
+        this.itemCardRepository = itemCardRepository;
+        this.similarityProperties = similarityProperties;
+        this.index = new SimilarityIndex(similarityProperties.getNeighbours());
+        this.buildTimer =
+                Timer.builder("similarity.build")
+                        .description("Time spent computing TF-IDF vectors and neighbours of every listing")
+                        .register(meterRegistry);
+        Gauge.builder("similarity.index.items", this, service -> service.index.size())
+                .description("Listings with precomputed similar items")
+                .register(meterRegistry);
+    }
+
+    /** Listings most similar to {@code itemId}, best first. */
+    @Transactional(readOnly = true)
+    public List<ItemSummaryDto> findSimilar(UUID itemId, int limit) {
+        int resolvedLimit = Math.min(Math.max(limit, 1), similarityProperties.getNeighbours());
+        List<SimilarityIndex.Neighbour> neighbours = index.similar(itemId, resolvedLimit);
+        if (neighbours.isEmpty()) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new IllegalArgumentException("Item not found");
+            }
+            return List.of();
+        }
+        Map<UUID, ItemCard> cards =
+                itemCardRepository.findByItemIdIn(neighbours.stream().map(SimilarityIndex.Neighbour::itemId).toList())
+                        .stream()
+                        .collect(Collectors.toMap(ItemCard::getItemId, Function.identity()));
+        List<ItemSummaryDto> similar = new ArrayList<>(neighbours.size());
+        for (SimilarityIndex.Neighbour neighbour : neighbours) {
+            ItemCard card = cards.get(neighbour.itemId());
+            if (card != null && !Boolean.FALSE.equals(card.getAvailable())) {
+                similar.add(DtoMapper.toItemSummaryDto(card));
+            }
+        }
+        return similar;
+    }
+
+    @Scheduled(
+            scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            initialDelayString = "${application.similarity.initial-delay:PT1M}",
+            fixedDelayString = "${application.similarity.rebuild:PT6H}")
+    public void rebuild() {
+        synchronized (pending) {
+            rebuilding = true;
+            pending.clear();
+        }
+        try {
+            long started = System.nanoTime();
+            List<ItemDocument> documents = new ArrayList<>();
+            itemIndexService.forEachDocument(
+                    document -> {
+                        if (document.available()) {
+                            documents.add(document);
+                        }
+                    });
+            SimilarityIndex next =
+                    SimilarityIndex.build(documents, similarityProperties.getNeighbours(), parallelism());
+            synchronized (pending) {
+                pending.forEach(next::upsert);
+                index = next;
+            }
+            long elapsed = System.nanoTime() - started;
+            buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Similar items computed for {} listings in {} ms", documents.size(), elapsed / 1_000_000);
+        } finally {
+            synchronized (pending) {
+                rebuilding = false;
+                pending.clear();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        synchronized (pending) {
+            if (rebuilding) {
+                pending.addAll(event.getDocuments());
+            }
+            event.getDocuments().forEach(index::upsert);
+        }
+    }
+
+    private int parallelism() {
+        return similarityProperties.getParallelism() > 0
+                ? similarityProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,230 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.dto.SuggestionDto;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.FavoriteRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.search.ItemDocument;
+import com.tq.exchangehub.search.SpanishAnalyzer;
+import com.tq.exchangehub.search.SuggestionIndex;
+import com.tq.exchangehub.search.SuggestionIndex.Suggestion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serves search-box completions from memory. Item titles, category names and wishlist terms live
+ * in an immutable {@link SuggestionIndex}; item changes go to a small delta index that shadows the
+ * base entries it replaces and is merged into a new base once it grows past
+ * {@link #MERGE_THRESHOLD} entries. Reads never touch the database.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+    static final int MERGE_THRESHOLD = 256;
+    private static final int MAX_LIMIT = 20;
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Every live suggestion by identity; guarded by {@code this}. */
+    private final Map<String, Suggestion> current = new HashMap<>();
+    /** Identities changed or removed since the base was built; guarded by {@code this}. */
+    private final Map<String, Suggestion> changed = new LinkedHashMap<>();
+    private final Queue<ItemDocument> pending = new ArrayDeque<>();
+    private boolean built;
+    private volatile Snapshot snapshot = new Snapshot(SuggestionIndex.EMPTY, SuggestionIndex.EMPTY, Set.of());
+
+    public SuggestionService(
+            ItemRepository itemRepository,
+            CategoryRepository categoryRepository,
+            FavoriteRepository favoriteRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("search.suggest.entries", this, service -> service.snapshot.size())
+                .description("Suggestions held by the in-memory autocomplete index")
+                .register(meterRegistry);
+        Gauge.builder("search.suggest.size", this, service -> service.snapshot.estimatedSizeInBytes())
+                .baseUnit("bytes")
+                .description("Estimated heap used by the in-memory autocomplete index")
+                .register(meterRegistry);
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        int resolvedLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        Snapshot view = snapshot;
+        List<Suggestion> merged = new ArrayList<>(view.delta.complete(prefix, resolvedLimit));
+        for (Suggestion suggestion : view.base.complete(prefix, resolvedLimit + view.shadowed.size())) {
+            if (!view.shadowed.contains(identity(suggestion))) {
+                merged.add(suggestion);
+            }
+        }
+        return merged.stream()
+                .sorted(Comparator.comparingLong(Suggestion::weight).reversed())
+                .limit(resolvedLimit)
+                .map(SuggestionService::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        Map<String, Suggestion> loaded = transactionTemplate.execute(status -> load());
+        synchronized (this) {
+            current.clear();
+            current.putAll(loaded);
+            changed.clear();
+            snapshot = new Snapshot(SuggestionIndex.build(current.values()), SuggestionIndex.EMPTY, Set.of());
+            pending.forEach(this::apply);
+            pending.clear();
+            built = true;
+            publishDelta();
+        }
+        log.info(
+                "Suggestion index built with {} entries in {} ms",
+                snapshot.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        if (!built) {
+            pending.addAll(event.getDocuments());
+            return;
+        }
+        event.getDocuments().forEach(this::apply);
+        if (changed.size() >= MERGE_THRESHOLD) {
+            SuggestionIndex base =
+                    SuggestionIndex.merge(
+                            snapshot.base, suggestion -> !changed.containsKey(identity(suggestion)), additions());
+            changed.clear();
+            snapshot = new Snapshot(base, SuggestionIndex.EMPTY, Set.of());
+        } else {
+            publishDelta();
+        }
+    }
+
+    private Map<String, Suggestion> load() {
+        Map<UUID, Long> favorites = new HashMap<>();
+        favoriteRepository.countByItem().forEach(row -> favorites.put(row.getItemId(), row.getTotal()));
+
+        Map<String, Suggestion> loaded = new HashMap<>();
+        for (ItemRepository.ItemTitle row : itemRepository.findAvailableTitles()) {
+            Suggestion suggestion =
+                    new Suggestion(
+                            row.getTitle(), SuggestionIndex.Type.ITEM, row.getId(), 1 + favorites.getOrDefault(row.getId(), 0L));
+            loaded.put(identity(suggestion), suggestion);
+        }
+        for (CategoryRepository.CategoryItemCount row : categoryRepository.countAvailableItemsByCategory()) {
+            Suggestion suggestion = new Suggestion(row.getName(), SuggestionIndex.Type.CATEGORY, row.getId(), row.getTotal());
+            loaded.put(identity(suggestion), suggestion);
+        }
+        for (ItemRepository.TermCount row : itemRepository.countAvailableWishlistTerms()) {
+            Suggestion suggestion = new Suggestion(row.getTerm().trim(), SuggestionIndex.Type.WISHLIST, null, row.getTotal());
+            loaded.merge(identity(suggestion), suggestion, (left, right) -> left.withWeight(left.weight() + right.weight()));
+        }
+        return loaded;
+    }
+
+    private void apply(ItemDocument document) {
+        Suggestion item = new Suggestion(document.title(), SuggestionIndex.Type.ITEM, document.id(), 1);
+        String itemIdentity = identity(item);
+        Suggestion previous = current.get(itemIdentity);
+        if (!document.available()) {
+            if (previous != null) {
+                current.remove(itemIdentity);
+                changed.put(itemIdentity, null);
+                adjust(new Suggestion(document.categoryName(), SuggestionIndex.Type.CATEGORY, document.categoryId(), 0), -1);
+            }
+            return;
+        }
+        item = previous != null ? item.withWeight(previous.weight()) : item;
+        current.put(itemIdentity, item);
+        changed.put(itemIdentity, item);
+        if (previous == null) {
+            adjust(new Suggestion(document.categoryName(), SuggestionIndex.Type.CATEGORY, document.categoryId(), 0), 1);
+            for (String wish : document.wishlist()) {
+                if (!wish.isBlank()) {
+                    adjust(new Suggestion(wish.trim(), SuggestionIndex.Type.WISHLIST, null, 0), 1);
+                }
+            }
+        }
+    }
+
+    private void adjust(Suggestion template, long delta) {
+        String identity = identity(template);
+        Suggestion existing = current.getOrDefault(identity, template);
+        Suggestion updated = existing.withWeight(Math.max(existing.weight() + delta, 0));
+        current.put(identity, updated);
+        changed.put(identity, updated);
+    }
+
+    private void publishDelta() {
+        snapshot = new Snapshot(snapshot.base, additions(), new HashSet<>(changed.keySet()));
+    }
+
+    private SuggestionIndex additions() {
+        List<Suggestion> additions = new ArrayList<>();
+        for (Suggestion suggestion : changed.values()) {
+            if (suggestion != null) {
+                additions.add(suggestion);
+            }
+        }
+        return SuggestionIndex.build(additions);
+    }
+
+    private static String identity(Suggestion suggestion) {
+        return switch (suggestion.type()) {
+            case ITEM -> "item:" + suggestion.refId();
+            case CATEGORY -> "category:" + suggestion.refId();
+            case WISHLIST -> "wish:" + SpanishAnalyzer.fold(suggestion.text()).trim();
+        };
+    }
+
+    private static SuggestionDto toDto(Suggestion suggestion) {
+        SuggestionDto dto = new SuggestionDto();
+        dto.setText(suggestion.text());
+        dto.setType(suggestion.type().name());
+        dto.setId(suggestion.refId());
+        return dto;
+    }
+
+    private record Snapshot(SuggestionIndex base, SuggestionIndex delta, Set<String> shadowed) {
+
+        int size() {
+            return base.size() + delta.size();
+        }
+
+        long estimatedSizeInBytes() {
+            return base.estimatedSizeInBytes() + delta.estimatedSizeInBytes() + shadowed.size() * 64L;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.MatchingProperties;
+import com.tq.exchangehub.config.SchedulingConfig;
+import com.tq.exchangehub.dto.TradeChainDto;
+import com.tq.exchangehub.dto.TradeChainLegDto;
+import com.tq.exchangehub.event.TradeChainsProposedEvent;
+import com.tq.exchangehub.search.TradeCycleFinder;
+import com.tq.exchangehub.search.TradeGraph;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically searches the want graph of the matchmaking index for multi-party trade chains
+ * (A wants B's listing, B wants C's, C wants A's) and keeps the latest proposals per participant.
+ */
+@Service
+public class TradeChainService {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeChainService.class);
+
+    private final ItemIndexService itemIndexService;
+    private final MatchingProperties matchingProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer searchTimer;
+    private volatile Proposals proposals = new Proposals(List.of(), Map.of());
+
+    public TradeChainService(
+            ItemIndexService itemIndexService,
+            MatchingProperties matchingProperties,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.itemIndexService = itemIndexService;
+        this.matchingProperties = matchingProperties;
+        this.eventPublisher = eventPublisher;
+        this.searchTimer =
+                Timer.builder("trade.chains.search")
+                        .description("Time spent building the want graph and searching it for trade chains")
+                        .register(meterRegistry);
+        Gauge.builder("trade.chains.proposed", this, service -> service.proposals.chains().size())
+                .description("Trade chains proposed by the latest search")
+                .register(meterRegistry);
+    }
+
+    /** Current proposals that include {@code profileId}, shortest chains first. */
+    public List<TradeChainDto> findForProfile(UUID profileId) {
+        return proposals.byProfile().getOrDefault(profileId, List.of());
+    }
+
+    @Scheduled(
+            scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            initialDelayString = "${application.matching.cycle-initial-delay:PT1M}",
+            fixedDelayString = "${application.matching.cycle-refresh:PT10M}")
+    public void refresh() {
+        if (!itemIndexService.isMatchReady()) {
+            return;
+        }
+        long started = System.nanoTime();
+        TradeGraph graph = itemIndexService.tradeGraph(matchingProperties.getMaxOutDegree());
+        List<TradeChainDto> chains = toChains(graph, finder().find(graph));
+        long elapsed = System.nanoTime() - started;
+        searchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        Map<UUID, List<TradeChainDto>> byProfile = new HashMap<>();
+        for (TradeChainDto chain : chains) {
+            for (TradeChainLegDto leg : chain.getLegs()) {
+                byProfile.computeIfAbsent(leg.getRequesterId(), key -> new ArrayList<>()).add(chain);
+            }
+        }
+        byProfile.replaceAll((profile, list) -> List.copyOf(list));
+        proposals = new Proposals(List.copyOf(chains), byProfile);
+        log.info(
+                "Found {} trade chains over {} listings and {} wants in {} ms",
+                chains.size(),
+                graph.nodes(),
+                graph.edges(),
+                elapsed / 1_000_000);
+        eventPublisher.publishEvent(new TradeChainsProposedEvent(proposals.chains()));
+    }
+
+    private TradeCycleFinder finder() {
+        int parallelism =
+                matchingProperties.getParallelism() > 0
+                        ? matchingProperties.getParallelism()
+                        : Runtime.getRuntime().availableProcessors();
+        return new TradeCycleFinder(
+                matchingProperties.getMaxCycleLength(),
+                matchingProperties.getMaxCyclesPerItem(),
+                matchingProperties.getMaxCycles(),
+                parallelism);
+    }
+
+    private static List<TradeChainDto> toChains(TradeGraph graph, List<int[]> cycles) {
+        List<TradeChainDto> chains = new ArrayList<>(cycles.size());
+        for (int[] cycle : cycles) {
+            TradeChainDto chain = new TradeChainDto();
+            StringBuilder key = new StringBuilder();
+            List<TradeChainLegDto> legs = new ArrayList<>(cycle.length);
+            for (int i = 0; i < cycle.length; i++) {
+                int wanting = cycle[i];
+                int wanted = cycle[(i + 1) % cycle.length];
+                TradeChainLegDto leg = new TradeChainLegDto();
+                leg.setRequesterId(graph.ownerId(wanting));
+                leg.setRequesterItemId(graph.itemId(wanting));
+                leg.setOwnerId(graph.ownerId(wanted));
+                leg.setOwnerItemId(graph.itemId(wanted));
+                legs.add(leg);
+                key.append(graph.itemId(wanting)).append('>');
+            }
+            chain.setId(UUID.nameUUIDFromBytes(key.toString().getBytes(StandardCharsets.UTF_8)));
+            chain.setLegs(legs);
+            chains.add(chain);
+        }
+        chains.sort(Comparator.comparingInt(chain -> chain.getLegs().size()));
+        return chains;
+    }
+
+    private record Proposals(List<TradeChainDto> chains, Map<UUID, List<TradeChainDto>> byProfile) {}
+}
@@ -1,30 +1,37 @@
 package com.tq.exchangehub.service;
 
 import com.tq.exchangehub.dto.CreateTradeRequest;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.TradeCountsDto;
 import com.tq.exchangehub.dto.TradeDto;
 import com.tq.exchangehub.dto.TradeStatusUpdateRequest;
 import com.tq.exchangehub.entity.Item;
 import com.tq.exchangehub.entity.Message;
+import com.tq.exchangehub.entity.OutboxEventType;
 import com.tq.exchangehub.entity.Profile;
 import com.tq.exchangehub.entity.Trade;
 import com.tq.exchangehub.entity.TradeStatus;
+import com.tq.exchangehub.event.CompetingTradesRejectedEvent;
+import com.tq.exchangehub.event.MessageCreatedEvent;
 import com.tq.exchangehub.event.TradeStatusChangedEvent;
 import com.tq.exchangehub.repository.ItemRepository;
 import com.tq.exchangehub.repository.MessageRepository;
 import com.tq.exchangehub.repository.ProfileRepository;
 import com.tq.exchangehub.repository.TradeRepository;
 import com.tq.exchangehub.util.DtoMapper;
+import com.tq.exchangehub.util.TradeCursor;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
+import java.util.stream.Stream;
 import org.springframework.http.HttpStatus;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -34,25 +41,22 @@ public class TradeService {
     private final ItemRepository itemRepository;
     private final ProfileRepository profileRepository;
     private final MessageRepository messageRepository;
-    private final ApplicationEventPublisher eventPublisher;
-    private final SimpMessagingTemplate messagingTemplate;
-    private final NotificationService notificationService;
+    private final ItemService itemService;
+    private final OutboxService outboxService;
 
     public TradeService(
             TradeRepository tradeRepository,
             ItemRepository itemRepository,
             ProfileRepository profileRepository,
             MessageRepository messageRepository,
-            ApplicationEventPublisher eventPublisher,
-            SimpMessagingTemplate messagingTemplate,
-            NotificationService notificationService) {
+            ItemService itemService,
+            OutboxService outboxService) {
         this.tradeRepository = tradeRepository;
         this.itemRepository = itemRepository;
         this.profileRepository = profileRepository;
         this.messageRepository = messageRepository;
-        this.eventPublisher = eventPublisher;
-        this.messagingTemplate = messagingTemplate;
-        this.notificationService = notificationService;
+        this.itemService = itemService;
+        this.outboxService = outboxService;
     }
 
     public List<TradeDto> listTrades(UUID profileId, List<TradeStatus> statuses) {
@@ -73,6 +77,49 @@ public class TradeService {
         return trades.stream().map(DtoMapper::toTradeDto).collect(Collectors.toList());
     }
 
+    /**
+     * One page of the trades involving {@code profileId}, most recently updated first, for an empty
+     * {@code cursor} or the {@code nextCursor} of the previous page. Trades are read as projections, so
+     * no entity or association is loaded. An empty status list means every status.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TradeDto> findInbox(UUID profileId, List<TradeStatus> statuses, String cursor, int size) {
+        TradeCursor after = TradeCursor.decode(cursor);
+        int resolvedSize = Math.max(size, 1);
+        List<TradeStatus> filter = normalizeStatuses(statuses);
+        if (filter.isEmpty()) {
+            filter = List.of(TradeStatus.values());
+        }
+        List<TradeRepository.TradeRow> rows =
+                after == null
+                        ? tradeRepository.findInboxFirst(profileId, filter, resolvedSize + 1)
+                        : tradeRepository.findInboxAfter(
+                                profileId, filter, after.updatedAt(), after.id(), resolvedSize + 1);
+        String nextCursor = null;
+        if (rows.size() > resolvedSize) {
+            rows = rows.subList(0, resolvedSize);
+            TradeRepository.TradeRow last = rows.get(resolvedSize - 1);
+            nextCursor = new TradeCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(rows.stream().map(TradeService::toTradeDto).toList(), resolvedSize, nextCursor);
+    }
+
+    /** Number of trades involving {@code profileId} per status, from a single grouped query. */
+    @Transactional(readOnly = true)
+    public TradeCountsDto countTrades(UUID profileId) {
+        TradeCountsDto counts = new TradeCountsDto();
+        for (TradeRepository.StatusCount count : tradeRepository.countByStatusForParticipant(profileId)) {
+            switch (count.getStatus()) {
+                case PENDING -> counts.setPending(count.getTotal());
+                case ACCEPTED -> counts.setAccepted(count.getTotal());
+                case REJECTED -> counts.setRejected(count.getTotal());
+                case COMPLETED -> counts.setCompleted(count.getTotal());
+                case CANCELLED -> counts.setCancelled(count.getTotal());
+            }
+        }
+        return counts;
+    }
+
     public TradeDto getTrade(UUID id) {
         Trade trade =
                 tradeRepository
@@ -81,50 +128,57 @@ public class TradeService {
         return DtoMapper.toTradeDto(trade);
     }
 
+    /**
+     * Moves a trade along PENDING to ACCEPTED or REJECTED (owner) and ACCEPTED to COMPLETED (owner);
+     * cancelling is delegated to {@link #cancel}. Of concurrent transitions of one trade exactly one
+     * wins, the others get 409 Conflict.
+     */
+    @Transactional
     public TradeDto updateStatus(UUID id, TradeStatusUpdateRequest request, UUID profileId) {
-        Trade trade =
-                tradeRepository
-                        .findById(id)
-                        .orElseThrow(() -> new IllegalArgumentException("Trade not found"));
-
         TradeStatus requestedStatus = request.getStatus();
-
-        if (requestedStatus == TradeStatus.CANCELLED) {
-            return cancelTrade(trade, profileId);
-        }
-
-        if (!trade.getOwner().getId().equals(profileId)) {
-            throw new ResponseStatusException(
-                    HttpStatus.FORBIDDEN,
-                    "You do not have permission to modify this trade request.");
-        }
-
-        if (trade.getStatus() != TradeStatus.PENDING
-                && (requestedStatus == TradeStatus.ACCEPTED
-                        || requestedStatus == TradeStatus.REJECTED)) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
+        return switch (requestedStatus) {
+            case CANCELLED -> cancel(id, profileId);
+            case ACCEPTED, REJECTED -> transition(
+                    id,
+                    TradeStatus.PENDING,
+                    requestedStatus,
+                    profileId,
+                    true,
                     "Only pending trades can be accepted or rejected.");
-        }
-
-        return applyStatus(trade, requestedStatus, profileId);
+            case COMPLETED -> transition(
+                    id,
+                    TradeStatus.ACCEPTED,
+                    TradeStatus.COMPLETED,
+                    profileId,
+                    true,
+                    "Only accepted trades can be completed.");
+            case PENDING -> throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "A trade cannot be moved back to pending.");
+        };
     }
 
+    @Transactional
     public TradeDto cancel(UUID id, UUID profileId) {
-        Trade trade =
-                tradeRepository
-                        .findById(id)
-                        .orElseThrow(() -> new IllegalArgumentException("Trade not found"));
-
-        return cancelTrade(trade, profileId);
+        return transition(
+                id,
+                TradeStatus.PENDING,
+                TradeStatus.CANCELLED,
+                profileId,
+                false,
+                "Only pending trades can be cancelled.");
     }
 
+    @Transactional
     public TradeDto create(CreateTradeRequest request, UUID requesterProfileId) {
         Item ownerItem =
                 itemRepository
                         .findById(request.getOwnerItemId())
                         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found"));
 
+        if (Boolean.FALSE.equals(ownerItem.getAvailable())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "This item is no longer available");
+        }
+
         Profile owner = ownerItem.getOwner();
         Profile requester =
                 profileRepository
@@ -171,22 +225,28 @@ public class TradeService {
             message.setContent(request.getMessage());
             message.setCreatedAt(OffsetDateTime.now());
             Message initialMessage = messageRepository.save(message);
-            messagingTemplate.convertAndSend(
-                    "/topic/trades/" + saved.getId() + "/messages",
-                    DtoMapper.toMessageDto(initialMessage));
-            notificationService.notifyMessage(owner, initialMessage);
+            tradeRepository.recordLastMessage(saved.getId(), initialMessage.getId(), initialMessage.getCreatedAt());
+            outboxService.append(
+                    OutboxEventType.MESSAGE_CREATED,
+                    saved.getId(),
+                    new MessageCreatedEvent(DtoMapper.toMessageDto(initialMessage), owner.getId()));
         }
 
         return DtoMapper.toTradeDto(saved);
     }
 
-    @EventListener
-    public void handleTradeStatusChange(TradeStatusChangedEvent event) {
-        Trade trade = event.getTrade();
-        messagingTemplate.convertAndSend(
-                "/topic/trades/" + trade.getId() + "/status",
-                DtoMapper.toTradeDto(trade));
-        notificationService.notifyTradeStatusChange(trade, event.getActorProfileId());
+    private static TradeDto toTradeDto(TradeRepository.TradeRow row) {
+        TradeDto dto = new TradeDto();
+        dto.setId(row.getId());
+        dto.setOwnerId(row.getOwnerId());
+        dto.setRequesterId(row.getRequesterId());
+        dto.setOwnerItemId(row.getOwnerItemId());
+        dto.setRequesterItemId(row.getRequesterItemId());
+        dto.setMessage(row.getMessage());
+        dto.setStatus(row.getStatus());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        return dto;
     }
 
     private List<TradeStatus> normalizeStatuses(List<TradeStatus> statuses) {
@@ -197,27 +257,91 @@ public class TradeService {
         return new ArrayList<>(new LinkedHashSet<>(statuses));
     }
 
-    private TradeDto cancelTrade(Trade trade, UUID profileId) {
-        if (!trade.getRequester().getId().equals(profileId)) {
-            throw new ResponseStatusException(
-                    HttpStatus.FORBIDDEN,
-                    "Only the requester can cancel this trade.");
+    /**
+     * Applies a transition with one conditional UPDATE, so the status check cannot go stale between
+     * read and write. The trade is only read afterwards: to build the response and event if the update
+     * won, or to tell a missing trade, a foreign one and a conflicting status apart if it did not.
+     */
+    private TradeDto transition(
+            UUID id,
+            TradeStatus from,
+            TradeStatus to,
+            UUID profileId,
+            boolean asOwner,
+            String conflictMessage) {
+        // Microseconds, the precision of the column, so the stored and the published times agree.
+        OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (to == TradeStatus.ACCEPTED) {
+            itemRepository.findItemsOfTradeForUpdate(id);
+        }
+        int updated =
+                asOwner
+                        ? tradeRepository.transitionAsOwner(id, from, to, profileId, now)
+                        : tradeRepository.transitionAsRequester(id, from, to, profileId, now);
+        if (updated == 0) {
+            throw transitionRefused(id, profileId, asOwner, conflictMessage);
         }
 
-        if (trade.getStatus() != TradeStatus.PENDING) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Only pending trades can be cancelled.");
+        Trade trade =
+                tradeRepository
+                        .findByIdForParticipant(id, profileId)
+                        .orElseThrow(() -> new IllegalArgumentException("Trade not found"));
+        TradeDto dto = DtoMapper.toTradeDto(trade);
+        outboxService.append(
+                OutboxEventType.TRADE_STATUS_CHANGED,
+                id,
+                new TradeStatusChangedEvent(dto, trade.getOwnerItem().getTitle(), profileId));
+        if (to == TradeStatus.ACCEPTED) {
+            rejectCompetingTrades(trade, profileId, now);
         }
+        return dto;
+    }
 
-        return applyStatus(trade, TradeStatus.CANCELLED, profileId);
+    /**
+     * An accepted trade takes its items off the market: the other pending trades requesting or offering
+     * them are locked and rejected by id, the items are marked unavailable, and the participants of the
+     * rejected trades are notified through a single outbox event. Both items were locked before the
+     * acceptance, so two trades sharing one of them cannot both be accepted.
+     */
+    private void rejectCompetingTrades(Trade accepted, UUID actorProfileId, OffsetDateTime now) {
+        List<Item> items = Stream.of(accepted.getOwnerItem(), accepted.getRequesterItem())
+                .filter(Objects::nonNull)
+                .toList();
+        List<UUID> itemIds = items.stream().map(Item::getId).toList();
+        List<UUID> competingIds =
+                tradeRepository.findCompetingForUpdate(accepted.getId(), itemIds, TradeStatus.PENDING).stream()
+                        .map(Trade::getId)
+                        .toList();
+        if (!competingIds.isEmpty()) {
+            tradeRepository.rejectByIds(competingIds, TradeStatus.REJECTED, now);
+            List<TradeStatusChangedEvent> rejections =
+                    tradeRepository.findTitledByIds(competingIds).stream()
+                            .map(row -> new TradeStatusChangedEvent(
+                                    toTradeDto(row), row.getOwnerItemTitle(), actorProfileId))
+                            .toList();
+            outboxService.append(
+                    OutboxEventType.COMPETING_TRADES_REJECTED,
+                    accepted.getId(),
+                    new CompetingTradesRejectedEvent(accepted.getId(), rejections));
+        }
+        itemService.markUnavailable(items, now);
     }
 
-    private TradeDto applyStatus(Trade trade, TradeStatus status, UUID actorProfileId) {
-        trade.setStatus(status);
-        trade.setUpdatedAt(OffsetDateTime.now());
-        Trade saved = tradeRepository.save(trade);
-        eventPublisher.publishEvent(new TradeStatusChangedEvent(saved, actorProfileId));
-        return DtoMapper.toTradeDto(saved);
+    private RuntimeException transitionRefused(UUID id, UUID profileId, boolean asOwner, String conflictMessage) {
+        Trade trade = tradeRepository.findById(id).orElse(null);
+        if (trade == null) {
+            return new IllegalArgumentException("Trade not found");
+        }
+        if (asOwner && !trade.getOwner().getId().equals(profileId)) {
+            return new ResponseStatusException(
+                    HttpStatus.FORBIDDEN,
+                    "You do not have permission to modify this trade request.");
+        }
+        if (!asOwner && !trade.getRequester().getId().equals(profileId)) {
+            return new ResponseStatusException(
+                    HttpStatus.FORBIDDEN,
+                    "Only the requester can cancel this trade.");
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, conflictMessage);
     }
 }
@@ -0,0 +1,198 @@
+package com.tq.exchangehub.service;
+
+import com.tq.exchangehub.config.PresenceProperties;
+import com.tq.exchangehub.dto.TypingDto;
+import com.tq.exchangehub.repository.TradeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Keeps who is typing in each trade conversation in memory and publishes it on
+ * {@code /topic/trades/{tradeId}/typing}. Every update carries the full list of typing participants, so
+ * signals arriving faster than {@code application.presence.typing-broadcasts-per-second} are coalesced into
+ * the next update instead of being relayed one by one. A signal lasts {@code typing-timeout} unless the
+ * client repeats it, and is cleared when its session disconnects.
+ *
+ * <p>The participant check hits the database once per session and trade; each session remembers at most
+ * {@code max-conversations-per-session} checked trades, so a long-lived socket cannot grow without bound.
+ */
+@Service
+public class TypingService {
+
+    private final TradeRepository tradeRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceProperties presenceProperties;
+    private final Clock clock;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Conversation> conversations = new ConcurrentHashMap<>();
+    private final Counter signals;
+    private final Counter broadcasts;
+
+    @Autowired
+    public TypingService(
+            TradeRepository tradeRepository,
+            SimpMessagingTemplate messagingTemplate,
+            PresenceProperties presenceProperties,
+            MeterRegistry meterRegistry) {
+        this(tradeRepository, messagingTemplate, presenceProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    TypingService(
+            TradeRepository tradeRepository,
+            SimpMessagingTemplate messagingTemplate,
+            PresenceProperties presenceProperties,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.tradeRepository = tradeRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.presenceProperties = presenceProperties;
+        this.clock = clock;
+        this.signals = Counter.builder("presence.typing.signals")
+                .description("Typing signals received from clients")
+                .register(meterRegistry);
+        this.broadcasts = Counter.builder("presence.broadcasts")
+                .description("Presence and typing updates sent to subscribers")
+                .tag("type", "typing")
+                .register(meterRegistry);
+        Gauge.builder("presence.typing.conversations", conversations, Map::size)
+                .description("Trade conversations with typing state held in memory")
+                .register(meterRegistry);
+    }
+
+    public void signal(UUID tradeId, String sessionId, UUID profileId, boolean typing) {
+        signals.increment();
+        checkParticipant(tradeId, sessionId, profileId);
+        long now = clock.millis();
+        while (true) {
+            Conversation conversation = conversations.computeIfAbsent(tradeId, id -> new Conversation());
+            synchronized (conversation) {
+                if (conversation.removed) {
+                    continue;
+                }
+                if (typing) {
+                    long expiresAt = now + presenceProperties.getTypingTimeout().toMillis();
+                    conversation.dirty |= conversation.typers.put(profileId, expiresAt) == null;
+                } else {
+                    conversation.dirty |= conversation.typers.remove(profileId) != null;
+                }
+                if (conversation.dirty && now >= conversation.nextBroadcastAt) {
+                    broadcast(tradeId, conversation, now);
+                }
+                return;
+            }
+        }
+    }
+
+    /** Sends coalesced updates once their slot comes up, expires stale signals and drops idle conversations. */
+    @Scheduled(
+            initialDelayString = "${application.presence.typing-flush-interval:PT0.1S}",
+            fixedDelayString = "${application.presence.typing-flush-interval:PT0.1S}")
+    public void flush() {
+        long now = clock.millis();
+        for (Map.Entry<UUID, Conversation> entry : conversations.entrySet()) {
+            Conversation conversation = entry.getValue();
+            synchronized (conversation) {
+                conversation.dirty |= conversation.typers.values().removeIf(expiresAt -> expiresAt <= now);
+                if (conversation.dirty && now >= conversation.nextBroadcastAt) {
+                    broadcast(entry.getKey(), conversation, now);
+                }
+                if (conversation.typers.isEmpty() && !conversation.dirty) {
+                    conversation.removed = true;
+                    conversations.remove(entry.getKey(), conversation);
+                }
+            }
+        }
+    }
+
+    /** Clears the typing signals the session left behind; subscribers hear about it on the next flush. */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionState session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        List<UUID> tradeIds;
+        synchronized (session) {
+            tradeIds = new ArrayList<>(session.trades.keySet());
+        }
+        for (UUID tradeId : tradeIds) {
+            Conversation conversation = conversations.get(tradeId);
+            if (conversation != null) {
+                synchronized (conversation) {
+                    conversation.dirty |= conversation.typers.remove(session.profileId) != null;
+                }
+            }
+        }
+    }
+
+    private void checkParticipant(UUID tradeId, String sessionId, UUID profileId) {
+        SessionState session = sessions.computeIfAbsent(
+                sessionId, id -> new SessionState(profileId, presenceProperties.getMaxConversationsPerSession()));
+        synchronized (session) {
+            if (session.trades.get(tradeId) != null) {
+                return;
+            }
+        }
+        TradeRepository.Participants participants =
+                tradeRepository
+                        .findParticipants(tradeId)
+                        .orElseThrow(() -> new IllegalArgumentException("Trade not found"));
+        if (!participants.getOwnerId().equals(profileId) && !participants.getRequesterId().equals(profileId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a participant in this trade");
+        }
+        synchronized (session) {
+            session.trades.put(tradeId, Boolean.TRUE);
+        }
+    }
+
+    private void broadcast(UUID tradeId, Conversation conversation, long now) {
+        messagingTemplate.convertAndSend(
+                "/topic/trades/" + tradeId + "/typing",
+                new TypingDto(tradeId, new ArrayList<>(conversation.typers.keySet())));
+        broadcasts.increment();
+        conversation.dirty = false;
+        conversation.nextBroadcastAt = now + 1000L / Math.max(presenceProperties.getTypingBroadcastsPerSecond(), 1);
+    }
+
+    /** Trades a session was already checked against, least recently used first. */
+    private static final class SessionState {
+
+        private final UUID profileId;
+        private final LinkedHashMap<UUID, Boolean> trades;
+
+        private SessionState(UUID profileId, int maxTrades) {
+            this.profileId = profileId;
+            this.trades = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                    return size() > Math.max(maxTrades, 1);
+                }
+            };
+        }
+    }
+
+    /** Guarded by its own monitor; {@code removed} tells a late signal to start over with a fresh instance. */
+    private static final class Conversation {
+
+        private final Map<UUID, Long> typers = new LinkedHashMap<>();
+        private long nextBroadcastAt;
+        private boolean dirty;
+        private boolean removed;
+    }
+}
@@ -12,6 +12,7 @@ import com.tq.exchangehub.dto.TradeDto;
 import com.tq.exchangehub.entity.Category;
 import com.tq.exchangehub.entity.Favorite;
 import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.ItemCard;
 import com.tq.exchangehub.entity.Message;
 import com.tq.exchangehub.entity.Notification;
 import com.tq.exchangehub.entity.Profile;
@@ -76,6 +77,33 @@ public final class DtoMapper {
         return dto;
     }
 
+    /**
+     * Card from the {@code item_cards} read model. The nested owner only carries what cards show:
+     * id, display name, avatar and rating.
+     */
+    public static ItemSummaryDto toItemSummaryDto(ItemCard card) {
+        ProfileDto owner = new ProfileDto();
+        owner.setId(card.getOwnerId());
+        owner.setDisplayName(card.getOwnerDisplayName());
+        owner.setAvatarUrl(card.getOwnerAvatarUrl());
+        owner.setRating(card.getOwnerRating());
+
+        ItemSummaryDto dto = new ItemSummaryDto();
+        dto.setId(card.getItemId());
+        dto.setTitle(card.getTitle());
+        dto.setDescription(card.getDescription());
+        dto.setCondition(card.getCondition());
+        dto.setLocation(card.getLocation());
+        dto.setCategoryName(card.getCategoryName());
+        dto.setOwner(owner);
+        dto.setRating(card.getOwnerRating());
+        dto.setWishlist(card.getWishlist() != null ? card.getWishlist() : List.of());
+        dto.setMainImageUrl(card.getMainImageUrl());
+        dto.setAvailable(card.getAvailable());
+        dto.setService(card.getService());
+        return dto;
+    }
+
     public static FavoriteDto toFavoriteDto(Favorite favorite) {
         FavoriteDto dto = new FavoriteDto();
         Item item = favorite.getItem();
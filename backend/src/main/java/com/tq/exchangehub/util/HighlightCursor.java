@@ -0,0 +1,64 @@
+package com.tq.exchangehub.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last item of a highlighted feed page taken from the popularity ranking, with the time
+ * that ranking was computed, which identifies its version. Pages of the recency fallback use
+ * {@link ItemCursor} instead; the leading tag byte tells the two tokens apart.
+ */
+public record HighlightCursor(Instant rankedAt, int position, UUID id) {
+
+    private static final byte TAG = 'H';
+
+    /** Whether the token was produced by {@link #encode()} rather than by {@link ItemCursor#encode()}. */
+    public static boolean isHighlightCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token.trim());
+            return bytes.length > 0 && bytes[0] == TAG;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /** Decodes a token produced by {@link #encode()}; a blank token means "first page" and yields {@code null}. */
+    public static HighlightCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token.trim()));
+            if (buffer.get() != TAG) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant rankedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            int position = buffer.getInt();
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            if (buffer.hasRemaining() || position < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HighlightCursor(rankedAt, position, id);
+        } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 12 + 4 + 16);
+        buffer.put(TAG);
+        buffer.putLong(rankedAt.getEpochSecond());
+        buffer.putInt(rankedAt.getNano());
+        buffer.putInt(position);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+}
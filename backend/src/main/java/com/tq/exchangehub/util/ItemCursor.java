@@ -0,0 +1,76 @@
+package com.tq.exchangehub.util;
+
+import com.tq.exchangehub.entity.ItemCard;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last item of a keyset page, ordered by {@code updatedAt DESC, createdAt DESC,
+ * id DESC}. Ranked searches also carry the relevance score of that item, which is the leading sort
+ * key for them. Serialized as an opaque URL-safe token so clients never depend on its layout.
+ */
+public record ItemCursor(Float score, OffsetDateTime updatedAt, OffsetDateTime createdAt, UUID id) {
+
+    private static final byte VERSION = 1;
+    private static final byte HAS_SCORE = 1;
+
+    public static ItemCursor of(ItemCard card, Float score) {
+        return new ItemCursor(score, card.getUpdatedAt(), card.getCreatedAt(), card.getItemId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. A blank token means "first page" and yields
+     * {@code null}.
+     */
+    public static ItemCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token.trim()));
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Float score = buffer.get() == HAS_SCORE ? buffer.getFloat() : null;
+            OffsetDateTime updatedAt = readTimestamp(buffer);
+            OffsetDateTime createdAt = readTimestamp(buffer);
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ItemCursor(score, updatedAt, createdAt, id);
+        } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 + (score != null ? 4 : 0) + 12 + 12 + 16);
+        buffer.put(VERSION);
+        buffer.put(score != null ? HAS_SCORE : 0);
+        if (score != null) {
+            buffer.putFloat(score);
+        }
+        writeTimestamp(buffer, updatedAt);
+        writeTimestamp(buffer, createdAt);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static void writeTimestamp(ByteBuffer buffer, OffsetDateTime value) {
+        Instant instant = value.toInstant();
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+    }
+
+    private static OffsetDateTime readTimestamp(ByteBuffer buffer) {
+        return Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()).atOffset(ZoneOffset.UTC);
+    }
+}
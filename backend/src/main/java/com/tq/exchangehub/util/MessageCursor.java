@@ -0,0 +1,52 @@
+package com.tq.exchangehub.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the oldest message of a chat history page, ordered by {@code createdAt DESC, id DESC}.
+ * Serialized as an opaque URL-safe token, like {@link ItemCursor}.
+ */
+public record MessageCursor(OffsetDateTime createdAt, UUID id) {
+
+    private static final byte VERSION = 1;
+
+    /** Decodes a token produced by {@link #encode()}; a blank token means "first page" and yields {@code null}. */
+    public static MessageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token.trim()));
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            OffsetDateTime createdAt =
+                    Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()).atOffset(ZoneOffset.UTC);
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MessageCursor(createdAt, id);
+        } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 12 + 16);
+        buffer.put(VERSION);
+        buffer.putLong(instant.getEpochSecond());
+        buffer.putInt(instant.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+}
@@ -0,0 +1,28 @@
+package com.tq.exchangehub.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validators of a resource for HTTP conditional requests: a strong entity tag and, when the resource
+ * keeps one, the time it last changed ({@code null} otherwise).
+ */
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    /** Version of a row stamped with {@code updatedAt}, to the microsecond the database stores. */
+    public static ResourceVersion of(OffsetDateTime updatedAt) {
+        Instant instant = updatedAt.toInstant().truncatedTo(ChronoUnit.MICROS);
+        long micros = instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+        return new ResourceVersion(quote(Long.toHexString(micros)), instant);
+    }
+
+    /** Version of a resource without a modification time, identified by a hash of its content. */
+    public static ResourceVersion ofContentHash(long hash) {
+        return new ResourceVersion(quote(Long.toHexString(hash)), null);
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,26 @@
+package com.tq.exchangehub.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 UUIDs: a 48-bit millisecond timestamp, then a 12-bit counter that keeps ids issued within
+ * the same millisecond increasing, then random bits. Ids issued by this JVM sort in issue order, also as
+ * database {@code uuid} values, so rows keyed by them are appended at the end of their indexes.
+ */
+public final class TimeOrderedIds {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedIds() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | Long.MIN_VALUE;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,11 @@
+-- Snapshot of the popularity ranking behind the highlighted feed, rewritten after every scoring run
+-- so a restarted node serves the last ranking at once and keeps its decayed view counts. Rows with a
+-- NULL list_position only carry views of items outside the ranked list.
+CREATE TABLE item_popularity (
+    item_id UUID PRIMARY KEY,
+    list_position INTEGER,
+    score DOUBLE PRECISION NOT NULL,
+    recent_views DOUBLE PRECISION NOT NULL,
+    computed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_item_popularity_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
@@ -0,0 +1,5 @@
+-- The trade inbox reads a profile's trades as owner and as requester in two separate lookups joined
+-- with UNION ALL, each ordered by updated_at DESC, id DESC, so every page is read straight off these
+-- indexes instead of scanning the whole table for an OR over both columns.
+CREATE INDEX idx_trades_owner_recency ON trades (owner_id, updated_at DESC, id DESC);
+CREATE INDEX idx_trades_requester_recency ON trades (requester_id, updated_at DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Optimistic version of a trade, bumped by every status transition and entity update, so concurrent
+-- writers cannot both win.
+ALTER TABLE trades ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
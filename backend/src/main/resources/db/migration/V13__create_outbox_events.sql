@@ -0,0 +1,13 @@
+-- Side effects of trade and message writes (WebSocket pushes and notifications), recorded in the same
+-- transaction as the write and delivered by the outbox dispatcher once it has committed.
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_id UUID NOT NULL,
+    type VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error VARCHAR(500),
+    failed_at TIMESTAMP WITH TIME ZONE
+);
@@ -0,0 +1,4 @@
+-- Competing offers of an accepted trade are found by item, requested or offered; each side of the
+-- OR in the rejection UPDATE and its read-back gets its own index.
+CREATE INDEX idx_trades_owner_item_status ON trades (owner_item_id, status);
+CREATE INDEX idx_trades_requester_item_status ON trades (requester_item_id, status);
@@ -0,0 +1,3 @@
+-- Chat history is read newest first, one page at a time, as a seek on (created_at, id) within a trade,
+-- so every page is read straight off this index instead of sorting the whole conversation.
+CREATE INDEX idx_messages_trade_recency ON messages (trade_id, created_at DESC, id DESC);
@@ -0,0 +1,19 @@
+-- The conversation list shows every trade of a profile with its latest message and unread count,
+-- ordered by last activity. The latest message and the activity time are kept on the trade by the
+-- message writer, so a page is read off the participant indexes below instead of aggregating messages.
+-- last_message_id has no foreign key: messages already cascade from trades, and a cycle would not add
+-- anything since messages are never deleted on their own.
+ALTER TABLE trades ADD COLUMN last_message_id UUID;
+ALTER TABLE trades ADD COLUMN last_activity_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Read cursors: each participant has read every message up to this time.
+ALTER TABLE trades ADD COLUMN owner_read_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE trades ADD COLUMN requester_read_at TIMESTAMP WITH TIME ZONE;
+
+UPDATE trades SET last_message_id = (
+    SELECT m.id FROM messages m WHERE m.trade_id = trades.id ORDER BY m.created_at DESC, m.id DESC LIMIT 1);
+UPDATE trades SET last_activity_at = COALESCE(
+    (SELECT m.created_at FROM messages m WHERE m.id = trades.last_message_id), created_at);
+
+CREATE INDEX idx_trades_owner_activity ON trades (owner_id, last_activity_at DESC, id DESC);
+CREATE INDEX idx_trades_requester_activity ON trades (requester_id, last_activity_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- The dispatcher reads the undelivered events that are due, in the order they became due, and skips the
+-- ones queued behind an earlier event of the same aggregate that is still waiting for a retry.
+CREATE INDEX idx_outbox_events_due ON outbox_events (next_attempt_at, id);
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events (aggregate_id, id);
@@ -0,0 +1,3 @@
+-- Matches ORDER BY updated_at DESC, created_at DESC, id DESC used by the highlighted feed and the
+-- keyset (cursor) variants of the item listings, so pages are read straight off the index.
+CREATE INDEX idx_items_recency ON items (updated_at DESC, created_at DESC, id DESC);
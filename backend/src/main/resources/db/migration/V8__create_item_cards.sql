@@ -0,0 +1,41 @@
+-- Denormalized read model behind item cards (search results and the highlighted feed). Each row
+-- copies what a card shows from items, profiles, categories, item_images and item_wishlist, so a
+-- page of cards is one query with no joins or collection loads. Kept in sync by ItemCardService in
+-- the same transaction as the writes it mirrors.
+CREATE TABLE item_cards (
+    item_id UUID PRIMARY KEY,
+    owner_id UUID NOT NULL,
+    owner_display_name VARCHAR(255) NOT NULL,
+    owner_avatar_url TEXT,
+    owner_rating DOUBLE PRECISION,
+    category_id UUID NOT NULL,
+    category_name VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    condition VARCHAR(255) NOT NULL,
+    location VARCHAR(255),
+    is_available BOOLEAN,
+    is_service BOOLEAN,
+    main_image_url TEXT,
+    wishlist VARCHAR ARRAY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_item_cards_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_item_cards_recency ON item_cards (updated_at DESC, created_at DESC, item_id DESC);
+CREATE INDEX idx_item_cards_owner ON item_cards (owner_id);
+CREATE INDEX idx_item_cards_category ON item_cards (category_id);
+
+INSERT INTO item_cards (
+    item_id, owner_id, owner_display_name, owner_avatar_url, owner_rating, category_id, category_name,
+    title, description, condition, location, is_available, is_service, main_image_url, wishlist,
+    created_at, updated_at)
+SELECT i.id, p.id, p.display_name, p.avatar_url, p.rating, c.id, c.name,
+    i.title, i.description, i.condition, i.location, i.is_available, i.is_service,
+    (SELECT MIN(ii.image_url) FROM item_images ii WHERE ii.item_id = i.id),
+    (SELECT ARRAY_AGG(iw.wishlist_item) FROM item_wishlist iw WHERE iw.item_id = i.id),
+    i.created_at, i.updated_at
+FROM items i
+JOIN profiles p ON p.id = i.user_id
+JOIN categories c ON c.id = i.category_id;
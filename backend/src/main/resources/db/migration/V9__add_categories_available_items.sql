@@ -0,0 +1,7 @@
+-- Number of available items per category, maintained by the application on every item write and
+-- reconciled periodically, so category listings no longer count items per request.
+ALTER TABLE categories ADD COLUMN available_items BIGINT NOT NULL DEFAULT 0;
+
+UPDATE categories SET available_items = (
+    SELECT COUNT(*) FROM items i
+    WHERE i.category_id = categories.id AND (i.is_available = true OR i.is_available IS NULL));
@@ -0,0 +1,297 @@
+package com.tq.exchangehub.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tq.exchangehub.dto.MessageDto;
+import com.tq.exchangehub.dto.PresenceDto;
+import com.tq.exchangehub.dto.TypingDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.entity.UserAccount;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import com.tq.exchangehub.repository.UserAccountRepository;
+import com.tq.exchangehub.service.OutboxDispatcher;
+import com.tq.exchangehub.util.JwtTokenProvider;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/** Not transactional: frames are handled on the broker's threads, which only see committed data. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChatSocketControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final List<UserAccount> accounts = new ArrayList<>();
+    private Category category;
+    private Item item;
+    private Trade trade;
+    private UserAccount owner;
+    private UserAccount requester;
+
+    @BeforeEach
+    void setUp() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(converter);
+
+        owner = account("Owner");
+        requester = account("Requester");
+        category = new Category();
+        category.setName("Sockets");
+        category = categoryRepository.save(category);
+
+        item = new Item();
+        item.setOwner(owner.getProfile());
+        item.setCategory(category);
+        item.setTitle("Auriculares");
+        item.setDescription("Inalámbricos");
+        item.setCondition("Nuevo");
+        item = itemRepository.save(item);
+
+        trade = new Trade();
+        trade.setOwner(owner.getProfile());
+        trade.setRequester(requester.getProfile());
+        trade.setOwnerItem(item);
+        trade = tradeRepository.save(trade);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        stompClient.stop();
+        outboxDispatcher.drain();
+        List<UUID> profileIds = accounts.stream().map(account -> account.getProfile().getId()).toList();
+        profileIds.forEach(id -> jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id = ?", id));
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", trade.getId());
+        jdbcTemplate.update("DELETE FROM messages WHERE trade_id = ?", trade.getId());
+        tradeRepository.deleteById(trade.getId());
+        itemRepository.deleteById(item.getId());
+        userAccountRepository.deleteAllById(accounts.stream().map(UserAccount::getId).toList());
+        profileRepository.deleteAllById(profileIds);
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void sendsMessagesAndTypingSignalsOverTheAuthenticatedSession() throws Exception {
+        StompSession session = connect(requester, new LinkedBlockingQueue<>());
+        BlockingQueue<MessageDto> confirmations = subscribe(session, "/user/queue/messages", MessageDto.class);
+        BlockingQueue<MessageDto> broadcasts =
+                subscribe(session, "/topic/trades/" + trade.getId() + "/messages", MessageDto.class);
+        BlockingQueue<TypingDto> typing =
+                subscribe(session, "/topic/trades/" + trade.getId() + "/typing", TypingDto.class);
+
+        session.send("/app/trades/" + trade.getId() + "/typing", Map.of("typing", true));
+        session.send("/app/trades/" + trade.getId() + "/messages", Map.of("content", "¿Hacemos el cambio?"));
+
+        TypingDto signal = typing.poll(10, TimeUnit.SECONDS);
+        assertNotNull(signal);
+        assertEquals(trade.getId(), signal.getTradeId());
+        assertEquals(List.of(requester.getProfile().getId()), signal.getTyping());
+        MessageDto confirmed = confirmations.poll(10, TimeUnit.SECONDS);
+        assertNotNull(confirmed);
+        assertEquals(requester.getProfile().getId(), confirmed.getSenderId());
+        assertEquals(
+                1,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM messages WHERE id = ?", Long.class, confirmed.getId()));
+        outboxDispatcher.drain();
+        MessageDto broadcast = broadcasts.poll(10, TimeUnit.SECONDS);
+        assertNotNull(broadcast);
+        assertEquals(confirmed.getId(), broadcast.getId());
+    }
+
+    @Test
+    void presenceFollowsTheSessionsOfAProfile() throws Exception {
+        UUID requesterId = requester.getProfile().getId();
+        StompSession watcher = connect(owner, new LinkedBlockingQueue<>());
+        BlockingQueue<PresenceDto> updates =
+                subscribe(watcher, "/topic/profiles/" + requesterId + "/presence", PresenceDto.class);
+        BlockingQueue<PresenceDto> snapshot =
+                subscribe(watcher, "/app/profiles/" + requesterId + "/presence", PresenceDto.class);
+        PresenceDto initial = snapshot.poll(10, TimeUnit.SECONDS);
+        assertNotNull(initial);
+        assertFalse(initial.isOnline());
+
+        StompSession first = connect(requester, new LinkedBlockingQueue<>());
+        StompSession second = connect(requester, new LinkedBlockingQueue<>());
+        PresenceDto online = updates.poll(10, TimeUnit.SECONDS);
+        assertNotNull(online);
+        assertEquals(requesterId, online.getProfileId());
+        assertTrue(online.isOnline());
+
+        first.disconnect();
+        assertNull(updates.poll(1, TimeUnit.SECONDS), "still online through the second session");
+        second.disconnect();
+        PresenceDto offline = updates.poll(10, TimeUnit.SECONDS);
+        assertNotNull(offline);
+        assertFalse(offline.isOnline());
+    }
+
+    @Test
+    void errorsAreReportedToTheSenderOnly() throws Exception {
+        UserAccount outsider = account("Outsider");
+        StompSession session = connect(outsider, new LinkedBlockingQueue<>());
+        @SuppressWarnings("rawtypes")
+        BlockingQueue<Map> errors = subscribe(session, "/user/queue/errors", Map.class);
+
+        session.send("/app/trades/" + trade.getId() + "/messages", Map.of("content", "Hola"));
+
+        Map<?, ?> error = errors.poll(10, TimeUnit.SECONDS);
+        assertNotNull(error);
+        assertEquals(403, error.get("status"));
+
+        session.send("/app/trades/" + trade.getId() + "/messages", Map.of("content", " "));
+
+        Map<?, ?> invalid = errors.poll(10, TimeUnit.SECONDS);
+        assertNotNull(invalid);
+        assertEquals(400, invalid.get("status"));
+        assertEquals(
+                0,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM messages WHERE trade_id = ?", Long.class, trade.getId()));
+    }
+
+    @Test
+    void anonymousSessionsCannotSend() throws Exception {
+        BlockingQueue<String> errorFrames = new LinkedBlockingQueue<>();
+        StompSession session = connect(null, errorFrames);
+
+        session.send("/app/notifications/read-all", Map.of());
+
+        String error = errorFrames.poll(10, TimeUnit.SECONDS);
+        assertNotNull(error);
+        assertTrue(error.contains("Authentication required"), error);
+    }
+
+    @Test
+    void invalidTokensAreRefusedAtConnect() throws Exception {
+        BlockingQueue<String> errorFrames = new LinkedBlockingQueue<>();
+
+        connectAsync("Bearer not-a-token", errorFrames);
+
+        assertEquals("Invalid access token", errorFrames.poll(10, TimeUnit.SECONDS));
+    }
+
+    private StompSession connect(UserAccount account, BlockingQueue<String> errorFrames) throws Exception {
+        String authorization = account == null ? null : "Bearer " + tokenProvider.generateAccessToken(account);
+        StompSession session = connectAsync(authorization, errorFrames).get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    /** Connects with the given {@code Authorization} header, collecting the message of every ERROR frame. */
+    private CompletableFuture<StompSession> connectAsync(String authorization, BlockingQueue<String> errorFrames) {
+        StompHeaders connectHeaders = new StompHeaders();
+        if (authorization != null) {
+            connectHeaders.add("Authorization", authorization);
+        }
+        return stompClient.connectAsync(
+                "ws://localhost:" + port + "/ws",
+                new WebSocketHttpHeaders(),
+                connectHeaders,
+                new StompSessionHandlerAdapter() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return byte[].class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        errorFrames.add(String.valueOf(headers.getFirst("message")));
+                    }
+                });
+    }
+
+    /** Frames of a session are handled in order, so the subscription is in place before any later SEND. */
+    private <T> BlockingQueue<T> subscribe(StompSession session, String destination, Class<T> payloadType) {
+        BlockingQueue<T> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return payloadType;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add(payloadType.cast(payload));
+            }
+        });
+        return received;
+    }
+
+    private UserAccount account(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        profile = profileRepository.save(profile);
+        UserAccount account = new UserAccount();
+        account.setEmail(name.toLowerCase() + "-" + UUID.randomUUID() + "@example.com");
+        account.setPassword("not-used");
+        account.setProfile(profile);
+        account = userAccountRepository.save(account);
+        accounts.add(account);
+        return account;
+    }
+}
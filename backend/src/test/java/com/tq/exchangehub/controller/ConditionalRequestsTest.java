@@ -0,0 +1,91 @@
+package com.tq.exchangehub.controller;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.exception.PreconditionFailedException;
+import com.tq.exchangehub.util.ResourceVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class ConditionalRequestsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests(meterRegistry);
+    private final ResourceVersion version =
+            ResourceVersion.of(OffsetDateTime.of(2024, 5, 3, 10, 15, 30, 123_456_789, ZoneOffset.ofHours(2)));
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("W/" + version.eTag());
+        assertTrue(conditionalRequests.isNotModified(headers, "item", version));
+
+        headers.setIfNoneMatch("\"stale\"");
+        headers.setIfModifiedSince(version.lastModified().plusSeconds(60).toEpochMilli());
+        assertFalse(conditionalRequests.isNotModified(headers, "item", version));
+
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        assertTrue(conditionalRequests.isNotModified(headers, "item", version));
+        headers.setIfModifiedSince(version.lastModified().minusSeconds(1).toEpochMilli());
+        assertFalse(conditionalRequests.isNotModified(headers, "item", version));
+
+        assertFalse(conditionalRequests.isNotModified(new HttpHeaders(), "item", version));
+        assertEquals(2, count("item", "not_modified"));
+        assertEquals(2, count("item", "modified"));
+        assertEquals(1, count("item", "unconditional"));
+    }
+
+    @Test
+    void ifMatchComparesStrongly() {
+        HttpHeaders headers = new HttpHeaders();
+        assertDoesNotThrow(() -> conditionalRequests.checkPrecondition(headers, "profile", version));
+
+        headers.setIfMatch(version.eTag());
+        assertDoesNotThrow(() -> conditionalRequests.checkPrecondition(headers, "profile", version));
+
+        headers.setIfMatch("W/" + version.eTag());
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> conditionalRequests.checkPrecondition(headers, "profile", version));
+
+        HttpHeaders unmodifiedSince = new HttpHeaders();
+        unmodifiedSince.setIfUnmodifiedSince(version.lastModified().minusSeconds(1).toEpochMilli());
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> conditionalRequests.checkPrecondition(unmodifiedSince, "profile", version));
+        assertEquals(1, count("profile", "precondition_met"));
+        assertEquals(2, count("profile", "precondition_failed"));
+    }
+
+    @Test
+    void responsesCarryValidatorsAndRequireRevalidation() {
+        ResponseEntity<String> notModified = conditionalRequests.notModified(version);
+        ResponseEntity<String> ok = conditionalRequests.ok("body", ResourceVersion.ofContentHash(42));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(version.eTag(), notModified.getHeaders().getETag());
+        assertEquals(version.lastModified().getEpochSecond() * 1000, notModified.getHeaders().getLastModified());
+        assertEquals("no-cache", notModified.getHeaders().getCacheControl());
+        assertEquals("\"2a\"", ok.getHeaders().getETag());
+        assertEquals(-1, ok.getHeaders().getLastModified());
+        assertEquals("body", ok.getBody());
+    }
+
+    private double count(String resource, String outcome) {
+        return meterRegistry
+                .get("http.conditional.requests")
+                .tag("resource", resource)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,98 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class InvertedIndexTest {
+
+    private final UUID sports = UUID.randomUUID();
+    private final UUID electronics = UUID.randomUUID();
+
+    @Test
+    void searchFoldsAccentsAndPluralsAndRanksTitleMatchesFirst() {
+        InvertedIndex index = new InvertedIndex();
+        ItemDocument bike = document("Bicicleta de montaña", "Frenos de disco", "Deportes", sports, List.of("Cámara"), 1);
+        ItemDocument camera = document("Cámara réflex", "Incluye lente 50mm", "Electrónicos", electronics, List.of(), 2);
+        index.upsert(bike);
+        index.upsert(camera);
+
+        SearchHits hits = index.search("camaras", null, 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(camera.id(), bike.id()), hits.ids());
+        assertEquals(List.of(bike.id()), index.search("bicicletas montana", null, 0, 10).ids());
+        assertEquals(List.of(camera.id()), index.search("", electronics, 0, 10).ids());
+    }
+
+    @Test
+    void upsertReplacesPreviousVersionAndHidesUnavailableItems() {
+        InvertedIndex index = new InvertedIndex();
+        ItemDocument guitar = document("Guitarra eléctrica", "Con amplificador", "Música", sports, List.of(), 1);
+        index.upsert(guitar);
+        index.upsert(
+                new ItemDocument(
+                        guitar.id(), guitar.ownerId(), sports, "Guitarra acústica", "Sin amplificador", "Música",
+                        List.of(), true, 1, 2));
+
+        assertEquals(0, index.search("electrica", null, 0, 10).total());
+        assertEquals(1, index.search("acustica", null, 0, 10).total());
+
+        index.upsert(
+                new ItemDocument(
+                        guitar.id(), guitar.ownerId(), sports, "Guitarra acústica", "Sin amplificador", "Música",
+                        List.of(), false, 1, 3));
+
+        assertEquals(0, index.search("guitarra", null, 0, 10).total());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void compactionKeepsLiveDocumentsSearchable() {
+        InvertedIndex index = new InvertedIndex();
+        UUID survivor = null;
+        for (int i = 0; i < 3000; i++) {
+            ItemDocument document = document("Libro " + i, "Novela usada", "Libros", sports, List.of(), i);
+            index.upsert(document);
+            if (i % 3 == 0) {
+                survivor = document.id();
+            } else {
+                index.remove(document.id());
+            }
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(1000, index.search("novela", null, 0, 5).total());
+        assertEquals(List.of(survivor), index.search("novela", null, 0, 1).ids());
+        assertTrue(index.estimatedSizeInBytes() > 0);
+    }
+
+    @Test
+    void searchAfterSeeksPastPreviousPage() {
+        InvertedIndex index = new InvertedIndex();
+        for (int i = 0; i < 5; i++) {
+            index.upsert(document("Lámpara de mesa", "Vintage", "Hogar", sports, List.of(), 7));
+        }
+        List<UUID> expected = index.search("lampara", null, 0, 5).ids();
+
+        SearchHits first = index.searchAfter("lampara", null, null, 3);
+        int last = first.ids().size() - 1;
+        InvertedIndex.Position position =
+                new InvertedIndex.Position(first.scores().get(last), 7, 7, first.ids().get(last));
+        SearchHits second = index.searchAfter("lampara", null, position, 3);
+
+        assertEquals(expected.subList(0, 3), first.ids());
+        assertEquals(expected.subList(3, 5), second.ids());
+        assertEquals(5, second.total());
+    }
+
+    private static ItemDocument document(
+            String title, String description, String categoryName, UUID categoryId, List<String> wishlist, long updatedAt) {
+        return new ItemDocument(
+                UUID.randomUUID(), UUID.randomUUID(), categoryId, title, description, categoryName, wishlist, true,
+                updatedAt, updatedAt);
+    }
+}
@@ -0,0 +1,78 @@
+package com.tq.exchangehub.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Reports how long computing the "similar items" neighbours of a synthetic catalog takes. Not a unit
+ * test; run it with
+ * <pre>
+ * mvn -q test-compile
+ * java -Xmx4g -cp target/classes:target/test-classes \
+ *     com.tq.exchangehub.search.SimilarityBenchmark [listings] [vocabulary] [neighbours]
+ * </pre>
+ */
+public final class SimilarityBenchmark {
+
+    private SimilarityBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int listings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int vocabulary = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int neighbours = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long started = System.nanoTime();
+        List<ItemDocument> documents = randomCatalog(listings, vocabulary, new Random(42));
+        long generated = System.nanoTime();
+        SimilarityIndex index = SimilarityIndex.build(documents, neighbours, threads);
+        long built = System.nanoTime();
+
+        System.out.printf(
+                "listings=%d vocabulary=%d generated in %d ms%n",
+                listings, vocabulary, (generated - started) / 1_000_000);
+        System.out.printf(
+                "threads=%d neighbours=%d built in %.2f s -> %.0f listings/s; first=%s%n",
+                threads,
+                neighbours,
+                (built - generated) / 1e9,
+                listings / ((built - generated) / 1e9),
+                index.similar(documents.get(0).id(), 3));
+    }
+
+    /**
+     * Words are drawn from a Zipf-like distribution, so a few are in most listings and most are
+     * rare, like real titles.
+     */
+    private static List<ItemDocument> randomCatalog(int listings, int vocabulary, Random random) {
+        String[] categories = {"Música", "Deportes", "Libros", "Hogar", "Fotografía", "Juegos", "Moda", "Motor"};
+        List<ItemDocument> documents = new ArrayList<>(listings);
+        for (int i = 0; i < listings; i++) {
+            documents.add(
+                    new ItemDocument(
+                            UUID.randomUUID(),
+                            UUID.randomUUID(),
+                            UUID.randomUUID(),
+                            words(4, vocabulary, random),
+                            words(20, vocabulary, random),
+                            categories[random.nextInt(categories.length)],
+                            List.of(words(2, vocabulary, random)),
+                            true,
+                            0L,
+                            0L));
+        }
+        return documents;
+    }
+
+    private static String words(int count, int vocabulary, Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int word = (int) Math.pow(vocabulary, random.nextDouble());
+            text.append('w').append(word).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SimilarityIndexTest {
+
+    private final ItemDocument fender =
+            document("Guitarra eléctrica Fender", "Cuerdas nuevas y funda", "Música", List.of("Amplificador"));
+    private final ItemDocument ibanez =
+            document("Guitarra eléctrica Ibanez", "Con funda", "Música", List.of("Bicicleta"));
+    private final ItemDocument bike =
+            document("Bicicleta de montaña", "Ruedas nuevas", "Deportes", List.of("Guitarra"));
+    private final ItemDocument books = document("Libros de cocina", "Recetas", "Libros", List.of());
+
+    @Test
+    void ranksListingsBySharedWeightedTerms() {
+        SimilarityIndex index = SimilarityIndex.build(List.of(fender, ibanez, bike, books), 10, 2);
+
+        assertEquals(List.of(ibanez.id(), bike.id()), ids(index.similar(fender.id(), 10)));
+        assertEquals(List.of(ibanez.id()), ids(index.similar(fender.id(), 1)));
+        assertTrue(index.similar(books.id(), 10).isEmpty());
+        assertTrue(index.similar(UUID.randomUUID(), 10).isEmpty());
+        float score = index.similar(fender.id(), 1).get(0).score();
+        assertTrue(score > 0f && score <= 1f);
+    }
+
+    @Test
+    void incrementalUpsertMatchesBatchBuild() {
+        SimilarityIndex incremental = new SimilarityIndex(10);
+        List.of(fender, ibanez, bike, books).forEach(incremental::upsert);
+        SimilarityIndex batch = SimilarityIndex.build(List.of(fender, ibanez, bike, books), 10, 1);
+
+        // Incremental vectors use the document frequencies at insertion time, so only the sets agree.
+        for (ItemDocument document : List.of(fender, ibanez, bike, books)) {
+            assertEquals(
+                    Set.copyOf(ids(batch.similar(document.id(), 10))),
+                    Set.copyOf(ids(incremental.similar(document.id(), 10))));
+        }
+        assertEquals(4, incremental.size());
+    }
+
+    @Test
+    void newListingsJoinNeighbourListsAndWithdrawnOnesDisappear() {
+        SimilarityIndex index = SimilarityIndex.build(List.of(fender, books), 10, 1);
+        ItemDocument gibson = document("Guitarra Gibson", "Eléctrica", "Música", List.of());
+
+        index.upsert(gibson);
+
+        assertEquals(List.of(gibson.id()), ids(index.similar(fender.id(), 10)));
+        assertEquals(List.of(fender.id()), ids(index.similar(gibson.id(), 10)));
+
+        index.upsert(withdrawn(gibson));
+
+        assertTrue(index.similar(fender.id(), 10).isEmpty());
+        assertTrue(index.similar(gibson.id(), 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void keepsOnlyTheConfiguredNumberOfNeighbours() {
+        List<ItemDocument> documents = new ArrayList<>();
+        for (int i = 0; i < SimilarityIndex.MAX_POSTINGS + 50; i++) {
+            documents.add(document("Cámara réflex " + i, "Objetivo " + (i % 7), "Fotografía", List.of()));
+        }
+        SimilarityIndex index = SimilarityIndex.build(documents, 5, 4);
+
+        List<SimilarityIndex.Neighbour> neighbours = index.similar(documents.get(0).id(), 10);
+
+        assertEquals(5, neighbours.size());
+        for (int i = 1; i < neighbours.size(); i++) {
+            assertTrue(neighbours.get(i - 1).score() >= neighbours.get(i).score());
+        }
+    }
+
+    private static List<UUID> ids(List<SimilarityIndex.Neighbour> neighbours) {
+        return neighbours.stream().map(SimilarityIndex.Neighbour::itemId).toList();
+    }
+
+    private static ItemDocument document(String title, String description, String category, List<String> wishlist) {
+        return new ItemDocument(
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), title, description, category, wishlist, true,
+                0L, 0L);
+    }
+
+    private static ItemDocument withdrawn(ItemDocument document) {
+        return new ItemDocument(
+                document.id(), document.ownerId(), document.categoryId(), document.title(), document.description(),
+                document.categoryName(), document.wishlist(), false, document.createdAt(), document.updatedAt());
+    }
+}
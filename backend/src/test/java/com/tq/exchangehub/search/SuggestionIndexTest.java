@@ -0,0 +1,65 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.search.SuggestionIndex.Suggestion;
+import com.tq.exchangehub.search.SuggestionIndex.Type;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class SuggestionIndexTest {
+
+    @Test
+    void completesAnyWordStartIgnoringAccents() {
+        Suggestion bike = item("Bicicleta de montaña Trek", 3);
+        Suggestion sports = new Suggestion("Deportes", Type.CATEGORY, UUID.randomUUID(), 5);
+        SuggestionIndex index = SuggestionIndex.build(List.of(bike, sports));
+
+        assertEquals(List.of(bike), index.complete("MONTA", 10));
+        assertEquals(List.of(bike), index.complete("bici", 10));
+        assertEquals(List.of(bike), index.complete("montana tr", 10));
+        assertEquals(List.of(sports), index.complete("dep", 10));
+        assertTrue(index.complete("ontaña", 10).isEmpty());
+        assertTrue(index.complete("  ", 10).isEmpty());
+    }
+
+    @Test
+    void heaviestSuggestionsComeFirstAndEachAppearsOnce() {
+        Suggestion light = item("Cámara de cine", 1);
+        Suggestion heavy = item("Cámara réflex", 9);
+        Suggestion wish = new Suggestion("cámara", Type.WISHLIST, null, 4);
+        SuggestionIndex index = SuggestionIndex.build(List.of(light, heavy, wish));
+
+        assertEquals(List.of(heavy, wish, light), index.complete("cam", 10));
+        assertEquals(List.of(heavy, wish), index.complete("cam", 2));
+        // "Cine de cine" is reachable from two keys but must only be returned once.
+        Suggestion repeated = item("Cine de cine", 2);
+        assertEquals(List.of(repeated), SuggestionIndex.build(List.of(repeated)).complete("cine", 10));
+    }
+
+    @Test
+    void mergeDropsReplacedEntriesAndAddsNewOnes() {
+        Suggestion bike = item("Bicicleta de montaña", 3);
+        Suggestion camera = item("Cámara réflex", 2);
+        Suggestion books = item("Libros de cocina", 1);
+        SuggestionIndex base = SuggestionIndex.build(List.of(bike, camera, books));
+        Suggestion heavierBike = bike.withWeight(7);
+        Suggestion board = item("Tabla de surf", 4);
+
+        SuggestionIndex merged =
+                SuggestionIndex.merge(
+                        base, suggestion -> suggestion != bike, SuggestionIndex.build(List.of(heavierBike, board)));
+
+        assertEquals(4, merged.size());
+        assertEquals(List.of(heavierBike), merged.complete("bici", 10));
+        assertEquals(List.of(heavierBike, board), merged.complete("de", 2));
+        assertEquals(List.of(camera), merged.complete("refl", 10));
+        assertEquals(List.of(books), merged.complete("coc", 10));
+    }
+
+    private static Suggestion item(String title, long weight) {
+        return new Suggestion(title, Type.ITEM, UUID.randomUUID(), weight);
+    }
+}
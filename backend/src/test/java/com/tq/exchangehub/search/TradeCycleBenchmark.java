@@ -0,0 +1,81 @@
+package com.tq.exchangehub.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Reports trade chains found per second on a synthetic want graph. Not a unit test; run it with
+ * <pre>
+ * mvn -q test-compile
+ * java -Xmx1g -cp target/classes:target/test-classes \
+ *     com.tq.exchangehub.search.TradeCycleBenchmark [listings] [wantsPerListing] [maxLength]
+ * </pre>
+ */
+public final class TradeCycleBenchmark {
+
+    private TradeCycleBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int listings = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int wants = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int maxLength = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long started = System.nanoTime();
+        TradeGraph graph = randomGraph(listings, wants, new Random(42));
+        long built = System.nanoTime();
+        List<int[]> cycles = new TradeCycleFinder(maxLength, 20, 1_000_000, threads).find(graph);
+        long searched = System.nanoTime();
+
+        double seconds = (searched - built) / 1e9;
+        int[] byLength = new int[maxLength + 1];
+        cycles.forEach(cycle -> byLength[cycle.length]++);
+        System.out.printf(
+                "listings=%d wants=%d graph=%.1f MB built in %d ms%n",
+                graph.nodes(), graph.edges(), graph.sizeInBytes() / 1e6, (built - started) / 1_000_000);
+        System.out.printf(
+                "threads=%d cycles=%d %s in %.2f s -> %.0f cycles/s%n",
+                threads,
+                cycles.size(),
+                Arrays.toString(Arrays.copyOfRange(byLength, 2, byLength.length)),
+                seconds,
+                cycles.size() / seconds);
+    }
+
+    /** Owners hold four listings each; wants point to random listings of other owners. */
+    private static TradeGraph randomGraph(int listings, int wants, Random random) {
+        int[] owners = new int[listings];
+        for (int node = 0; node < listings; node++) {
+            owners[node] = node / 4;
+        }
+        int[] offsets = new int[listings + 1];
+        int[] targets = new int[listings * wants];
+        int edges = 0;
+        for (int node = 0; node < listings; node++) {
+            offsets[node] = edges;
+            int start = edges;
+            for (int i = 0; i < wants; i++) {
+                int target = random.nextInt(listings);
+                if (owners[target] != owners[node]) {
+                    targets[edges++] = target;
+                }
+            }
+            Arrays.sort(targets, start, edges);
+            int unique = start;
+            for (int edge = start; edge < edges; edge++) {
+                if (edge == start || targets[edge] != targets[edge - 1]) {
+                    targets[unique++] = targets[edge];
+                }
+            }
+            edges = unique;
+        }
+        offsets[listings] = edges;
+        UUID[] ownerIds = new UUID[owners[listings - 1] + 1];
+        Arrays.fill(ownerIds, new UUID(0L, 0L));
+        return new TradeGraph(
+                offsets, Arrays.copyOf(targets, edges), owners, new long[listings], new long[listings], ownerIds);
+    }
+}
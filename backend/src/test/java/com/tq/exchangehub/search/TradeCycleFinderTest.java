@@ -0,0 +1,81 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TradeCycleFinderTest {
+
+    @Test
+    void findsEachCycleOnceFromItsSmallestListing() {
+        // 0 -> 1 -> 2 -> 0 is a three-way chain, 3 <-> 4 a direct swap; 5 only wants.
+        TradeGraph graph = graph(new int[][] {{1}, {2}, {0}, {4}, {3}, {0}}, new int[] {0, 1, 2, 3, 4, 5});
+
+        List<int[]> cycles = new TradeCycleFinder(5, 10, 100, 2).find(graph);
+        cycles.sort(Comparator.comparingInt((int[] cycle) -> cycle[0]));
+
+        assertEquals(2, cycles.size());
+        assertArrayEquals(new int[] {0, 1, 2}, cycles.get(0));
+        assertArrayEquals(new int[] {3, 4}, cycles.get(1));
+    }
+
+    @Test
+    void respectsMaximumLengthAndDistinctOwners() {
+        // A five-listing ring, plus a shortcut through a listing of the same owner as node 0.
+        TradeGraph ring = graph(new int[][] {{1}, {2}, {3}, {4}, {0}}, new int[] {0, 1, 2, 3, 4});
+
+        assertEquals(1, new TradeCycleFinder(5, 10, 100, 1).find(ring).size());
+        assertTrue(new TradeCycleFinder(4, 10, 100, 1).find(ring).isEmpty());
+
+        TradeGraph sameOwner = graph(new int[][] {{1}, {2}, {0}}, new int[] {0, 1, 0});
+        assertTrue(new TradeCycleFinder(5, 10, 100, 1).find(sameOwner).isEmpty());
+    }
+
+    @Test
+    void graphFromMatchIndexLinksWishesToListings() {
+        WishlistMatchIndex index = new WishlistMatchIndex();
+        UUID ana = UUID.randomUUID();
+        UUID bruno = UUID.randomUUID();
+        UUID carla = UUID.randomUUID();
+        index.upsert(document(ana, "Bicicleta", "Guitarra"));
+        index.upsert(document(bruno, "Guitarra", "Cámara"));
+        index.upsert(document(carla, "Cámara réflex", "Bicicleta"));
+
+        TradeGraph graph = index.graph(8);
+        List<int[]> cycles = new TradeCycleFinder(5, 10, 100, 1).find(graph);
+
+        assertEquals(3, graph.edges());
+        assertEquals(1, cycles.size());
+        assertEquals(3, cycles.get(0).length);
+    }
+
+    static TradeGraph graph(int[][] successors, int[] owners) {
+        int[] offsets = new int[successors.length + 1];
+        int edges = 0;
+        for (int node = 0; node < successors.length; node++) {
+            offsets[node] = edges;
+            edges += successors[node].length;
+        }
+        offsets[successors.length] = edges;
+        int[] targets = new int[edges];
+        for (int node = 0; node < successors.length; node++) {
+            System.arraycopy(successors[node], 0, targets, offsets[node], successors[node].length);
+        }
+        UUID[] ownerIds = new UUID[owners.length];
+        for (int i = 0; i < ownerIds.length; i++) {
+            ownerIds[i] = UUID.randomUUID();
+        }
+        return new TradeGraph(
+                offsets, targets, owners, new long[owners.length], new long[owners.length], ownerIds);
+    }
+
+    private static ItemDocument document(UUID owner, String title, String wish) {
+        return new ItemDocument(
+                UUID.randomUUID(), owner, UUID.randomUUID(), title, "", "Varios", List.of(wish), true, 1L, 1L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+    private static final double THRESHOLD = 0.4;
+
+    private final UUID sports = UUID.randomUUID();
+    private final UUID electronics = UUID.randomUUID();
+
+    @Test
+    void toleratesTyposAndMissingAccents() {
+        TrigramIndex index = new TrigramIndex();
+        ItemDocument bike = document("Bicicleta de montaña", "Deportes", sports, 1);
+        ItemDocument camera = document("Cámara réflex", "Electrónicos", electronics, 2);
+        index.upsert(bike);
+        index.upsert(camera);
+
+        assertEquals(List.of(bike.id()), index.search("bisicleta", null, THRESHOLD, 0, 10).ids());
+        assertEquals(List.of(camera.id()), index.search("camara", null, THRESHOLD, 0, 10).ids());
+        assertEquals(List.of(bike.id()), index.search("bisicleta montana", null, THRESHOLD, 0, 10).ids());
+        assertEquals(List.of(camera.id()), index.search("electronico", null, THRESHOLD, 0, 10).ids());
+        assertEquals(0, index.search("bisicleta", electronics, THRESHOLD, 0, 10).total());
+        assertEquals(0, index.search("zapatos", null, THRESHOLD, 0, 10).total());
+    }
+
+    @Test
+    void closerMatchesRankFirstAndRemovedItemsDisappear() {
+        TrigramIndex index = new TrigramIndex();
+        ItemDocument exact = document("Guitarra clásica", "Música", sports, 1);
+        ItemDocument typo = document("Guitara eléctrica", "Música", sports, 2);
+        index.upsert(exact);
+        index.upsert(typo);
+
+        assertEquals(List.of(exact.id(), typo.id()), index.search("guitarra", null, THRESHOLD, 0, 10).ids());
+
+        index.remove(exact.id());
+
+        assertEquals(List.of(typo.id()), index.search("guitarra", null, THRESHOLD, 0, 10).ids());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void equalScoresArePagedDeterministically() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 6; i++) {
+            index.upsert(document("Silla plegable", "Hogar", sports, 5));
+        }
+
+        List<UUID> all = index.search("sila", null, THRESHOLD, 0, 6).ids();
+        List<UUID> paged = new ArrayList<>(index.search("sila", null, THRESHOLD, 0, 3).ids());
+        paged.addAll(index.search("sila", null, THRESHOLD, 3, 3).ids());
+
+        assertEquals(6, all.size());
+        assertEquals(all, paged);
+    }
+
+    private static ItemDocument document(String title, String categoryName, UUID categoryId, long updatedAt) {
+        return new ItemDocument(
+                UUID.randomUUID(), UUID.randomUUID(), categoryId, title, "", categoryName, List.of(), true,
+                updatedAt, updatedAt);
+    }
+}
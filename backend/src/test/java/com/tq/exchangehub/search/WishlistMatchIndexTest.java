@@ -0,0 +1,86 @@
+package com.tq.exchangehub.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class WishlistMatchIndexTest {
+
+    private final UUID ana = UUID.randomUUID();
+    private final UUID bruno = UUID.randomUUID();
+    private final UUID carla = UUID.randomUUID();
+
+    @Test
+    void findsListingsThatHaveWhatYouWantAndWantWhatYouHave() {
+        WishlistMatchIndex index = new WishlistMatchIndex();
+        ItemDocument bike = document(ana, "Bicicleta de montaña", "Deportes", List.of("Guitarra eléctrica"));
+        ItemDocument guitar =
+                document(bruno, "Guitarra eléctrica Fender", "Música", List.of("bicicletas", "Cámara"));
+        ItemDocument oneWay = document(carla, "Guitarra eléctrica Ibanez", "Música", List.of("Libros"));
+        index.upsert(bike);
+        index.upsert(guitar);
+        index.upsert(oneWay);
+
+        List<WishlistMatchIndex.Match> matches = index.matches(bike.id(), 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(guitar.id(), matches.get(0).itemId());
+        assertEquals(List.of("Guitarra eléctrica"), matches.get(0).theyHave());
+        assertEquals(List.of("bicicletas"), matches.get(0).theyWant());
+        assertEquals(bike.id(), index.matches(guitar.id(), 10).get(0).itemId());
+        assertEquals(4, index.wishes());
+    }
+
+    @Test
+    void ignoresOwnListingsAndForgetsWithdrawnItems() {
+        WishlistMatchIndex index = new WishlistMatchIndex();
+        ItemDocument bike = document(ana, "Bicicleta", "Deportes", List.of("Guitarra"));
+        ItemDocument ownGuitar = document(ana, "Guitarra", "Música", List.of("Bicicleta"));
+        ItemDocument guitar = document(bruno, "Guitarra", "Música", List.of("Bicicleta"));
+        index.upsert(bike);
+        index.upsert(ownGuitar);
+        index.upsert(guitar);
+
+        assertEquals(List.of(guitar.id()), matchedIds(index, bike));
+
+        index.upsert(withdrawn(guitar));
+
+        assertTrue(index.matches(bike.id(), 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void compactionKeepsMatchesIntact() {
+        WishlistMatchIndex index = new WishlistMatchIndex();
+        ItemDocument bike = document(ana, "Bicicleta", "Deportes", List.of("Guitarra"));
+        ItemDocument guitar = document(bruno, "Guitarra", "Música", List.of("Bicicleta"));
+        index.upsert(bike);
+        for (int i = 0; i < 1500; i++) {
+            ItemDocument filler = document(carla, "Lámpara " + i, "Hogar", List.of("Guitarra"));
+            index.upsert(filler);
+            index.upsert(withdrawn(filler));
+        }
+        index.upsert(guitar);
+
+        assertEquals(List.of(guitar.id()), matchedIds(index, bike));
+        assertEquals(2, index.wishes());
+    }
+
+    private static List<UUID> matchedIds(WishlistMatchIndex index, ItemDocument document) {
+        return index.matches(document.id(), 10).stream().map(WishlistMatchIndex.Match::itemId).toList();
+    }
+
+    private static ItemDocument document(UUID owner, String title, String categoryName, List<String> wishlist) {
+        return new ItemDocument(
+                UUID.randomUUID(), owner, UUID.randomUUID(), title, "", categoryName, wishlist, true, 1L, 1L);
+    }
+
+    private static ItemDocument withdrawn(ItemDocument document) {
+        return new ItemDocument(
+                document.id(), document.ownerId(), document.categoryId(), document.title(), document.description(),
+                document.categoryName(), document.wishlist(), false, document.createdAt(), document.updatedAt());
+    }
+}
@@ -0,0 +1,116 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.dto.CategoryDto;
+import com.tq.exchangehub.dto.ItemRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.util.ResourceVersion;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class CategoryServiceTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    private Profile owner;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        owner = new Profile();
+        owner.setDisplayName("Ferretera");
+        owner = profileRepository.save(owner);
+
+        Category category = new Category();
+        category.setName("Herramientas");
+        category.setDescription("Taladros y llaves");
+        categoryId = categoryService.create(category).getId();
+    }
+
+    @Test
+    void itemCreationMaintainsCountOfAvailableItems() {
+        createItem(true);
+        createItem(null);
+        createItem(false);
+
+        assertEquals(2, countOf(categoryId));
+        assertEquals(2, categoryService.search("taladro", 5).get(0).getItemsCount());
+    }
+
+    @Test
+    void reconciliationRepairsDriftedCounts() {
+        createItem(true);
+        categoryService.adjustAvailableItems(categoryId, 5);
+        assertEquals(6, countOf(categoryId));
+
+        categoryService.reconcileItemCounts();
+
+        assertEquals(1, countOf(categoryId));
+    }
+
+    @Test
+    void savingCategoryKeepsItsCount() {
+        createItem(true);
+        Category renamed = new Category();
+        renamed.setId(categoryId);
+        renamed.setName("Bricolaje");
+        renamed.setAvailableItems(40);
+
+        CategoryDto saved = categoryService.create(renamed);
+
+        assertEquals("Bricolaje", saved.getName());
+        assertEquals(1, countOf(categoryId));
+        assertTrue(categoryService.search("brico", 5).stream().anyMatch(dto -> dto.getId().equals(categoryId)));
+    }
+
+    @Test
+    void listingVersionFollowsItsContent() {
+        ResourceVersion initial = categoryService.findVersion();
+        assertEquals(initial, categoryService.findVersion());
+
+        createItem(false);
+        assertEquals(initial, categoryService.findVersion());
+
+        createItem(true);
+        assertNotEquals(initial.eTag(), categoryService.findVersion().eTag());
+        assertNull(categoryService.findVersion().lastModified());
+    }
+
+    private long countOf(UUID id) {
+        return categoryService.findAll().stream()
+                .filter(dto -> dto.getId().equals(id))
+                .findFirst()
+                .orElseThrow()
+                .getItemsCount();
+    }
+
+    private void createItem(Boolean available) {
+        ItemRequest request = new ItemRequest();
+        request.setOwnerId(owner.getId());
+        request.setCategoryId(categoryId);
+        request.setTitle("Taladro percutor");
+        request.setDescription("Con maletín");
+        request.setCondition("Usado");
+        request.setAvailable(available);
+        itemService.create(request);
+    }
+}
@@ -0,0 +1,189 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.tq.exchangehub.dto.ConversationDto;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Message;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.MessageRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest
+@Transactional
+class ConversationServiceTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Profile ana;
+    private Profile bruno;
+    private Profile carla;
+    private Category category;
+    private Trade withBruno;
+    private Trade withCarla;
+    private Trade silent;
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        carla = profile("Carla");
+        category = new Category();
+        category.setName("Música");
+        category = categoryRepository.save(category);
+
+        withBruno = trade(ana, bruno, "Guitarra");
+        withCarla = trade(carla, ana, "Teclado");
+        silent = trade(ana, carla, "Batería");
+    }
+
+    @Test
+    void conversationsArePagedByLastActivityWithPreviewAndUnreadCount() {
+        message(withBruno, bruno, 1, "¿Sigue disponible?");
+        message(withBruno, ana, 2, "Sí");
+        Message latest = message(withBruno, bruno, 3, "Genial, ".repeat(40));
+        message(withCarla, carla, 5, "Hola");
+        touch(silent, 0);
+
+        CursorPageDto<ConversationDto> first = conversationService.findConversations(ana.getId(), "", 2);
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        ConversationDto carlaConversation = first.getItems().get(0);
+        assertEquals(withCarla.getId(), carlaConversation.getTradeId());
+        assertEquals(carla.getId(), carlaConversation.getCounterpartId());
+        assertEquals("Carla", carlaConversation.getCounterpartName());
+        assertEquals("Teclado", carlaConversation.getItemTitle());
+        assertEquals("Hola", carlaConversation.getLastMessagePreview());
+        assertEquals(1, carlaConversation.getUnreadCount());
+
+        ConversationDto brunoConversation = first.getItems().get(1);
+        assertEquals(withBruno.getId(), brunoConversation.getTradeId());
+        assertEquals(latest.getId(), brunoConversation.getLastMessageId());
+        assertEquals(bruno.getId(), brunoConversation.getLastMessageSenderId());
+        assertEquals(140, brunoConversation.getLastMessagePreview().length());
+        assertEquals(2, brunoConversation.getUnreadCount());
+
+        CursorPageDto<ConversationDto> second =
+                conversationService.findConversations(ana.getId(), first.getNextCursor(), 2);
+        assertEquals(1, second.getItems().size());
+        ConversationDto silentConversation = second.getItems().get(0);
+        assertEquals(silent.getId(), silentConversation.getTradeId());
+        assertNull(silentConversation.getLastMessageId());
+        assertEquals(0, silentConversation.getUnreadCount());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void readCursorsArePerParticipant() {
+        message(withBruno, bruno, 1, "¿Sigue disponible?");
+        message(withBruno, ana, 2, "Sí");
+
+        conversationService.markRead(withBruno.getId(), ana.getId());
+        assertEquals(0, unread(ana, withBruno));
+        assertEquals(1, unread(bruno, withBruno));
+
+        message(withBruno, bruno, 3, "¿Mañana?");
+        assertEquals(1, unread(ana, withBruno));
+        conversationService.markRead(withBruno.getId(), bruno.getId());
+        assertEquals(0, unread(bruno, withBruno));
+    }
+
+    @Test
+    void onlyParticipantsCanMarkAConversationAsRead() {
+        ResponseStatusException forbidden = assertThrows(
+                ResponseStatusException.class,
+                () -> conversationService.markRead(withBruno.getId(), carla.getId()));
+        assertEquals(HttpStatus.FORBIDDEN, forbidden.getStatusCode());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> conversationService.markRead(UUID.randomUUID(), ana.getId()));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> conversationService.findConversations(ana.getId(), "not-a-cursor", 20));
+    }
+
+    private long unread(Profile profile, Trade trade) {
+        return conversationService.findConversations(profile.getId(), "", 20).getItems().stream()
+                .filter(conversation -> conversation.getTradeId().equals(trade.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getUnreadCount();
+    }
+
+    /** Stores a message the way trade creation does, recording it as the trade's latest. */
+    private Message message(Trade trade, Profile sender, int minutes, String content) {
+        Message message = new Message();
+        message.setTrade(trade);
+        message.setSender(sender);
+        message.setContent(content);
+        message.setCreatedAt(START.plusMinutes(minutes));
+        message = messageRepository.save(message);
+        tradeRepository.recordLastMessage(trade.getId(), message.getId(), message.getCreatedAt());
+        return message;
+    }
+
+    /** Pins the last activity of a trade without messages, which otherwise is the time it was stored. */
+    private void touch(Trade trade, int minutes) {
+        tradeRepository.recordLastMessage(trade.getId(), null, START.plusMinutes(minutes));
+    }
+
+    private Trade trade(Profile owner, Profile requester, String title) {
+        Item item = new Item();
+        item.setOwner(owner);
+        item.setCategory(category);
+        item.setTitle(title);
+        item.setDescription("Instrumento");
+        item.setCondition("Usado");
+        item = itemRepository.save(item);
+
+        Trade trade = new Trade();
+        trade.setOwner(owner);
+        trade.setRequester(requester);
+        trade.setOwnerItem(item);
+        return tradeRepository.save(trade);
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+}
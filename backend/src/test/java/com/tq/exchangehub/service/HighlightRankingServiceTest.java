@@ -0,0 +1,129 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.ItemRequest;
+import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Favorite;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.FavoriteRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class HighlightRankingServiceTest {
+
+    @Autowired
+    private HighlightRankingService highlightRankingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    private Profile owner;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        owner = profileRepository.save(profile("Coleccionista"));
+        category = new Category();
+        category.setName("Cámaras");
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    void scoreGrowsWithInterestAndHalvesWithEachHalfLife() {
+        double fresh = HighlightRankingService.score(2, 1, 3.0, 0, 72);
+
+        assertTrue(fresh > HighlightRankingService.score(1, 1, 3.0, 0, 72));
+        assertTrue(fresh > HighlightRankingService.score(2, 0, 3.0, 0, 72));
+        assertTrue(fresh > HighlightRankingService.score(2, 1, 0.0, 0, 72));
+        assertEquals(fresh / 2, HighlightRankingService.score(2, 1, 3.0, 72, 72), 1e-9);
+    }
+
+    @Test
+    void feedFollowsFavoritesAndViewsAndSurvivesRestore() {
+        UUID plain = createItem("Cámara compacta");
+        UUID viewed = createItem("Cámara réflex");
+        UUID favorited = createItem("Cámara instantánea");
+        for (int i = 0; i < 2; i++) {
+            Favorite favorite = new Favorite();
+            favorite.setProfile(profileRepository.save(profile("Fan " + i)));
+            favorite.setItem(itemRepository.getReferenceById(favorited));
+            favoriteRepository.save(favorite);
+        }
+        for (int i = 0; i < 5; i++) {
+            itemService.findById(viewed);
+        }
+
+        highlightRankingService.refresh();
+
+        List<UUID> expected = List.of(favorited, viewed, plain);
+        assertEquals(expected, ids(itemService.findHighlighted(0, 3).getContent()));
+        assertEquals(expected, scroll(3));
+
+        highlightRankingService.restore();
+
+        assertEquals(expected, ids(itemService.findHighlighted(0, 3).getContent()));
+
+        String cursor = itemService.findHighlighted("", 2).getNextCursor();
+        highlightRankingService.refresh();
+        assertEquals(plain, ids(itemService.findHighlighted(cursor, 2).getItems()).get(0));
+    }
+
+    private List<UUID> scroll(int count) {
+        List<UUID> scrolled = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null && scrolled.size() < count) {
+            CursorPageDto<ItemSummaryDto> slice = itemService.findHighlighted(cursor, 2);
+            slice.getItems().forEach(item -> scrolled.add(item.getId()));
+            cursor = slice.getNextCursor();
+        }
+        return scrolled.subList(0, count);
+    }
+
+    private UUID createItem(String title) {
+        ItemRequest request = new ItemRequest();
+        request.setOwnerId(owner.getId());
+        request.setCategoryId(category.getId());
+        request.setTitle(title);
+        request.setDescription("Funciona perfectamente");
+        request.setCondition("Usado");
+        request.setAvailable(true);
+        return itemService.create(request).getId();
+    }
+
+    private static Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profile;
+    }
+
+    private static List<UUID> ids(List<ItemSummaryDto> items) {
+        return items.stream().map(ItemSummaryDto::getId).toList();
+    }
+}
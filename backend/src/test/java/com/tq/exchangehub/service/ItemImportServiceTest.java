@@ -0,0 +1,124 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.tq.exchangehub.dto.ItemImportErrorDto;
+import com.tq.exchangehub.dto.ItemImportResultDto;
+import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import java.io.StringReader;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Profile owner;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        owner = new Profile();
+        owner.setDisplayName("Tienda Retro");
+        owner = profileRepository.save(owner);
+
+        category = new Category();
+        category.setName("Consolas");
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    void csvImportStoresValidRowsAndReportsTheRest() {
+        String csv =
+                "ownerId,categoryId,title,description,condition,available,images,wishlist\n"
+                        + row("Consola \"\"retro\"\" portátil", "\"Con dos mandos, cables\"", "true")
+                        + row("", "Sin título", "true")
+                        + row("Consola de sobremesa", "\"Caja original\nsin abrir\"", "false")
+                        + UUID.randomUUID() + "," + category.getId() + ",Mando,Inalámbrico,Usado,,,\n"
+                        + row("Cartucho", "Juego clásico", "quizás");
+
+        ItemImportResultDto result = itemImportService.importItems(new StringReader(csv), ItemImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of("3:title: must not be blank", "6:Profile not found", "7:available: expected true or false"),
+                errors(result));
+        ItemSummaryDto imported = itemService.search("retro", category.getId(), 0, 10).getContent().get(0);
+        assertEquals("Consola \"retro\" portátil", imported.getTitle());
+        assertEquals("Tienda Retro", imported.getOwner().getDisplayName());
+        assertEquals("https://cdn/a.jpg", imported.getMainImageUrl());
+        assertEquals(List.of("mandos", "juegos"), imported.getWishlist());
+        assertEquals(1, categoryRepository.findById(category.getId()).orElseThrow().getAvailableItems());
+        assertEquals(2, itemRepository.findByOwner(owner).size());
+    }
+
+    @Test
+    void ndjsonImportReportsMalformedLines() {
+        String ndjson =
+                "{\"ownerId\":\"" + owner.getId() + "\",\"categoryId\":\"" + category.getId()
+                        + "\",\"title\":\"Game Boy\",\"description\":\"Funciona\",\"condition\":\"Usado\","
+                        + "\"images\":[\"https://cdn/gb.jpg\",\"https://cdn/gb.jpg\"]}\n"
+                        + "\n"
+                        + "{\"ownerId\": oops}\n"
+                        + "{\"ownerId\":\"" + owner.getId() + "\",\"categoryId\":\"" + UUID.randomUUID()
+                        + "\",\"title\":\"Atari\",\"description\":\"Funciona\",\"condition\":\"Usado\"}\n";
+
+        ItemImportResultDto result =
+                itemImportService.importItems(new StringReader(ndjson), ItemImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals(4, result.getErrors().get(1).getLine());
+        assertEquals("Category not found", result.getErrors().get(1).getMessage());
+        assertEquals(1, categoryRepository.findById(category.getId()).orElseThrow().getAvailableItems());
+    }
+
+    @Test
+    void unknownCsvColumnRejectsTheWholeImport() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> itemImportService.importItems(new StringReader("title,price\nA,1\n"), ItemImportService.Format.CSV));
+    }
+
+    private String row(String title, String description, String available) {
+        return owner.getId() + "," + category.getId() + "," + quote(title) + "," + description + ",Usado," + available
+                + ",https://cdn/a.jpg|https://cdn/b.jpg,mandos|juegos\n";
+    }
+
+    private static String quote(String value) {
+        return value.contains("\"") ? "\"" + value + "\"" : value;
+    }
+
+    private static List<String> errors(ItemImportResultDto result) {
+        return result.getErrors().stream()
+                .map((ItemImportErrorDto error) -> error.getLine() + ":" + error.getMessage())
+                .toList();
+    }
+}
@@ -0,0 +1,255 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.controller.SearchController;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.FacetValueDto;
+import com.tq.exchangehub.dto.ItemDto;
+import com.tq.exchangehub.dto.ItemSummaryDto;
+import com.tq.exchangehub.dto.ProfileUpdateRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.event.ItemChangedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.search.ItemDocument;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class ItemServiceTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemIndexService itemIndexService;
+
+    @Autowired
+    private SearchController searchController;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemCardService itemCardService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private Profile owner;
+    private Category category;
+    private Item firstItem;
+    private final List<ItemDocument> indexed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = new Profile();
+        owner.setDisplayName("Coleccionista");
+        owner = profileRepository.save(owner);
+
+        category = new Category();
+        category.setName("Vinilos");
+        category = categoryRepository.save(category);
+
+        // Same timestamps on purpose so only the id breaks ties between pages.
+        OffsetDateTime timestamp = OffsetDateTime.of(2030, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < 7; i++) {
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setCategory(category);
+            item.setTitle("Disco de vinilo " + i);
+            item.setDescription("Edición original");
+            item.setCondition("Usado");
+            item.setService(i == 6);
+            item.setLocation(i % 2 == 0 ? "Madrid" : "Sevilla");
+            item.setEstimatedValue(BigDecimal.TEN);
+            item.setAvailable(i != 3 ? Boolean.TRUE : Boolean.FALSE);
+            item.setCreatedAt(timestamp);
+            item.setUpdatedAt(i < 4 ? timestamp : timestamp.minusMinutes(i));
+            item = itemRepository.save(item);
+            itemCardService.refresh(item);
+            if (i == 0) {
+                firstItem = item;
+            }
+        }
+    }
+
+    @AfterEach
+    void removeFromIndexes() {
+        // The test transaction rolls back, but the in-memory indexes outlive it.
+        for (ItemDocument document : indexed) {
+            itemIndexService.onItemChanged(
+                    new ItemChangedEvent(
+                            new ItemDocument(
+                                    document.id(), document.ownerId(), document.categoryId(), document.title(),
+                                    document.description(), document.categoryName(), document.wishlist(), false,
+                                    document.createdAt(), document.updatedAt())));
+        }
+    }
+
+    @Test
+    void fuzzySearchToleratesTyposUsingInMemoryIndexOnH2() {
+        Item turntable = firstItem;
+        turntable.setTitle("Tocadiscos portátil");
+        index(turntable);
+
+        Page<ItemSummaryDto> page = itemService.searchFuzzy("tocadisco portatil", null, 0, 10);
+
+        assertTrue(itemIndexService.isFuzzyInMemory());
+        assertEquals(List.of(turntable.getId()), page.getContent().stream().map(ItemSummaryDto::getId).toList());
+        assertEquals(1, page.getTotalElements());
+        assertEquals(0, itemService.searchFuzzy("tocadisco", UUID.randomUUID(), 0, 10).getTotalElements());
+    }
+
+    @Test
+    void fuzzySearchWithCursorIsRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> searchController.search("vinilo", null, null, null, null, 0, 10, "", true));
+    }
+
+    @Test
+    void streamAllLoadsCollectionsForEveryItem() {
+        firstItem.setImages(new ArrayList<>(List.of("https://cdn/a.jpg", "https://cdn/b.jpg")));
+        firstItem.setWishlist(new ArrayList<>(List.of("tocadiscos")));
+
+        List<ItemDto> streamed = new ArrayList<>();
+        itemService.streamAll(streamed::add);
+
+        List<ItemDto> ours =
+                streamed.stream().filter(item -> item.getCategoryId().equals(category.getId())).toList();
+        assertEquals(7, ours.size());
+        ItemDto first = ours.stream().filter(item -> item.getId().equals(firstItem.getId())).findFirst().orElseThrow();
+        assertEquals(List.of("https://cdn/a.jpg", "https://cdn/b.jpg"), first.getImages());
+        assertEquals(List.of("tocadiscos"), first.getWishlist());
+        assertEquals("Madrid", first.getLocation());
+        assertTrue(ours.stream().filter(item -> item != first).allMatch(item -> item.getImages().isEmpty()));
+    }
+
+    @Test
+    void searchCardsFollowProfileAndCategoryEdits() {
+        ProfileUpdateRequest update = new ProfileUpdateRequest();
+        update.setDisplayName("Melómana");
+        update.setAvatarUrl("https://cdn/avatar.png");
+        profileService.updateProfile(owner.getId(), update);
+        Category renamed = new Category();
+        renamed.setId(category.getId());
+        renamed.setName("Discos");
+        categoryService.create(renamed);
+
+        ItemSummaryDto card = itemService.search("vinilo", null, 0, 1).getContent().get(0);
+
+        assertEquals("Melómana", card.getOwner().getDisplayName());
+        assertEquals("https://cdn/avatar.png", card.getOwner().getAvatarUrl());
+        assertEquals("Discos", card.getCategoryName());
+        assertEquals(1, itemService.search("discos", null, 0, 10).getContent().stream()
+                .filter(summary -> summary.getId().equals(card.getId())).count());
+    }
+
+    @Test
+    void searchReturnsFacetCountsAndAppliesDrillDowns() {
+        ItemService.FacetedPage faceted = itemService.search("vinilo", category.getId(), null, null, null, 0, 2);
+
+        assertEquals(2, faceted.page().getContent().size());
+        assertEquals(6, faceted.page().getTotalElements());
+        assertEquals(List.of("Vinilos:6"), labels(faceted.facets().getCategories()));
+        assertEquals(List.of("item:5", "service:1"), labels(faceted.facets().getTypes()));
+        assertEquals(List.of("Usado:6"), labels(faceted.facets().getConditions()));
+        assertEquals(List.of("Madrid:4", "Sevilla:2"), labels(faceted.facets().getLocations()));
+
+        ItemService.FacetedPage drilled = itemService.search("vinilo", null, false, null, "Sevilla", 0, 10);
+
+        assertEquals(2, drilled.page().getTotalElements());
+        assertEquals(List.of("Sevilla:2"), labels(drilled.facets().getLocations()));
+        assertEquals(List.of("item:2"), labels(drilled.facets().getTypes()));
+    }
+
+    @Test
+    void highlightedCursorWalksSameItemsAsOffsetPaging() {
+        List<UUID> byOffset = new ArrayList<>();
+        Page<ItemSummaryDto> page;
+        int number = 0;
+        do {
+            page = itemService.findHighlighted(number++, 4);
+            page.getContent().forEach(item -> byOffset.add(item.getId()));
+        } while (page.hasNext());
+
+        assertEquals(byOffset, scrollHighlighted(4));
+    }
+
+    @Test
+    void searchCursorReturnsEveryMatchOnce() {
+        List<UUID> scrolled = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageDto<ItemSummaryDto> slice = itemService.search("vinilo", category.getId(), cursor, 2);
+            slice.getItems().forEach(item -> scrolled.add(item.getId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+
+        List<UUID> byOffset =
+                itemService.search("vinilo", category.getId(), 0, 10).getContent().stream()
+                        .map(ItemSummaryDto::getId)
+                        .toList();
+        assertEquals(6, scrolled.size());
+        assertEquals(byOffset, scrolled);
+    }
+
+    @Test
+    void lastPageHasNoCursorAndGarbageCursorIsRejected() {
+        CursorPageDto<ItemSummaryDto> slice = itemService.search("vinilo", category.getId(), "", 6);
+
+        assertEquals(6, slice.getItems().size());
+        assertNull(slice.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> itemService.findHighlighted("not-a-cursor", 5));
+    }
+
+    private void index(Item item) {
+        ItemDocument document = ItemDocument.from(item);
+        indexed.add(document);
+        itemIndexService.onItemChanged(new ItemChangedEvent(document));
+    }
+
+    private static List<String> labels(List<FacetValueDto> facet) {
+        return facet.stream().map(value -> value.getLabel() + ":" + value.getCount()).toList();
+    }
+
+    private List<UUID> scrollHighlighted(int size) {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageDto<ItemSummaryDto> slice = itemService.findHighlighted(cursor, size);
+            slice.getItems().forEach(item -> ids.add(item.getId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,214 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.dto.MessageDto;
+import com.tq.exchangehub.dto.MessageRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.entity.UserAccount;
+import com.tq.exchangehub.event.MessageCreatedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import com.tq.exchangehub.security.UserPrincipal;
+import com.tq.exchangehub.util.TimeOrderedIds;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** Not transactional: the writer commits on its own thread and only sees committed trades. */
+@SpringBootTest
+class MessageBatchWriterTest {
+
+    private static final int SENDERS = 8;
+    private static final int MESSAGES_PER_SENDER = 25;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageBatchWriter messageBatchWriter;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Profile ana;
+    private Profile bruno;
+    private Category category;
+    private Item item;
+    private Trade trade;
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        category = new Category();
+        category.setName("Mensajería");
+        category = categoryRepository.save(category);
+
+        item = new Item();
+        item.setOwner(ana);
+        item.setCategory(category);
+        item.setTitle("Bicicleta");
+        item.setDescription("Rodado 26");
+        item.setCondition("Usado");
+        item = itemRepository.save(item);
+
+        trade = new Trade();
+        trade.setOwner(ana);
+        trade.setRequester(bruno);
+        trade.setOwnerItem(item);
+        trade = tradeRepository.save(trade);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxDispatcher.drain();
+        jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id IN (?, ?)", ana.getId(), bruno.getId());
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", trade.getId());
+        jdbcTemplate.update("DELETE FROM messages WHERE trade_id = ?", trade.getId());
+        tradeRepository.deleteById(trade.getId());
+        itemRepository.deleteById(item.getId());
+        profileRepository.deleteAllById(List.of(ana.getId(), bruno.getId()));
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void concurrentMessagesAreStoredInSharedBatchesBeforeTheyAreAcknowledged() throws Exception {
+        DistributionSummary batches = meterRegistry.get("chat.messages.batch.size").summary();
+        long batchesBefore = batches.count();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<List<MessageDto>>> senders = new ArrayList<>();
+        for (int s = 0; s < SENDERS; s++) {
+            Profile sender = s % 2 == 0 ? ana : bruno;
+            senders.add(() -> {
+                start.await();
+                List<MessageDto> sent = new ArrayList<>();
+                for (int i = 0; i < MESSAGES_PER_SENDER; i++) {
+                    MessageDto message = messageService.create(request("Hola " + i), principal(sender));
+                    assertEquals(1, count("SELECT COUNT(*) FROM messages WHERE id = ?", message.getId()));
+                    if (!sent.isEmpty()) {
+                        assertTrue(
+                                message.getCreatedAt().isAfter(sent.get(sent.size() - 1).getCreatedAt()),
+                                "a message committed later is dated later");
+                    }
+                    sent.add(message);
+                }
+                return sent;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SENDERS);
+        List<MessageDto> sent = new ArrayList<>();
+        try {
+            List<Future<List<MessageDto>>> futures = senders.stream().map(executor::submit).toList();
+            start.countDown();
+            for (Future<List<MessageDto>> future : futures) {
+                sent.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = SENDERS * MESSAGES_PER_SENDER;
+        assertEquals(total, sent.size());
+        assertEquals(total, count("SELECT COUNT(*) FROM messages WHERE trade_id = ?", trade.getId()));
+        assertTrue(batches.count() - batchesBefore < total, "messages should share batches");
+        assertEquals(
+                1,
+                count(
+                        "SELECT COUNT(*) FROM trades t JOIN messages m ON m.id = t.last_message_id"
+                                + " WHERE t.id = ? AND t.last_activity_at = m.created_at AND m.created_at ="
+                                + " (SELECT MAX(l.created_at) FROM messages l WHERE l.trade_id = t.id)",
+                        trade.getId()));
+        outboxDispatcher.drain();
+        assertEquals(total, count("SELECT COUNT(*) FROM notifications WHERE trade_id = ?", trade.getId()));
+    }
+
+    @Test
+    void aMessageThatCannotBeStoredFailsOnItsOwn() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MessageDto> orphan = executor.submit(() -> persist(UUID.randomUUID()));
+            Future<MessageDto> valid = executor.submit(() -> persist(trade.getId()));
+
+            MessageDto stored = valid.get(30, TimeUnit.SECONDS);
+            assertEquals(1, count("SELECT COUNT(*) FROM messages WHERE id = ?", stored.getId()));
+            Exception failure = assertThrows(Exception.class, () -> orphan.get(30, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof DataIntegrityViolationException, String.valueOf(failure));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MessageDto persist(UUID tradeId) {
+        MessageDto message = new MessageDto();
+        message.setId(TimeOrderedIds.next());
+        message.setTradeId(tradeId);
+        message.setSenderId(ana.getId());
+        message.setContent("¿Sigue disponible?");
+        return messageBatchWriter.persist(message, new MessageCreatedEvent(message, bruno.getId()));
+    }
+
+    private long count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+
+    private MessageRequest request(String content) {
+        MessageRequest request = new MessageRequest();
+        request.setTradeId(trade.getId());
+        request.setContent(content);
+        return request;
+    }
+
+    private static UserPrincipal principal(Profile profile) {
+        UserAccount account = new UserAccount();
+        account.setProfile(profile);
+        return new UserPrincipal(account);
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+}
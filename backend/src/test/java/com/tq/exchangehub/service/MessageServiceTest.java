@@ -0,0 +1,154 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.MessageDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Message;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.MessageRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest
+@Transactional
+class MessageServiceTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Profile ana;
+    private Profile bruno;
+    private Trade trade;
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        Category category = new Category();
+        category.setName("Libros");
+        category = categoryRepository.save(category);
+
+        Item item = new Item();
+        item.setOwner(ana);
+        item.setCategory(category);
+        item.setTitle("Novela");
+        item.setDescription("Tapa dura");
+        item.setCondition("Usado");
+        item = itemRepository.save(item);
+
+        trade = new Trade();
+        trade.setOwner(ana);
+        trade.setRequester(bruno);
+        trade.setOwnerItem(item);
+        trade = tradeRepository.save(trade);
+    }
+
+    @Test
+    void historyPagesFromTheLatestMessagesBackwards() {
+        Message first = message(ana, 1);
+        Message second = message(bruno, 2);
+        Message tiedA = message(ana, 3);
+        Message tiedB = message(bruno, 3);
+        Message latest = message(ana, 4);
+
+        List<List<UUID>> pages = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageDto<MessageDto> page = messageService.findHistory(trade.getId(), bruno.getId(), cursor, 2);
+            pages.add(page.getItems().stream().map(MessageDto::getId).toList());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(3, pages.size());
+        assertEquals(latest.getId(), pages.get(0).get(1));
+        assertEquals(second.getId(), pages.get(1).get(0));
+        assertEquals(
+                Set.of(tiedA.getId(), tiedB.getId()), Set.of(pages.get(0).get(0), pages.get(1).get(1)));
+        assertEquals(List.of(first.getId()), pages.get(2));
+    }
+
+    @Test
+    void historyCarriesSenderAndTradeIds() {
+        Message sent = message(bruno, 1);
+
+        CursorPageDto<MessageDto> page = messageService.findHistory(trade.getId(), ana.getId(), "", 20);
+
+        assertEquals(1, page.getItems().size());
+        MessageDto dto = page.getItems().get(0);
+        assertEquals(sent.getId(), dto.getId());
+        assertEquals(trade.getId(), dto.getTradeId());
+        assertEquals(bruno.getId(), dto.getSenderId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void historyIsOnlyReadableByParticipants() {
+        message(ana, 1);
+        Profile outsider = profile("Carla");
+
+        ResponseStatusException forbidden = assertThrows(
+                ResponseStatusException.class,
+                () -> messageService.findHistory(trade.getId(), outsider.getId(), "", 20));
+        assertEquals(HttpStatus.FORBIDDEN, forbidden.getStatusCode());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> messageService.findHistory(UUID.randomUUID(), ana.getId(), "", 20));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> messageService.findHistory(trade.getId(), ana.getId(), "not-a-cursor", 20));
+        assertEquals(1, messageService.findHistory(trade.getId(), ana.getId(), "", 20).getItems().size());
+    }
+
+    private Message message(Profile sender, int minutes) {
+        Message message = new Message();
+        message.setTrade(trade);
+        message.setSender(sender);
+        message.setContent("Mensaje " + minutes);
+        message.setCreatedAt(START.plusMinutes(minutes));
+        return messageRepository.save(message);
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+}
@@ -0,0 +1,265 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.config.OutboxProperties;
+import com.tq.exchangehub.dto.TradeStatusUpdateRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Message;
+import com.tq.exchangehub.entity.OutboxEvent;
+import com.tq.exchangehub.entity.OutboxEventType;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.entity.TradeStatus;
+import com.tq.exchangehub.event.MessageCreatedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.MessageRepository;
+import com.tq.exchangehub.repository.OutboxEventRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import com.tq.exchangehub.util.DtoMapper;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Not transactional: the dispatcher only sees committed events. */
+@SpringBootTest
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Profile ana;
+    private Profile bruno;
+    private Category category;
+    private final List<Trade> trades = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        category = new Category();
+        category.setName("Outbox");
+        category = categoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Trade trade : trades) {
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", trade.getId());
+            jdbcTemplate.update("DELETE FROM messages WHERE trade_id = ?", trade.getId());
+        }
+        jdbcTemplate.update("DELETE FROM notifications WHERE recipient_id IN (?, ?)", ana.getId(), bruno.getId());
+        tradeRepository.deleteAllById(trades.stream().map(Trade::getId).toList());
+        trades.stream().map(trade -> trade.getOwnerItem().getId()).distinct().forEach(itemRepository::deleteById);
+        profileRepository.deleteAll(List.of(ana, bruno));
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void deliversCommittedEventsOnly() {
+        Trade trade = trade();
+        Message message = message(trade, ana);
+        TradeStatusUpdateRequest accept = new TradeStatusUpdateRequest();
+        accept.setStatus(TradeStatus.ACCEPTED);
+
+        tradeService.updateStatus(trade.getId(), accept, ana.getId());
+        TransactionTemplate rolledBack = new TransactionTemplate(transactionManager);
+        rolledBack.executeWithoutResult(status -> {
+            append(trade, message, ana.getId());
+            status.setRollbackOnly();
+        });
+        outboxDispatcher.drain();
+
+        assertEquals(0, pendingEvents(trade));
+        assertEquals(1, notifications(bruno, "TRADE"));
+        assertEquals(0, notifications(ana, "TRADE") + notifications(ana, "MESSAGE"));
+    }
+
+    @Test
+    void acceptanceNotifiesTheRejectedOffers() {
+        Trade accepted = trade();
+        Trade competing = trade(accepted.getOwnerItem());
+        TradeStatusUpdateRequest accept = new TradeStatusUpdateRequest();
+        accept.setStatus(TradeStatus.ACCEPTED);
+
+        tradeService.updateStatus(accepted.getId(), accept, ana.getId());
+        outboxDispatcher.drain();
+
+        assertEquals(0, pendingEvents(accepted));
+        assertEquals(2, notifications(bruno, "TRADE"));
+        assertEquals(
+                1,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM notifications WHERE trade_id = ? AND message LIKE '%rechazado%'",
+                        Long.class,
+                        competing.getId()));
+    }
+
+    @Test
+    void failedEventHoldsBackTheLaterEventsOfItsTradeOnly() {
+        Trade blocked = trade();
+        Trade other = trade();
+        Message first = message(blocked, ana);
+        Message second = message(blocked, ana);
+        Message unrelated = message(other, ana);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            append(blocked, first, UUID.randomUUID());
+            append(blocked, second, bruno.getId());
+            append(other, unrelated, bruno.getId());
+        });
+        OffsetDateTime drainedAt = OffsetDateTime.now();
+        outboxDispatcher.drain();
+
+        List<OutboxEvent> left = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(blocked.getId()))
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .toList();
+        assertEquals(2, left.size());
+        assertTrue(left.get(0).getAttempts() >= 1);
+        assertNull(left.get(0).getFailedAt());
+        assertTrue(left.get(0).getNextAttemptAt().isAfter(drainedAt));
+        assertEquals(0, left.get(1).getAttempts());
+        assertEquals(0, pendingEvents(other));
+        assertEquals(1, notifications(bruno, "MESSAGE"));
+    }
+
+    @Test
+    void eventsWaitingForARetryDoNotBlockOtherTrades() {
+        Trade blocked = trade();
+        Trade other = trade();
+        Message unrelated = message(other, ana);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                append(blocked, message(blocked, ana), bruno.getId());
+            }
+            append(other, unrelated, bruno.getId());
+        });
+        jdbcTemplate.update(
+                "UPDATE outbox_events SET attempts = 1, next_attempt_at = ? WHERE aggregate_id = ?",
+                OffsetDateTime.now().plusMinutes(5),
+                blocked.getId());
+
+        int batchSize = outboxProperties.getBatchSize();
+        outboxProperties.setBatchSize(2);
+        try {
+            outboxDispatcher.drain();
+        } finally {
+            outboxProperties.setBatchSize(batchSize);
+        }
+
+        assertEquals(3, pendingEvents(blocked));
+        assertEquals(0, pendingEvents(other));
+        assertEquals(1, notifications(bruno, "MESSAGE"));
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(1), outboxDispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), outboxDispatcher.backoff(3));
+        assertEquals(Duration.ofMinutes(5), outboxDispatcher.backoff(30));
+    }
+
+    private void append(Trade trade, Message message, UUID recipientId) {
+        outboxService.append(
+                OutboxEventType.MESSAGE_CREATED,
+                trade.getId(),
+                new MessageCreatedEvent(DtoMapper.toMessageDto(message), recipientId));
+    }
+
+    private long pendingEvents(Trade trade) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id = ?", Long.class, trade.getId());
+    }
+
+    private long notifications(Profile recipient, String type) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE recipient_id = ? AND type = ?",
+                Long.class,
+                recipient.getId(),
+                type);
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+
+    private Trade trade() {
+        Item item = new Item();
+        item.setOwner(ana);
+        item.setCategory(category);
+        item.setTitle("Patines");
+        item.setDescription("Talle 38");
+        item.setCondition("Usado");
+        return trade(itemRepository.save(item));
+    }
+
+    private Trade trade(Item item) {
+        Trade trade = new Trade();
+        trade.setOwner(ana);
+        trade.setRequester(bruno);
+        trade.setOwnerItem(item);
+        trade = tradeRepository.save(trade);
+        trades.add(trade);
+        return trade;
+    }
+
+    private Message message(Trade trade, Profile sender) {
+        Message message = new Message();
+        message.setTrade(trade);
+        message.setSender(sender);
+        message.setContent("¿Sigue disponible?");
+        return messageRepository.save(message);
+    }
+}
@@ -0,0 +1,115 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.tq.exchangehub.config.SearchProperties;
+import com.tq.exchangehub.dto.SearchResultDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SearchResultCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void servesHitsUntilExpiryAndEvictsLeastRecentlyUsed() {
+        SearchResultCache cache = cache(2);
+        SearchResultCache.Key iphone = key("iphone", null);
+        SearchResultCache.Key bike = key("bicicleta", null);
+
+        SearchResultDto first = cache.get(iphone, this::load);
+        assertSame(first, cache.get(key("  iphone ", null), this::load));
+        assertSame(first, cache.get(key("IPhone", null), this::load));
+        cache.get(bike, this::load);
+        cache.get(iphone, this::load);
+        cache.get(key("guitarra", null), this::load);
+        assertEquals(3, loads.get());
+        assertEquals(key("guitarra  eléctrica", null), key(" Guitarra\telÉctrica", null));
+
+        cache.get(iphone, this::load);
+        cache.get(bike, this::load);
+        assertEquals(4, loads.get());
+        assertEquals(4.0, registry.get("search.cache.hits").counter().count());
+        assertEquals(4.0, registry.get("search.cache.misses").counter().count());
+
+        clock = Clock.offset(clock, Duration.ofMinutes(2));
+        cache.get(iphone, this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void itemChangesEvictTheirCategoryAndUnscopedSearches() {
+        SearchResultCache cache = cache(10);
+        UUID sports = UUID.randomUUID();
+        UUID books = UUID.randomUUID();
+        cache.get(key("", sports), this::load);
+        cache.get(key("", books), this::load);
+        cache.get(key("bici", null), this::load);
+
+        cache.invalidateCategory(sports);
+
+        assertEquals(1, cache.size());
+        cache.get(key("", books), this::load);
+        assertEquals(3, loads.get());
+        cache.invalidateCategory(null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void responseComputedDuringInvalidationIsNotStored() {
+        SearchResultCache cache = cache(10);
+        cache.get(
+                key("bici", null),
+                () -> {
+                    cache.invalidateCategory(UUID.randomUUID());
+                    return load();
+                });
+
+        assertEquals(0, cache.size());
+    }
+
+    private SearchResultCache cache(int maxEntries) {
+        SearchProperties properties = new SearchProperties();
+        properties.setCacheMaxEntries(maxEntries);
+        properties.setCacheTtl(Duration.ofSeconds(60));
+        return new SearchResultCache(properties, registry, new DelegatingClock());
+    }
+
+    private SearchResultDto load() {
+        loads.incrementAndGet();
+        return new SearchResultDto();
+    }
+
+    private static SearchResultCache.Key key(String query, UUID categoryId) {
+        return SearchResultCache.Key.of(query, categoryId, null, null, null, 0, 10, false);
+    }
+
+    /** Reads the test's current clock so tests can move time forward. */
+    private final class DelegatingClock extends Clock {
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+    }
+}
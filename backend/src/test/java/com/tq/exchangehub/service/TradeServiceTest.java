@@ -0,0 +1,252 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tq.exchangehub.dto.CreateTradeRequest;
+import com.tq.exchangehub.dto.CursorPageDto;
+import com.tq.exchangehub.dto.TradeCountsDto;
+import com.tq.exchangehub.dto.TradeDto;
+import com.tq.exchangehub.dto.TradeStatusUpdateRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.OutboxEvent;
+import com.tq.exchangehub.entity.OutboxEventType;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.entity.TradeStatus;
+import com.tq.exchangehub.event.CompetingTradesRejectedEvent;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.OutboxEventRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+@SpringBootTest
+@Transactional
+class TradeServiceTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Profile ana;
+    private Profile bruno;
+    private Profile carla;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        carla = profile("Carla");
+        category = new Category();
+        category.setName("Bicicletas");
+        category = categoryRepository.save(category);
+    }
+
+    @Test
+    void inboxMergesOwnedAndRequestedTradesNewestFirst() {
+        Trade oldest = trade(ana, bruno, TradeStatus.PENDING, 1);
+        Trade requested = trade(carla, ana, TradeStatus.ACCEPTED, 2);
+        Trade tiedRequested = trade(bruno, ana, TradeStatus.PENDING, 3);
+        Trade tiedOwned = trade(ana, carla, TradeStatus.COMPLETED, 3);
+        Trade newest = trade(ana, bruno, TradeStatus.REJECTED, 5);
+        trade(bruno, carla, TradeStatus.PENDING, 6);
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            CursorPageDto<TradeDto> page = tradeService.findInbox(ana.getId(), List.of(), cursor, 2);
+            page.getItems().forEach(trade -> seen.add(trade.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(newest.getId(), seen.get(0));
+        assertEquals(Set.of(tiedRequested.getId(), tiedOwned.getId()), Set.copyOf(seen.subList(1, 3)));
+        assertEquals(List.of(requested.getId(), oldest.getId()), seen.subList(3, 5));
+    }
+
+    @Test
+    void inboxFiltersByStatusAndCountsEveryStatus() {
+        Trade pendingOwned = trade(ana, bruno, TradeStatus.PENDING, 1);
+        Trade pendingRequested = trade(carla, ana, TradeStatus.PENDING, 2);
+        trade(ana, carla, TradeStatus.COMPLETED, 3);
+        trade(bruno, ana, TradeStatus.CANCELLED, 4);
+        trade(bruno, carla, TradeStatus.ACCEPTED, 5);
+
+        CursorPageDto<TradeDto> pending =
+                tradeService.findInbox(ana.getId(), List.of(TradeStatus.PENDING), null, 10);
+        TradeCountsDto counts = tradeService.countTrades(ana.getId());
+
+        assertEquals(List.of(pendingRequested.getId(), pendingOwned.getId()), pending.getItems().stream()
+                .map(TradeDto::getId)
+                .toList());
+        assertNull(pending.getNextCursor());
+        assertEquals(2, counts.getPending());
+        assertEquals(0, counts.getAccepted());
+        assertEquals(1, counts.getCompleted());
+        assertEquals(1, counts.getCancelled());
+        assertEquals(4, counts.getTotal());
+        assertThrows(
+                IllegalArgumentException.class, () -> tradeService.findInbox(ana.getId(), List.of(), "nope", 10));
+    }
+
+    @Test
+    void transitionsCheckActorAndCurrentStatus() {
+        Trade trade = trade(ana, bruno, TradeStatus.PENDING, 1);
+
+        ResponseStatusException foreign = assertThrows(
+                ResponseStatusException.class,
+                () -> tradeService.updateStatus(trade.getId(), status(TradeStatus.ACCEPTED), carla.getId()));
+        TradeDto accepted = tradeService.updateStatus(trade.getId(), status(TradeStatus.ACCEPTED), ana.getId());
+        ResponseStatusException late = assertThrows(
+                ResponseStatusException.class, () -> tradeService.cancel(trade.getId(), bruno.getId()));
+        ResponseStatusException reopened = assertThrows(
+                ResponseStatusException.class,
+                () -> tradeService.updateStatus(trade.getId(), status(TradeStatus.PENDING), ana.getId()));
+        TradeDto completed = tradeService.updateStatus(trade.getId(), status(TradeStatus.COMPLETED), ana.getId());
+
+        assertEquals(HttpStatus.FORBIDDEN, foreign.getStatusCode());
+        assertEquals(TradeStatus.ACCEPTED, accepted.getStatus());
+        assertEquals(HttpStatus.CONFLICT, late.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, reopened.getStatusCode());
+        assertEquals(TradeStatus.COMPLETED, completed.getStatus());
+        assertEquals(2, tradeRepository.findById(trade.getId()).orElseThrow().getVersion());
+        assertThrows(
+                IllegalArgumentException.class, () -> tradeService.cancel(UUID.randomUUID(), bruno.getId()));
+    }
+
+    @Test
+    void acceptingRejectsCompetingOffersAndTakesTheItemsOffTheMarket() throws Exception {
+        Item bike = item(ana);
+        Item guitar = item(bruno);
+        Trade accepted = trade(ana, bruno, bike, guitar, TradeStatus.PENDING, 1);
+        Trade competingForBike = trade(ana, carla, bike, null, TradeStatus.PENDING, 2);
+        Trade competingForGuitar = trade(bruno, carla, guitar, null, TradeStatus.PENDING, 3);
+        Trade offeringGuitar = trade(carla, bruno, item(carla), guitar, TradeStatus.PENDING, 3);
+        Trade cancelled = trade(ana, carla, bike, null, TradeStatus.CANCELLED, 4);
+        Trade unrelated = trade(ana, carla, TradeStatus.PENDING, 5);
+
+        tradeService.updateStatus(accepted.getId(), status(TradeStatus.ACCEPTED), ana.getId());
+        entityManager.clear();
+
+        assertEquals(TradeStatus.ACCEPTED, statusOf(accepted));
+        assertEquals(TradeStatus.REJECTED, statusOf(competingForBike));
+        assertEquals(TradeStatus.REJECTED, statusOf(competingForGuitar));
+        assertEquals(TradeStatus.REJECTED, statusOf(offeringGuitar));
+        assertEquals(TradeStatus.CANCELLED, statusOf(cancelled));
+        assertEquals(TradeStatus.PENDING, statusOf(unrelated));
+        assertFalse(itemRepository.findById(bike.getId()).orElseThrow().getAvailable());
+        assertFalse(itemRepository.findById(guitar.getId()).orElseThrow().getAvailable());
+
+        List<OutboxEvent> events = outboxEventRepository.findDue(OffsetDateTime.now(), 100).stream()
+                .filter(event -> event.getAggregateId().equals(accepted.getId()))
+                .toList();
+        assertEquals(
+                List.of(OutboxEventType.TRADE_STATUS_CHANGED, OutboxEventType.COMPETING_TRADES_REJECTED),
+                events.stream().map(OutboxEvent::getType).toList());
+        CompetingTradesRejectedEvent rejected =
+                objectMapper.readValue(events.get(1).getPayload(), CompetingTradesRejectedEvent.class);
+        assertEquals(
+                Set.of(competingForBike.getId(), competingForGuitar.getId(), offeringGuitar.getId()),
+                rejected.rejections().stream().map(rejection -> rejection.trade().getId()).collect(Collectors.toSet()));
+        assertEquals(
+                Set.of(TradeStatus.REJECTED),
+                rejected.rejections().stream()
+                        .map(rejection -> rejection.trade().getStatus())
+                        .collect(Collectors.toSet()));
+
+        CreateTradeRequest request = new CreateTradeRequest();
+        request.setOwnerItemId(bike.getId());
+        ResponseStatusException gone =
+                assertThrows(ResponseStatusException.class, () -> tradeService.create(request, carla.getId()));
+        assertEquals(HttpStatus.CONFLICT, gone.getStatusCode());
+    }
+
+    private TradeStatus statusOf(Trade trade) {
+        return tradeRepository.findById(trade.getId()).orElseThrow().getStatus();
+    }
+
+    private static TradeStatusUpdateRequest status(TradeStatus status) {
+        TradeStatusUpdateRequest request = new TradeStatusUpdateRequest();
+        request.setStatus(status);
+        return request;
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+
+    private Item item(Profile owner) {
+        Item item = new Item();
+        item.setOwner(owner);
+        item.setCategory(category);
+        item.setTitle("Bicicleta de " + owner.getDisplayName());
+        item.setDescription("Rodado 29");
+        item.setCondition("Usado");
+        return itemRepository.save(item);
+    }
+
+    private Trade trade(Profile owner, Profile requester, TradeStatus status, int minutes) {
+        return trade(owner, requester, item(owner), null, status, minutes);
+    }
+
+    private Trade trade(
+            Profile owner, Profile requester, Item ownerItem, Item requesterItem, TradeStatus status, int minutes) {
+        Trade trade = new Trade();
+        trade.setOwner(owner);
+        trade.setRequester(requester);
+        trade.setOwnerItem(ownerItem);
+        trade.setRequesterItem(requesterItem);
+        trade.setStatus(status);
+        trade.setCreatedAt(START);
+        trade.setUpdatedAt(START.plusMinutes(minutes));
+        return tradeRepository.save(trade);
+    }
+}
@@ -0,0 +1,166 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.tq.exchangehub.dto.TradeDto;
+import com.tq.exchangehub.dto.TradeStatusUpdateRequest;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.entity.TradeStatus;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Not transactional on purpose: every transition has to commit in its own transaction to race. */
+@SpringBootTest
+class TradeTransitionConcurrencyTest {
+
+    private static final int TRADES = 20;
+    private static final int ATTEMPTS_PER_ACTION = 3;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Profile owner;
+    private Profile requester;
+    private Category category;
+    private final List<UUID> tradeIds = new ArrayList<>();
+    private final List<UUID> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = profile("Dueño");
+        requester = profile("Interesada");
+        category = new Category();
+        category.setName("Concurrencia");
+        category = categoryRepository.save(category);
+
+        for (int i = 0; i < TRADES; i++) {
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setCategory(category);
+            item.setTitle("Guitarra " + i);
+            item.setDescription("Criolla");
+            item.setCondition("Usado");
+            item = itemRepository.save(item);
+            itemIds.add(item.getId());
+
+            Trade trade = new Trade();
+            trade.setOwner(owner);
+            trade.setRequester(requester);
+            trade.setOwnerItem(item);
+            trade.setStatus(TradeStatus.PENDING);
+            tradeIds.add(tradeRepository.save(trade).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        tradeIds.forEach(id -> jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", id));
+        jdbcTemplate.update(
+                "DELETE FROM notifications WHERE recipient_id IN (?, ?)", owner.getId(), requester.getId());
+        tradeRepository.deleteAllById(tradeIds);
+        itemRepository.deleteAllById(itemIds);
+        profileRepository.deleteAllById(List.of(owner.getId(), requester.getId()));
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void concurrentTransitionsHaveExactlyOneWinnerPerTrade() throws Exception {
+        List<Callable<Void>> attempts = new ArrayList<>();
+        Map<UUID, List<TradeStatus>> winners = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        for (UUID tradeId : tradeIds) {
+            winners.put(tradeId, new CopyOnWriteArrayList<>());
+            for (int i = 0; i < ATTEMPTS_PER_ACTION; i++) {
+                for (TradeStatus target : List.of(TradeStatus.ACCEPTED, TradeStatus.REJECTED, TradeStatus.CANCELLED)) {
+                    attempts.add(() -> {
+                        start.await();
+                        try {
+                            TradeDto result = target == TradeStatus.CANCELLED
+                                    ? tradeService.cancel(tradeId, requester.getId())
+                                    : tradeService.updateStatus(tradeId, status(target), owner.getId());
+                            winners.get(tradeId).add(result.getStatus());
+                        } catch (ResponseStatusException ex) {
+                            assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = attempts.stream().map(executor::submit).toList();
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (UUID tradeId : tradeIds) {
+            List<TradeStatus> won = winners.get(tradeId);
+            assertEquals(1, won.size(), "winners of trade " + tradeId);
+            Trade trade = tradeRepository.findById(tradeId).orElseThrow();
+            assertEquals(won.get(0), trade.getStatus());
+            assertEquals(1, trade.getVersion());
+        }
+        assertEquals(attempts.size() - TRADES, conflicts.get());
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+
+    private static TradeStatusUpdateRequest status(TradeStatus status) {
+        TradeStatusUpdateRequest request = new TradeStatusUpdateRequest();
+        request.setStatus(status);
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.tq.exchangehub.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.tq.exchangehub.config.PresenceProperties;
+import com.tq.exchangehub.dto.TypingDto;
+import com.tq.exchangehub.entity.Category;
+import com.tq.exchangehub.entity.Item;
+import com.tq.exchangehub.entity.Profile;
+import com.tq.exchangehub.entity.Trade;
+import com.tq.exchangehub.repository.CategoryRepository;
+import com.tq.exchangehub.repository.ItemRepository;
+import com.tq.exchangehub.repository.ProfileRepository;
+import com.tq.exchangehub.repository.TradeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+@SpringBootTest
+@Transactional
+class TypingServiceTest {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Message<?>> sent = new ArrayList<>();
+    private Clock clock = Clock.fixed(Instant.parse("2030-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private Profile ana;
+    private Profile bruno;
+    private Trade trade;
+    private TypingService typingService;
+
+    @BeforeEach
+    void setUp() {
+        ana = profile("Ana");
+        bruno = profile("Bruno");
+        Category category = new Category();
+        category.setName("Juegos");
+        category = categoryRepository.save(category);
+
+        Item item = new Item();
+        item.setOwner(ana);
+        item.setCategory(category);
+        item.setTitle("Ajedrez");
+        item.setDescription("Piezas de madera");
+        item.setCondition("Usado");
+        item = itemRepository.save(item);
+
+        trade = new Trade();
+        trade.setOwner(ana);
+        trade.setRequester(bruno);
+        trade.setOwnerItem(item);
+        trade = tradeRepository.save(trade);
+
+        PresenceProperties properties = new PresenceProperties();
+        properties.setTypingBroadcastsPerSecond(4);
+        properties.setTypingTimeout(Duration.ofSeconds(6));
+        typingService = new TypingService(
+                tradeRepository,
+                new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+                properties,
+                registry,
+                new DelegatingClock());
+    }
+
+    @Test
+    void signalsWithinTheIntervalAreCoalescedIntoTheNextUpdate() {
+        typingService.signal(trade.getId(), "s1", ana.getId(), true);
+        typingService.signal(trade.getId(), "s2", bruno.getId(), true);
+        typingService.signal(trade.getId(), "s1", ana.getId(), false);
+        typingService.flush();
+        assertEquals(List.of(List.of(ana.getId())), broadcasts());
+
+        advance(Duration.ofMillis(250));
+        typingService.flush();
+        typingService.flush();
+
+        assertEquals(List.of(List.of(ana.getId()), List.of(bruno.getId())), broadcasts());
+        assertEquals(3.0, registry.get("presence.typing.signals").counter().count());
+        assertEquals(2.0, registry.get("presence.broadcasts").tag("type", "typing").counter().count());
+    }
+
+    @Test
+    void signalsExpireOrEndWithTheirSession() {
+        typingService.signal(trade.getId(), "s1", ana.getId(), true);
+        advance(Duration.ofSeconds(1));
+        typingService.signal(trade.getId(), "s2", bruno.getId(), true);
+
+        typingService.onDisconnect(disconnect("s2"));
+        typingService.flush();
+        advance(Duration.ofSeconds(5));
+        typingService.flush();
+
+        assertEquals(
+                List.of(List.of(ana.getId()), List.of(ana.getId(), bruno.getId()), List.of()),
+                broadcasts());
+        assertEquals(0.0, registry.get("presence.typing.conversations").gauge().value());
+    }
+
+    @Test
+    void participantsAreCheckedOncePerSession() {
+        ResponseStatusException outsider = assertThrows(
+                ResponseStatusException.class,
+                () -> typingService.signal(trade.getId(), "s3", UUID.randomUUID(), true));
+        assertEquals(HttpStatus.FORBIDDEN, outsider.getStatusCode());
+        assertTrue(sent.isEmpty());
+
+        typingService.signal(trade.getId(), "s1", ana.getId(), true);
+        tradeRepository.delete(trade);
+        tradeRepository.flush();
+
+        typingService.signal(trade.getId(), "s1", ana.getId(), false);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> typingService.signal(trade.getId(), "s2", bruno.getId(), true));
+    }
+
+    private List<List<UUID>> broadcasts() {
+        return sent.stream().map(message -> ((TypingDto) message.getPayload()).getTyping()).toList();
+    }
+
+    private void advance(Duration duration) {
+        clock = Clock.offset(clock, duration);
+    }
+
+    private static SessionDisconnectEvent disconnect(String sessionId) {
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], new MessageHeaders(Map.of()));
+        return new SessionDisconnectEvent(new Object(), message, sessionId, CloseStatus.NORMAL);
+    }
+
+    private Profile profile(String name) {
+        Profile profile = new Profile();
+        profile.setDisplayName(name);
+        return profileRepository.save(profile);
+    }
+
+    /** Reads the test's current clock so tests can move time forward. */
+    private final class DelegatingClock extends Clock {
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+    }
+}
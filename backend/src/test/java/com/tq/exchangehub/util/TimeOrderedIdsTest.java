@@ -0,0 +1,24 @@
+package com.tq.exchangehub.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdsTest {
+
+    @Test
+    void idsAreVersion7AndIncreaseInIssueOrder() {
+        long before = System.currentTimeMillis();
+        UUID previous = TimeOrderedIds.next();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = TimeOrderedIds.next();
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            assertTrue(next.compareTo(previous) > 0, "ids must increase");
+            previous = next;
+        }
+        assertTrue(previous.getMostSignificantBits() >>> 16 >= before);
+    }
+}